@@ -2,8 +2,10 @@ package com.majed.acadlink;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AcadlinkApplication {
 
 	public static void main(String[] args) {
@@ -10,10 +10,13 @@ import org.springframework.web.bind.annotation.RestController;
 import com.majed.acadlink.domain.entity.User;
 import com.majed.acadlink.dto.emailverification.EmailVerificationRequest;
 import com.majed.acadlink.dto.emailverification.EmailVerificationResponse;
+import com.majed.acadlink.dto.user.RefreshTokenDTO;
+import com.majed.acadlink.dto.user.TokenPairDTO;
 import com.majed.acadlink.exception.EmailVerificationException;
 import com.majed.acadlink.exception.ResourceNotFoundException;
 import com.majed.acadlink.exception.VerificationCodeException;
 import com.majed.acadlink.service.EmailService;
+import com.majed.acadlink.service.PublicService;
 import com.majed.acadlink.service.UserService;
 import com.majed.acadlink.service.VerificationCodeService;
 
@@ -35,6 +38,7 @@ import lombok.extern.slf4j.Slf4j;
  * - VerificationCodeService: Manages OTP generation and validation
  * - EmailService: Handles sending verification emails
  * - UserService: Manages user data and verification status
+ * - PublicService: Re-issues tokens once the verification status changed
  *
  * <p>The controller enforces email verification as a security measure to ensure
  * that users have access to the email addresses they register with. This helps
@@ -56,6 +60,7 @@ public class EmailVerificationController {
     private final VerificationCodeService verificationCodeService;
     private final EmailService emailService;
     private final UserService userService;
+    private final PublicService publicService;
 
     /**
      * Verifies a user's email address using the provided OTP code.
@@ -201,6 +206,38 @@ public class EmailVerificationController {
         }
     }
 
+    /**
+     * Re-issues the caller's tokens so that they carry the current verification status.
+     * Tokens embed the email verification status, so a token obtained before
+     * {@code /auth/verify-email} keeps being treated as unverified until it is replaced.
+     * The caller's earlier access tokens are revoked and the refresh token is rotated.
+     *
+     * @param request the request holding the caller's refresh token
+     * @return ResponseEntity containing:
+     *         - 200 OK with the new access token and refresh token
+     *         - 401 Unauthorized if the request carries no valid token or refresh token
+     *         - 404 Not Found if the user no longer exists
+     *         - 503 Service Unavailable if the refresh token cannot be rotated
+     */
+    @Operation(
+        summary = "Re-issue token",
+        description = "Issues a new token pair carrying the caller's current email verification status, " +
+                     "revokes the caller's earlier access tokens and rotates the presented refresh token. " +
+                     "Call this after verifying the email.",
+        tags = {"2. Email Verification"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Token re-issued successfully"),
+        @ApiResponse(responseCode = "401", description = "Missing or invalid token or refresh token"),
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "503", description = "Token service unavailable")
+    })
+    @PostMapping("/reissue-token")
+    public ResponseEntity<com.majed.acadlink.dto.ApiResponse<TokenPairDTO>> reissueToken(
+            @RequestBody RefreshTokenDTO request) {
+        return publicService.reissueToken(request);
+    }
+
     /**
      * Validates that a user exists with the given email and that the email is not already verified.
      *
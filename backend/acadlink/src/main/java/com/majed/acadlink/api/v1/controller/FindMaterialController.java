@@ -10,7 +10,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.CursorPageDTO;
 import com.majed.acadlink.dto.material.MaterialResponseDTO;
+import com.majed.acadlink.dto.material.MaterialSearchPageDTO;
+import com.majed.acadlink.enums.MaterialType;
+import com.majed.acadlink.enums.Privacy;
 import com.majed.acadlink.service.FindMaterialsService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,17 +31,33 @@ public class FindMaterialController {
 
     @Operation(summary = "Search Materials with keywords", tags = "6. Find Materials")
     @GetMapping(value = "/search-materials")
-    public ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> searchMaterials(
-            @RequestParam String keyWords
+    public ResponseEntity<ApiResponse<MaterialSearchPageDTO>> searchMaterials(
+            @RequestParam String keyWords,
+            @RequestParam(required = false) MaterialType type,
+            @RequestParam(required = false) Privacy privacy,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize
     ) {
-        return findMaterialsService.searchMaterials(keyWords);
+        return findMaterialsService.searchMaterials(keyWords, type, privacy, fuzzy, cursor, pageSize);
+    }
+
+    @Operation(summary = "Suggest material names for a typed prefix", tags = "6. Find Materials")
+    @GetMapping(value = "/search-materials/suggest")
+    public ResponseEntity<ApiResponse<List<String>>> suggestMaterials(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return findMaterialsService.suggestMaterialNames(prefix, limit);
     }
 
     @Operation(summary = "View Materilas of Peers", tags = "6. Find Materials")
     @GetMapping(value = "/view-peers-materials/{peers-user-id}")
-    public ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> viewPeersMaterials(
-            @PathVariable("peers-user-id") UUID peersUserId
+    public ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> viewPeersMaterials(
+            @PathVariable("peers-user-id") UUID peersUserId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize
     ) {
-        return findMaterialsService.findPeerMaterials(peersUserId);
+        return findMaterialsService.findPeerMaterials(peersUserId, cursor, pageSize);
     }
 }
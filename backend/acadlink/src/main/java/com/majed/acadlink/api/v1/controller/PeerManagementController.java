@@ -3,19 +3,29 @@ package com.majed.acadlink.api.v1.controller;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.CursorPageDTO;
+import com.majed.acadlink.dto.peers.BulkPeerActionDTO;
+import com.majed.acadlink.dto.peers.BulkPeerResultDTO;
 import com.majed.acadlink.dto.peers.PeerInfoDTO;
+import com.majed.acadlink.dto.peers.PeerSuggestionDTO;
 import com.majed.acadlink.dto.peers.SearchResultDTO;
 import com.majed.acadlink.enums.ReqType;
+import com.majed.acadlink.service.PeerEventService;
+import com.majed.acadlink.service.PeerSuggestionService;
 import com.majed.acadlink.service.PeersManagementService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -32,27 +42,38 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "7. Peer Management", description = "Endpoints to manage peers and search for users")
 public class PeerManagementController {
     private final PeersManagementService peersManagementService;
+    private final PeerSuggestionService peerSuggestionService;
+    private final PeerEventService peerEventService;
 
     /**
      * Constructor for PeerManagementController.
      *
      * @param peersManagementService the peers management service
+     * @param peerSuggestionService  the peer suggestion service
+     * @param peerEventService       the peer event stream service
      */
     public PeerManagementController(
-            PeersManagementService peersManagementService) {
+            PeersManagementService peersManagementService,
+            PeerSuggestionService peerSuggestionService,
+            PeerEventService peerEventService) {
         this.peersManagementService = peersManagementService;
+        this.peerSuggestionService = peerSuggestionService;
+        this.peerEventService = peerEventService;
     }
 
     /**
-     * Searches for users based on the provided entry.
+     * Searches for users by username, first or last name prefix, or exact email.
      *
      * @param entry the search entry
+     * @param limit the maximum number of results, or null for the default
      * @return the response entity containing the search results or an error status
      */
     @Operation(summary = "Search users", tags = {"7. Peer Management"})
     @GetMapping("search-user/{entry}")
-    public ResponseEntity<ApiResponse<List<SearchResultDTO>>> searchUsers(@PathVariable String entry) {
-        return peersManagementService.searchUsers(entry);
+    public ResponseEntity<ApiResponse<List<SearchResultDTO>>> searchUsers(
+            @PathVariable String entry,
+            @RequestParam(required = false) Integer limit) {
+        return peersManagementService.searchUsers(entry, limit);
     }
 
     /**
@@ -92,14 +113,69 @@ public class PeerManagementController {
     }
 
     /**
-     * Retrieves the list of peers for the authenticated user.
+     * Accepts, rejects or removes many peer requests at once.
      *
-     * @return the response entity containing the list of peers or an error status
+     * @param request the action and the IDs of the requests to apply it to
+     * @return the response entity containing the result for each request ID or an error status
+     */
+    @Operation(summary = "Apply an action to many peer requests", tags = {"7. Peer Management"})
+    @PostMapping("bulk-peer-action")
+    public ResponseEntity<ApiResponse<List<BulkPeerResultDTO>>> applyBulkAction(
+            @RequestBody BulkPeerActionDTO request) {
+        return peersManagementService.applyBulkAction(request);
+    }
+
+    /**
+     * Retrieves one page of peers of the authenticated user, ordered by username.
+     *
+     * @param cursor   the continuation token from the previous page, or null for the first page
+     * @param pageSize the maximum number of results, or null for the default
+     * @return the response entity containing one page of peers or an error status
      */
     @Operation(summary = "Get peers", tags = {"7. Peer Management"})
     @GetMapping("get-peers")
-    public ResponseEntity<ApiResponse<List<PeerInfoDTO>>> getPeers() {
-        return peersManagementService.findPeers();
+    public ResponseEntity<ApiResponse<CursorPageDTO<PeerInfoDTO>>> getPeers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize) {
+        return peersManagementService.findPeers(cursor, pageSize);
+    }
+
+    /**
+     * Suggests users the authenticated user may know, ranked by mutual peers.
+     *
+     * @param limit the maximum number of suggestions, or null for the default
+     * @return the response entity containing the suggestions or an error status
+     */
+    @Operation(summary = "Get peer suggestions", tags = {"7. Peer Management"})
+    @GetMapping("suggestions")
+    public ResponseEntity<ApiResponse<List<PeerSuggestionDTO>>> getSuggestions(
+            @RequestParam(required = false) Integer limit) {
+        return peerSuggestionService.getSuggestions(limit);
+    }
+
+    /**
+     * Issues a one-minute token that opens the event stream from a browser EventSource,
+     * which cannot send the Authorization header.
+     *
+     * @return the response entity containing the stream token or an error status
+     */
+    @Operation(summary = "Get peer event stream token", tags = {"7. Peer Management"})
+    @PostMapping("events/token")
+    public ResponseEntity<ApiResponse<String>> streamToken() {
+        return peerEventService.streamToken();
+    }
+
+    /**
+     * Opens a server-sent event stream of the requests received, accepted and removed for the
+     * authenticated user. Authenticated by the Authorization header, or by a stream token in the
+     * token query parameter.
+     *
+     * @return the response entity containing the event stream or an error status
+     */
+    @Operation(summary = "Stream peer events", tags = {"7. Peer Management"})
+    @GetMapping(value = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        return peerEventService.subscribe();
     }
 
     /**
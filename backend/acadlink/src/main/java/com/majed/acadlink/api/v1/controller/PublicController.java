@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.user.RefreshTokenDTO;
+import com.majed.acadlink.dto.user.TokenPairDTO;
 import com.majed.acadlink.dto.user.UserLoginDTO;
 import com.majed.acadlink.dto.user.UserSignUpDTO;
 import com.majed.acadlink.service.PublicService;
@@ -52,14 +54,38 @@ public class PublicController {
      * Logs in a user.
      *
      * @param userData the user data for login
-     * @return the response entity containing the JWT token or an error status
+     * @return the response entity containing the access and refresh tokens or an error status
      */
     @Operation(summary = "Log in a user", tags = {"1. Public"})
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<String>> logIn(@RequestBody UserLoginDTO userData) {
+    public ResponseEntity<ApiResponse<TokenPairDTO>> logIn(@RequestBody UserLoginDTO userData) {
         return publicService.login(userData);
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and refresh token.
+     *
+     * @param request the request holding the refresh token
+     * @return the response entity containing the new token pair or an error status
+     */
+    @Operation(summary = "Refresh the access token", tags = {"1. Public"})
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<TokenPairDTO>> refresh(@RequestBody RefreshTokenDTO request) {
+        return publicService.refresh(request);
+    }
+
+    /**
+     * Logs out a session by revoking its refresh token and latest access token.
+     *
+     * @param request the request holding the refresh token
+     * @return the response entity indicating success or an error status
+     */
+    @Operation(summary = "Log out a session", tags = {"1. Public"})
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Boolean>> logOut(@RequestBody RefreshTokenDTO request) {
+        return publicService.logout(request);
+    }
+
     /**
      * Checks if a username exists.
      *
@@ -0,0 +1,49 @@
+package com.majed.acadlink.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for server-sent event streams.
+ * This class holds the Redis channel events are fanned out on, how long a stream stays open,
+ * how often it is kept alive and how many streams one user may hold.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "acadlink.events")
+@Getter
+@Setter
+public class EventsConfig {
+    /**
+     * Configuration for the peer request event stream.
+     */
+    private Peers peers = new Peers();
+
+    @Getter
+    @Setter
+    public static class Peers {
+        /**
+         * Redis pub/sub channel every instance publishes and listens to.
+         */
+        private String channel = "peers:events";
+
+        /**
+         * How long a stream stays open before the client has to reconnect.
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        /**
+         * Interval between heartbeat comments sent on every open stream.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /**
+         * Upper bound on the open streams of one user on one instance; the oldest is closed first.
+         */
+        private int maxStreamsPerUser = 5;
+    }
+}
@@ -0,0 +1,28 @@
+package com.majed.acadlink.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for password hashing.
+ * This class holds the size of the executor password hashes run on and how many hashes may
+ * wait for it before further requests are rejected.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "acadlink.password-hashing")
+@Getter
+@Setter
+public class PasswordHashingConfig {
+    /**
+     * Number of threads hashing passwords; the rest of the cores stay free for other requests.
+     */
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Upper bound on hashes waiting for a thread; past it, requests are rejected immediately.
+     */
+    private int queueCapacity = 64;
+}
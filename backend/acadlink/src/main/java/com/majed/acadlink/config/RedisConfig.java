@@ -0,0 +1,59 @@
+package com.majed.acadlink.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.majed.acadlink.service.IndexSyncService;
+import com.majed.acadlink.service.PeerEventService;
+import com.majed.acadlink.service.TokenRevocationService;
+
+/**
+ * Redis pub/sub configuration.
+ * Subscribes the peer event service to the channel events are fanned out on, so an event
+ * published by any instance reaches the streams open on this one, the token revocation
+ * service to the channel revoked token IDs are published on, and the index sync service to the
+ * channels peer and material changes are published on.
+ */
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Creates the listener container delivering peer events, token revocations and index changes
+     * published by any instance. Messages are dispatched on virtual threads, so a slow stream never holds a
+     * platform thread.
+     *
+     * @param connectionFactory      the Redis connection factory
+     * @param peerEventService       the service relaying events to local streams
+     * @param eventsConfig           the event configuration holding the channel name
+     * @param tokenRevocationService the service tracking revoked token IDs
+     * @param indexSyncService       the service applying index changes made on other instances
+     * @param searchConfig           the search configuration holding the index channel names
+     * @return the listener container
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       PeerEventService peerEventService,
+                                                                       EventsConfig eventsConfig,
+                                                                       TokenRevocationService tokenRevocationService,
+                                                                       IndexSyncService indexSyncService,
+                                                                       SearchConfig searchConfig) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("redis-events-");
+        executor.setVirtualThreads(true);
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(executor);
+        container.addMessageListener(peerEventService, new ChannelTopic(eventsConfig.getPeers().getChannel()));
+        container.addMessageListener(tokenRevocationService, new ChannelTopic(tokenRevocationService.getChannel()));
+        container.addMessageListener(indexSyncService, List.of(
+                new ChannelTopic(searchConfig.getIndex().getPeersChannel()),
+                new ChannelTopic(searchConfig.getIndex().getMaterialsChannel())));
+        return container;
+    }
+}
@@ -0,0 +1,31 @@
+package com.majed.acadlink.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduling configuration.
+ * Spring's default scheduler has a single thread, so one slow job (a full suggestion refresh or
+ * an index rebuild) would delay the SSE heartbeats and the token revocation refresh behind it.
+ * The scheduler used by every {@code @Scheduled} method gets a small pool instead.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    /**
+     * Creates the scheduler running the {@code @Scheduled} jobs, with the other
+     * {@code spring.task.scheduling.*} settings applied by the builder.
+     *
+     * @param builder  the builder configured from the scheduling properties
+     * @param poolSize the number of jobs that may run at once
+     * @return the task scheduler
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                 @Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        return builder.poolSize(poolSize).build();
+    }
+}
@@ -0,0 +1,295 @@
+package com.majed.acadlink.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for search settings.
+ * This class holds the page sizes applied to search and listing endpoints, the typeahead
+ * limits, the fuzzy matching bounds, the result cache settings, the peer suggestion ranking and
+ * how the in-memory indexes are kept in step across instances.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "acadlink.search")
+@Getter
+@Setter
+public class SearchConfig {
+    /**
+     * Configuration for material search.
+     */
+    private Materials materials = new Materials();
+
+    /**
+     * Configuration for the paged peers list and bulk peer actions.
+     */
+    private Peers peers = new Peers();
+
+    /**
+     * Configuration for user search in peer discovery.
+     */
+    private Users users = new Users();
+
+    /**
+     * Configuration for "people you may know" suggestions.
+     */
+    private PeerSuggestions peerSuggestions = new PeerSuggestions();
+
+    /**
+     * Configuration for material name typeahead.
+     */
+    private Suggest suggest = new Suggest();
+
+    /**
+     * Configuration for typo-tolerant material search.
+     */
+    private Fuzzy fuzzy = new Fuzzy();
+
+    /**
+     * Configuration for the Redis search result cache.
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Configuration for keeping the in-memory search indexes of all instances current.
+     */
+    private Index index = new Index();
+
+    @Getter
+    @Setter
+    public static class Peers {
+        /**
+         * Number of peers per page when the caller does not supply a page size.
+         */
+        private int defaultPageSize = 20;
+
+        /**
+         * Upper bound on the page size a caller may request.
+         */
+        private int maxPageSize = 100;
+
+        /**
+         * Upper bound on the number of requests one bulk action may change.
+         */
+        private int maxBulkSize = 100;
+
+        /**
+         * Clamps a caller-supplied page size into the configured range.
+         *
+         * @param requested the requested page size, or null for the default
+         * @return the effective page size
+         */
+        public int resolvePageSize(Integer requested) {
+            if (requested == null || requested <= 0) {
+                return defaultPageSize;
+            }
+            return Math.min(requested, maxPageSize);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Users {
+        /**
+         * Number of users returned when the caller does not supply a limit.
+         */
+        private int defaultLimit = 20;
+
+        /**
+         * Upper bound on the number of users a caller may request.
+         */
+        private int maxLimit = 50;
+
+        /**
+         * Number of matches read from the database and ranked; the page is the top of this pool.
+         */
+        private int candidatePool = 200;
+
+        /**
+         * Number of candidates per request whose mutual peers are counted; the rest are ranked
+         * without that signal and returned without a count.
+         */
+        private int maxMutualCounts = 100;
+
+        /**
+         * Clamps a caller-supplied limit into the configured range.
+         *
+         * @param requested the requested limit, or null for the default
+         * @return the effective limit
+         */
+        public int resolveLimit(Integer requested) {
+            if (requested == null || requested <= 0) {
+                return defaultLimit;
+            }
+            return Math.min(requested, maxLimit);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class PeerSuggestions {
+        /**
+         * Number of suggestions returned when the caller does not supply a limit.
+         */
+        private int defaultLimit = 10;
+
+        /**
+         * Upper bound on the number of suggestions a caller may request.
+         */
+        private int maxLimit = 50;
+
+        /**
+         * Number of ranked candidates kept per user, leaving room for candidates that become
+         * peers or are sent a request before the next refresh.
+         */
+        private int storedSize = 100;
+
+        /**
+         * Score added to a candidate from the user's institute, in units of mutual peers.
+         */
+        private double sameInstituteBoost = 2.0;
+
+        /**
+         * How long a stored ranking is kept for a user whose edges stop changing.
+         */
+        private Duration ttl = Duration.ofDays(2);
+
+        /**
+         * Clamps a caller-supplied limit into the configured range.
+         *
+         * @param requested the requested limit, or null for the default
+         * @return the effective limit
+         */
+        public int resolveLimit(Integer requested) {
+            if (requested == null || requested <= 0) {
+                return defaultLimit;
+            }
+            return Math.min(requested, maxLimit);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Suggest {
+        /**
+         * Number of completions returned when the caller does not supply a limit.
+         */
+        private int defaultLimit = 10;
+
+        /**
+         * Upper bound on the number of completions a caller may request.
+         */
+        private int maxLimit = 20;
+
+        /**
+         * Upper bound on the keys examined per scope, keeping one-letter prefixes cheap.
+         */
+        private int maxScan = 2000;
+
+        /**
+         * Clamps a caller-supplied limit into the configured range.
+         *
+         * @param requested the requested limit, or null for the default
+         * @return the effective limit
+         */
+        public int resolveLimit(Integer requested) {
+            if (requested == null || requested <= 0) {
+                return defaultLimit;
+            }
+            return Math.min(requested, maxLimit);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Fuzzy {
+        /**
+         * Maximum edit distance between a keyword term and a name word; terms of five
+         * characters or fewer allow at most one edit regardless.
+         */
+        private int maxEditDistance = 2;
+
+        /**
+         * How long candidate verification may run before the page is returned as found so far.
+         */
+        private Duration latencyBudget = Duration.ofMillis(50);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        /**
+         * Whether search pages are cached in Redis.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long an unreachable page is kept before Redis reclaims it.
+         * Invalidation does not rely on this; stale pages are never read after a version bump.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Index {
+        /**
+         * Redis pub/sub channel peer pair changes are published on.
+         */
+        private String peersChannel = "index:peers";
+
+        /**
+         * Redis pub/sub channel material changes are published on.
+         */
+        private String materialsChannel = "index:materials";
+
+        /**
+         * Interval between full rebuilds of the indexes from the database, which repair changes
+         * whose message was lost while an instance was disconnected from Redis.
+         */
+        private Duration rebuildInterval = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Materials {
+        /**
+         * Number of results per page when the caller does not supply a page size.
+         */
+        private int defaultPageSize = 20;
+
+        /**
+         * Upper bound on the page size a caller may request.
+         */
+        private int maxPageSize = 100;
+
+        /**
+         * Minimum time between two snapshots of the ranking statistics (document frequencies and
+         * average name length); changes to the index reach the scores at most this late.
+         */
+        private Duration statisticsInterval = Duration.ofMinutes(1);
+
+        /**
+         * How long a replaced statistics snapshot is kept, so that cursors scored with it can
+         * still be resumed; older cursors are rejected and the search has to restart.
+         */
+        private Duration statisticsRetention = Duration.ofMinutes(30);
+
+        /**
+         * Clamps a caller-supplied page size into the configured range.
+         *
+         * @param requested the requested page size, or null for the default
+         * @return the effective page size
+         */
+        public int resolvePageSize(Integer requested) {
+            if (requested == null || requested <= 0) {
+                return defaultPageSize;
+            }
+            return Math.min(requested, maxPageSize);
+        }
+    }
+}
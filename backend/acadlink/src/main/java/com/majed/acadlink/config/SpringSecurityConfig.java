@@ -11,9 +11,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.majed.acadlink.utility.BoundedPasswordEncoder;
 import com.majed.acadlink.utility.EmailVerificationFilter;
 import com.majed.acadlink.utility.JWTFilter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Spring Security configuration for the application.
  * This configuration:
@@ -89,9 +92,18 @@ public class SpringSecurityConfig {
                 .build();
     }
 
+    /**
+     * Creates the password encoder used for sign-up and login. BCrypt hashes run on a
+     * dedicated, size-limited executor instead of the request threads.
+     *
+     * @param passwordHashingConfig the configuration holding the executor's size and queue capacity
+     * @param meterRegistry         the registry the hashing metrics are published to
+     * @return the password encoder
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingConfig passwordHashingConfig, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingConfig.getThreads(),
+                passwordHashingConfig.getQueueCapacity(), meterRegistry);
     }
 
     @Bean
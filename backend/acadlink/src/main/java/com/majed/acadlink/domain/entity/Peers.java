@@ -6,8 +6,21 @@ import lombok.Data;
 
 import java.util.UUID;
 
+/**
+ * A peer relationship between two users.
+ * user1 is the user who sent the request and user2 the one who received it. The pair is
+ * also stored in canonical order, lower user ID first, under a unique key, so a pair has
+ * at most one row whichever side asked and is found with one index seek. The reverse index
+ * finds the pairs in which a user holds the higher ID, as the unique key does for the lower.
+ */
 @Entity
-@Table(name = "peers")
+@Table(name = "peers",
+        uniqueConstraints = @UniqueConstraint(name = "uk_peers_pair", columnNames = {"low_user_id", "high_user_id"}),
+        indexes = {
+                @Index(name = "idx_peers_user1_status", columnList = "user1_id, status"),
+                @Index(name = "idx_peers_user2_status", columnList = "user2_id, status"),
+                @Index(name = "idx_peers_pair_reverse", columnList = "high_user_id, low_user_id")
+        })
 @Data
 public class Peers {
     @Id
@@ -22,7 +35,47 @@ public class Peers {
     @JoinColumn(name = "user2_id", nullable = false)
     private User user2;
 
+    // Nullable only for rows stored before the pair key existed, until PeerPairKeyBackfill fills them in;
+    // acadlink_schema.sql has the follow-up that makes the columns NOT NULL once it has run
+    @Column(name = "low_user_id")
+    private UUID lowUserId;
+
+    @Column(name = "high_user_id")
+    private UUID highUserId;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private PeerStatus status = PeerStatus.PENDING;
+
+    /**
+     * Returns the lower of two user IDs, the first half of their pair key.
+     *
+     * @param userId      one user's ID
+     * @param otherUserId the other user's ID
+     * @return the lower ID
+     */
+    public static UUID lowOf(UUID userId, UUID otherUserId) {
+        return userId.compareTo(otherUserId) <= 0 ? userId : otherUserId;
+    }
+
+    /**
+     * Returns the higher of two user IDs, the second half of their pair key.
+     *
+     * @param userId      one user's ID
+     * @param otherUserId the other user's ID
+     * @return the higher ID
+     */
+    public static UUID highOf(UUID userId, UUID otherUserId) {
+        return userId.compareTo(otherUserId) <= 0 ? otherUserId : userId;
+    }
+
+    /**
+     * Derives the pair key from the two users.
+     */
+    @PrePersist
+    @PreUpdate
+    public void assignPairKey() {
+        this.lowUserId = lowOf(user1.getId(), user2.getId());
+        this.highUserId = highOf(user1.getId(), user2.getId());
+    }
 }
@@ -2,6 +2,7 @@ package com.majed.acadlink.domain.entity;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 import org.hibernate.annotations.CreationTimestamp;
@@ -14,16 +15,27 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 
 /**
  * Users table.
- * Email, username has to be unique
+ * Email, username has to be unique.
+ * The institute is also stored as a normalized, indexed key so institutional
+ * visibility is an equality lookup instead of a function over the column.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_institute_key", columnList = "institute_key"),
+        @Index(name = "idx_users_first_name", columnList = "first_name"),
+        @Index(name = "idx_users_last_name", columnList = "last_name")
+})
 @Data
 public class User {
     @Id
@@ -48,6 +60,10 @@ public class User {
     @Column(nullable = false)
     private String institute;
 
+    @Column(name = "institute_key", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private String instituteKey;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDate createdAt;
@@ -74,4 +90,25 @@ public class User {
         this.username = username;
         this.password = password;
     }
+
+    /**
+     * Normalizes an institute name for equality checks, ignoring spaces and case.
+     *
+     * @param institute the raw institute name
+     * @return the normalized institute key
+     */
+    public static String instituteKeyOf(String institute) {
+        return institute == null ? "" : institute.replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    public void setInstitute(String institute) {
+        this.institute = institute;
+        this.instituteKey = instituteKeyOf(institute);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeInstituteKey() {
+        this.instituteKey = instituteKeyOf(institute);
+    }
 }
@@ -1,13 +1,17 @@
 package com.majed.acadlink.domain.repository;
 
 import com.majed.acadlink.domain.entity.Materials;
+import com.majed.acadlink.dto.material.MaterialIndexEntryDTO;
 import com.majed.acadlink.enums.MaterialType;
 import com.majed.acadlink.enums.Privacy;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface MaterialsRepo extends JpaRepository<Materials, UUID> {
@@ -15,39 +19,36 @@ public interface MaterialsRepo extends JpaRepository<Materials, UUID> {
 
     List<Materials> findByType(MaterialType type);
 
-    // Search for public materials
-    @Query("SELECT m FROM Materials m WHERE m.privacy = :privacy " +
-            "AND LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Materials> searchPublicMaterials(@Param("keyword") String keyword,
-                                          @Param("privacy") Privacy privacy);
-
-    // Search institutional materials
-    @Query("SELECT m FROM Materials m " +
-            "JOIN m.folder f JOIN f.user u " +
-            "WHERE m.privacy = :privacy " +
-            "AND LOWER(REPLACE(u.institute, ' ', '')) = LOWER(REPLACE(:institute, ' ', '')) " +
-            "AND LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Materials> searchInstitutionalMaterials(@Param("keyword") String keyword,
-                                                 @Param("institute") String institute,
-                                                 @Param("privacy") Privacy privacy);
-
-    // Search peer-shared materials
-    @Query("SELECT m FROM Materials m " +
-            "JOIN Peers p ON (p.user1.id = :userId OR p.user2.id = :userId) " +
-            "WHERE m.privacy = :privacy AND p.status = 'ACCEPTED' " +
-            "AND LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Materials> searchPeerMaterials(@Param("keyword") String keyword,
-                                        @Param("userId") UUID userId,
-                                        @Param("privacy") Privacy privacy);
-
-    // Find all materials given userId and privacy is PUBLIC, PEERS or INSTITUTIONAL
-    @Query("SELECT m FROM Materials m " +
-            "JOIN m.folder f JOIN f.user u " +
-            "LEFT JOIN Peers p ON (p.user1.id = :userId OR p.user2.id = :userId) " +
-            "WHERE (m.privacy = com.majed.acadlink.enums.Privacy.PUBLIC OR " +
-            "(m.privacy = com.majed.acadlink.enums.Privacy.PEERS AND p.status = 'ACCEPTED') OR " +
-            "(m.privacy = com.majed.acadlink.enums.Privacy.INSTITUTIONAL AND LOWER(REPLACE(u.institute, ' ', '')) = LOWER(REPLACE(:institute, ' ', '')))) " +
-            "AND u.id = :userId")
-    List<Materials> findAllByUserIdAndPrivacy(@Param("userId") UUID userId,
-                                              @Param("institute") String institute);
+    // Snapshot of every material with its owner, used to build the search index
+    @Query("SELECT new com.majed.acadlink.dto.material.MaterialIndexEntryDTO(" +
+            "m.id, m.name, m.type, m.privacy, u.id, u.instituteKey) " +
+            "FROM Materials m JOIN m.folder f JOIN f.user u")
+    List<MaterialIndexEntryDTO> findAllIndexEntries();
+
+    // One material with its owner, used to apply a change made on another instance to the search index
+    @Query("SELECT new com.majed.acadlink.dto.material.MaterialIndexEntryDTO(" +
+            "m.id, m.name, m.type, m.privacy, u.id, u.instituteKey) " +
+            "FROM Materials m JOIN m.folder f JOIN f.user u WHERE m.id = :id")
+    Optional<MaterialIndexEntryDTO> findIndexEntry(@Param("id") UUID id);
+
+    // First page of a peer's materials with one of the given privacies, ordered by (name, id).
+    // Callers must already have verified that the viewer and the owner are accepted peers and
+    // resolved which privacies the viewer may see; the owner is matched on the folder's user_id column.
+    @Query("SELECT m FROM Materials m JOIN m.folder f " +
+            "WHERE f.user.id = :userId AND m.privacy IN :privacies " +
+            "ORDER BY m.name, m.id")
+    List<Materials> findPeerMaterialsPage(@Param("userId") UUID userId,
+                                          @Param("privacies") Collection<Privacy> privacies,
+                                          Limit limit);
+
+    // Next page of a peer's visible materials, seeking past (afterName, afterId) instead of using OFFSET
+    @Query("SELECT m FROM Materials m JOIN m.folder f " +
+            "WHERE f.user.id = :userId AND m.privacy IN :privacies " +
+            "AND (m.name > :afterName OR (m.name = :afterName AND m.id > :afterId)) " +
+            "ORDER BY m.name, m.id")
+    List<Materials> findPeerMaterialsPageAfter(@Param("userId") UUID userId,
+                                               @Param("privacies") Collection<Privacy> privacies,
+                                               @Param("afterName") String afterName,
+                                               @Param("afterId") UUID afterId,
+                                               Limit limit);
 }
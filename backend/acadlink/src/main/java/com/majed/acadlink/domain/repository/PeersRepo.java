@@ -1,18 +1,152 @@
 package com.majed.acadlink.domain.repository;
 
 import com.majed.acadlink.domain.entity.Peers;
+import com.majed.acadlink.dto.peers.PeerInfoDTO;
+import com.majed.acadlink.dto.peers.PeerPairDTO;
+import com.majed.acadlink.dto.peers.PeerRequestRowDTO;
+import com.majed.acadlink.dto.peers.PeerStatusDTO;
 import com.majed.acadlink.enums.PeerStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface PeersRepo extends JpaRepository<Peers, UUID> {
-    Peers findByUser1IdAndUser2IdOrUser2IdAndUser1Id(UUID user1Id, UUID user2Id, UUID user2IdAlt, UUID user1IdAlt);
+    Peers findByLowUserIdAndHighUserId(UUID lowUserId, UUID highUserId);
 
-    List<Peers> findByUser1IdAndStatus(UUID user1Id, PeerStatus status);
+    /**
+     * Finds the relationship between two users, whichever of them sent the request, with one
+     * seek on the pair key.
+     *
+     * @param userId      one user's ID
+     * @param otherUserId the other user's ID
+     * @return the relationship, or null when there is none
+     */
+    default Peers findPair(UUID userId, UUID otherUserId) {
+        return findByLowUserIdAndHighUserId(Peers.lowOf(userId, otherUserId), Peers.highOf(userId, otherUserId));
+    }
 
-    List<Peers> findByUser2IdAndStatus(UUID user1Id, PeerStatus status);
+    // Sends a request unless the pair already has a row. The row count cannot tell the two apart: with the
+    // driver's default found-rows mode a duplicate left unchanged counts as 1, so callers re-read the pair
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO peers (id, user1_id, user2_id, low_user_id, high_user_id, status) " +
+            "VALUES (:id, :user1Id, :user2Id, :lowUserId, :highUserId, 'PENDING') " +
+            "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    void insertRequestIfAbsent(@Param("id") UUID id,
+                               @Param("user1Id") UUID user1Id,
+                               @Param("user2Id") UUID user2Id,
+                               @Param("lowUserId") UUID lowUserId,
+                               @Param("highUserId") UUID highUserId);
 
-    List<Peers> findByUser1IdOrUser2IdAndStatus(UUID userId1, UUID userId2, PeerStatus status);
+    // Both sides and the status of each of the given relationships, without loading either user.
+    // The rows are locked (SELECT ... FOR UPDATE) until the caller's transaction ends, so they cannot
+    // change between this read and the caller's update or delete.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.majed.acadlink.dto.peers.PeerRequestRowDTO(p.id, p.user1.id, p.user2.id, p.status) " +
+            "FROM Peers p WHERE p.id IN :ids")
+    List<PeerRequestRowDTO> findRequestRows(@Param("ids") Collection<UUID> ids);
+
+    // Moves the given relationships from one status to another in one statement; rows changed meanwhile are skipped
+    @Modifying
+    @Transactional
+    @Query("UPDATE Peers p SET p.status = :to WHERE p.id IN :ids AND p.status = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<UUID> ids,
+                           @Param("from") PeerStatus from,
+                           @Param("to") PeerStatus to);
+
+    // Deletes the given relationships in one statement
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Peers p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Rows stored before the pair key existed
+    @Query("SELECT p FROM Peers p WHERE p.lowUserId IS NULL OR p.highUserId IS NULL")
+    List<Peers> findWithoutPairKey();
+
+    // Requests the given user sent, with the receiver's details, in one join
+    @Query("SELECT new com.majed.acadlink.dto.peers.PeerInfoDTO(" +
+            "p.id, u.id, u.firstName, u.lastName, u.email, u.institute, u.username) " +
+            "FROM Peers p JOIN p.user2 u WHERE p.user1.id = :userId AND p.status = :status")
+    List<PeerInfoDTO> findSentInfo(@Param("userId") UUID userId, @Param("status") PeerStatus status);
+
+    // Requests the given user received, with the sender's details, in one join
+    @Query("SELECT new com.majed.acadlink.dto.peers.PeerInfoDTO(" +
+            "p.id, u.id, u.firstName, u.lastName, u.email, u.institute, u.username) " +
+            "FROM Peers p JOIN p.user1 u WHERE p.user2.id = :userId AND p.status = :status")
+    List<PeerInfoDTO> findReceivedInfo(@Param("userId") UUID userId, @Param("status") PeerStatus status);
+
+    // The queries below find the given user's pairs on the pair key, whichever side sent the request:
+    // through uk_peers_pair where the user holds the lower ID, idx_peers_pair_reverse where it holds the higher
+
+    // First page of the given user's relationships with this status, with the other user's details, by username
+    @Query("SELECT new com.majed.acadlink.dto.peers.PeerInfoDTO(" +
+            "p.id, u.id, u.firstName, u.lastName, u.email, u.institute, u.username) " +
+            "FROM Peers p JOIN User u " +
+            "ON u.id = CASE WHEN p.lowUserId = :userId THEN p.highUserId ELSE p.lowUserId END " +
+            "WHERE (p.lowUserId = :userId OR p.highUserId = :userId) AND p.status = :status " +
+            "ORDER BY u.username, u.id")
+    List<PeerInfoDTO> findPeerInfoPage(@Param("userId") UUID userId,
+                                       @Param("status") PeerStatus status,
+                                       Limit limit);
+
+    // Next page of the given user's relationships, seeking past (afterUsername, afterId) instead of using OFFSET
+    @Query("SELECT new com.majed.acadlink.dto.peers.PeerInfoDTO(" +
+            "p.id, u.id, u.firstName, u.lastName, u.email, u.institute, u.username) " +
+            "FROM Peers p JOIN User u " +
+            "ON u.id = CASE WHEN p.lowUserId = :userId THEN p.highUserId ELSE p.lowUserId END " +
+            "WHERE (p.lowUserId = :userId OR p.highUserId = :userId) AND p.status = :status " +
+            "AND (u.username > :afterUsername OR (u.username = :afterUsername AND u.id > :afterId)) " +
+            "ORDER BY u.username, u.id")
+    List<PeerInfoDTO> findPeerInfoPageAfter(@Param("userId") UUID userId,
+                                            @Param("status") PeerStatus status,
+                                            @Param("afterUsername") String afterUsername,
+                                            @Param("afterId") UUID afterId,
+                                            Limit limit);
+
+    // IDs of the users on the other side of the given user's relationships with this status
+    @Query("SELECT CASE WHEN p.lowUserId = :userId THEN p.highUserId ELSE p.lowUserId END FROM Peers p " +
+            "WHERE (p.lowUserId = :userId OR p.highUserId = :userId) AND p.status = :status")
+    List<UUID> findPeerIds(@Param("userId") UUID userId, @Param("status") PeerStatus status);
+
+    // The other user and status of every relationship between the given user and any of the other users
+    @Query("SELECT new com.majed.acadlink.dto.peers.PeerStatusDTO(" +
+            "CASE WHEN p.lowUserId = :userId THEN p.highUserId ELSE p.lowUserId END, p.status) FROM Peers p " +
+            "WHERE (p.lowUserId = :userId AND p.highUserId IN :otherIds) " +
+            "OR (p.highUserId = :userId AND p.lowUserId IN :otherIds)")
+    List<PeerStatusDTO> findStatusesBetween(@Param("userId") UUID userId,
+                                            @Param("otherIds") Collection<UUID> otherIds);
+
+    /**
+     * Resolves the peer status between a user and each of the other users in one query.
+     * Users without a relationship map to FALSE.
+     *
+     * @param userId   the ID of the current user
+     * @param otherIds the IDs of the users to resolve
+     * @return the status of every requested user
+     */
+    default Map<UUID, PeerStatus> findStatusMap(UUID userId, Collection<UUID> otherIds) {
+        Map<UUID, PeerStatus> statuses = new HashMap<>();
+        if (otherIds.isEmpty()) {
+            return statuses;
+        }
+        otherIds.forEach(otherId -> statuses.put(otherId, PeerStatus.FALSE));
+        findStatusesBetween(userId, otherIds).forEach(row -> statuses.put(row.getUserId(), row.getStatus()));
+        return statuses;
+    }
+
+    // Every pair with the given status, used to build the peer visibility index
+    @Query("SELECT new com.majed.acadlink.dto.peers.PeerPairDTO(p.user1.id, p.user2.id) FROM Peers p WHERE p.status = :status")
+    List<PeerPairDTO> findPairsByStatus(@Param("status") PeerStatus status);
 }
@@ -1,8 +1,14 @@
 package com.majed.acadlink.domain.repository;
 
 import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.dto.peers.UserLookupDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,5 +21,37 @@ public interface UserRepo extends JpaRepository<User, UUID> {
 
     Optional<User> findByUsername(String username);
 
-    List<User> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(String username, String email);
+    // The request principal of the user with the given username, read without credentials or relations
+    @Query("SELECT new com.majed.acadlink.dto.user.AuthenticatedUser(" +
+            "u.id, u.username, u.institute, u.instituteKey, u.emailVerified) FROM User u WHERE u.username = :username")
+    Optional<AuthenticatedUser> findPrincipalByUsername(@Param("username") String username);
+
+    // The request principal of the user with the given ID, read without credentials or relations
+    @Query("SELECT new com.majed.acadlink.dto.user.AuthenticatedUser(" +
+            "u.id, u.username, u.institute, u.instituteKey, u.emailVerified) FROM User u WHERE u.id = :id")
+    Optional<AuthenticatedUser> findPrincipalById(@Param("id") UUID id);
+
+    // Users whose username, first or last name starts with the escaped LIKE prefix, or whose email is exactly
+    // the given one; each branch is a range scan on its own index and no credentials are read
+    @Query("SELECT new com.majed.acadlink.dto.peers.UserLookupDTO(" +
+            "u.id, u.firstName, u.lastName, u.email, u.username, u.institute, u.instituteKey) FROM User u " +
+            "WHERE u.username LIKE :prefix ESCAPE '!' OR u.firstName LIKE :prefix ESCAPE '!' " +
+            "OR u.lastName LIKE :prefix ESCAPE '!' OR u.email = :email " +
+            "ORDER BY u.username")
+    List<UserLookupDTO> findLookupMatches(@Param("prefix") String prefix, @Param("email") String email, Limit limit);
+
+    // The given users as shown in peer lists, read without credentials or relations
+    @Query("SELECT new com.majed.acadlink.dto.peers.UserLookupDTO(" +
+            "u.id, u.firstName, u.lastName, u.email, u.username, u.institute, u.instituteKey) FROM User u " +
+            "WHERE u.id IN :ids")
+    List<UserLookupDTO> findLookupByIds(@Param("ids") Collection<UUID> ids);
+
+    // Users created before institute_key existed; the column is added empty by schema update
+    @Query("SELECT u FROM User u WHERE u.instituteKey IS NULL OR u.instituteKey = ''")
+    List<User> findWithoutInstituteKey();
+
+    // The given users who share the institute of the user with the given ID
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.instituteKey <> '' AND u.instituteKey = "
+            + "(SELECT v.instituteKey FROM User v WHERE v.id = :userId)")
+    List<UUID> findIdsInSameInstitute(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,20 @@
+package com.majed.acadlink.dto.material;
+
+import com.majed.acadlink.enums.MaterialType;
+import com.majed.acadlink.enums.Privacy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class MaterialIndexEntryDTO {
+    private UUID id;
+    private String name;
+    private MaterialType type;
+    private Privacy privacy;
+    private UUID ownerId;
+    private String ownerInstituteKey;
+
+}
@@ -4,11 +4,13 @@ import com.majed.acadlink.enums.MaterialType;
 import com.majed.acadlink.enums.Privacy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.UUID;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class MaterialResponseDTO {
     private UUID id;
     private String name;
@@ -0,0 +1,28 @@
+package com.majed.acadlink.dto.material;
+
+import java.util.List;
+import java.util.Map;
+
+import com.majed.acadlink.enums.MaterialType;
+import com.majed.acadlink.enums.Privacy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of material search results with facet counts.
+ * {@code nextCursor} is an opaque token for the following page and is null on the last page.
+ * The counts cover every visible match, not just this page: type counts honour the privacy
+ * filter and privacy counts honour the type filter.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MaterialSearchPageDTO {
+    private List<MaterialResponseDTO> items;
+    private String nextCursor;
+    private Map<MaterialType, Integer> typeCounts;
+    private Map<Privacy, Integer> privacyCounts;
+
+}
@@ -0,0 +1,17 @@
+package com.majed.acadlink.dto.peers;
+
+import com.majed.acadlink.enums.PeerAction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPeerActionDTO {
+    private PeerAction action;
+    private List<UUID> reqIds;
+}
@@ -0,0 +1,15 @@
+package com.majed.acadlink.dto.peers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class BulkPeerResultDTO {
+    private UUID reqId;
+    private boolean success;
+    private String error;
+
+}
@@ -0,0 +1,18 @@
+package com.majed.acadlink.dto.peers;
+
+import com.majed.acadlink.enums.PeerEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeerEventDTO {
+    private PeerEventType type;
+    private UUID reqId;
+    private UUID userId;
+
+}
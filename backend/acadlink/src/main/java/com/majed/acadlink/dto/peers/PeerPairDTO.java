@@ -0,0 +1,14 @@
+package com.majed.acadlink.dto.peers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class PeerPairDTO {
+    private UUID user1Id;
+    private UUID user2Id;
+
+}
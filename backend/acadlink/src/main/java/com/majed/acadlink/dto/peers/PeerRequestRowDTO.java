@@ -0,0 +1,17 @@
+package com.majed.acadlink.dto.peers;
+
+import com.majed.acadlink.enums.PeerStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class PeerRequestRowDTO {
+    private UUID reqId;
+    private UUID user1Id;
+    private UUID user2Id;
+    private PeerStatus status;
+
+}
@@ -0,0 +1,15 @@
+package com.majed.acadlink.dto.peers;
+
+import com.majed.acadlink.enums.PeerStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class PeerStatusDTO {
+    private UUID userId;
+    private PeerStatus status;
+
+}
@@ -0,0 +1,18 @@
+package com.majed.acadlink.dto.peers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class PeerSuggestionDTO {
+    private UUID userId;
+    private String firstName;
+    private String lastName;
+    private String userName;
+    private String institute;
+    private int mutualPeers;
+
+}
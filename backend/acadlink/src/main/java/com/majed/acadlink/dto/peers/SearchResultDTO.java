@@ -16,4 +16,6 @@ public class SearchResultDTO {
     private String username;
     private String institute;
     private PeerStatus peerStatus;
+    // Null when the hit fell past the per-request cap on mutual peer counts
+    private Integer mutualPeers;
 }
@@ -0,0 +1,38 @@
+package com.majed.acadlink.dto.user;
+
+import com.majed.acadlink.domain.entity.User;
+import lombok.Value;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * The authenticated user of a request, held as the principal of the security context.
+ * It is resolved once per request and carries what services and filters need to know about
+ * the caller, so they never look the user up again.
+ */
+@Value
+public class AuthenticatedUser implements AuthenticatedPrincipal, Serializable {
+    UUID id;
+    String username;
+    String institute;
+    String instituteKey;
+    boolean emailVerified;
+
+    /**
+     * Creates the principal of a loaded user.
+     *
+     * @param user the user entity
+     * @return the principal carrying the user's identity
+     */
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getInstitute(), user.getInstituteKey(),
+                user.isEmailVerified());
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,16 @@
+package com.majed.acadlink.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenPairDTO {
+    private String accessToken;
+    // Null when it could not be stored; the client then logs in again once the access token expires
+    private String refreshToken;
+    // Seconds until the access token expires
+    private long expiresIn;
+}
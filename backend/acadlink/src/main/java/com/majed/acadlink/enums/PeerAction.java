@@ -0,0 +1,7 @@
+package com.majed.acadlink.enums;
+
+public enum PeerAction {
+    ACCEPT,
+    REJECT,
+    REMOVE
+}
@@ -0,0 +1,7 @@
+package com.majed.acadlink.enums;
+
+public enum PeerEventType {
+    REQUEST_RECEIVED,
+    REQUEST_ACCEPTED,
+    PEER_REMOVED
+}
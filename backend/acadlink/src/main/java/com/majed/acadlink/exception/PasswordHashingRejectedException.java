@@ -0,0 +1,17 @@
+package com.majed.acadlink.exception;
+
+/**
+ * Exception thrown when a password hash is rejected because the hashing executor is saturated.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    /**
+     * Constructs a new PasswordHashingRejectedException with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause
+     */
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
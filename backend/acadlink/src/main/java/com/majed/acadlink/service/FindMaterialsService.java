@@ -1,105 +1,260 @@
 package com.majed.acadlink.service;
 
+import com.majed.acadlink.config.SearchConfig;
+import com.majed.acadlink.domain.entity.Materials;
 import com.majed.acadlink.domain.entity.Peers;
 import com.majed.acadlink.domain.entity.User;
 import com.majed.acadlink.domain.repository.MaterialsRepo;
 import com.majed.acadlink.domain.repository.PeersRepo;
 import com.majed.acadlink.domain.repository.UserRepo;
 import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.CursorPageDTO;
 import com.majed.acadlink.dto.material.MaterialResponseDTO;
+import com.majed.acadlink.dto.material.MaterialSearchPageDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.enums.MaterialType;
 import com.majed.acadlink.enums.PeerStatus;
 import com.majed.acadlink.enums.Privacy;
 import com.majed.acadlink.utility.GetUserUtil;
+import com.majed.acadlink.utility.MaterialCursor;
+import com.majed.acadlink.utility.MaterialSearchIndex;
+import com.majed.acadlink.utility.MaterialSuggestIndex;
+import com.majed.acadlink.utility.PeerVisibilityIndex;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class FindMaterialsService {
+    private static final List<Privacy> PEER_PRIVACIES = List.of(Privacy.PUBLIC, Privacy.PEERS);
+    private static final List<Privacy> PEER_WITH_INSTITUTE_PRIVACIES =
+            List.of(Privacy.PUBLIC, Privacy.PEERS, Privacy.INSTITUTIONAL);
+
     private final UserRepo userRepo;
     private final MaterialsRepo materialsRepo;
     private final PeersRepo peersRepo;
     private final GetUserUtil getUserUtil;
+    private final MaterialSearchIndex materialSearchIndex;
+    private final MaterialSuggestIndex materialSuggestIndex;
+    private final PeerVisibilityIndex peerVisibilityIndex;
+    private final SearchCacheService searchCacheService;
+    private final SearchConfig searchConfig;
 
     public FindMaterialsService(
             UserRepo userRepo,
             MaterialsRepo materialsRepo,
             PeersRepo peersRepo,
-            GetUserUtil getUserUtil
+            GetUserUtil getUserUtil,
+            MaterialSearchIndex materialSearchIndex,
+            MaterialSuggestIndex materialSuggestIndex,
+            PeerVisibilityIndex peerVisibilityIndex,
+            SearchCacheService searchCacheService,
+            SearchConfig searchConfig
     ) {
         this.userRepo = userRepo;
         this.materialsRepo = materialsRepo;
         this.peersRepo = peersRepo;
         this.getUserUtil = getUserUtil;
+        this.materialSearchIndex = materialSearchIndex;
+        this.materialSuggestIndex = materialSuggestIndex;
+        this.peerVisibilityIndex = peerVisibilityIndex;
+        this.searchCacheService = searchCacheService;
+        this.searchConfig = searchConfig;
     }
 
 
-    public ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> searchMaterials(
-            String keyWords
+    /**
+     * Searches every material visible to the authenticated user in a single index probe.
+     * Results are unique by material ID and ranked by relevance (BM25 with exact and prefix
+     * boosts), then name, then ID; the page size is the K of the top-K selection, and each page
+     * resumes directly after the ranked position encoded in the cursor. Later pages are scored with
+     * the ranking statistics of the first, so the order does not shift while the user pages; a cursor
+     * whose statistics are no longer retained is rejected. Pages are served from the Redis
+     * search cache when nothing visible to the user has changed since they were cached.
+     *
+     * The page also carries per-type and per-privacy counts of all visible matches, computed
+     * in the same index pass as the hits.
+     *
+     * With fuzzy matching on, keyword terms may be misspelled within the configured edit distance.
+     * A fuzzy page cut short by the latency budget is returned as found but not cached.
+     *
+     * @param keyWords the search keywords
+     * @param type     the material type to restrict results to, or null for all types
+     * @param privacy  the privacy to restrict results to, or null for all privacies
+     * @param fuzzy    whether keyword terms may match names within a bounded edit distance
+     * @param cursor   the continuation token from the previous page, or null for the first page
+     * @param pageSize the number of top-ranked results, or null for the configured default
+     * @return the response entity containing one page of matching materials or an error status
+     */
+    public ResponseEntity<ApiResponse<MaterialSearchPageDTO>> searchMaterials(
+            String keyWords,
+            MaterialType type,
+            Privacy privacy,
+            boolean fuzzy,
+            String cursor,
+            Integer pageSize
     ) {
-        Optional<User> user = getUserUtil.getAuthenticatedUser();
+        Optional<AuthenticatedUser> user = getUserUtil.getAuthenticatedPrincipal();
 
         if (user.isEmpty()) {
             return ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
         }
 
-        List<MaterialResponseDTO> materials = new ArrayList<>();
+        MaterialCursor after;
+        try {
+            after = MaterialCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
 
-        materials.addAll(
-                materialsRepo.searchPublicMaterials(keyWords, Privacy.PUBLIC).stream().map(
-                        value -> new MaterialResponseDTO(value.getId(), value.getName(), value.getLink(),
-                                value.getType(), value.getPrivacy(), value.getFolder().getId())).toList());
+        int size = searchConfig.getMaterials().resolvePageSize(pageSize);
+        UUID userId = user.get().getId();
+        Optional<String> cacheKey = searchCacheService.materialsKey(userId,
+                user.get().getInstituteKey(),
+                MaterialSearchIndex.normalize(keyWords), type, privacy, fuzzy, cursor, size);
+        Optional<MaterialSearchPageDTO> cached = cacheKey.flatMap(searchCacheService::getMaterials);
+        if (cached.isPresent()) {
+            return ApiResponse.success(cached.get(), HttpStatus.OK);
+        }
+        if (materialSearchIndex.isExpired(after)) {
+            return ApiResponse.error("Cursor expired, restart the search", HttpStatus.BAD_REQUEST);
+        }
 
+        MaterialSearchIndex.Viewer viewer = MaterialSearchIndex.Viewer.of(userId,
+                user.get().getInstitute(),
+                peerVisibilityIndex.visibleOwners(userId));
+        MaterialSearchIndex.Filter filter = new MaterialSearchIndex.Filter(type, privacy);
+        SearchConfig.Fuzzy fuzzyConfig = searchConfig.getFuzzy();
+        MaterialSearchIndex.Result result = fuzzy
+                ? materialSearchIndex.fuzzySearch(keyWords, viewer, filter, after, size + 1,
+                fuzzyConfig.getMaxEditDistance(), fuzzyConfig.getLatencyBudget())
+                : materialSearchIndex.search(keyWords, viewer, filter, after, size + 1);
+        List<MaterialCursor> hits = result.hits();
 
-        materials.addAll(
-                materialsRepo.searchPeerMaterials(keyWords, user.get().getId(), Privacy.PEERS).stream().map(
-                        value -> new MaterialResponseDTO(value.getId(), value.getName(), value.getLink(),
-                                value.getType(), value.getPrivacy(), value.getFolder().getId())).toList());
+        List<MaterialCursor> hitPage = hits.subList(0, Math.min(size, hits.size()));
+        String nextCursor = hits.size() > size ? hitPage.get(hitPage.size() - 1).encode() : null;
+        MaterialSearchPageDTO page = new MaterialSearchPageDTO(
+                loadInOrder(hitPage.stream().map(MaterialCursor::id).toList()), nextCursor,
+                result.typeCounts(), result.privacyCounts());
+        if (result.complete()) {
+            cacheKey.ifPresent(key -> searchCacheService.putMaterials(key, page));
+        }
 
+        return ApiResponse.success(page, HttpStatus.OK);
+    }
+
+    /**
+     * Completes a typed prefix to the most common material names visible to the authenticated user.
+     * Served entirely from the in-memory suggest index.
+     *
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of completions, or null for the configured default
+     * @return the response entity containing the completions or an error status
+     */
+    public ResponseEntity<ApiResponse<List<String>>> suggestMaterialNames(String prefix, Integer limit) {
+        Optional<AuthenticatedUser> user = getUserUtil.getAuthenticatedPrincipal();
+
+        if (user.isEmpty()) {
+            return ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
+        }
 
-        materials.addAll(
-                materialsRepo.searchInstitutionalMaterials(keyWords, user.get().getInstitute(), Privacy.INSTITUTIONAL).
-                        stream().map(
-                                value -> new MaterialResponseDTO(value.getId(), value.getName(), value.getLink(),
-                                        value.getType(), value.getPrivacy(), value.getFolder().getId())).toList());
+        SearchConfig.Suggest suggest = searchConfig.getSuggest();
+        MaterialSearchIndex.Viewer viewer = MaterialSearchIndex.Viewer.of(user.get().getId(),
+                user.get().getInstitute(),
+                peerVisibilityIndex.visibleOwners(user.get().getId()));
 
+        return ApiResponse.success(materialSuggestIndex.suggest(prefix, viewer, suggest.resolveLimit(limit),
+                suggest.getMaxScan()), HttpStatus.OK);
+    }
 
-        return ApiResponse.success(materials, HttpStatus.OK);
+    /**
+     * Loads the given materials in one query and returns them in the order of the IDs.
+     * IDs that no longer exist are skipped.
+     */
+    private List<MaterialResponseDTO> loadInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Materials> byId = new HashMap<>();
+        materialsRepo.findAllById(ids).forEach(material -> byId.put(material.getId(), material));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(FindMaterialsService::toResponse)
+                .toList();
     }
 
-    public ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> findPeerMaterials(UUID peerUserId) {
-        Optional<User> currentUser = getUserUtil.getAuthenticatedUser();
+    /**
+     * Lists the materials of an accepted peer that the authenticated user may see, one page at a time.
+     * Pages are ordered by name then ID and fetched with a seek on that key, so deep pages cost
+     * the same as the first.
+     *
+     * @param peerUserId the ID of the peer whose materials are listed
+     * @param cursor     the continuation token from the previous page, or null for the first page
+     * @param pageSize   the maximum number of results, or null for the configured default
+     * @return the response entity containing one page of materials or an error status
+     */
+    public ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> findPeerMaterials(
+            UUID peerUserId,
+            String cursor,
+            Integer pageSize
+    ) {
+        Optional<AuthenticatedUser> currentUser = getUserUtil.getAuthenticatedPrincipal();
 
         if (currentUser.isEmpty()) {
             return ApiResponse.error("Not logged in", HttpStatus.FORBIDDEN);
         }
 
+        MaterialCursor after;
+        try {
+            after = MaterialCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+
         Optional<User> peerUser = userRepo.findById(peerUserId);
 
         if (peerUser.isEmpty()) {
             return ApiResponse.error("No user exists with this id", HttpStatus.NOT_FOUND);
         }
 
-        Peers peer = peersRepo.findByUser1IdAndUser2IdOrUser2IdAndUser1Id(currentUser.get().getId(),
-                peerUserId, currentUser.get().getId(), peerUserId);
+        Peers peer = peersRepo.findPair(currentUser.get().getId(), peerUserId);
 
         if (peer == null || peer.getStatus() != PeerStatus.ACCEPTED) {
             return ApiResponse.error("Users are not peers", HttpStatus.BAD_REQUEST);
         }
 
-        List<MaterialResponseDTO> materials = materialsRepo.findAllByUserIdAndPrivacy(
-                        peerUserId, currentUser.get().getInstitute()).stream()
-                .map(value -> new MaterialResponseDTO(value.getId(), value.getName(), value.getLink(),
-                        value.getType(), value.getPrivacy(), value.getFolder().getId()))
-                .toList();
+        int size = searchConfig.getMaterials().resolvePageSize(pageSize);
+        // The owner is fixed, so institutional visibility is one key comparison rather than a per-row join
+        List<Privacy> visible = Objects.equals(peerUser.get().getInstituteKey(), currentUser.get().getInstituteKey())
+                ? PEER_WITH_INSTITUTE_PRIVACIES
+                : PEER_PRIVACIES;
+        List<Materials> rows = after == null
+                ? materialsRepo.findPeerMaterialsPage(peerUserId, visible, Limit.of(size + 1))
+                : materialsRepo.findPeerMaterialsPageAfter(peerUserId, visible, after.name(), after.id(),
+                Limit.of(size + 1));
 
-        return ApiResponse.success(materials, HttpStatus.OK);
-    }
+        List<Materials> page = rows.subList(0, Math.min(size, rows.size()));
+        String nextCursor = null;
+        if (rows.size() > size) {
+            Materials last = page.get(page.size() - 1);
+            nextCursor = new MaterialCursor(last.getName(), last.getId()).encode();
+        }
+        List<MaterialResponseDTO> items = page.stream().map(FindMaterialsService::toResponse).toList();
 
+        return ApiResponse.success(new CursorPageDTO<>(items, nextCursor), HttpStatus.OK);
+    }
 
+    private static MaterialResponseDTO toResponse(Materials value) {
+        return new MaterialResponseDTO(value.getId(), value.getName(), value.getLink(),
+                value.getType(), value.getPrivacy(), value.getFolder().getId());
+    }
 }
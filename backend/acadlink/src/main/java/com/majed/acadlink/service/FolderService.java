@@ -17,6 +17,7 @@ import com.majed.acadlink.dto.folder.FolderCreateDTO;
 import com.majed.acadlink.dto.folder.FolderResponseDTO;
 import com.majed.acadlink.dto.folder.UpdateFolderResponseDTO;
 import com.majed.acadlink.dto.material.MaterialResponseDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
 import com.majed.acadlink.utility.AuthorizationCheck;
 import com.majed.acadlink.utility.GetUserUtil;
 
@@ -78,7 +79,7 @@ public class FolderService {
      * @return the response entity containing the list of all folders or an error status
      */
     public ResponseEntity<ApiResponse<List<AllFolderResponseDTO>>> getAllFolders() {
-        Optional<User> user = getUserUtil.getAuthenticatedUser();
+        Optional<AuthenticatedUser> user = getUserUtil.getAuthenticatedPrincipal();
 
         if (user.isPresent()) {
             List<Folder> folders = folderRepo.findByUserId(user.get().getId());
@@ -99,7 +100,7 @@ public class FolderService {
      * @return the response entity containing the folder or an error status
      */
     public ResponseEntity<ApiResponse<FolderResponseDTO>> getFolder(UUID folderId) {
-        Optional<User> user = getUserUtil.getAuthenticatedUser();
+        Optional<AuthenticatedUser> user = getUserUtil.getAuthenticatedPrincipal();
         if (user.isEmpty()) {
             return ApiResponse.error(NO_USER_FOUND_MESSAGE, HttpStatus.BAD_REQUEST);
         } else {
@@ -134,7 +135,7 @@ public class FolderService {
     public ResponseEntity<ApiResponse<UpdateFolderResponseDTO>> updateFolder(
             UUID folderId,
             FolderCreateDTO newData) {
-        Optional<User> user = getUserUtil.getAuthenticatedUser();
+        Optional<AuthenticatedUser> user = getUserUtil.getAuthenticatedPrincipal();
         if (user.isEmpty()) {
             return ApiResponse.error(NO_USER_FOUND_MESSAGE, HttpStatus.BAD_REQUEST);
         }
@@ -0,0 +1,244 @@
+package com.majed.acadlink.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.majed.acadlink.config.SearchConfig;
+import com.majed.acadlink.domain.entity.Peers;
+import com.majed.acadlink.domain.repository.MaterialsRepo;
+import com.majed.acadlink.domain.repository.PeersRepo;
+import com.majed.acadlink.dto.material.MaterialIndexEntryDTO;
+import com.majed.acadlink.enums.PeerStatus;
+import com.majed.acadlink.enums.Privacy;
+import com.majed.acadlink.utility.MaterialSearchIndex;
+import com.majed.acadlink.utility.MaterialSuggestIndex;
+import com.majed.acadlink.utility.PeerGraphIndex;
+import com.majed.acadlink.utility.PeerVisibilityIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Service keeping the in-memory search indexes of every instance in step with the database.
+ *
+ * <p>The instance handling a write updates its own indexes, then publishes the ID of what
+ * changed: a peer pair or a material. Every other instance re-reads that row from the database
+ * and applies its current state, so messages arriving out of order still leave the indexes
+ * matching the table. Search pages those instances cached before applying the change are then
+ * invalidated, since they may have been built from the old state.</p>
+ *
+ * <p>A message lost while an instance was disconnected from Redis would leave its indexes stale
+ * until restart, so the indexes are also rebuilt from the database at a fixed interval. Changes
+ * made during a rebuild may be missed by it; they are applied again once it has finished.</p>
+ *
+ * <p>Message Format:
+ * - Channel: acadlink.search.index.peers-channel (index:peers by default)
+ * - Value: JSON of the publishing instance and the pair's user IDs
+ * - Channel: acadlink.search.index.materials-channel (index:materials by default)
+ * - Value: JSON of the publishing instance, the material ID, its owner and the privacies it had</p>
+ *
+ * <p>Redis failures never fail a request: the other instances then catch up at the next rebuild.</p>
+ */
+@Service
+@Slf4j
+public class IndexSyncService implements MessageListener {
+    private final UUID instanceId = UUID.randomUUID();
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SearchConfig searchConfig;
+    private final PeersRepo peersRepo;
+    private final MaterialsRepo materialsRepo;
+    private final PeerVisibilityIndex peerVisibilityIndex;
+    private final PeerGraphIndex peerGraphIndex;
+    private final MaterialSearchIndex materialSearchIndex;
+    private final MaterialSuggestIndex materialSuggestIndex;
+    private final SearchCacheService searchCacheService;
+    private final Queue<Runnable> changedDuringRebuild = new ConcurrentLinkedQueue<>();
+    private volatile boolean rebuilding;
+
+    /**
+     * Constructs a new IndexSyncService with required dependencies.
+     *
+     * @param redisTemplate        the Redis template changes are published with
+     * @param objectMapper         the JSON mapper for serialization/deserialization
+     * @param searchConfig         the search configuration holding the channel names
+     * @param peersRepo            the peers repository changed pairs are re-read from
+     * @param materialsRepo        the materials repository changed materials are re-read from
+     * @param peerVisibilityIndex  index of accepted peers used by material search
+     * @param peerGraphIndex       index of accepted and pending pairs used to resolve peer statuses
+     * @param materialSearchIndex  the in-memory index used by material search
+     * @param materialSuggestIndex the in-memory prefix index used by material typeahead
+     * @param searchCacheService   the Redis cache of material search pages
+     */
+    public IndexSyncService(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, SearchConfig searchConfig,
+                            PeersRepo peersRepo, MaterialsRepo materialsRepo,
+                            PeerVisibilityIndex peerVisibilityIndex, PeerGraphIndex peerGraphIndex,
+                            MaterialSearchIndex materialSearchIndex, MaterialSuggestIndex materialSuggestIndex,
+                            SearchCacheService searchCacheService) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.searchConfig = searchConfig;
+        this.peersRepo = peersRepo;
+        this.materialsRepo = materialsRepo;
+        this.peerVisibilityIndex = peerVisibilityIndex;
+        this.peerGraphIndex = peerGraphIndex;
+        this.materialSearchIndex = materialSearchIndex;
+        this.materialSuggestIndex = materialSuggestIndex;
+        this.searchCacheService = searchCacheService;
+    }
+
+    /**
+     * Tells every other instance that the relationship between two users changed: a request
+     * was sent, accepted, rejected or removed.
+     * Callers have already applied the change to this instance's indexes.
+     *
+     * @param user1Id one side of the pair
+     * @param user2Id the other side of the pair
+     */
+    public void peersChanged(UUID user1Id, UUID user2Id) {
+        if (rebuilding) {
+            changedDuringRebuild.add(() -> applyPeers(user1Id, user2Id));
+        }
+        publish(searchConfig.getIndex().getPeersChannel(), new PeersChangedMessage(instanceId, user1Id, user2Id));
+    }
+
+    /**
+     * Tells every other instance that a material was saved, updated or deleted.
+     * Callers have already applied the change to this instance's indexes.
+     *
+     * @param materialId the material's ID
+     * @param ownerId    the ID of the material's owner
+     * @param privacies  the privacies the material had before and after the change
+     */
+    public void materialChanged(UUID materialId, UUID ownerId, Privacy... privacies) {
+        if (rebuilding) {
+            changedDuringRebuild.add(() -> applyMaterial(materialId));
+        }
+        publish(searchConfig.getIndex().getMaterialsChannel(),
+                new MaterialChangedMessage(instanceId, materialId, ownerId, List.of(privacies)));
+    }
+
+    /**
+     * Applies a change published by another instance to this instance's indexes.
+     *
+     * @param message the Redis message
+     * @param pattern the channel pattern, unused
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        try {
+            if (channel.equals(searchConfig.getIndex().getPeersChannel())) {
+                PeersChangedMessage changed = objectMapper.readValue(message.getBody(), PeersChangedMessage.class);
+                if (!instanceId.equals(changed.origin())) {
+                    apply(() -> applyPeers(changed.user1Id(), changed.user2Id()));
+                    searchCacheService.invalidateUsers(changed.user1Id(), changed.user2Id());
+                }
+            } else if (channel.equals(searchConfig.getIndex().getMaterialsChannel())) {
+                MaterialChangedMessage changed = objectMapper.readValue(message.getBody(),
+                        MaterialChangedMessage.class);
+                if (!instanceId.equals(changed.origin())) {
+                    apply(() -> applyMaterial(changed.materialId()));
+                    searchCacheService.invalidateMaterial(changed.ownerId(),
+                            changed.privacies().toArray(Privacy[]::new));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Error reading index change on {}: {}", channel, e.getMessage());
+        } catch (DataAccessException e) {
+            log.warn("Error applying index change on {}: {}", channel, e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds every index from the database, then applies again the changes made while it ran.
+     */
+    @Scheduled(initialDelayString = "${acadlink.search.index.rebuild-interval:PT30M}",
+            fixedDelayString = "${acadlink.search.index.rebuild-interval:PT30M}")
+    public void rebuild() {
+        changedDuringRebuild.clear();
+        rebuilding = true;
+        try {
+            peerVisibilityIndex.rebuild();
+            peerGraphIndex.rebuild();
+            materialSearchIndex.rebuild();
+            materialSuggestIndex.rebuild();
+        } catch (DataAccessException e) {
+            log.warn("Error rebuilding search indexes: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+            Runnable change;
+            while ((change = changedDuringRebuild.poll()) != null) {
+                change.run();
+            }
+        }
+    }
+
+    private void apply(Runnable change) {
+        if (rebuilding) {
+            changedDuringRebuild.add(change);
+        }
+        change.run();
+    }
+
+    private void applyPeers(UUID user1Id, UUID user2Id) {
+        Peers pair = peersRepo.findPair(user1Id, user2Id);
+        peerGraphIndex.update(user1Id, user2Id, pair == null ? PeerStatus.FALSE : pair.getStatus());
+        if (pair != null && pair.getStatus() == PeerStatus.ACCEPTED) {
+            peerVisibilityIndex.link(user1Id, user2Id);
+        } else {
+            peerVisibilityIndex.unlink(user1Id, user2Id);
+        }
+    }
+
+    private void applyMaterial(UUID materialId) {
+        Optional<MaterialIndexEntryDTO> row = materialsRepo.findIndexEntry(materialId);
+        if (row.isPresent()) {
+            materialSearchIndex.index(row.get());
+            materialSuggestIndex.index(row.get());
+        } else {
+            materialSearchIndex.remove(materialId);
+            materialSuggestIndex.remove(materialId);
+        }
+    }
+
+    private void publish(String channel, Object message) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Error publishing index change on {}: {}", channel, e.getMessage());
+        }
+    }
+
+    /**
+     * A changed peer pair as published on the Redis channel.
+     *
+     * @param origin  the ID of the instance that made the change
+     * @param user1Id one side of the pair
+     * @param user2Id the other side of the pair
+     */
+    record PeersChangedMessage(UUID origin, UUID user1Id, UUID user2Id) {
+    }
+
+    /**
+     * A changed material as published on the Redis channel.
+     *
+     * @param origin     the ID of the instance that made the change
+     * @param materialId the material's ID
+     * @param ownerId    the ID of the material's owner
+     * @param privacies  the privacies the material had before and after the change
+     */
+    record MaterialChangedMessage(UUID origin, UUID materialId, UUID ownerId, List<Privacy> privacies) {
+    }
+}
@@ -17,10 +17,13 @@ import com.majed.acadlink.dto.ApiResponse;
 import com.majed.acadlink.dto.material.MaterialAddDTO;
 import com.majed.acadlink.dto.material.MaterialResponseDTO;
 import com.majed.acadlink.enums.MaterialType;
+import com.majed.acadlink.enums.Privacy;
 import com.majed.acadlink.exception.MaterialOperationException;
 import com.majed.acadlink.exception.MaterialSaveException;
 import com.majed.acadlink.exception.ResourceNotFoundException;
 import com.majed.acadlink.utility.AuthorizationCheck;
+import com.majed.acadlink.utility.MaterialSearchIndex;
+import com.majed.acadlink.utility.MaterialSuggestIndex;
 import com.majed.acadlink.utility.SaveMaterialUtil;
 
 import lombok.extern.slf4j.Slf4j;
@@ -38,25 +41,41 @@ public class MaterialService {
     private final MaterialsRepo materialsRepo;
     private final SaveMaterialUtil saveMaterialUtil;
     private final AuthorizationCheck authorizationCheck;
+    private final MaterialSearchIndex materialSearchIndex;
+    private final MaterialSuggestIndex materialSuggestIndex;
+    private final SearchCacheService searchCacheService;
+    private final IndexSyncService indexSyncService;
 
     /**
      * Constructor for MaterialService.
      *
-     * @param folderRepo         the folder repository
-     * @param materialsRepo      the materials repository
-     * @param saveMaterialUtil   utility to save material files and links
-     * @param authorizationCheck utility to check user authorization
+     * @param folderRepo           the folder repository
+     * @param materialsRepo        the materials repository
+     * @param saveMaterialUtil     utility to save material files and links
+     * @param authorizationCheck   utility to check user authorization
+     * @param materialSearchIndex  the in-memory index used by material search
+     * @param materialSuggestIndex the in-memory prefix index used by material typeahead
+     * @param searchCacheService   the Redis cache of material search pages
+     * @param indexSyncService     the service telling other instances to update their material indexes
      */
     public MaterialService(
             FolderRepo folderRepo,
             MaterialsRepo materialsRepo,
             SaveMaterialUtil saveMaterialUtil,
-            AuthorizationCheck authorizationCheck
+            AuthorizationCheck authorizationCheck,
+            MaterialSearchIndex materialSearchIndex,
+            MaterialSuggestIndex materialSuggestIndex,
+            SearchCacheService searchCacheService,
+            IndexSyncService indexSyncService
     ) {
         this.folderRepo = folderRepo;
         this.materialsRepo = materialsRepo;
         this.saveMaterialUtil = saveMaterialUtil;
         this.authorizationCheck = authorizationCheck;
+        this.materialSearchIndex = materialSearchIndex;
+        this.materialSuggestIndex = materialSuggestIndex;
+        this.searchCacheService = searchCacheService;
+        this.indexSyncService = indexSyncService;
     }
 
     /**
@@ -155,6 +174,7 @@ public class MaterialService {
             }
 
             Materials current = material.get();
+            Privacy previousPrivacy = current.getPrivacy();
 
             if (newData.getName() != null) {
                 current.setName(newData.getName());
@@ -182,6 +202,11 @@ public class MaterialService {
             }
 
             materialsRepo.save(current);
+            materialSearchIndex.index(current);
+            materialSuggestIndex.index(current);
+            searchCacheService.invalidateMaterial(folder.getUser().getId(), previousPrivacy, current.getPrivacy());
+            indexSyncService.materialChanged(current.getId(), folder.getUser().getId(), previousPrivacy,
+                    current.getPrivacy());
             MaterialResponseDTO response = new MaterialResponseDTO(current.getId(), current.getName(), current.getLink(),
                     current.getType(), current.getPrivacy(), current.getFolder().getId()
             );
@@ -210,6 +235,10 @@ public class MaterialService {
             return ApiResponse.error(NOT_AUTHORIZED_MESSAGE, HttpStatus.FORBIDDEN);
         }
         materialsRepo.delete(material.get());
+        materialSearchIndex.remove(id);
+        materialSuggestIndex.remove(id);
+        searchCacheService.invalidateMaterial(folder.getUser().getId(), material.get().getPrivacy());
+        indexSyncService.materialChanged(id, folder.getUser().getId(), material.get().getPrivacy());
         return ApiResponse.success(true, HttpStatus.OK);
     }
 }
@@ -0,0 +1,220 @@
+package com.majed.acadlink.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.majed.acadlink.config.EventsConfig;
+import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.peers.PeerEventDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.utility.GetUserUtil;
+import com.majed.acadlink.utility.JWTUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Service responsible for pushing peer request events to clients over server-sent events.
+ *
+ * <p>Each open stream is an {@link SseEmitter} completed asynchronously by the servlet
+ * container: the request thread is released as soon as the stream is opened, and an event is
+ * written only when one is published, so idle subscribers hold no thread at all.</p>
+ *
+ * <p>Events are published to a Redis channel that every instance listens to, and each instance
+ * writes them to the streams of the recipient it holds. A heartbeat comment is sent on every
+ * stream at a fixed interval, so proxies keep idle connections open and dead ones are dropped.</p>
+ *
+ * <p>Browsers open the stream with EventSource, which cannot send an Authorization header: the
+ * client first gets a one-minute stream token with its access token, then passes it as the
+ * token query parameter of the stream request.</p>
+ *
+ * <p>Message Format:
+ * - Channel: acadlink.events.peers.channel (peers:events by default)
+ * - Value: JSON of the recipient ID and the event</p>
+ *
+ * <p>Redis failures never fail a request: the event is then delivered to this instance only.</p>
+ */
+@Service
+@Slf4j
+public class PeerEventService implements MessageListener {
+    private static final String HEARTBEAT = "heartbeat";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final GetUserUtil getUserUtil;
+    private final EventsConfig eventsConfig;
+    private final JWTUtil jwtUtil;
+    private final Map<UUID, Deque<SseEmitter>> streams = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new PeerEventService with required dependencies.
+     *
+     * @param redisTemplate the Redis template events are published with
+     * @param objectMapper  the JSON mapper for serialization/deserialization
+     * @param getUserUtil   utility to get the authenticated user
+     * @param eventsConfig  the event configuration holding the stream settings
+     * @param jwtUtil       the utility issuing stream tokens
+     */
+    public PeerEventService(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, GetUserUtil getUserUtil,
+                            EventsConfig eventsConfig, JWTUtil jwtUtil) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.getUserUtil = getUserUtil;
+        this.eventsConfig = eventsConfig;
+        this.jwtUtil = jwtUtil;
+    }
+
+    /**
+     * Issues a stream token for the authenticated user, valid for opening the event stream
+     * within {@link JWTUtil#STREAM_TOKEN_LIFETIME}.
+     *
+     * @return the response entity containing the stream token, or an error status if the user is not found
+     */
+    public ResponseEntity<ApiResponse<String>> streamToken() {
+        Optional<AuthenticatedUser> currentUser = getUserUtil.getAuthenticatedPrincipal();
+        if (currentUser.isEmpty()) {
+            return ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
+        }
+        return ApiResponse.success(jwtUtil.generateStreamToken(currentUser.get()), HttpStatus.OK);
+    }
+
+    /**
+     * Opens an event stream for the authenticated user.
+     * When the user already holds the maximum number of streams, the oldest one is closed.
+     *
+     * @return the response entity containing the stream, or a bad request status if the user is not found
+     */
+    public ResponseEntity<SseEmitter> subscribe() {
+        Optional<AuthenticatedUser> currentUser = getUserUtil.getAuthenticatedPrincipal();
+        if (currentUser.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        UUID userId = currentUser.get().getId();
+        EventsConfig.Peers config = eventsConfig.getPeers();
+
+        SseEmitter emitter = new SseEmitter(config.getTimeout().toMillis());
+        emitter.onCompletion(() -> unregister(userId, emitter));
+        emitter.onTimeout(() -> unregister(userId, emitter));
+        emitter.onError(e -> unregister(userId, emitter));
+
+        List<SseEmitter> evicted = new ArrayList<>();
+        streams.compute(userId, (id, userStreams) -> {
+            Deque<SseEmitter> updated = userStreams == null ? new ConcurrentLinkedDeque<>() : userStreams;
+            updated.addLast(emitter);
+            while (updated.size() > config.getMaxStreamsPerUser()) {
+                evicted.add(updated.pollFirst());
+            }
+            return updated;
+        });
+        evicted.forEach(SseEmitter::complete);
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Publishes an event to every instance holding a stream of the recipient.
+     *
+     * @param recipientId the ID of the user the event is for
+     * @param event       the event
+     */
+    public void publish(UUID recipientId, PeerEventDTO event) {
+        try {
+            redisTemplate.convertAndSend(eventsConfig.getPeers().getChannel(),
+                    objectMapper.writeValueAsString(new PeerEventMessage(recipientId, event)));
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Error publishing peer event for user {}: {}", recipientId, e.getMessage());
+            deliver(recipientId, event);
+        }
+    }
+
+    /**
+     * Relays an event published by any instance to the recipient's streams on this one.
+     *
+     * @param message the Redis message
+     * @param pattern the channel pattern, unused
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            PeerEventMessage published = objectMapper.readValue(message.getBody(), PeerEventMessage.class);
+            deliver(published.recipientId(), published.event());
+        } catch (IOException e) {
+            log.warn("Error reading peer event: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sends a heartbeat comment on every open stream, dropping the ones that fail.
+     */
+    @Scheduled(fixedDelayString = "${acadlink.events.peers.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        streams.forEach((userId, userStreams) -> userStreams.forEach(emitter ->
+                send(userId, emitter, SseEmitter.event().comment(HEARTBEAT))));
+    }
+
+    /**
+     * Writes an event to the recipient's streams on this instance.
+     *
+     * @param recipientId the ID of the user the event is for
+     * @param event       the event
+     * @return the number of streams the event was written to
+     */
+    int deliver(UUID recipientId, PeerEventDTO event) {
+        Deque<SseEmitter> userStreams = streams.get(recipientId);
+        if (userStreams == null) {
+            return 0;
+        }
+        int delivered = 0;
+        for (SseEmitter emitter : userStreams) {
+            if (send(recipientId, emitter, SseEmitter.event()
+                    .name(event.getType().name())
+                    .data(event, MediaType.APPLICATION_JSON))) {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    private boolean send(UUID userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client is gone; the container completes the emitter, it only has to be forgotten
+            unregister(userId, emitter);
+            return false;
+        }
+    }
+
+    private void unregister(UUID userId, SseEmitter emitter) {
+        streams.computeIfPresent(userId, (id, userStreams) -> {
+            userStreams.remove(emitter);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    /**
+     * An event as published on the Redis channel, addressed to one user.
+     *
+     * @param recipientId the ID of the user the event is for
+     * @param event       the event
+     */
+    record PeerEventMessage(UUID recipientId, PeerEventDTO event) {
+    }
+}
@@ -0,0 +1,238 @@
+package com.majed.acadlink.service;
+
+import com.majed.acadlink.config.SearchConfig;
+import com.majed.acadlink.domain.repository.UserRepo;
+import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.peers.PeerSuggestionDTO;
+import com.majed.acadlink.dto.peers.UserLookupDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.enums.PeerStatus;
+import com.majed.acadlink.utility.GetUserUtil;
+import com.majed.acadlink.utility.PeerGraphIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service responsible for "people you may know" suggestions.
+ *
+ * <p>Candidates are the peers of a user's peers, ranked by the number of mutual peers plus
+ * a boost when they share the user's institute. Mutual counts come from the in-memory peer
+ * graph, never from SQL. The ranking is computed in the background and the top candidates
+ * are stored in Redis, so a request only reads one key and loads the users on the page.
+ * Institutes are only compared for the candidates the boost could lift into the stored
+ * ranking, in batches of bounded size.</p>
+ *
+ * <p>When an edge is accepted or removed, the two users and their peers are marked changed
+ * and recomputed by the next refresh; everyone else keeps their stored ranking. A periodic
+ * full refresh covers edges changed on other instances. At read time, candidates that have
+ * since become peers or been sent a request are skipped.</p>
+ *
+ * <p>Storage Format:
+ * - Key: peers:suggestions:{userId}
+ * - Value: comma-separated candidate IDs, best first; empty when there are none</p>
+ *
+ * <p>Redis failures never fail a request: the ranking is then computed on the spot.</p>
+ */
+@Service
+@Slf4j
+public class PeerSuggestionService {
+    private static final String SUGGESTIONS_PREFIX = "peers:suggestions:";
+    // Upper bound on the IDs in one institute comparison query
+    private static final int INSTITUTE_BATCH = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserRepo userRepo;
+    private final GetUserUtil getUserUtil;
+    private final PeerGraphIndex peerGraphIndex;
+    private final SearchConfig searchConfig;
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a new PeerSuggestionService with required dependencies.
+     *
+     * @param redisTemplate  the Redis template for data storage
+     * @param userRepo       the user repository
+     * @param getUserUtil    utility to get the authenticated user
+     * @param peerGraphIndex index of accepted and pending pairs the candidates are counted from
+     * @param searchConfig   the search configuration holding the suggestion settings
+     */
+    public PeerSuggestionService(StringRedisTemplate redisTemplate, UserRepo userRepo, GetUserUtil getUserUtil,
+                                 PeerGraphIndex peerGraphIndex, SearchConfig searchConfig) {
+        this.redisTemplate = redisTemplate;
+        this.userRepo = userRepo;
+        this.getUserUtil = getUserUtil;
+        this.peerGraphIndex = peerGraphIndex;
+        this.searchConfig = searchConfig;
+    }
+
+    /**
+     * Suggests users the authenticated user may know, best first.
+     *
+     * @param limit the maximum number of suggestions, or null for the configured default
+     * @return the response entity containing the suggestions or an error status
+     */
+    public ResponseEntity<ApiResponse<List<PeerSuggestionDTO>>> getSuggestions(Integer limit) {
+        Optional<AuthenticatedUser> currentUser = getUserUtil.getAuthenticatedPrincipal();
+        if (currentUser.isEmpty()) {
+            return ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
+        }
+        UUID userId = currentUser.get().getId();
+        int size = searchConfig.getPeerSuggestions().resolveLimit(limit);
+
+        // Before the peer graph has loaded there is nothing to rank, and nothing worth storing
+        List<UUID> ranked = read(userId).orElseGet(() -> peerGraphIndex.isReady() ? refresh(userId) : List.of());
+        if (ranked.isEmpty()) {
+            return ApiResponse.success(List.of(), HttpStatus.OK);
+        }
+        Map<UUID, PeerStatus> statuses = peerGraphIndex.statuses(userId, ranked);
+        List<UUID> ids = ranked.stream()
+                .filter(id -> statuses.getOrDefault(id, PeerStatus.FALSE) == PeerStatus.FALSE)
+                .limit(size)
+                .toList();
+
+        Map<UUID, UserLookupDTO> users = userRepo.findLookupByIds(ids).stream()
+                .collect(Collectors.toMap(UserLookupDTO::getId, Function.identity()));
+        List<PeerSuggestionDTO> suggestions = ids.stream()
+                .filter(users::containsKey)
+                .map(id -> {
+                    UserLookupDTO user = users.get(id);
+                    return new PeerSuggestionDTO(id, user.getFirstName(), user.getLastName(), user.getUsername(),
+                            user.getInstitute(), peerGraphIndex.mutualCount(userId, id));
+                })
+                .toList();
+        return ApiResponse.success(suggestions, HttpStatus.OK);
+    }
+
+    /**
+     * Marks the suggestions affected by a changed edge for the next refresh: those of both
+     * users, and those of their peers, whose mutual counts with the other user moved.
+     *
+     * @param user1Id one side of the changed pair
+     * @param user2Id the other side of the changed pair
+     */
+    public void edgeChanged(UUID user1Id, UUID user2Id) {
+        changed.add(user1Id);
+        changed.add(user2Id);
+        changed.addAll(peerGraphIndex.acceptedPeers(user1Id));
+        changed.addAll(peerGraphIndex.acceptedPeers(user2Id));
+    }
+
+    /**
+     * Recomputes the suggestions of the users marked by {@link #edgeChanged}.
+     */
+    @Scheduled(fixedDelayString = "${acadlink.search.peer-suggestions.refresh-delay:PT30S}")
+    public void refreshChanged() {
+        if (!peerGraphIndex.isReady() || changed.isEmpty()) {
+            return;
+        }
+        int refreshed = 0;
+        for (Iterator<UUID> it = changed.iterator(); it.hasNext(); ) {
+            UUID userId = it.next();
+            it.remove();
+            refresh(userId);
+            refreshed++;
+        }
+        log.debug("Refreshed peer suggestions of {} users", refreshed);
+    }
+
+    /**
+     * Recomputes the suggestions of every user with at least one peer.
+     */
+    @Scheduled(initialDelayString = "${acadlink.search.peer-suggestions.initial-delay:PT1M}",
+            fixedDelayString = "${acadlink.search.peer-suggestions.full-refresh-interval:PT6H}")
+    public void refreshAll() {
+        if (!peerGraphIndex.isReady()) {
+            return;
+        }
+        List<UUID> userIds = peerGraphIndex.connectedUsers();
+        userIds.forEach(this::refresh);
+        log.info("Refreshed peer suggestions of {} users", userIds.size());
+    }
+
+    /**
+     * Ranks a user's candidates and stores the top of the ranking.
+     *
+     * @param userId the user's ID
+     * @return the stored ranking, best first
+     */
+    List<UUID> refresh(UUID userId) {
+        List<UUID> ranked = rank(userId);
+        try {
+            redisTemplate.opsForValue().set(SUGGESTIONS_PREFIX + userId,
+                    ranked.stream().map(UUID::toString).collect(Collectors.joining(",")),
+                    searchConfig.getPeerSuggestions().getTtl());
+        } catch (DataAccessException e) {
+            log.warn("Error storing peer suggestions of user {}: {}", userId, e.getMessage());
+        }
+        return ranked;
+    }
+
+    private List<UUID> rank(UUID userId) {
+        Map<UUID, Integer> mutual = peerGraphIndex.mutualCounts(userId);
+        if (mutual.isEmpty()) {
+            return List.of();
+        }
+        double boost = searchConfig.getPeerSuggestions().getSameInstituteBoost();
+        Set<UUID> sameInstitute = sameInstitute(userId, mutual, boost);
+        Map<UUID, Double> scores = mutual.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
+                entry -> entry.getValue() + (sameInstitute.contains(entry.getKey()) ? boost : 0)));
+        return scores.keySet().stream()
+                .sorted(Comparator.<UUID>comparingDouble(scores::get).reversed().thenComparing(Comparator.naturalOrder()))
+                .limit(searchConfig.getPeerSuggestions().getStoredSize())
+                .toList();
+    }
+
+    /**
+     * Returns the candidates sharing the user's institute, among those whose boosted count could
+     * reach the lowest count of the stored ranking; the others are cut whatever their institute.
+     */
+    private Set<UUID> sameInstitute(UUID userId, Map<UUID, Integer> mutual, double boost) {
+        List<Integer> counts = mutual.values().stream().sorted(Comparator.reverseOrder()).toList();
+        int stored = Math.max(1, Math.min(searchConfig.getPeerSuggestions().getStoredSize(), counts.size()));
+        int lowest = counts.get(stored - 1);
+        List<UUID> contenders = mutual.entrySet().stream()
+                .filter(entry -> entry.getValue() + boost >= lowest)
+                .map(Map.Entry::getKey)
+                .toList();
+        Set<UUID> sameInstitute = new HashSet<>();
+        for (int from = 0; from < contenders.size(); from += INSTITUTE_BATCH) {
+            List<UUID> batch = new ArrayList<>(contenders.subList(from,
+                    Math.min(from + INSTITUTE_BATCH, contenders.size())));
+            sameInstitute.addAll(userRepo.findIdsInSameInstitute(userId, batch));
+        }
+        return sameInstitute;
+    }
+
+    private Optional<List<UUID>> read(UUID userId) {
+        try {
+            String data = redisTemplate.opsForValue().get(SUGGESTIONS_PREFIX + userId);
+            if (data == null) {
+                return Optional.empty();
+            }
+            return Optional.of(data.isEmpty() ? List.of()
+                    : Arrays.stream(data.split(",")).map(UUID::fromString).toList());
+        } catch (DataAccessException e) {
+            log.warn("Error reading peer suggestions of user {}: {}", userId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
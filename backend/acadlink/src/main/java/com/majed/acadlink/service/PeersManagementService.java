@@ -1,25 +1,46 @@
 package com.majed.acadlink.service;
 
+import com.majed.acadlink.config.SearchConfig;
 import com.majed.acadlink.domain.entity.Peers;
 import com.majed.acadlink.domain.entity.User;
 import com.majed.acadlink.domain.repository.PeersRepo;
 import com.majed.acadlink.domain.repository.UserRepo;
 import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.CursorPageDTO;
+import com.majed.acadlink.dto.peers.BulkPeerActionDTO;
+import com.majed.acadlink.dto.peers.BulkPeerResultDTO;
+import com.majed.acadlink.dto.peers.PeerEventDTO;
 import com.majed.acadlink.dto.peers.PeerInfoDTO;
+import com.majed.acadlink.dto.peers.PeerRequestRowDTO;
 import com.majed.acadlink.dto.peers.SearchResultDTO;
+import com.majed.acadlink.dto.peers.UserLookupDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.enums.PeerAction;
+import com.majed.acadlink.enums.PeerEventType;
 import com.majed.acadlink.enums.PeerStatus;
 import com.majed.acadlink.enums.ReqType;
 import com.majed.acadlink.utility.AuthorizationCheck;
 import com.majed.acadlink.utility.GetUserUtil;
+import com.majed.acadlink.utility.MaterialCursor;
+import com.majed.acadlink.utility.PeerGraphIndex;
+import com.majed.acadlink.utility.PeerVisibilityIndex;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing peers.
@@ -31,46 +52,111 @@ public class PeersManagementService {
     private final PeersRepo peersRepo;
     private final GetUserUtil getUserUtil;
     private final AuthorizationCheck authorizationCheck;
+    private final PeerVisibilityIndex peerVisibilityIndex;
+    private final PeerGraphIndex peerGraphIndex;
+    private final SearchCacheService searchCacheService;
+    private final PeerSuggestionService peerSuggestionService;
+    private final PeerEventService peerEventService;
+    private final IndexSyncService indexSyncService;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchConfig searchConfig;
 
     /**
      * Constructor for PeersManagementService.
      *
-     * @param peersRepo          the peers repository
-     * @param userRepo           the user repository
-     * @param getUserUtil        utility to get the authenticated user
-     * @param authorizationCheck utility to check user authorization
+     * @param peersRepo             the peers repository
+     * @param userRepo              the user repository
+     * @param getUserUtil           utility to get the authenticated user
+     * @param authorizationCheck    utility to check user authorization
+     * @param peerVisibilityIndex   index of accepted peers used by material search
+     * @param peerGraphIndex        index of accepted and pending pairs used to resolve peer statuses
+     * @param searchCacheService    the Redis cache of material search pages
+     * @param peerSuggestionService the service refreshing suggestions when an edge changes
+     * @param peerEventService      the service pushing request events to the users involved
+     * @param indexSyncService      the service telling other instances to update their peer indexes
+     * @param transactionTemplate   the template running the read and write of a bulk action in one transaction
+     * @param searchConfig          the page size settings of the peers list
      */
     public PeersManagementService(
             PeersRepo peersRepo,
             UserRepo userRepo,
             GetUserUtil getUserUtil,
-            AuthorizationCheck authorizationCheck) {
+            AuthorizationCheck authorizationCheck,
+            PeerVisibilityIndex peerVisibilityIndex,
+            PeerGraphIndex peerGraphIndex,
+            SearchCacheService searchCacheService,
+            PeerSuggestionService peerSuggestionService,
+            PeerEventService peerEventService,
+            IndexSyncService indexSyncService,
+            TransactionTemplate transactionTemplate,
+            SearchConfig searchConfig) {
         this.peersRepo = peersRepo;
         this.userRepo = userRepo;
         this.getUserUtil = getUserUtil;
         this.authorizationCheck = authorizationCheck;
+        this.peerVisibilityIndex = peerVisibilityIndex;
+        this.peerGraphIndex = peerGraphIndex;
+        this.searchCacheService = searchCacheService;
+        this.peerSuggestionService = peerSuggestionService;
+        this.peerEventService = peerEventService;
+        this.indexSyncService = indexSyncService;
+        this.transactionTemplate = transactionTemplate;
+        this.searchConfig = searchConfig;
     }
 
     /**
-     * Searches for users based on the provided entry.
+     * Searches for users whose username, first name or last name starts with the entry, or whose
+     * email is exactly the entry.
+     * Matches are read as a bounded projection, without credentials, using one index per matched
+     * column. They are ranked by exact username or email match, then same institute, then number of
+     * mutual peers, then username. Peer statuses and mutual counts come from the in-memory peer graph;
+     * mutual peers are counted for a capped number of candidates per request.
      *
      * @param entry the search entry
+     * @param limit the maximum number of results, or null for the configured default
      * @return the response entity containing the search results or an error status
      */
-    public ResponseEntity<ApiResponse<List<SearchResultDTO>>> searchUsers(String entry) {
-        Optional<User> currentUser = getUserUtil.getAuthenticatedUser();
+    public ResponseEntity<ApiResponse<List<SearchResultDTO>>> searchUsers(String entry, Integer limit) {
+        Optional<AuthenticatedUser> currentUser = getUserUtil.getAuthenticatedPrincipal();
         if (currentUser.isEmpty()) {
             return ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
         }
-        List<User> userList = userRepo.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(entry, entry);
-        List<SearchResultDTO> users = userList.stream().map(user -> {
-            PeerStatus peerStatus = getPeerStatus(currentUser.get().getId(), user.getId());
-            return new SearchResultDTO(user.getId(), user.getFirstName(), user.getLastName(),
-                    user.getEmail(), user.getUsername(), user.getInstitute(), peerStatus);
-        }).toList();
+        String term = entry == null ? "" : entry.trim();
+        if (term.isEmpty()) {
+            return ApiResponse.success(List.of(), HttpStatus.OK);
+        }
+        UUID userId = currentUser.get().getId();
+        String instituteKey = currentUser.get().getInstituteKey();
+        SearchConfig.Users config = searchConfig.getUsers();
+
+        List<UserLookupDTO> matches = userRepo.findLookupMatches(likePrefix(term), term,
+                Limit.of(config.getCandidatePool()));
+        Map<UUID, Integer> mutual = peerGraphIndex.mutualCounts(userId,
+                matches.stream().map(UserLookupDTO::getId).toList(), config.getMaxMutualCounts());
+        Comparator<UserLookupDTO> ranking = Comparator
+                .comparing((UserLookupDTO match) -> !match.getUsername().equalsIgnoreCase(term)
+                        && !match.getEmail().equalsIgnoreCase(term))
+                .thenComparing(match -> instituteKey == null || instituteKey.isEmpty()
+                        || !instituteKey.equals(match.getInstituteKey()))
+                .thenComparing(match -> mutual.getOrDefault(match.getId(), 0), Comparator.reverseOrder())
+                .thenComparing(UserLookupDTO::getUsername);
+        List<UserLookupDTO> ranked = matches.stream().sorted(ranking).limit(config.resolveLimit(limit)).toList();
+
+        Map<UUID, PeerStatus> statuses = peerGraphIndex.statuses(userId,
+                ranked.stream().map(UserLookupDTO::getId).toList());
+        List<SearchResultDTO> users = ranked.stream().map(user -> new SearchResultDTO(user.getId(),
+                user.getFirstName(), user.getLastName(), user.getEmail(), user.getUsername(), user.getInstitute(),
+                statuses.getOrDefault(user.getId(), PeerStatus.FALSE), mutual.get(user.getId()))).toList();
         return ApiResponse.success(users, HttpStatus.OK);
     }
 
+    /**
+     * Turns a search entry into a LIKE prefix pattern, escaping the wildcards with '!'.
+     */
+    private static String likePrefix(String term) {
+        return term.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
     /**
      * Gets the peer status between two users.
      *
@@ -79,23 +165,20 @@ public class PeersManagementService {
      * @return the peer status
      */
     private PeerStatus getPeerStatus(UUID currentUserId, UUID otherUserId) {
-        Peers peer = peersRepo.findByUser1IdAndUser2IdOrUser2IdAndUser1Id(currentUserId, otherUserId, currentUserId, otherUserId);
-
-        if (peer != null) {
-            return peer.getStatus();
-        }
-
-        return PeerStatus.FALSE;
+        return peerGraphIndex.status(currentUserId, otherUserId);
     }
 
     /**
      * Sends a peer request to the specified user.
+     * The request is inserted only if the pair has no row yet, so two users sending each other a
+     * request at the same time end up with one request rather than two. The pair is then re-read:
+     * only the caller whose row was stored is told the request was sent.
      *
      * @param user2Id the ID of the user to send the peer request to
      * @return the response entity containing the status of the request or an error status
      */
     public ResponseEntity<ApiResponse<Boolean>> addPeer(UUID user2Id) {
-        Optional<User> currentUser = getUserUtil.getAuthenticatedUser();
+        Optional<AuthenticatedUser> currentUser = getUserUtil.getAuthenticatedPrincipal();
         if (currentUser.isEmpty()) {
             return ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
         }
@@ -105,16 +188,22 @@ public class PeersManagementService {
 
         switch (peerStatus) {
             case FALSE -> {
-                Peers peers = new Peers();
-                Optional<User> user2 = userRepo.findById(user2Id);
-                if (user2.isEmpty()) {
+                if (!userRepo.existsById(user2Id)) {
                     return ApiResponse.error("User2 not found", HttpStatus.BAD_REQUEST);
                 }
 
-                peers.setUser1(currentUser.get());
-                peers.setUser2(user2.get());
                 try {
-                    peersRepo.save(peers);
+                    UUID reqId = UUID.randomUUID();
+                    peersRepo.insertRequestIfAbsent(reqId, user1Id, user2Id,
+                            Peers.lowOf(user1Id, user2Id), Peers.highOf(user1Id, user2Id));
+                    Peers stored = peersRepo.findPair(user1Id, user2Id);
+                    if (stored == null || !reqId.equals(stored.getId())) {
+                        return ApiResponse.error("Request already sent", HttpStatus.BAD_REQUEST);
+                    }
+                    peerGraphIndex.request(user1Id, user2Id);
+                    indexSyncService.peersChanged(user1Id, user2Id);
+                    peerEventService.publish(user2Id,
+                            new PeerEventDTO(PeerEventType.REQUEST_RECEIVED, reqId, user1Id));
                     return ApiResponse.success(true, HttpStatus.CREATED);
                 } catch (Exception e) {
                     log.error(e.toString());
@@ -132,60 +221,64 @@ public class PeersManagementService {
 
     /**
      * Retrieves peer requests based on the specified type.
+     * Each list is read with one query that projects the other user's details directly.
      *
      * @param type the type of the peer requests to retrieve
      * @return the response entity containing the list of peer requests or an error status
      */
     public ResponseEntity<ApiResponse<List<PeerInfoDTO>>> getRequests(ReqType type) {
-        Optional<User> currentUser = getUserUtil.getAuthenticatedUser();
+        Optional<AuthenticatedUser> currentUser = getUserUtil.getAuthenticatedPrincipal();
         if (currentUser.isEmpty()) {
             return ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
         }
         UUID userId = currentUser.get().getId();
 
-        List<Peers> requests = new ArrayList<>();
+        List<PeerInfoDTO> requestList = new ArrayList<>();
         if (type == ReqType.SENT) {
-            requests = peersRepo.findByUser1IdAndStatus(userId, PeerStatus.PENDING);
+            requestList = peersRepo.findSentInfo(userId, PeerStatus.PENDING);
         } else if (type == ReqType.RECEIVED) {
-            requests = peersRepo.findByUser2IdAndStatus(userId, PeerStatus.PENDING);
+            requestList = peersRepo.findReceivedInfo(userId, PeerStatus.PENDING);
         }
-        List<PeerInfoDTO> requestList = requests.stream().map(req -> {
-            User targetUser = (type == ReqType.SENT) ? req.getUser2() : req.getUser1();
-            User user = userRepo.findById(targetUser.getId()).get();
-            return new PeerInfoDTO(req.getId(), req.getUser2().getId(), user.getFirstName()
-                    , user.getLastName(), user.getEmail(), user.getInstitute(), user.getUsername()
-            );
-        }).toList();
 
         return ApiResponse.success(requestList, HttpStatus.OK);
     }
 
     /**
-     * Retrieves the list of peers for the authenticated user.
+     * Lists the accepted peers of the authenticated user, one page at a time.
+     * Pages are ordered by username then user ID, projected straight into PeerInfoDTO and
+     * fetched with a seek on that key, so deep pages cost the same as the first.
      *
-     * @return the response entity containing the list of peers or an error status
+     * @param cursor   the continuation token from the previous page, or null for the first page
+     * @param pageSize the maximum number of results, or null for the configured default
+     * @return the response entity containing one page of peers or an error status
      */
-    public ResponseEntity<ApiResponse<List<PeerInfoDTO>>> findPeers() {
-        Optional<User> currentUser = getUserUtil.getAuthenticatedUser();
+    public ResponseEntity<ApiResponse<CursorPageDTO<PeerInfoDTO>>> findPeers(String cursor, Integer pageSize) {
+        Optional<AuthenticatedUser> currentUser = getUserUtil.getAuthenticatedPrincipal();
         if (currentUser.isEmpty()) {
             return ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
         }
         UUID userId = currentUser.get().getId();
 
-        List<Peers> peersList = peersRepo.findByUser1IdOrUser2IdAndStatus(userId, userId, PeerStatus.ACCEPTED);
+        MaterialCursor after;
+        try {
+            after = MaterialCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
 
-        List<PeerInfoDTO> peerList = peersList.stream().map(peer -> {
-            User user;
-            if (peer.getUser1().getId().equals(userId)) {
-                user = peer.getUser2();
-            } else {
-                user = peer.getUser1();
-            }
-            return new PeerInfoDTO(peer.getId(), user.getId(), user.getFirstName()
-                    , user.getLastName(), user.getEmail(), user.getInstitute(), user.getUsername()
-            );
-        }).toList();
-        return ApiResponse.success(peerList, HttpStatus.OK);
+        int size = searchConfig.getPeers().resolvePageSize(pageSize);
+        List<PeerInfoDTO> rows = after == null
+                ? peersRepo.findPeerInfoPage(userId, PeerStatus.ACCEPTED, Limit.of(size + 1))
+                : peersRepo.findPeerInfoPageAfter(userId, PeerStatus.ACCEPTED, after.name(), after.id(),
+                Limit.of(size + 1));
+
+        List<PeerInfoDTO> page = rows.subList(0, Math.min(size, rows.size()));
+        String nextCursor = null;
+        if (rows.size() > size) {
+            PeerInfoDTO last = page.get(page.size() - 1);
+            nextCursor = new MaterialCursor(last.getUserName(), last.getUserId()).encode();
+        }
+        return ApiResponse.success(new CursorPageDTO<>(page, nextCursor), HttpStatus.OK);
     }
 
     /**
@@ -204,12 +297,145 @@ public class PeersManagementService {
         if (authorizationCheck.checkAuthorization(user1.getId()) || authorizationCheck.checkAuthorization(user2.getId())) {
             peer.get().setStatus(PeerStatus.ACCEPTED);
             peersRepo.save(peer.get());
+            peerVisibilityIndex.link(user1.getId(), user2.getId());
+            peerGraphIndex.accept(user1.getId(), user2.getId());
+            indexSyncService.peersChanged(user1.getId(), user2.getId());
+            searchCacheService.invalidateUsers(user1.getId(), user2.getId());
+            peerSuggestionService.edgeChanged(user1.getId(), user2.getId());
+            publishToBoth(PeerEventType.REQUEST_ACCEPTED, reqId, user1.getId(), user2.getId());
             return ApiResponse.success(true, HttpStatus.OK);
         } else {
             return ApiResponse.error("Not authorized", HttpStatus.FORBIDDEN);
         }
     }
 
+    /**
+     * Accepts, rejects or removes many peer requests at once.
+     * The current user is resolved once and every request is authorized from one projection
+     * query, without loading either user. The change is then applied to all authorized requests
+     * with a single UPDATE or DELETE.
+     *
+     * <p>Only the receiver may accept or reject, and only while the request is pending; either
+     * side may remove a relationship in any status. Requests that fail these checks are reported
+     * in the results and do not stop the others.</p>
+     *
+     * <p>The read locks the requested rows and runs in one transaction with the write, so a
+     * request cannot be accepted, removed or rejected by someone else in between. Indexes, events
+     * and caches are only updated once that transaction has committed, and only for the rows the
+     * write changed.</p>
+     *
+     * @param request the action and the IDs of the requests to apply it to
+     * @return the response entity containing the result for each request ID or an error status
+     */
+    public ResponseEntity<ApiResponse<List<BulkPeerResultDTO>>> applyBulkAction(BulkPeerActionDTO request) {
+        Optional<AuthenticatedUser> currentUser = getUserUtil.getAuthenticatedPrincipal();
+        if (currentUser.isEmpty()) {
+            return ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
+        }
+        if (request.getAction() == null || request.getReqIds() == null || request.getReqIds().isEmpty()) {
+            return ApiResponse.error("Action and request IDs are required", HttpStatus.BAD_REQUEST);
+        }
+        Set<UUID> reqIds = new LinkedHashSet<>(request.getReqIds());
+        if (reqIds.size() > searchConfig.getPeers().getMaxBulkSize()) {
+            return ApiResponse.error("Too many request IDs", HttpStatus.BAD_REQUEST);
+        }
+        UUID userId = currentUser.get().getId();
+        PeerAction action = request.getAction();
+
+        List<BulkPeerResultDTO> results = new ArrayList<>();
+        List<PeerRequestRowDTO> applied = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(transaction -> {
+            Map<UUID, PeerRequestRowDTO> rows = peersRepo.findRequestRows(reqIds).stream()
+                    .collect(Collectors.toMap(PeerRequestRowDTO::getReqId, Function.identity()));
+            for (UUID reqId : reqIds) {
+                String error = bulkActionError(action, rows.get(reqId), userId);
+                results.add(new BulkPeerResultDTO(reqId, error == null, error));
+                if (error == null) {
+                    applied.add(rows.get(reqId));
+                }
+            }
+            if (applied.isEmpty()) {
+                return;
+            }
+
+            List<UUID> appliedIds = applied.stream().map(PeerRequestRowDTO::getReqId).toList();
+            int changed = action == PeerAction.ACCEPT
+                    ? peersRepo.updateStatusByIdIn(appliedIds, PeerStatus.PENDING, PeerStatus.ACCEPTED)
+                    : peersRepo.deleteByIdIn(appliedIds);
+            if (changed != appliedIds.size()) {
+                // The locks make this unreachable unless rows escaped them; report nothing as applied
+                log.warn("Bulk {} changed {} of {} locked requests, rolling back", action, changed,
+                        appliedIds.size());
+                transaction.setRollbackOnly();
+                results.replaceAll(result -> result.isSuccess()
+                        ? new BulkPeerResultDTO(result.getReqId(), false, "Request changed, try again")
+                        : result);
+                applied.clear();
+            }
+        });
+        if (applied.isEmpty()) {
+            return ApiResponse.success(results, HttpStatus.OK);
+        }
+
+        List<UUID> changedUsers = new ArrayList<>();
+        for (PeerRequestRowDTO row : applied) {
+            if (action == PeerAction.ACCEPT) {
+                peerVisibilityIndex.link(row.getUser1Id(), row.getUser2Id());
+                peerGraphIndex.accept(row.getUser1Id(), row.getUser2Id());
+            } else {
+                peerVisibilityIndex.unlink(row.getUser1Id(), row.getUser2Id());
+                peerGraphIndex.remove(row.getUser1Id(), row.getUser2Id());
+            }
+            indexSyncService.peersChanged(row.getUser1Id(), row.getUser2Id());
+            // Only accepted edges affect material visibility and suggestions
+            if (action == PeerAction.ACCEPT || row.getStatus() == PeerStatus.ACCEPTED) {
+                changedUsers.add(row.getUser1Id());
+                changedUsers.add(row.getUser2Id());
+                peerSuggestionService.edgeChanged(row.getUser1Id(), row.getUser2Id());
+            }
+            publishToBoth(action == PeerAction.ACCEPT ? PeerEventType.REQUEST_ACCEPTED : PeerEventType.PEER_REMOVED,
+                    row.getReqId(), row.getUser1Id(), row.getUser2Id());
+        }
+        if (!changedUsers.isEmpty()) {
+            searchCacheService.invalidateUsers(changedUsers.stream().distinct().toArray(UUID[]::new));
+        }
+        return ApiResponse.success(results, HttpStatus.OK);
+    }
+
+    /**
+     * Checks whether the current user may apply a bulk action to one request.
+     *
+     * @param action the bulk action
+     * @param row    the request, or null if it does not exist
+     * @param userId the current user's ID
+     * @return the error to report for the request, or null if the action may be applied
+     */
+    private String bulkActionError(PeerAction action, PeerRequestRowDTO row, UUID userId) {
+        if (row == null) {
+            return "Peer not found";
+        }
+        if (action == PeerAction.REMOVE) {
+            return userId.equals(row.getUser1Id()) || userId.equals(row.getUser2Id()) ? null : "Not authorized";
+        }
+        if (!userId.equals(row.getUser2Id())) {
+            return "Not authorized";
+        }
+        return row.getStatus() == PeerStatus.PENDING ? null : "Request is not pending";
+    }
+
+    /**
+     * Pushes an event about a request to both of its users, each told about the other one.
+     *
+     * @param type    the event type
+     * @param reqId   the ID of the request
+     * @param user1Id the ID of the requester
+     * @param user2Id the ID of the receiver
+     */
+    private void publishToBoth(PeerEventType type, UUID reqId, UUID user1Id, UUID user2Id) {
+        peerEventService.publish(user1Id, new PeerEventDTO(type, reqId, user2Id));
+        peerEventService.publish(user2Id, new PeerEventDTO(type, reqId, user1Id));
+    }
+
     /**
      * Removes a peer with the specified peer ID.
      *
@@ -226,6 +452,12 @@ public class PeersManagementService {
             if (authorizationCheck.checkAuthorization(user1.getId()) ||
                     authorizationCheck.checkAuthorization(user2.getId())) {
                 peersRepo.delete(peer.get());
+                peerVisibilityIndex.unlink(user1.getId(), user2.getId());
+                peerGraphIndex.remove(user1.getId(), user2.getId());
+                indexSyncService.peersChanged(user1.getId(), user2.getId());
+                searchCacheService.invalidateUsers(user1.getId(), user2.getId());
+                peerSuggestionService.edgeChanged(user1.getId(), user2.getId());
+                publishToBoth(PeerEventType.PEER_REMOVED, peerId, user1.getId(), user2.getId());
                 return ApiResponse.success(true, HttpStatus.OK);
             } else {
                 return ApiResponse.error("Not authorized", HttpStatus.FORBIDDEN);
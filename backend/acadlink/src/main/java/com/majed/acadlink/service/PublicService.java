@@ -1,5 +1,6 @@
 package com.majed.acadlink.service;
 
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,44 +9,69 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.UUID;
+
 import com.majed.acadlink.domain.repository.UserRepo;
 import com.majed.acadlink.dto.ApiResponse;
 import com.majed.acadlink.dto.ErrorResponseDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.dto.user.RefreshTokenDTO;
+import com.majed.acadlink.dto.user.TokenPairDTO;
 import com.majed.acadlink.dto.user.UserLoginDTO;
 import com.majed.acadlink.dto.user.UserResponseDTO;
 import com.majed.acadlink.dto.user.UserSignUpDTO;
+import com.majed.acadlink.exception.PasswordHashingRejectedException;
+import com.majed.acadlink.utility.GetUserUtil;
 import com.majed.acadlink.utility.JWTUtil;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service class for handling public operations such as user sign-up and login.
+ *
+ * <p>Login verifies the password once and returns a short-lived access token with a refresh
+ * token. Renewing the access token with the refresh token skips the password hash and costs
+ * a Redis script call and a principal lookup by ID.</p>
  */
 @Service
 @Slf4j
 public class PublicService {
+    private static final String BUSY_MESSAGE = "Server is busy, please try again shortly";
+
     private final UserService userService;
     private final UserDetailsServiceImpl userDetailsService;
     private final AuthenticationManager authenticationManager;
     private final UserRepo userRepo;
     private final JWTUtil jwtUtil;
+    private final GetUserUtil getUserUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
 
     /**
      * Constructor for PublicService.
      *
-     * @param userDetailsService    the user details service
-     * @param userService           the user service
-     * @param authenticationManager the authentication manager
-     * @param userRepo              the user repository
-     * @param jwtUtil               the JWT utility
+     * @param userDetailsService     the user details service
+     * @param userService            the user service
+     * @param authenticationManager  the authentication manager
+     * @param userRepo               the user repository
+     * @param jwtUtil                the JWT utility
+     * @param getUserUtil            utility to get the authenticated user
+     * @param tokenRevocationService the list of revoked tokens
+     * @param refreshTokenService    the service rotating refresh tokens
      */
     public PublicService(UserDetailsServiceImpl userDetailsService, UserService userService,
-                         AuthenticationManager authenticationManager, UserRepo userRepo, JWTUtil jwtUtil) {
+                         AuthenticationManager authenticationManager, UserRepo userRepo, JWTUtil jwtUtil,
+                         GetUserUtil getUserUtil, TokenRevocationService tokenRevocationService,
+                         RefreshTokenService refreshTokenService) {
         this.userDetailsService = userDetailsService;
         this.userService = userService;
         this.authenticationManager = authenticationManager;
         this.userRepo = userRepo;
         this.jwtUtil = jwtUtil;
+        this.getUserUtil = getUserUtil;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     /**
@@ -82,6 +108,11 @@ public class PublicService {
             return ResponseEntity
                     .status(HttpStatus.CREATED)
                     .body(addedUser);
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Sign-up rejected: {}", e.getMessage());
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponseDTO(BUSY_MESSAGE, HttpStatus.SERVICE_UNAVAILABLE.value()));
         } catch (Exception e) {
             log.error("Error creating user: {}", e.getMessage(), e);
             return ResponseEntity
@@ -92,12 +123,12 @@ public class PublicService {
     }
 
     /**
-     * Logs in a user and generates a JWT token.
+     * Logs in a user and generates an access token and a refresh token.
      *
      * @param userData the user login data
-     * @return the response entity containing the JWT token or an error status
+     * @return the response entity containing the token pair or an error status
      */
-    public ResponseEntity<ApiResponse<String>> login(UserLoginDTO userData) {
+    public ResponseEntity<ApiResponse<TokenPairDTO>> login(UserLoginDTO userData) {
         try {
             UserDetails userDetails = userDetailsService.loadUserByUsername(userData.getUsernameorEmail());
 
@@ -109,18 +140,112 @@ public class PublicService {
                     new UsernamePasswordAuthenticationToken(userData.getUsernameorEmail(), userData.getPassword())
             );
 
-            String jwt = jwtUtil.generateToken(userDetails.getUsername());
+            Optional<AuthenticatedUser> principal = userRepo.findPrincipalByUsername(userDetails.getUsername());
+            if (principal.isEmpty()) {
+                return ApiResponse.error("User not found", HttpStatus.NOT_FOUND);
+            }
+            String tokenId = UUID.randomUUID().toString();
+            String jwt = jwtUtil.generateToken(principal.get(), tokenId);
+            String refreshToken = refreshTokenService.issue(principal.get().getId(), tokenId).orElse(null);
 
-            return ApiResponse.success(jwt, HttpStatus.OK);
+            return ApiResponse.success(tokenPair(jwt, refreshToken), HttpStatus.OK);
 
         } catch (BadCredentialsException e) {
             return ApiResponse.error("Incorrect Password", HttpStatus.BAD_REQUEST);
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Login rejected: {}", e.getMessage());
+            return ApiResponse.error(BUSY_MESSAGE, HttpStatus.SERVICE_UNAVAILABLE);
         } catch (Exception e) {
             log.error(e.toString());
             return ApiResponse.error("Internal Server Error", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Issues a new access token and refresh token in exchange for a refresh token, without
+     * verifying the password. The presented refresh token can no longer be used.
+     *
+     * @param request the request holding the refresh token
+     * @return the response entity containing the new token pair or an error status
+     */
+    public ResponseEntity<ApiResponse<TokenPairDTO>> refresh(RefreshTokenDTO request) {
+        try {
+            String tokenId = UUID.randomUUID().toString();
+            Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(request.getRefreshToken(),
+                    tokenId);
+            if (rotation.isEmpty()) {
+                return ApiResponse.error("Invalid refresh token", HttpStatus.UNAUTHORIZED);
+            }
+            Optional<AuthenticatedUser> principal = userRepo.findPrincipalById(rotation.get().userId());
+            if (principal.isEmpty()) {
+                return ApiResponse.error("User not found", HttpStatus.NOT_FOUND);
+            }
+            String jwt = jwtUtil.generateToken(principal.get(), tokenId);
+            return ApiResponse.success(tokenPair(jwt, rotation.get().refreshToken()), HttpStatus.OK);
+        } catch (DataAccessException e) {
+            log.error("Error refreshing token: {}", e.getMessage());
+            return ApiResponse.error("Token service unavailable", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Ends the session of a refresh token: the refresh token and the latest access token issued
+     * with it are revoked.
+     *
+     * @param request the request holding the refresh token
+     * @return the response entity indicating success or an error status
+     */
+    public ResponseEntity<ApiResponse<Boolean>> logout(RefreshTokenDTO request) {
+        try {
+            if (!refreshTokenService.revoke(request.getRefreshToken())) {
+                return ApiResponse.error("Invalid refresh token", HttpStatus.UNAUTHORIZED);
+            }
+            return ApiResponse.success(true, HttpStatus.OK);
+        } catch (DataAccessException e) {
+            log.error("Error revoking refresh token: {}", e.getMessage());
+            return ApiResponse.error("Token service unavailable", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private static TokenPairDTO tokenPair(String accessToken, String refreshToken) {
+        return new TokenPairDTO(accessToken, refreshToken, JWTUtil.ACCESS_TOKEN_LIFETIME.toSeconds());
+    }
+
+    /**
+     * Issues a new token pair for the authenticated user, carrying the user's current status, and
+     * revokes the user's earlier access tokens. Clients call this after a status change such as
+     * email verification, whose old token still carries the previous status. The presented
+     * refresh token is rotated like on a refresh, so the caller's session keeps a single family.
+     *
+     * @param request the request holding the caller's refresh token
+     * @return the response entity containing the new token pair or an error status
+     */
+    public ResponseEntity<ApiResponse<TokenPairDTO>> reissueToken(RefreshTokenDTO request) {
+        Optional<AuthenticatedUser> current = getUserUtil.getAuthenticatedPrincipal();
+        if (current.isEmpty()) {
+            return ApiResponse.error("Not logged in", HttpStatus.UNAUTHORIZED);
+        }
+        Optional<AuthenticatedUser> principal = userRepo.findPrincipalByUsername(current.get().getUsername());
+        if (principal.isEmpty()) {
+            return ApiResponse.error("User not found", HttpStatus.NOT_FOUND);
+        }
+        try {
+            String tokenId = UUID.randomUUID().toString();
+            Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(request.getRefreshToken(),
+                    tokenId);
+            if (rotation.isEmpty() || !rotation.get().userId().equals(principal.get().getId())) {
+                return ApiResponse.error("Invalid refresh token", HttpStatus.UNAUTHORIZED);
+            }
+            // Revoked before the new token is issued, so the new token is the only one left valid
+            tokenRevocationService.revokeUser(principal.get().getId());
+            String jwt = jwtUtil.generateToken(principal.get(), tokenId);
+            return ApiResponse.success(tokenPair(jwt, rotation.get().refreshToken()), HttpStatus.OK);
+        } catch (DataAccessException e) {
+            log.error("Error re-issuing token: {}", e.getMessage());
+            return ApiResponse.error("Token service unavailable", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
     /**
      * Checks if a username exists in the system.
      *
@@ -0,0 +1,205 @@
+package com.majed.acadlink.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service responsible for refresh tokens, which renew short-lived access tokens without the
+ * password.
+ *
+ * <p>A login starts a token family. Each refresh rotates it: the presented refresh token is
+ * replaced by a new one, and the access token issued with it becomes the family's latest. A
+ * refresh token that was already rotated away means it leaked and is being reused: the whole
+ * family is revoked, together with its latest access token, so both the thief and the victim
+ * have to log in again.</p>
+ *
+ * <p>Refresh tokens are random strings prefixed with their family ID; only their SHA-256
+ * digest is stored. The check and the rotation run as one Lua script, so two refreshes with
+ * the same token cannot both succeed. A family expires when it has not been refreshed for a
+ * refresh token lifetime.</p>
+ *
+ * <p>Storage Format:
+ * - Key: auth:refresh:{familyId} (hash)
+ * - Field user: the user's ID
+ * - Field current: digest of the family's valid refresh token
+ * - Field jti: ID of the family's latest access token</p>
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+    private static final String FAMILY_PREFIX = "auth:refresh:";
+    private static final String ROTATED = "rotated:";
+    private static final String REUSED = "reused:";
+
+    /**
+     * Replaces the family's current digest if it matches, or drops the family if it does not.
+     * Returns "rotated:{userId}", "reused:{jti}" or "missing".
+     */
+    private static final RedisScript<String> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], 'current')
+            if not current then
+              return 'missing'
+            end
+            if current ~= ARGV[1] then
+              local jti = redis.call('HGET', KEYS[1], 'jti')
+              redis.call('DEL', KEYS[1])
+              return 'reused:' .. (jti or '')
+            end
+            redis.call('HSET', KEYS[1], 'current', ARGV[2], 'jti', ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return 'rotated:' .. redis.call('HGET', KEYS[1], 'user')
+            """, String.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final TokenRevocationService tokenRevocationService;
+    private final Duration refreshTokenLifetime;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Constructs a new RefreshTokenService with required dependencies.
+     *
+     * @param redisTemplate          the Redis template for data storage
+     * @param tokenRevocationService the service revoking the access tokens of reused families
+     * @param refreshTokenLifetime   how long a family stays valid without being refreshed
+     */
+    public RefreshTokenService(StringRedisTemplate redisTemplate, TokenRevocationService tokenRevocationService,
+                               @Value("${spring.custom.security.refresh-token-lifetime:P14D}")
+                               Duration refreshTokenLifetime) {
+        this.redisTemplate = redisTemplate;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenLifetime = refreshTokenLifetime;
+    }
+
+    /**
+     * Starts a token family for the user.
+     *
+     * @param userId        the user's ID
+     * @param accessTokenId the ID of the access token issued with the refresh token
+     * @return the refresh token, or empty if it could not be stored
+     */
+    public Optional<String> issue(UUID userId, String accessTokenId) {
+        String familyId = UUID.randomUUID().toString();
+        String token = newToken(familyId);
+        try {
+            String key = FAMILY_PREFIX + familyId;
+            redisTemplate.opsForHash().putAll(key, Map.of(
+                    "user", userId.toString(),
+                    "current", sha256(token),
+                    "jti", accessTokenId));
+            redisTemplate.expire(key, refreshTokenLifetime);
+            return Optional.of(token);
+        } catch (DataAccessException e) {
+            log.warn("Error storing refresh token of user {}: {}", userId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces a refresh token with a new one of the same family. A token that was already
+     * replaced revokes its family and the family's latest access token.
+     *
+     * @param refreshToken  the presented refresh token
+     * @param accessTokenId the ID of the access token issued with the new refresh token
+     * @return the user's ID and the new refresh token, or empty if the token is not valid
+     */
+    public Optional<Rotation> rotate(String refreshToken, String accessTokenId) {
+        Optional<String> familyId = familyOf(refreshToken);
+        if (familyId.isEmpty()) {
+            return Optional.empty();
+        }
+        String next = newToken(familyId.get());
+        String result = redisTemplate.execute(ROTATE_SCRIPT, List.of(FAMILY_PREFIX + familyId.get()),
+                sha256(refreshToken), sha256(next), accessTokenId,
+                Long.toString(refreshTokenLifetime.toMillis()));
+        if (result != null && result.startsWith(ROTATED)) {
+            return Optional.of(new Rotation(UUID.fromString(result.substring(ROTATED.length())), next));
+        }
+        if (result != null && result.startsWith(REUSED)) {
+            log.warn("Refresh token reuse detected, revoking token family {}", familyId.get());
+            String latestAccessTokenId = result.substring(REUSED.length());
+            if (!latestAccessTokenId.isEmpty()) {
+                tokenRevocationService.revokeToken(latestAccessTokenId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Ends the family of a refresh token and revokes its latest access token.
+     *
+     * @param refreshToken the refresh token to end
+     * @return true if the token belonged to a live family
+     */
+    public boolean revoke(String refreshToken) {
+        Optional<String> familyId = familyOf(refreshToken);
+        if (familyId.isEmpty()) {
+            return false;
+        }
+        String key = FAMILY_PREFIX + familyId.get();
+        List<Object> fields = redisTemplate.opsForHash().multiGet(key, List.of("current", "jti"));
+        if (fields.get(0) == null || !sha256(refreshToken).equals(fields.get(0))) {
+            return false;
+        }
+        redisTemplate.delete(key);
+        if (fields.get(1) != null) {
+            tokenRevocationService.revokeToken(fields.get(1).toString());
+        }
+        return true;
+    }
+
+    private String newToken(String familyId) {
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        return familyId + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+    }
+
+    private static Optional<String> familyOf(String refreshToken) {
+        if (refreshToken == null) {
+            return Optional.empty();
+        }
+        int separator = refreshToken.indexOf('.');
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(refreshToken.substring(0, separator)).toString());
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The outcome of a successful rotation.
+     *
+     * @param userId       the ID of the user the family belongs to
+     * @param refreshToken the new refresh token
+     */
+    public record Rotation(UUID userId, String refreshToken) {
+    }
+}
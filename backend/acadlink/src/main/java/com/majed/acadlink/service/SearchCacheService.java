@@ -0,0 +1,185 @@
+package com.majed.acadlink.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.majed.acadlink.config.SearchConfig;
+import com.majed.acadlink.dto.material.MaterialSearchPageDTO;
+import com.majed.acadlink.enums.MaterialType;
+import com.majed.acadlink.enums.Privacy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Service responsible for caching material search pages in Redis.
+ *
+ * <p>Invalidation is version based: every cached page is stored under a key that
+ * embeds the current version of each searchable privacy class and of the viewing
+ * user. Changing a material bumps the version of its privacy class and of its owner;
+ * accepting or removing a peer bumps the version of both users. Readers then compute
+ * a different key and never see the stale page, so correctness does not depend on
+ * the TTL, which only reclaims memory.</p>
+ *
+ * <p>Storage Format:
+ * - Versions: search:version:privacy:{PRIVACY} and search:version:user:{userId}
+ * - Pages: search:materials:{sha256 of the query and versions}
+ * - Value: JSON of the page returned to the client</p>
+ *
+ * <p>Redis failures never fail a search: lookups then miss and writes are skipped.</p>
+ */
+@Service
+@Slf4j
+public class SearchCacheService {
+    private static final String VERSION_PREFIX = "search:version:";
+    private static final String PRIVACY_VERSION = VERSION_PREFIX + "privacy:";
+    private static final String USER_VERSION = VERSION_PREFIX + "user:";
+    private static final String MATERIALS_PREFIX = "search:materials:";
+    private static final List<Privacy> SHARED = List.of(Privacy.PUBLIC, Privacy.PEERS, Privacy.INSTITUTIONAL);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SearchConfig searchConfig;
+
+    /**
+     * Constructs a new SearchCacheService with required dependencies.
+     *
+     * @param redisTemplate the Redis template for data storage
+     * @param objectMapper  the JSON mapper for serialization/deserialization
+     * @param searchConfig  the search configuration holding the cache settings
+     */
+    public SearchCacheService(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                              SearchConfig searchConfig) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.searchConfig = searchConfig;
+    }
+
+    /**
+     * Builds the cache key of a material search page from the query and the current versions.
+     *
+     * @param userId       the viewing user's ID
+     * @param instituteKey the viewing user's normalized institute
+     * @param keyword      the normalized search keyword
+     * @param type         the material type filter, or null for all types
+     * @param privacy      the privacy filter, or null for all privacies
+     * @param fuzzy        whether the search is typo-tolerant
+     * @param cursor       the continuation token, or null for the first page
+     * @param pageSize     the effective page size
+     * @return the cache key, or empty when caching is disabled or Redis is unavailable
+     */
+    public Optional<String> materialsKey(UUID userId, String instituteKey, String keyword, MaterialType type,
+                                         Privacy privacy, boolean fuzzy, String cursor, int pageSize) {
+        if (!searchConfig.getCache().isEnabled()) {
+            return Optional.empty();
+        }
+        List<String> versionKeys = new ArrayList<>();
+        SHARED.forEach(shared -> versionKeys.add(PRIVACY_VERSION + shared.name()));
+        versionKeys.add(USER_VERSION + userId);
+        try {
+            List<String> versions = redisTemplate.opsForValue().multiGet(versionKeys);
+            if (versions == null) {
+                return Optional.empty();
+            }
+            String raw = String.join("\n", userId.toString(), instituteKey, keyword,
+                    type == null ? "" : type.name(), privacy == null ? "" : privacy.name(),
+                    fuzzy ? "fuzzy" : "exact",
+                    cursor == null ? "" : cursor, Integer.toString(pageSize),
+                    versions.stream().map(version -> version == null ? "0" : version)
+                            .collect(Collectors.joining(":")));
+            return Optional.of(MATERIALS_PREFIX + sha256(raw));
+        } catch (DataAccessException e) {
+            log.warn("Search cache unavailable, serving uncached: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads a cached material search page.
+     *
+     * @param key the key built by {@link #materialsKey}
+     * @return the cached page, or empty on a miss
+     */
+    public Optional<MaterialSearchPageDTO> getMaterials(String key) {
+        try {
+            String data = redisTemplate.opsForValue().get(key);
+            return data == null ? Optional.empty() : Optional.of(objectMapper.readValue(data, MaterialSearchPageDTO.class));
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Error reading cached search page {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a material search page.
+     *
+     * @param key  the key built by {@link #materialsKey}
+     * @param page the page to cache
+     */
+    public void putMaterials(String key, MaterialSearchPageDTO page) {
+        try {
+            redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(page),
+                    searchConfig.getCache().getTtl());
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Error caching search page {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Invalidates cached searches affected by a change to one material: those of its owner
+     * and those touching any of the given privacy classes.
+     *
+     * @param ownerId    the ID of the material's owner
+     * @param privacies the material's privacy before and/or after the change
+     */
+    public void invalidateMaterial(UUID ownerId, Privacy... privacies) {
+        List<String> keys = new ArrayList<>();
+        keys.add(USER_VERSION + ownerId);
+        for (Privacy privacy : privacies) {
+            if (privacy != null && SHARED.contains(privacy) && !keys.contains(PRIVACY_VERSION + privacy.name())) {
+                keys.add(PRIVACY_VERSION + privacy.name());
+            }
+        }
+        bump(keys);
+    }
+
+    /**
+     * Invalidates cached searches of the given users, e.g. after their peer relationship changed.
+     *
+     * @param userIds the IDs of the affected users
+     */
+    public void invalidateUsers(UUID... userIds) {
+        List<String> keys = new ArrayList<>();
+        for (UUID userId : userIds) {
+            keys.add(USER_VERSION + userId);
+        }
+        bump(keys);
+    }
+
+    private void bump(List<String> keys) {
+        try {
+            keys.forEach(key -> redisTemplate.opsForValue().increment(key));
+        } catch (DataAccessException e) {
+            log.error("Failed to bump search cache versions {}: {}", keys, e.getMessage());
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.majed.acadlink.service;
+
+import com.majed.acadlink.utility.BloomFilter;
+import com.majed.acadlink.utility.JWTUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service responsible for revoking access tokens before they expire: all tokens of a user
+ * whose status changed, or single tokens by their ID (the jti claim).
+ *
+ * <p>Revoking a user rejects every token of that user issued before the revocation millisecond, so
+ * claims that no longer hold cannot be used until the token expires. The list is small: an
+ * entry is only useful for one token lifetime, after which older tokens have expired anyway
+ * and the entry is dropped. It is kept in Redis for all instances and mirrored in memory, so
+ * checking a token costs a map lookup. Other instances see a revocation at their next refresh.</p>
+ *
+ * <p>Revoked token IDs are stored in Redis and published on a channel every instance listens
+ * to, which adds them to an in-memory Bloom filter. A token whose ID the filter has never seen
+ * is accepted without a Redis call; only the rare filter hit is confirmed against Redis. The
+ * filter is rebuilt from Redis every token lifetime, which drops expired IDs and covers
+ * messages missed while disconnected.</p>
+ *
+ * <p>Storage Format:
+ * - Key: auth:revoked (hash)
+ * - Field: user ID
+ * - Value: epoch millisecond before which the user's tokens are rejected
+ * - Key: auth:revoked:tokens (sorted set)
+ * - Member: token ID
+ * - Score: epoch second at which the token expires</p>
+ *
+ * <p>Redis failures never fail a request: revocations then apply to this instance only. A
+ * filter hit that cannot be confirmed is treated as revoked.</p>
+ */
+@Service
+@Slf4j
+public class TokenRevocationService implements MessageListener {
+    private static final String REVOKED_KEY = "auth:revoked";
+    private static final String REVOKED_TOKENS_KEY = "auth:revoked:tokens";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final int expectedRevokedTokens;
+    private final double falsePositiveRate;
+    private final Map<UUID, Long> revokedBefore = new ConcurrentHashMap<>();
+    private final Set<String> pendingTokenIds = ConcurrentHashMap.newKeySet();
+    private volatile BloomFilter revokedTokens;
+    private volatile boolean rebuilding;
+
+    /**
+     * Constructs a new TokenRevocationService with required dependencies.
+     *
+     * @param redisTemplate         the Redis template for data storage
+     * @param channel               the Redis pub/sub channel revoked token IDs are published on
+     * @param expectedRevokedTokens the number of token IDs revoked per token lifetime the filter is sized for
+     * @param falsePositiveRate     the rate of filter hits for token IDs that were never revoked
+     */
+    public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                  @Value("${spring.custom.security.revocation-channel:auth:revocations}")
+                                  String channel,
+                                  @Value("${spring.custom.security.revoked-tokens-expected:100000}")
+                                  int expectedRevokedTokens,
+                                  @Value("${spring.custom.security.revoked-tokens-false-positive-rate:0.001}")
+                                  double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.expectedRevokedTokens = expectedRevokedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.revokedTokens = new BloomFilter(expectedRevokedTokens, falsePositiveRate);
+    }
+
+    /**
+     * Returns the channel revoked token IDs are published on.
+     *
+     * @return the channel name
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Rejects every token of the user issued before the current millisecond. Tokens issued
+     * afterwards stay valid, even within the same second.
+     *
+     * @param userId the user's ID
+     */
+    public void revokeUser(UUID userId) {
+        long now = Instant.now().toEpochMilli();
+        revokedBefore.merge(userId, now, Math::max);
+        try {
+            redisTemplate.opsForHash().put(REVOKED_KEY, userId.toString(), Long.toString(now));
+        } catch (DataAccessException e) {
+            log.warn("Error storing token revocation of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Rejects the token with the given ID on every instance.
+     *
+     * @param tokenId the token's ID
+     */
+    public void revokeToken(String tokenId) {
+        add(tokenId);
+        long expiresAt = Instant.now().plus(JWTUtil.ACCESS_TOKEN_LIFETIME).getEpochSecond();
+        try {
+            redisTemplate.opsForZSet().add(REVOKED_TOKENS_KEY, tokenId, expiresAt);
+            redisTemplate.convertAndSend(channel, tokenId);
+        } catch (DataAccessException e) {
+            log.warn("Error storing revocation of token {}: {}", tokenId, e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether a token of the user has been revoked.
+     *
+     * @param userId   the user's ID
+     * @param issuedAt the token's issue date, or null if it has none
+     * @return true if the token was issued before the user's last revocation
+     */
+    public boolean isRevoked(UUID userId, Date issuedAt) {
+        Long before = revokedBefore.get(userId);
+        if (before == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() < before;
+    }
+
+    /**
+     * Checks whether the token with the given ID has been revoked.
+     *
+     * @param tokenId the token's ID, or null if it has none
+     * @return true if the token has been revoked
+     */
+    public boolean isTokenRevoked(String tokenId) {
+        if (tokenId == null || !revokedTokens.mightContain(tokenId)) {
+            return false;
+        }
+        try {
+            return redisTemplate.opsForZSet().score(REVOKED_TOKENS_KEY, tokenId) != null;
+        } catch (DataAccessException e) {
+            log.warn("Error confirming revocation of token {}: {}", tokenId, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Adds a token ID revoked on any instance to the filter.
+     *
+     * @param message the message carrying the token ID
+     * @param pattern the pattern matching the channel, unused
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reloads the user revocations of all instances and drops the ones older than a token lifetime.
+     */
+    @Scheduled(fixedDelayString = "${spring.custom.security.revocation-refresh-interval:PT5S}")
+    public void refresh() {
+        long expired = Instant.now().minus(JWTUtil.ACCESS_TOKEN_LIFETIME).toEpochMilli();
+        Map<UUID, Long> stored = new HashMap<>();
+        try {
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(REVOKED_KEY);
+            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+                long before = Long.parseLong(entry.getValue().toString());
+                if (before <= expired) {
+                    redisTemplate.opsForHash().delete(REVOKED_KEY, entry.getKey());
+                } else {
+                    stored.put(UUID.fromString(entry.getKey().toString()), before);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Error reading token revocations: {}", e.getMessage());
+        }
+        stored.forEach((userId, before) -> revokedBefore.merge(userId, before, Math::max));
+        revokedBefore.values().removeIf(before -> before <= expired);
+    }
+
+    /**
+     * Rebuilds the filter from the revoked token IDs that have not expired yet, once the
+     * application is ready and then every token lifetime.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${spring.custom.security.revoked-tokens-rebuild-interval:PT15M}",
+            fixedDelayString = "${spring.custom.security.revoked-tokens-rebuild-interval:PT15M}")
+    public void rebuildFilter() {
+        BloomFilter filter = new BloomFilter(expectedRevokedTokens, falsePositiveRate);
+        pendingTokenIds.clear();
+        rebuilding = true;
+        try {
+            long now = Instant.now().getEpochSecond();
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_TOKENS_KEY, Double.NEGATIVE_INFINITY, now);
+            Set<String> tokenIds = redisTemplate.opsForZSet().rangeByScore(REVOKED_TOKENS_KEY, now,
+                    Double.POSITIVE_INFINITY);
+            if (tokenIds != null) {
+                tokenIds.forEach(filter::put);
+            }
+            revokedTokens = filter;
+            // IDs revoked while the set was being read went to the old filter and the pending set
+            pendingTokenIds.forEach(filter::put);
+            log.info("Revoked token filter rebuilt with {} token IDs", tokenIds == null ? 0 : tokenIds.size());
+        } catch (DataAccessException e) {
+            log.warn("Error rebuilding revoked token filter: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+            pendingTokenIds.clear();
+        }
+    }
+
+    private void add(String tokenId) {
+        if (rebuilding) {
+            pendingTokenIds.add(tokenId);
+        }
+        revokedTokens.put(tokenId);
+    }
+}
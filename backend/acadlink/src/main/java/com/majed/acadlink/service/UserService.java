@@ -4,7 +4,6 @@ import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,23 +23,25 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @Slf4j
 public class UserService {
-    private static final PasswordEncoder passWordEncoder = new BCryptPasswordEncoder();
-
     private final UserRepo userRepo;
     private final GetUserUtil getUserUtil;
+    private final PasswordEncoder passwordEncoder;
 
     /**
      * Constructor for UserService.
      *
-     * @param userRepo    the user repository
-     * @param getUserUtil the utility for getting the authenticated user
+     * @param userRepo        the user repository
+     * @param getUserUtil     the utility for getting the authenticated user
+     * @param passwordEncoder the encoder hashing passwords on the bounded hashing executor
      */
     public UserService(
             UserRepo userRepo,
-            GetUserUtil getUserUtil
+            GetUserUtil getUserUtil,
+            PasswordEncoder passwordEncoder
     ) {
         this.userRepo = userRepo;
         this.getUserUtil = getUserUtil;
+        this.passwordEncoder = passwordEncoder;
     }
 
     /**
@@ -57,7 +58,7 @@ public class UserService {
         user.setInstitute(userData.getInstitute());
         user.setEmail(userData.getEmail());
         user.setUsername(userData.getUserName());
-        user.setPassword(passWordEncoder.encode(userData.getPassword()));
+        user.setPassword(passwordEncoder.encode(userData.getPassword()));
 
         try {
             User savedUser = userRepo.save(user);
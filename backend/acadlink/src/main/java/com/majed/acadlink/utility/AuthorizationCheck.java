@@ -1,12 +1,9 @@
 package com.majed.acadlink.utility;
 
-import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.stereotype.Component;
 
-import com.majed.acadlink.domain.entity.User;
-
 @Component
 public class AuthorizationCheck {
     private final GetUserUtil getUserUtil;
@@ -16,9 +13,9 @@ public class AuthorizationCheck {
     }
 
     public boolean checkAuthorization(UUID id) {
-        Optional<User> current = getUserUtil.getAuthenticatedUser();
-
-        return current.isPresent() && current.get().getId().equals(id);
+        return getUserUtil.getAuthenticatedPrincipal()
+                .map(principal -> principal.getId().equals(id))
+                .orElse(false);
     }
 
 }
@@ -0,0 +1,106 @@
+package com.majed.acadlink.utility;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings.
+ *
+ * <p>{@link #mightContain} never answers false for a value that was added, and answers true
+ * for a value that was not added with roughly the configured false positive rate, as long as
+ * no more than the expected number of values were added. Values cannot be removed; callers
+ * drop stale values by building a new filter.</p>
+ *
+ * <p>The bit positions of a value come from two 64-bit hashes combined as h1 + i * h2, so a
+ * lookup costs one pass over the value's bytes and a few array reads.</p>
+ */
+public class BloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a filter sized for the expected number of values and false positive rate.
+     *
+     * @param expectedValues    the number of values the filter is sized for
+     * @param falsePositiveRate the accepted false positive rate, between 0 and 1 exclusive
+     */
+    public BloomFilter(int expectedValues, double falsePositiveRate) {
+        if (expectedValues <= 0) {
+            throw new IllegalArgumentException("Expected values must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long optimalBits = (long) Math.ceil(-expectedValues * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedValues * Math.log(2)));
+    }
+
+    /**
+     * Adds a value to the filter.
+     *
+     * @param value the value to add
+     */
+    public void put(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h1 = hash(bytes, 0x9E3779B97F4A7C15L);
+        long h2 = hash(bytes, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a value may have been added to the filter.
+     *
+     * @param value the value to check
+     * @return false if the value was definitely not added, true if it may have been
+     */
+    public boolean mightContain(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h1 = hash(bytes, 0x9E3779B97F4A7C15L);
+        long h2 = hash(bytes, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bit positions each value sets.
+     *
+     * @return the hash count
+     */
+    int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * FNV-1a over the bytes, seeded and finished with the SplitMix64 mixer so that nearby
+     * values spread over the whole range.
+     */
+    private static long hash(byte[] bytes, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (byte b : bytes) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 30;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 27;
+        h *= 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,138 @@
+package com.majed.acadlink.utility;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.majed.acadlink.exception.PasswordHashingRejectedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Password encoder running the hashes of a delegate encoder on a dedicated, size-limited executor.
+ *
+ * <p>Hashing is CPU-bound by design, so a burst of logins or sign-ups on request threads would
+ * take every core and starve unrelated requests. Here at most the configured number of hashes
+ * run at once, a bounded number wait in a queue, and any further hash is rejected at once with
+ * a {@link PasswordHashingRejectedException} that callers turn into a 503.</p>
+ *
+ * <p>Metrics:
+ * - acadlink.password.queue.wait: time a hash waited for a thread, by operation
+ * - acadlink.password.hash.time: time a hash ran, by operation
+ * - acadlink.password.rejected: hashes rejected because the queue was full
+ * - acadlink.password.queue.size: hashes waiting for a thread</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private static final String ENCODE = "encode";
+    private static final String MATCHES = "matches";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeWait;
+    private final Timer matchesWait;
+    private final Timer encodeTime;
+    private final Timer matchesTime;
+    private final Counter rejected;
+
+    /**
+     * Creates an encoder hashing on its own executor.
+     *
+     * @param delegate      the encoder computing the hashes
+     * @param threads       the number of hashes run at once
+     * @param queueCapacity the number of hashes that may wait for a thread
+     * @param meterRegistry the registry the metrics are published to
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeWait = timer("acadlink.password.queue.wait", ENCODE, meterRegistry);
+        this.matchesWait = timer("acadlink.password.queue.wait", MATCHES, meterRegistry);
+        this.encodeTime = timer("acadlink.password.hash.time", ENCODE, meterRegistry);
+        this.matchesTime = timer("acadlink.password.hash.time", MATCHES, meterRegistry);
+        this.rejected = Counter.builder("acadlink.password.rejected")
+                .description("Password hashes rejected because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("acadlink.password.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeWait, encodeTime, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesWait, matchesTime, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Stops the executor once the hashes already accepted have run.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs a hash on the executor and waits for its result.
+     *
+     * @param waitTimer the timer recording the time spent in the queue
+     * @param hashTimer the timer recording the time spent hashing
+     * @param hash      the hash to run
+     * @return the hash's result
+     * @throws PasswordHashingRejectedException if the queue is full
+     */
+    private <T> T run(Timer waitTimer, Timer hashTimer, Supplier<T> hash) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return hash.get();
+                } finally {
+                    hashTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing is saturated", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer timer(String name, String operation, MeterRegistry meterRegistry) {
+        return Timer.builder(name).tag("operation", operation).register(meterRegistry);
+    }
+}
@@ -9,9 +9,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.majed.acadlink.domain.entity.User;
-import com.majed.acadlink.domain.repository.UserRepo;
 import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -38,6 +37,7 @@ import lombok.extern.slf4j.Slf4j;
  * <p>Security Considerations:
  * - Must be placed after JWT filter to ensure user is authenticated
  * - Uses Spring Security's Authentication context
+ * - Reads the verification status from the principal JWTFilter resolved, without a database call
  * - Returns JSON error responses for better client handling
  * - Logs security events for monitoring</p>
  */
@@ -47,7 +47,6 @@ import lombok.extern.slf4j.Slf4j;
 public class EmailVerificationFilter extends OncePerRequestFilter {
     private static final String INTERNAL_SERVER_ERROR_MESSAGE = "Internal server error during email verification check";
     
-    private final UserRepo userRepo;
     private final ObjectMapper objectMapper;
 
     /**
@@ -56,7 +55,7 @@ public class EmailVerificationFilter extends OncePerRequestFilter {
      *
      * <p>Skipped Paths:
      * - /v1/public/** (public endpoints)
-     * - /auth/** (email verification endpoints)
+     * - /auth/** and /v1/auth/** (email verification and token re-issue endpoints)
      * - /public/login (login endpoint)
      * - /public/sign-up (signup endpoint)</p>
      *
@@ -69,6 +68,7 @@ public class EmailVerificationFilter extends OncePerRequestFilter {
         // Skip email verification check for public endpoints and email verification endpoints
         return path.startsWith("/v1/public/") || 
                path.startsWith("/auth/") || 
+               path.startsWith("/v1/auth/") || 
                path.equals("/public/login") || 
                path.equals("/public/sign-up");
     }
@@ -79,7 +79,7 @@ public class EmailVerificationFilter extends OncePerRequestFilter {
      *
      * <p>Process Flow:
      * 1. Gets the current authentication from security context
-     * 2. If user is authenticated, retrieves user details
+     * 2. If user is authenticated, reads the principal resolved by JWTFilter
      * 3. Checks if user's email is verified
      * 4. If not verified, returns 403 Forbidden
      * 5. If verified or not authenticated, continues the filter chain</p>
@@ -116,13 +116,9 @@ public class EmailVerificationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // Look up user
-            User user = userRepo.findByUsername(username)
-                    .orElse(null);
-
-            // Handle user not found
-            if (user == null) {
-                log.error("User not found in email verification filter: {}", username);
+            // The principal is resolved once per request by JWTFilter
+            if (!(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+                log.error("Unexpected principal in email verification filter: {}", username);
                 sendErrorResponse(response, HttpStatus.INTERNAL_SERVER_ERROR, 
                     INTERNAL_SERVER_ERROR_MESSAGE);
                 return;
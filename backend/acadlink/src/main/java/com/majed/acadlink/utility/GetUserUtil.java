@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 
 import com.majed.acadlink.domain.entity.User;
 import com.majed.acadlink.domain.repository.UserRepo;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
 
 @Component
 public class GetUserUtil {
@@ -17,13 +18,26 @@ public class GetUserUtil {
         this.userRepo = userRepo;
     }
 
-    private String getAuthenticatedUsername() {
+    /**
+     * Returns the principal JWTFilter stored for this request, without a database call.
+     *
+     * @return the authenticated user, or empty if the request is not authenticated
+     */
+    public Optional<AuthenticatedUser> getAuthenticatedPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return authentication != null ? authentication.getName() : null;
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return Optional.of(principal);
+        }
+        return Optional.empty();
     }
 
+    /**
+     * Returns a reference to the authenticated user's entity, for callers that need the entity itself.
+     * The reference is not loaded until a field other than the ID is read.
+     *
+     * @return the authenticated user, or empty if the request is not authenticated
+     */
     public Optional<User> getAuthenticatedUser() {
-        String username = getAuthenticatedUsername();
-        return username != null ? userRepo.findByUsername(username) : Optional.empty();
+        return getAuthenticatedPrincipal().map(principal -> userRepo.getReferenceById(principal.getId()));
     }
 }
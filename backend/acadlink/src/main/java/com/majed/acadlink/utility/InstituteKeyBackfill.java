@@ -0,0 +1,45 @@
+package com.majed.acadlink.utility;
+
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.domain.repository.UserRepo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills in the normalized institute key for users stored before the column existed.
+ * Runs on application start, ahead of the search indexes that are built once the
+ * application is ready and read the key.
+ */
+@Component
+@Slf4j
+public class InstituteKeyBackfill {
+    private final UserRepo userRepo;
+
+    public InstituteKeyBackfill(UserRepo userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    /**
+     * Normalizes the institute of every user without a key and saves those that changed.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional
+    public void backfill() {
+        List<User> pending = userRepo.findWithoutInstituteKey().stream()
+                .filter(user -> !User.instituteKeyOf(user.getInstitute()).isEmpty())
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        pending.forEach(user -> user.setInstitute(user.getInstitute()));
+        userRepo.saveAll(pending);
+        log.info("Backfilled institute keys for {} users", pending.size());
+    }
+}
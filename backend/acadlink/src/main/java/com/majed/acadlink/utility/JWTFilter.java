@@ -1,15 +1,19 @@
 package com.majed.acadlink.utility;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.majed.acadlink.domain.repository.UserRepo;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.service.TokenRevocationService;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,19 +21,34 @@ import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Filter that validates JWT tokens for each request.
+ * The user of a valid token is resolved once, as an {@link AuthenticatedUser}, and stored as the
+ * principal of the security context for the later filters and services to read.
+ * The principal is built from the token's verified claims without a database call; only tokens
+ * issued before the user claims existed are resolved from the database.
+ * Tokens revoked after a status change of their user, or revoked by their ID, are ignored.
+ * The peer event stream is opened by a browser EventSource, which cannot set headers, so that
+ * one request may instead carry a stream token in the token query parameter. Stream tokens are
+ * ignored in the Authorization header, and access tokens in the query parameter, where they
+ * would end up in access logs.
  */
 @Component
 public class JWTFilter extends OncePerRequestFilter {
-    private final UserDetailsService userDetailsService;
+    private static final String EVENTS_PATH = "/peers/events";
+    private static final String STREAM_TOKEN_PARAMETER = "token";
+
+    private final UserRepo userRepo;
     private final JWTUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
-     * @param userDetailsService the service to load user details
-     * @param jwtUtil            the utility to handle JWT operations
+     * @param userRepo               the repository the principal of older tokens is read from
+     * @param jwtUtil                the utility to handle JWT operations
+     * @param tokenRevocationService the list of revoked tokens
      */
-    public JWTFilter(UserDetailsService userDetailsService, JWTUtil jwtUtil) {
-        this.userDetailsService = userDetailsService;
+    public JWTFilter(UserRepo userRepo, JWTUtil jwtUtil, TokenRevocationService tokenRevocationService) {
+        this.userRepo = userRepo;
         this.jwtUtil = jwtUtil;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -53,15 +72,26 @@ public class JWTFilter extends OncePerRequestFilter {
         String authorizationHeader = request.getHeader("Authorization");
         String username = null;
         String jwt = null;
+        boolean streamRequest = false;
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
+        } else if ("GET".equals(request.getMethod()) && request.getRequestURI().endsWith(EVENTS_PATH)) {
+            jwt = request.getParameter(STREAM_TOKEN_PARAMETER);
+            streamRequest = true;
+        }
+        if (jwt != null) {
             username = jwtUtil.extractUsername(jwt);
         }
-        if (username != null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            boolean isValidToken = jwtUtil.validateToken(jwt);
-            if (isValidToken) {
-                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        if (username != null && jwtUtil.validateToken(jwt) && jwtUtil.isStreamToken(jwt) == streamRequest) {
+            Optional<AuthenticatedUser> principal = jwtUtil.extractPrincipal(jwt);
+            if (principal.isEmpty()) {
+                principal = userRepo.findPrincipalByUsername(username);
+            }
+            if (principal.isPresent()
+                    && !tokenRevocationService.isRevoked(principal.get().getId(), jwtUtil.extractIssuedAt(jwt))
+                    && !tokenRevocationService.isTokenRevoked(jwtUtil.extractTokenId(jwt))) {
+                UsernamePasswordAuthenticationToken auth =
+                        new UsernamePasswordAuthenticationToken(principal.get(), null, List.of());
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
@@ -1,31 +1,100 @@
 package com.majed.acadlink.utility;
 
+import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for handling JWT operations such as generating and validating tokens.
+ *
+ * <p>The signing key and the parser are built once. Verified claims are cached under the
+ * SHA-256 digest of the token until the token expires, so a client repeating a token skips
+ * signature verification and decoding. The cache is bounded; when it is full, expired entries
+ * are purged first, then arbitrary ones.</p>
+ *
+ * <p>Tokens carry the user's ID, institute and email verification status as the uid,
+ * institute and ev claims, so a request is authenticated from the verified claims alone.
+ * Every token has a unique ID (the jti claim) by which it can be revoked before it expires, and
+ * its issue time in milliseconds as the iatms claim: the standard iat claim only holds seconds,
+ * which cannot tell a token issued just before a revocation from one issued just after.</p>
+ *
+ * <p>Stream tokens additionally carry the scope claim. They open the peer event stream, whose
+ * browser client cannot send an Authorization header, and are accepted nowhere else.</p>
  */
 @Component
 public class JWTUtil {
+    /**
+     * How long an issued access token stays valid; clients renew it with their refresh token.
+     */
+    public static final Duration ACCESS_TOKEN_LIFETIME = Duration.ofMinutes(15);
+
+    /**
+     * How long a stream token may be used to open the peer event stream; an open stream is not cut.
+     */
+    public static final Duration STREAM_TOKEN_LIFETIME = Duration.ofMinutes(1);
+
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String EVENTS_SCOPE = "peer-events";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String INSTITUTE_CLAIM = "institute";
+    private static final String EMAIL_VERIFIED_CLAIM = "ev";
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iatms";
+
     @Value("${spring.custom.security.jwtsecret}")
     private String secretKey;
 
+    @Value("${spring.custom.security.claims-cache-size:10000}")
+    private int claimsCacheSize = 10_000;
+
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+    private final Map<String, VerifiedClaims> verifiedClaims = new ConcurrentHashMap<>();
+
     /**
-     * Retrieves the signing key used for JWT operations.
+     * Retrieves the signing key used for JWT operations, deriving it on first use.
      *
      * @return the secret key used for signing JWTs
      */
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secretKey.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+
+    /**
+     * Retrieves the parser verifying tokens against the signing key, building it on first use.
+     *
+     * @return the JWT parser
+     */
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parser().verifyWith(getSigningKey()).build();
+            parser = jwtParser;
+        }
+        return jwtParser;
     }
 
     /**
@@ -49,18 +118,109 @@ public class JWTUtil {
         return extractAllClaims(token).getExpiration();
     }
 
+    /**
+     * Extracts the issue date from the provided JWT token, to the millisecond when the token
+     * carries the iatms claim.
+     *
+     * @param token the JWT token
+     * @return the issue date of the token
+     */
+    public Date extractIssuedAt(String token) {
+        Claims claims = extractAllClaims(token);
+        Object issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM);
+        if (issuedAtMillis instanceof Number millis) {
+            return new Date(millis.longValue());
+        }
+        return claims.getIssuedAt();
+    }
+
+    /**
+     * Extracts the unique ID from the provided JWT token.
+     *
+     * @param token the JWT token
+     * @return the token ID, or null if the token was issued without one
+     */
+    public String extractTokenId(String token) {
+        return extractAllClaims(token).getId();
+    }
+
+    /**
+     * Checks whether the provided JWT token is a stream token rather than an access token.
+     *
+     * @param token the JWT token
+     * @return true if the token may only open the peer event stream
+     */
+    public boolean isStreamToken(String token) {
+        return EVENTS_SCOPE.equals(extractAllClaims(token).get(SCOPE_CLAIM, String.class));
+    }
+
+    /**
+     * Builds the request principal from the claims of the provided JWT token.
+     *
+     * @param token the JWT token
+     * @return the principal, or empty if the token was issued without the user claims
+     */
+    public Optional<AuthenticatedUser> extractPrincipal(String token) {
+        Claims claims = extractAllClaims(token);
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        Boolean emailVerified = claims.get(EMAIL_VERIFIED_CLAIM, Boolean.class);
+        if (userId == null || emailVerified == null) {
+            return Optional.empty();
+        }
+        String institute = claims.get(INSTITUTE_CLAIM, String.class);
+        return Optional.of(new AuthenticatedUser(UUID.fromString(userId), claims.getSubject(), institute,
+                User.instituteKeyOf(institute), emailVerified));
+    }
+
     /**
      * Extracts all claims from the provided JWT token.
+     * Claims verified earlier are served from the cache until the token expires.
      *
      * @param token the JWT token
      * @return the claims extracted from the token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        String digest = sha256(token);
+        long now = System.currentTimeMillis();
+        VerifiedClaims cached = verifiedClaims.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached.claims();
+            }
+            verifiedClaims.remove(digest, cached);
+        }
+
+        Claims claims = getParser().parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null && claimsCacheSize > 0) {
+            if (verifiedClaims.size() >= claimsCacheSize) {
+                evict(now);
+            }
+            verifiedClaims.put(digest, new VerifiedClaims(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
+    /**
+     * Makes room in the claims cache: drops expired entries, then arbitrary ones if still full.
+     *
+     * @param now the current time in milliseconds
+     */
+    private void evict(long now) {
+        verifiedClaims.values().removeIf(entry -> entry.expiresAt() <= now);
+        Iterator<String> digests = verifiedClaims.keySet().iterator();
+        while (verifiedClaims.size() >= claimsCacheSize && digests.hasNext()) {
+            digests.next();
+            digests.remove();
+        }
+    }
+
+    /**
+     * Returns the number of tokens whose claims are cached.
+     *
+     * @return the cache size
+     */
+    int cachedTokens() {
+        return verifiedClaims.size();
     }
 
     /**
@@ -74,31 +234,66 @@ public class JWTUtil {
     }
 
     /**
-     * Generates a new JWT token for the provided username.
+     * Generates a new JWT token for the provided user, embedding the user claims.
+     *
+     * @param user the user for which the token is generated
+     * @return the generated JWT token
+     */
+    public String generateToken(AuthenticatedUser user) {
+        return generateToken(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Generates a new JWT token with the given ID for the provided user, embedding the user claims.
+     *
+     * @param user    the user for which the token is generated
+     * @param tokenId the unique ID of the token
+     * @return the generated JWT token
+     */
+    public String generateToken(AuthenticatedUser user, String tokenId) {
+        return createToken(userClaims(user), user.getUsername(), tokenId, ACCESS_TOKEN_LIFETIME);
+    }
+
+    /**
+     * Generates a short-lived token for the provided user that only opens the peer event stream.
      *
-     * @param username the username for which the token is generated
+     * @param user the user for which the token is generated
      * @return the generated JWT token
      */
-    public String generateToken(String username) {
+    public String generateStreamToken(AuthenticatedUser user) {
+        Map<String, Object> claims = userClaims(user);
+        claims.put(SCOPE_CLAIM, EVENTS_SCOPE);
+        return createToken(claims, user.getUsername(), UUID.randomUUID().toString(), STREAM_TOKEN_LIFETIME);
+    }
+
+    private static Map<String, Object> userClaims(AuthenticatedUser user) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username);
+        claims.put(USER_ID_CLAIM, user.getId().toString());
+        claims.put(INSTITUTE_CLAIM, user.getInstitute());
+        claims.put(EMAIL_VERIFIED_CLAIM, user.isEmailVerified());
+        return claims;
     }
 
     /**
-     * Creates a new JWT token with the provided claims and subject.
+     * Creates a new JWT token with the provided claims, subject and ID.
      *
-     * @param claims  the claims to be included in the token
-     * @param subject the subject of the token
+     * @param claims   the claims to be included in the token
+     * @param subject  the subject of the token
+     * @param tokenId  the unique ID of the token
+     * @param lifetime how long the token stays valid
      * @return the created JWT token
      */
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, String tokenId, Duration lifetime) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
                 .subject(subject)
+                .id(tokenId)
                 .header().empty().add("typ", "JWT")
                 .and()
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // 1 hour expiration time
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + lifetime.toMillis()))
                 .signWith(getSigningKey())
                 .compact();
     }
@@ -112,4 +307,22 @@ public class JWTUtil {
     public Boolean validateToken(String token) {
         return !isTokenExpired(token);
     }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Claims whose signature has been verified, with the time the token expires.
+     *
+     * @param claims    the verified claims
+     * @param expiresAt the token's expiration in milliseconds since the epoch
+     */
+    private record VerifiedClaims(Claims claims, long expiresAt) {
+    }
 }
@@ -0,0 +1,79 @@
+package com.majed.acadlink.utility;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of a material in an ordered listing: (name, id) for plain listings, or
+ * (score, name, id) for relevance-ranked search results, together with the epoch of the
+ * ranking statistics the score was computed with.
+ * Encoded into the opaque continuation token handed to clients, so the next page
+ * can seek directly past it instead of skipping rows with an offset. The peers list
+ * uses the same token over (username, user ID).
+ *
+ * @param name  the sort name of the material
+ * @param id    the material ID, breaking ties between equal names
+ * @param score the relevance score of a search result, or null for name-ordered listings
+ * @param epoch the epoch of the statistics the score was computed with, or null for name-ordered listings
+ */
+public record MaterialCursor(String name, UUID id, Double score, Long epoch) {
+    private static final char SEPARATOR = '\n';
+    private static final char SCORE_SEPARATOR = ';';
+
+    public MaterialCursor(String name, UUID id) {
+        this(name, id, null, null);
+    }
+
+    public MaterialCursor(String name, UUID id, Double score) {
+        this(name, id, score, null);
+    }
+
+    /**
+     * Encodes this position as a URL-safe token.
+     *
+     * @return the opaque cursor token
+     */
+    public String encode() {
+        String head = id.toString();
+        if (score != null) {
+            head += SCORE_SEPARATOR + score.toString();
+            if (epoch != null) {
+                head += SCORE_SEPARATOR + epoch.toString();
+            }
+        }
+        String raw = head + SEPARATOR + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the cursor token, may be null or blank for the first page
+     * @return the decoded position, or null when no token was supplied
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static MaterialCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        String head = raw.substring(0, separator);
+        String name = raw.substring(separator + 1);
+        int scoreSeparator = head.indexOf(SCORE_SEPARATOR);
+        if (scoreSeparator < 0) {
+            return new MaterialCursor(name, UUID.fromString(head));
+        }
+        UUID id = UUID.fromString(head.substring(0, scoreSeparator));
+        int epochSeparator = head.indexOf(SCORE_SEPARATOR, scoreSeparator + 1);
+        if (epochSeparator < 0) {
+            return new MaterialCursor(name, id, Double.valueOf(head.substring(scoreSeparator + 1)));
+        }
+        return new MaterialCursor(name, id, Double.valueOf(head.substring(scoreSeparator + 1, epochSeparator)),
+                Long.valueOf(head.substring(epochSeparator + 1)));
+    }
+}
@@ -0,0 +1,923 @@
+package com.majed.acadlink.utility;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.majed.acadlink.config.SearchConfig;
+import com.majed.acadlink.domain.entity.Materials;
+import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.domain.repository.MaterialsRepo;
+import com.majed.acadlink.dto.material.MaterialIndexEntryDTO;
+import com.majed.acadlink.enums.MaterialType;
+import com.majed.acadlink.enums.Privacy;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process inverted index over material names.
+ * This class handles:
+ * 1. Tokenizing material names into trigram and short-prefix postings
+ * 2. Keeping one partition per searchable {@link Privacy}
+ * 3. Answering visibility-aware keyword lookups without touching the materials table
+ * 4. Counting the matches per material type and privacy for search facets
+ * 5. Typo-tolerant lookups that verify trigram candidates by edit distance
+ *
+ * <p>Keywords of three or more characters are matched as substrings of the name
+ * (the same semantics as {@code LIKE '%keyword%'}): candidates come from the
+ * keyword's rarest trigram posting and are then verified. Shorter keywords are
+ * matched against word prefixes.</p>
+ *
+ * <p>The PEERS partition additionally keeps one posting per owner. When the
+ * viewer's peers own fewer PEERS materials than the keyword posting holds, the
+ * search walks only those owners' postings, so its cost follows the viewer's
+ * visible set instead of every peer-only material in the system.</p>
+ *
+ * <p>Matches are ranked by BM25 over the name's tokens, boosted when the name is
+ * exactly the keyword or starts with it. Document frequencies and the average name
+ * length are kept current as materials are indexed, but scores are computed from a
+ * snapshot of them taken at most once per statistics interval. Each hit carries the
+ * snapshot's epoch, and later pages are scored with the same snapshot, so a material
+ * keeps its score while the caller pages even if the index changed meanwhile. A
+ * replaced snapshot is retained for a while; a cursor whose snapshot is gone (or was
+ * taken on another instance) has expired and the search has to restart.</p>
+ *
+ * <p>Only the best {@code limit} matches are kept, in a bounded heap, so the candidate
+ * set is never sorted as a whole. Every visible candidate is still scored on every page,
+ * since ranking does not follow posting order; pages continue in rank order from the
+ * (score, name, id) of the caller's cursor.</p>
+ *
+ * <p>Fuzzy lookups match every keyword term against the name's tokens within a bounded
+ * Damerau-Levenshtein distance. Candidates are the names sharing enough trigrams with the
+ * longest term that they could be within that distance, so only a fraction of the partition
+ * is verified. When the allowed edits could change every trigram of a short term, names
+ * with a word starting with one of the term's first two characters are candidates too.
+ * Candidate generation and verification both stop at the caller's latency budget and
+ * report the page as incomplete.</p>
+ *
+ * <p>The index is rebuilt from the database once the application is ready and is
+ * kept current by the material save, update and delete paths; changes made on other
+ * instances arrive through {@link com.majed.acadlink.service.IndexSyncService}.</p>
+ */
+@Component
+@Slf4j
+public class MaterialSearchIndex {
+    static final int GRAM_SIZE = 3;
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final double EXACT_BOOST = 3.0;
+    static final double PREFIX_BOOST = 1.5;
+    // Candidates collected or verified between two reads of the clock
+    private static final int DEADLINE_STRIDE = 64;
+    private static final Set<Privacy> SEARCHABLE = EnumSet.of(Privacy.PUBLIC, Privacy.PEERS, Privacy.INSTITUTIONAL);
+    private static final Pattern TOKEN_SPLITTER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::name).thenComparing(Entry::id);
+    private static final Comparator<Scored> RANK = Comparator.comparingDouble(Scored::score).reversed()
+            .thenComparing(Scored::entry, ORDER);
+
+    private final MaterialsRepo materialsRepo;
+    private final SearchConfig searchConfig;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Privacy, Partition> partitions = new EnumMap<>(Privacy.class);
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Map<String, Integer> documentFrequency = new HashMap<>();
+    private long totalTokens;
+    // Set under the write lock when the statistics change, cleared when a snapshot is taken
+    private boolean statisticsChanged = true;
+    // Statistics snapshots, oldest first; the last one is current. Guarded by its own monitor.
+    private final List<Statistics> snapshots = new ArrayList<>();
+
+    public MaterialSearchIndex(MaterialsRepo materialsRepo, SearchConfig searchConfig) {
+        this.materialsRepo = materialsRepo;
+        this.searchConfig = searchConfig;
+        SEARCHABLE.forEach(privacy -> partitions.put(privacy, new Partition(privacy == Privacy.PEERS)));
+    }
+
+    /**
+     * Loads every material into the index once the application context is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<MaterialIndexEntryDTO> rows = materialsRepo.findAllIndexEntries();
+        lock.writeLock().lock();
+        try {
+            partitions.values().forEach(Partition::clear);
+            entries.clear();
+            documentFrequency.clear();
+            totalTokens = 0;
+            statisticsChanged = true;
+            rows.forEach(row -> addUnlocked(Entry.of(row.getId(), row.getName(), row.getType(), row.getPrivacy(),
+                    row.getOwnerId(), row.getOwnerInstituteKey())));
+            log.info("Material search index built with {} entries", entries.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a material to the index, replacing any previous entry with the same ID.
+     * The material's folder and owner must be loaded or loadable.
+     *
+     * @param material the persisted material
+     */
+    public void index(Materials material) {
+        if (material == null || material.getId() == null || material.getName() == null) {
+            return;
+        }
+        User owner = material.getFolder().getUser();
+        Entry entry = Entry.of(material.getId(), material.getName(), material.getType(), material.getPrivacy(),
+                owner.getId(), owner.getInstituteKey());
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(entry.id());
+            addUnlocked(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a material read as an index projection, replacing any previous entry with the same ID.
+     *
+     * @param row the material and its owner
+     */
+    public void index(MaterialIndexEntryDTO row) {
+        Entry entry = Entry.of(row.getId(), row.getName(), row.getType(), row.getPrivacy(), row.getOwnerId(),
+                row.getOwnerInstituteKey());
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(entry.id());
+            addUnlocked(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a material from the index.
+     *
+     * @param materialId the ID of the removed material
+     */
+    public void remove(UUID materialId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(materialId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the materials visible to the viewer whose name matches the keyword, best first.
+     *
+     * @param keyword the raw search keyword
+     * @param viewer  the user the search runs for
+     * @param after   the position to resume after, or null for the first page
+     * @param limit   the maximum number of results to return
+     * @return the scored positions of the matching materials, in result order
+     * @see #search(String, Viewer, Filter, MaterialCursor, int)
+     */
+    public List<MaterialCursor> search(String keyword, Viewer viewer, MaterialCursor after, int limit) {
+        return search(keyword, viewer, Filter.NONE, after, limit).hits();
+    }
+
+    /**
+     * Finds the materials visible to the viewer whose name matches the keyword and the filter,
+     * best first, and counts the visible matches per type and privacy in the same pass.
+     * Every visibility class is answered by a single probe; results are unique and ordered
+     * by relevance, then name, then ID.
+     *
+     * <p>Facet counts ignore the cursor and are disjunctive: type counts apply only the
+     * privacy filter and privacy counts apply only the type filter, so each count is the
+     * number of results that selecting that value would return.</p>
+     *
+     * @param keyword the raw search keyword
+     * @param viewer  the user the search runs for
+     * @param filter  the type and privacy to restrict hits to
+     * @param after   the position to resume after, or null for the first page
+     * @param limit   the maximum number of results to return
+     * @return the scored positions of the matching materials, in result order, and the facet counts
+     */
+    public Result search(String keyword, Viewer viewer, Filter filter, MaterialCursor after, int limit) {
+        String query = normalize(keyword);
+        List<String> terms = tokens(query).stream().distinct().toList();
+        return collect(statistics -> new ExactQuery(query, terms, statistics), viewer, filter, after, limit,
+                Long.MAX_VALUE);
+    }
+
+    /**
+     * Finds the materials visible to the viewer whose name matches every keyword term within
+     * a bounded edit distance, best first, with the same filter, facet and cursor semantics as
+     * {@link #search(String, Viewer, Filter, MaterialCursor, int)}. Closer matches score higher.
+     *
+     * <p>Terms shorter than {@link #GRAM_SIZE} characters must match a word prefix exactly;
+     * terms of up to five characters allow one edit and longer terms allow {@code maxEdits}.
+     * When the latency budget runs out the hits and counts found so far are returned with
+     * {@link Result#complete()} false.</p>
+     *
+     * @param keyword  the raw search keyword
+     * @param viewer   the user the search runs for
+     * @param filter   the type and privacy to restrict hits to
+     * @param after    the position to resume after, or null for the first page
+     * @param limit    the maximum number of results to return
+     * @param maxEdits the maximum edit distance allowed for long terms
+     * @param budget   how long finding and verifying candidates may run
+     * @return the scored positions of the matching materials, in result order, and the facet counts
+     */
+    public Result fuzzySearch(String keyword, Viewer viewer, Filter filter, MaterialCursor after, int limit,
+                              int maxEdits, Duration budget) {
+        String query = normalize(keyword);
+        List<String> terms = tokens(query).stream().distinct().toList();
+        long deadline = System.nanoTime() + budget.toNanos();
+        return collect(statistics -> new FuzzyQuery(query, terms, maxEdits, statistics, deadline), viewer, filter,
+                after, limit, deadline);
+    }
+
+    /**
+     * Checks whether a search can no longer resume from the cursor: it is ranked, and the
+     * statistics snapshot its score was computed with has been dropped or was never taken on
+     * this instance. Resuming it would score the remaining matches differently and skip or
+     * repeat some of them.
+     *
+     * @param after the position to resume after, may be null
+     * @return true if the search has to restart from the first page
+     */
+    public boolean isExpired(MaterialCursor after) {
+        if (after == null || after.score() == null) {
+            return false;
+        }
+        synchronized (snapshots) {
+            dropReplaced(System.nanoTime());
+            return retained(after) == null;
+        }
+    }
+
+    private Result collect(Function<Statistics, Query> prepare, Viewer viewer, Filter filter, MaterialCursor after,
+                           int limit, long deadline) {
+        Scored from = after == null ? null : new Scored(
+                new Entry(after.id(), after.name(), null, null, null, null, null),
+                after.score() == null ? Double.POSITIVE_INFINITY : after.score());
+        PriorityQueue<Scored> best = new PriorityQueue<>(Math.max(1, limit) + 1, RANK.reversed());
+        int[] typeCounts = new int[MaterialType.values().length];
+        int[] privacyCounts = new int[Privacy.values().length];
+        boolean complete = true;
+        int verified = 0;
+        long epoch;
+        lock.readLock().lock();
+        try {
+            Statistics statistics = statistics(after);
+            Query query = prepare.apply(statistics);
+            epoch = statistics.epoch();
+            scan:
+            for (Partition partition : partitions.values()) {
+                for (Collection<Entry> source : query.sources(partition, viewer)) {
+                    for (Entry entry : source) {
+                        if (pastDeadline(deadline, ++verified)) {
+                            break scan;
+                        }
+                        if (!viewer.canSee(entry)) {
+                            continue;
+                        }
+                        double score = query.score(entry);
+                        if (score < 0) {
+                            continue;
+                        }
+                        boolean typeAccepted = filter.acceptsType(entry.type());
+                        boolean privacyAccepted = filter.acceptsPrivacy(entry.privacy());
+                        if (privacyAccepted && entry.type() != null) {
+                            typeCounts[entry.type().ordinal()]++;
+                        }
+                        if (typeAccepted) {
+                            privacyCounts[entry.privacy().ordinal()]++;
+                        }
+                        if (!typeAccepted || !privacyAccepted) {
+                            continue;
+                        }
+                        Scored hit = new Scored(entry, score);
+                        if (from != null && RANK.compare(hit, from) <= 0) {
+                            continue;
+                        }
+                        best.add(hit);
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Also covers candidate generation cut short by the deadline
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            complete = false;
+        }
+        List<Scored> hits = new ArrayList<>(best);
+        hits.sort(RANK);
+        return new Result(hits.stream()
+                .map(hit -> new MaterialCursor(hit.entry().name(), hit.entry().id(), hit.score(), epoch))
+                .toList(), counts(MaterialType.class, typeCounts), counts(Privacy.class, privacyCounts), complete);
+    }
+
+    /**
+     * Reads the clock once every {@link #DEADLINE_STRIDE} steps and tells whether the deadline
+     * has passed; {@link Long#MAX_VALUE} means no deadline.
+     */
+    private static boolean pastDeadline(long deadline, int steps) {
+        return deadline != Long.MAX_VALUE && steps % DEADLINE_STRIDE == 0 && System.nanoTime() - deadline > 0;
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> counts(Class<E> type, int[] counts) {
+        Map<E, Integer> result = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            result.put(value, counts[value.ordinal()]);
+        }
+        return result;
+    }
+
+    /**
+     * Scores a matching name with BM25 over its tokens. A query term counts once for each
+     * name token it matches under the keyword semantics of {@link #matches}. Names equal to
+     * the whole keyword, or starting with it, are boosted.
+     */
+    static double score(Entry entry, String query, List<String> terms, double[] idf, double averageLength) {
+        double score = 0;
+        double norm = K1 * (1 - B + B * entry.tokens().length / averageLength);
+        for (int i = 0; i < terms.size(); i++) {
+            int frequency = 0;
+            for (String token : entry.tokens()) {
+                if (matchesToken(token, terms.get(i))) {
+                    frequency++;
+                }
+            }
+            score += idf[i] * frequency * (K1 + 1) / (frequency + norm);
+        }
+        if (entry.name().equals(query)) {
+            score *= EXACT_BOOST;
+        } else if (entry.name().startsWith(query)) {
+            score *= PREFIX_BOOST;
+        }
+        return score;
+    }
+
+    /**
+     * Returns the statistics to score with under the read lock: the snapshot the cursor was
+     * scored with while it is retained, else the current one, taken anew when the index changed
+     * and the last one is older than the statistics interval. Replaced snapshots are dropped
+     * once the retention has passed since they were replaced.
+     */
+    private Statistics statistics(MaterialCursor after) {
+        long now = System.nanoTime();
+        synchronized (snapshots) {
+            dropReplaced(now);
+            if (after != null && after.score() != null) {
+                Statistics resumed = retained(after);
+                if (resumed != null) {
+                    return resumed;
+                }
+            }
+            Statistics current = snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+            if (current == null
+                    || statisticsChanged
+                    && now - current.takenAt() >= searchConfig.getMaterials().getStatisticsInterval().toNanos()) {
+                // Random epochs keep cursors of other instances from matching a local snapshot
+                double averageLength = entries.isEmpty() ? 1 : (double) totalTokens / entries.size();
+                current = new Statistics(ThreadLocalRandom.current().nextLong(), now, entries.size(), averageLength,
+                        Map.copyOf(documentFrequency));
+                snapshots.add(current);
+                statisticsChanged = false;
+            }
+            return current;
+        }
+    }
+
+    private void dropReplaced(long now) {
+        long retention = searchConfig.getMaterials().getStatisticsRetention().toNanos();
+        // A snapshot was replaced when the next one was taken
+        while (snapshots.size() > 1 && now - snapshots.get(1).takenAt() > retention) {
+            snapshots.remove(0);
+        }
+    }
+
+    private Statistics retained(MaterialCursor after) {
+        if (after.epoch() == null) {
+            return null;
+        }
+        for (Statistics snapshot : snapshots) {
+            if (snapshot.epoch() == after.epoch()) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    private void addUnlocked(Entry entry) {
+        Partition partition = partitions.get(entry.privacy());
+        if (partition == null) {
+            return;
+        }
+        partition.add(entry);
+        entries.put(entry.id(), entry);
+        statisticsChanged = true;
+        totalTokens += entry.tokens().length;
+        Arrays.stream(entry.tokens()).distinct().forEach(token -> documentFrequency.merge(token, 1, Integer::sum));
+    }
+
+    private void removeUnlocked(UUID materialId) {
+        Entry entry = entries.remove(materialId);
+        if (entry != null) {
+            partitions.get(entry.privacy()).remove(entry);
+            statisticsChanged = true;
+            totalTokens -= entry.tokens().length;
+            Arrays.stream(entry.tokens()).distinct().forEach(token ->
+                    documentFrequency.computeIfPresent(token, (key, count) -> count > 1 ? count - 1 : null));
+        }
+    }
+
+    /**
+     * Applies the keyword semantics directly: substring match for keywords of at least
+     * {@link #GRAM_SIZE} characters, word-prefix match for shorter ones.
+     */
+    static boolean matches(String name, String query) {
+        if (query.length() >= GRAM_SIZE) {
+            return name.contains(query);
+        }
+        for (String token : TOKEN_SPLITTER.split(name)) {
+            if (token.startsWith(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesToken(String token, String term) {
+        return term.length() >= GRAM_SIZE ? token.contains(term) : token.startsWith(term);
+    }
+
+    /**
+     * Returns the edits a fuzzy term may be away from a name token: none below
+     * {@link #GRAM_SIZE} characters, at most one up to five characters, else {@code maxEdits}.
+     */
+    static int allowedEdits(String term, int maxEdits) {
+        if (term.length() < GRAM_SIZE) {
+            return 0;
+        }
+        return term.length() <= 5 ? Math.min(1, maxEdits) : maxEdits;
+    }
+
+    /**
+     * Returns the distance of a fuzzy term to a name token, or {@code max + 1} when it is
+     * further than {@code max}. A token containing the term (or, for short terms, starting
+     * with it) is at distance zero.
+     */
+    static int termDistance(String term, String token, int max) {
+        if (matchesToken(token, term)) {
+            return 0;
+        }
+        return max == 0 ? 1 : editDistance(term, token, max);
+    }
+
+    /**
+     * Computes the optimal string alignment distance (Damerau-Levenshtein with adjacent
+     * transpositions) of two strings, giving up as soon as every alignment exceeds {@code max}.
+     *
+     * @return the distance, or {@code max + 1} when it is greater than {@code max}
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (rowMinimum > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    static List<String> tokens(String value) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SPLITTER.split(value)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Normalizes a material name or search keyword the way the index compares them.
+     *
+     * @param value the raw value
+     * @return the trimmed, lower-cased value
+     */
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    static Set<String> shortPrefixes(String value) {
+        Set<String> prefixes = new HashSet<>();
+        for (String token : TOKEN_SPLITTER.split(value)) {
+            for (int length = 1; length < GRAM_SIZE && length <= token.length(); length++) {
+                prefixes.add(token.substring(0, length));
+            }
+        }
+        return prefixes;
+    }
+
+    /**
+     * The user a search runs for: who they are, their institute and their accepted peers.
+     *
+     * @param userId       the viewer's user ID
+     * @param instituteKey the viewer's normalized institute
+     * @param peerIds      the IDs of the owners whose PEERS materials the viewer may see
+     */
+    public record Viewer(UUID userId, String instituteKey, Set<UUID> peerIds) {
+        public static Viewer of(UUID userId, String institute, Set<UUID> peerIds) {
+            return new Viewer(userId, User.instituteKeyOf(institute), peerIds);
+        }
+
+        boolean canSee(Entry entry) {
+            if (entry.ownerId().equals(userId)) {
+                return true;
+            }
+            return switch (entry.privacy()) {
+                case PUBLIC -> true;
+                case PEERS -> peerIds.contains(entry.ownerId());
+                case INSTITUTIONAL -> entry.instituteKey().equals(instituteKey);
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * Restricts search hits to one material type and/or one privacy; null accepts any value.
+     *
+     * @param type    the material type to keep, or null for all types
+     * @param privacy the privacy to keep, or null for all privacies
+     */
+    public record Filter(MaterialType type, Privacy privacy) {
+        public static final Filter NONE = new Filter(null, null);
+
+        boolean acceptsType(MaterialType value) {
+            return type == null || type == value;
+        }
+
+        boolean acceptsPrivacy(Privacy value) {
+            return privacy == null || privacy == value;
+        }
+    }
+
+    /**
+     * One page of search hits with the facet counts of all visible matches.
+     *
+     * @param hits          the scored positions of the page's materials, in result order
+     * @param typeCounts    the number of matches per material type, every type present
+     * @param privacyCounts the number of matches per privacy, every privacy present
+     * @param complete      false when a fuzzy search ran out of its latency budget
+     */
+    public record Result(List<MaterialCursor> hits, Map<MaterialType, Integer> typeCounts,
+                         Map<Privacy, Integer> privacyCounts, boolean complete) {
+        public Result(List<MaterialCursor> hits, Map<MaterialType, Integer> typeCounts,
+                      Map<Privacy, Integer> privacyCounts) {
+            this(hits, typeCounts, privacyCounts, true);
+        }
+    }
+
+    record Entry(UUID id, String name, MaterialType type, Privacy privacy, UUID ownerId, String instituteKey,
+                 String[] tokens) {
+        static Entry of(UUID id, String name, MaterialType type, Privacy privacy, UUID ownerId,
+                        String instituteKey) {
+            String normalized = normalize(name);
+            return new Entry(id, normalized, type, privacy, ownerId, instituteKey,
+                    MaterialSearchIndex.tokens(normalized).toArray(String[]::new));
+        }
+    }
+
+    private record Scored(Entry entry, double score) {
+    }
+
+    /**
+     * A frozen copy of the ranking statistics, identified by a random epoch.
+     *
+     * @param epoch             the snapshot's ID, carried by the cursors of hits scored with it
+     * @param takenAt           the {@link System#nanoTime()} the snapshot was taken at
+     * @param documents         the number of indexed materials
+     * @param averageLength     the average number of tokens per name
+     * @param documentFrequency the number of names containing each token
+     */
+    private record Statistics(long epoch, long takenAt, int documents, double averageLength,
+                              Map<String, Integer> documentFrequency) {
+        double idf(String term) {
+            int frequency = documentFrequency.getOrDefault(term, 0);
+            return Math.log(1 + (documents - frequency + 0.5) / (frequency + 0.5));
+        }
+    }
+
+    /**
+     * How one search finds and scores its candidates. Prepared and used under the read lock.
+     */
+    private interface Query {
+        List<? extends Collection<Entry>> sources(Partition partition, Viewer viewer);
+
+        /**
+         * Returns the entry's relevance, or a negative value when it does not match.
+         */
+        double score(Entry entry);
+    }
+
+    /**
+     * Substring and word-prefix matching, see {@link #matches}.
+     */
+    private static final class ExactQuery implements Query {
+        private final String query;
+        private final List<String> terms;
+        private final double[] idf;
+        private final double averageLength;
+
+        ExactQuery(String query, List<String> terms, Statistics statistics) {
+            this.query = query;
+            this.terms = terms;
+            this.idf = terms.stream().mapToDouble(statistics::idf).toArray();
+            this.averageLength = statistics.averageLength();
+        }
+
+        @Override
+        public List<? extends Collection<Entry>> sources(Partition partition, Viewer viewer) {
+            return partition.sources(query, viewer);
+        }
+
+        @Override
+        public double score(Entry entry) {
+            return matches(entry.name(), query)
+                    ? MaterialSearchIndex.score(entry, query, terms, idf, averageLength)
+                    : -1;
+        }
+    }
+
+    /**
+     * Every term within its allowed edits of some token. Each term contributes BM25 over the
+     * tokens it reaches, weighted by the rarity of its closest token and discounted by the
+     * distance to it.
+     */
+    private static final class FuzzyQuery implements Query {
+        private final String query;
+        private final List<String> terms;
+        private final int[] edits;
+        private final String longest;
+        private final Statistics statistics;
+        private final long deadline;
+
+        FuzzyQuery(String query, List<String> terms, int maxEdits, Statistics statistics, long deadline) {
+            this.query = query;
+            this.terms = terms;
+            this.statistics = statistics;
+            this.deadline = deadline;
+            this.edits = terms.stream().mapToInt(term -> allowedEdits(term, maxEdits)).toArray();
+            this.longest = terms.stream().max(Comparator.comparingInt(String::length)).orElse("");
+        }
+
+        @Override
+        public List<? extends Collection<Entry>> sources(Partition partition, Viewer viewer) {
+            if (longest.length() < GRAM_SIZE) {
+                return partition.sources(query, viewer);
+            }
+            return List.of(partition.fuzzyCandidates(longest, edits[terms.indexOf(longest)], deadline));
+        }
+
+        @Override
+        public double score(Entry entry) {
+            if (terms.isEmpty()) {
+                return matches(entry.name(), query) ? 0 : -1;
+            }
+            double score = 0;
+            double norm = K1 * (1 - B + B * entry.tokens().length / statistics.averageLength());
+            for (int i = 0; i < terms.size(); i++) {
+                int frequency = 0;
+                int closest = edits[i] + 1;
+                String closestToken = null;
+                for (String token : entry.tokens()) {
+                    int distance = termDistance(terms.get(i), token, edits[i]);
+                    if (distance <= edits[i]) {
+                        frequency++;
+                        if (distance < closest) {
+                            closest = distance;
+                            closestToken = token;
+                        }
+                    }
+                }
+                if (closestToken == null) {
+                    return -1;
+                }
+                score += statistics.idf(closestToken) * frequency * (K1 + 1) / (frequency + norm) / (1 + closest);
+            }
+            if (entry.name().equals(query)) {
+                score *= EXACT_BOOST;
+            } else if (entry.name().startsWith(query)) {
+                score *= PREFIX_BOOST;
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Postings for a single privacy class, each sorted by (name, id).
+     */
+    private static final class Partition {
+        // Shared empty posting for keywords with no candidates in this partition
+        private static final NavigableSet<Entry> NONE = Collections.unmodifiableNavigableSet(new TreeSet<>(ORDER));
+
+        private final NavigableSet<Entry> all = new TreeSet<>(ORDER);
+        private final Map<String, NavigableSet<Entry>> grams = new HashMap<>();
+        private final Map<String, NavigableSet<Entry>> prefixes = new HashMap<>();
+        private final Map<UUID, NavigableSet<Entry>> owners;
+
+        Partition(boolean byOwner) {
+            this.owners = byOwner ? new HashMap<>() : null;
+        }
+
+        void add(Entry entry) {
+            all.add(entry);
+            if (owners != null) {
+                owners.computeIfAbsent(entry.ownerId(), key -> new TreeSet<>(ORDER)).add(entry);
+            }
+            grams(entry.name()).forEach(gram -> grams.computeIfAbsent(gram, key -> new TreeSet<>(ORDER)).add(entry));
+            shortPrefixes(entry.name()).forEach(prefix ->
+                    prefixes.computeIfAbsent(prefix, key -> new TreeSet<>(ORDER)).add(entry));
+        }
+
+        void remove(Entry entry) {
+            all.remove(entry);
+            if (owners != null) {
+                detach(owners, entry.ownerId(), entry);
+            }
+            grams(entry.name()).forEach(gram -> detach(grams, gram, entry));
+            shortPrefixes(entry.name()).forEach(prefix -> detach(prefixes, prefix, entry));
+        }
+
+        /**
+         * Returns the postings to walk for the viewer: the keyword posting, or, when the
+         * partition is kept per owner and that is smaller, the postings of the owners the
+         * viewer may see.
+         */
+        List<NavigableSet<Entry>> sources(String query, Viewer viewer) {
+            NavigableSet<Entry> candidates = candidates(query);
+            if (owners == null || candidates.isEmpty()) {
+                return List.of(candidates);
+            }
+            List<NavigableSet<Entry>> visible = new ArrayList<>();
+            int size = addOwner(visible, viewer.userId());
+            for (UUID ownerId : viewer.peerIds()) {
+                size += addOwner(visible, ownerId);
+                if (size >= candidates.size()) {
+                    return List.of(candidates);
+                }
+            }
+            return visible;
+        }
+
+        private int addOwner(List<NavigableSet<Entry>> visible, UUID ownerId) {
+            NavigableSet<Entry> posting = owners.get(ownerId);
+            if (posting == null) {
+                return 0;
+            }
+            visible.add(posting);
+            return posting.size();
+        }
+
+        /**
+         * Returns the entries that may hold a token within {@code maxEdits} of the term. One edit
+         * changes at most {@code GRAM_SIZE + 1} of the term's trigrams (a transposition touches
+         * two positions), so a candidate must share all but that many.
+         *
+         * <p>When that leaves no trigram to require, as for most terms of up to five characters,
+         * the entries with a word starting with the term's first or second character are added:
+         * a match then only escapes when the edits changed both. Collection stops, returning what
+         * it found, once the deadline has passed.</p>
+         */
+        Collection<Entry> fuzzyCandidates(String term, int maxEdits, long deadline) {
+            Set<String> termGrams = grams(term);
+            int required = termGrams.size() - (GRAM_SIZE + 1) * maxEdits;
+            Map<Entry, Integer> shared = new HashMap<>();
+            List<Entry> candidates = new ArrayList<>();
+            int steps = 0;
+            for (String gram : termGrams) {
+                for (Entry entry : grams.getOrDefault(gram, NONE)) {
+                    if (pastDeadline(deadline, steps++)) {
+                        return candidates;
+                    }
+                    if (shared.merge(entry, 1, Integer::sum) == Math.max(1, required)) {
+                        candidates.add(entry);
+                    }
+                }
+            }
+            if (required < 1) {
+                for (String prefix : List.of(term.substring(0, 1), term.substring(1, 2))) {
+                    for (Entry entry : prefixes.getOrDefault(prefix, NONE)) {
+                        if (pastDeadline(deadline, steps++)) {
+                            return candidates;
+                        }
+                        if (shared.putIfAbsent(entry, 0) == null) {
+                            candidates.add(entry);
+                        }
+                    }
+                }
+            }
+            return candidates;
+        }
+
+        /**
+         * Returns the smallest posting that must contain every match of the query.
+         */
+        NavigableSet<Entry> candidates(String query) {
+            if (query.isEmpty()) {
+                return all;
+            }
+            if (query.length() < GRAM_SIZE) {
+                return prefixes.getOrDefault(query, NONE);
+            }
+            NavigableSet<Entry> rarest = null;
+            for (String gram : grams(query)) {
+                NavigableSet<Entry> posting = grams.get(gram);
+                if (posting == null) {
+                    return NONE;
+                }
+                if (rarest == null || posting.size() < rarest.size()) {
+                    rarest = posting;
+                }
+            }
+            return rarest;
+        }
+
+        void clear() {
+            all.clear();
+            grams.clear();
+            prefixes.clear();
+            if (owners != null) {
+                owners.clear();
+            }
+        }
+
+        private static <K> void detach(Map<K, NavigableSet<Entry>> postings, K key, Entry entry) {
+            NavigableSet<Entry> posting = postings.get(key);
+            if (posting != null) {
+                posting.remove(entry);
+                if (posting.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.majed.acadlink.utility;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.majed.acadlink.domain.entity.Materials;
+import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.domain.repository.MaterialsRepo;
+import com.majed.acadlink.dto.material.MaterialIndexEntryDTO;
+import com.majed.acadlink.enums.Privacy;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process prefix index over material names, used for typeahead.
+ * This class handles:
+ * 1. Keeping one sorted map of completions per privacy scope: PUBLIC globally,
+ * INSTITUTIONAL per institute, PEERS per owner
+ * 2. Answering prefix lookups by a range scan over the viewer's scopes
+ * 3. Returning the top-K names, ranked by how many visible materials carry them
+ *
+ * <p>Only the privacies material search covers are indexed, so typeahead never offers a
+ * name the search would not find. Every word start of a name is a key, so "alg" completes
+ * "Linear Algebra". Keys and labels are interned. Scopes are concurrent skip lists updated
+ * in place: a write costs one logarithmic update per word start of the name, and lookups
+ * never lock.</p>
+ *
+ * <p>The index is rebuilt from the database once the application is ready and is
+ * kept current by the material save, update and delete paths; changes made on other
+ * instances arrive through {@link com.majed.acadlink.service.IndexSyncService}.</p>
+ */
+@Component
+@Slf4j
+public class MaterialSuggestIndex {
+    private static final Pattern WORD_START = Pattern.compile("(?<![\\p{L}\\p{N}])[\\p{L}\\p{N}]");
+    private static final Comparator<Map.Entry<String, Integer>> RANK =
+            Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final MaterialsRepo materialsRepo;
+    private final Map<String, Scope> scopes = new ConcurrentHashMap<>();
+    private final Map<UUID, Posted> posted = new HashMap<>();
+
+    public MaterialSuggestIndex(MaterialsRepo materialsRepo) {
+        this.materialsRepo = materialsRepo;
+    }
+
+    /**
+     * Loads every material name once the application context is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<MaterialIndexEntryDTO> rows = materialsRepo.findAllIndexEntries();
+        Map<String, Scope> built = new HashMap<>();
+        synchronized (this) {
+            posted.clear();
+            for (MaterialIndexEntryDTO row : rows) {
+                String scope = scopeKey(row.getPrivacy(), row.getOwnerId(), row.getOwnerInstituteKey());
+                if (scope != null) {
+                    Posted entry = Posted.of(row.getName(), scope);
+                    posted.put(row.getId(), entry);
+                    built.computeIfAbsent(scope, key -> new Scope()).plus(entry, 1);
+                }
+            }
+            scopes.clear();
+            scopes.putAll(built);
+        }
+        log.info("Material suggest index built with {} names in {} scopes", rows.size(), scopes.size());
+    }
+
+    /**
+     * Adds a material's name, replacing any previous entry with the same ID.
+     * The material's folder and owner must be loaded or loadable.
+     *
+     * @param material the persisted material
+     */
+    public void index(Materials material) {
+        if (material == null || material.getId() == null || material.getName() == null) {
+            return;
+        }
+        User owner = material.getFolder().getUser();
+        put(material.getId(), material.getName(),
+                scopeKey(material.getPrivacy(), owner.getId(), owner.getInstituteKey()));
+    }
+
+    /**
+     * Adds a material's name read as an index projection, replacing any previous entry with the same ID.
+     *
+     * @param row the material and its owner
+     */
+    public void index(MaterialIndexEntryDTO row) {
+        put(row.getId(), row.getName(), scopeKey(row.getPrivacy(), row.getOwnerId(), row.getOwnerInstituteKey()));
+    }
+
+    private synchronized void put(UUID materialId, String name, String scope) {
+        removeLocked(materialId);
+        if (scope != null) {
+            Posted entry = Posted.of(name, scope);
+            posted.put(materialId, entry);
+            scopes.computeIfAbsent(scope, key -> new Scope()).plus(entry, 1);
+        }
+    }
+
+    /**
+     * Removes a material's name.
+     *
+     * @param materialId the ID of the removed material
+     */
+    public synchronized void remove(UUID materialId) {
+        removeLocked(materialId);
+    }
+
+    /**
+     * Returns the most common names visible to the viewer that have a word starting with the prefix.
+     *
+     * @param prefix  the typed prefix
+     * @param viewer  the user the lookup runs for
+     * @param limit   the maximum number of names to return
+     * @param maxScan the maximum number of keys examined per scope
+     * @return the completions, most common first
+     */
+    public List<String> suggest(String prefix, MaterialSearchIndex.Viewer viewer, int limit, int maxScan) {
+        String query = MaterialSearchIndex.normalize(prefix);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (String scope : viewerScopes(viewer)) {
+            Scope current = scopes.get(scope);
+            if (current != null) {
+                current.collect(query, maxScan).forEach((label, count) -> counts.merge(label, count, Integer::sum));
+            }
+        }
+        return counts.entrySet().stream().sorted(RANK).limit(limit).map(Map.Entry::getKey).toList();
+    }
+
+    private static List<String> viewerScopes(MaterialSearchIndex.Viewer viewer) {
+        List<String> keys = new ArrayList<>();
+        keys.add(scopeKey(Privacy.PUBLIC, null, null));
+        keys.add(Privacy.INSTITUTIONAL.name() + ":" + viewer.instituteKey());
+        keys.add(Privacy.PEERS.name() + ":" + viewer.userId());
+        viewer.peerIds().forEach(peerId -> keys.add(Privacy.PEERS.name() + ":" + peerId));
+        return keys;
+    }
+
+    private void removeLocked(UUID materialId) {
+        Posted entry = posted.remove(materialId);
+        if (entry != null) {
+            scopes.computeIfPresent(entry.scope(), (key, scope) -> {
+                scope.plus(entry, -1);
+                return scope.isEmpty() ? null : scope;
+            });
+        }
+    }
+
+    /**
+     * Returns the scope a material's name is offered in, or null when material search does not
+     * cover its privacy.
+     */
+    static String scopeKey(Privacy privacy, UUID ownerId, String instituteKey) {
+        return switch (privacy) {
+            case PUBLIC -> Privacy.PUBLIC.name();
+            case INSTITUTIONAL -> Privacy.INSTITUTIONAL.name() + ":" + instituteKey;
+            case PEERS -> Privacy.PEERS.name() + ":" + ownerId;
+            default -> null;
+        };
+    }
+
+    static List<String> wordStarts(String normalized) {
+        List<String> keys = new ArrayList<>();
+        Matcher matcher = WORD_START.matcher(normalized);
+        while (matcher.find()) {
+            keys.add(normalized.substring(matcher.start()).intern());
+        }
+        return keys;
+    }
+
+    /**
+     * What one material contributed to the index, so it can be taken back out.
+     */
+    private record Posted(String scope, String label, List<String> keys) {
+        static Posted of(String name, String scope) {
+            String label = name.trim().intern();
+            return new Posted(scope, label, wordStarts(MaterialSearchIndex.normalize(name)));
+        }
+    }
+
+    /**
+     * Completions of one scope: word starts in a concurrent sorted map, each with the number of
+     * materials per label. Written under the index monitor, read without locking.
+     */
+    private static final class Scope {
+        private final ConcurrentSkipListMap<String, Map<String, Integer>> keys = new ConcurrentSkipListMap<>();
+
+        boolean isEmpty() {
+            return keys.isEmpty();
+        }
+
+        /**
+         * Changes the entry's count by delta for every key, dropping keys left without labels.
+         */
+        void plus(Posted entry, int delta) {
+            for (String key : entry.keys()) {
+                Map<String, Integer> labels = keys.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+                labels.compute(entry.label(), (label, count) -> {
+                    int next = (count == null ? 0 : count) + delta;
+                    return next > 0 ? next : null;
+                });
+                if (labels.isEmpty()) {
+                    keys.remove(key);
+                }
+            }
+        }
+
+        /**
+         * Returns the labels with a key starting with the prefix. A label reached through
+         * several of its word starts is counted once.
+         */
+        Map<String, Integer> collect(String prefix, int maxScan) {
+            Map<String, Integer> found = new HashMap<>();
+            int scanned = 0;
+            for (Map.Entry<String, Map<String, Integer>> key : keys.tailMap(prefix).entrySet()) {
+                if (!key.getKey().startsWith(prefix)) {
+                    break;
+                }
+                for (Map.Entry<String, Integer> label : key.getValue().entrySet()) {
+                    if (scanned++ >= maxScan) {
+                        return found;
+                    }
+                    found.merge(label.getKey(), label.getValue(), Math::max);
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package com.majed.acadlink.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.majed.acadlink.domain.entity.Peers;
+import com.majed.acadlink.domain.repository.PeersRepo;
+import com.majed.acadlink.dto.peers.PeerPairDTO;
+import com.majed.acadlink.enums.PeerStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process graph of peer relationships, used to resolve peer statuses without querying
+ * the peers table.
+ * This class handles:
+ * 1. Mapping each user ID to a compact int ordinal
+ * 2. Keeping sorted int adjacency arrays of ACCEPTED and of PENDING edges per ordinal
+ * 3. Updating both sides of an edge as requests are sent, accepted and removed, on this
+ * instance or, through {@link com.majed.acadlink.service.IndexSyncService}, on any other
+ * 4. Counting mutual peers, for peer suggestions, by merging sorted adjacencies
+ *
+ * <p>Edges are undirected: a pending request is pending for both users, matching how the
+ * status of a pair is read from the table. A lookup is two map reads and a binary search
+ * over one user's adjacency, so it does not grow with the number of users.</p>
+ *
+ * <p>Ordinals are never reclaimed; a user who loses every edge keeps an empty slot.
+ * Until the initial load has finished, lookups fall back to the database, resolving a
+ * whole list of users in one query.</p>
+ */
+@Component
+@Slf4j
+public class PeerGraphIndex {
+    private static final int[] NONE = new int[0];
+
+    private final PeersRepo peersRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<UUID> users = new ArrayList<>();
+    private int[][] accepted = new int[0][];
+    private int[][] pending = new int[0][];
+    private volatile boolean ready;
+
+    public PeerGraphIndex(PeersRepo peersRepo) {
+        this.peersRepo = peersRepo;
+    }
+
+    /**
+     * Loads every accepted and pending pair once the application context is ready, and again
+     * whenever the indexes are reconciled with the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<PeerPairDTO> acceptedPairs = peersRepo.findPairsByStatus(PeerStatus.ACCEPTED);
+        List<PeerPairDTO> pendingPairs = peersRepo.findPairsByStatus(PeerStatus.PENDING);
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            users.clear();
+            acceptedPairs.forEach(this::register);
+            pendingPairs.forEach(this::register);
+            accepted = build(acceptedPairs);
+            pending = build(pendingPairs);
+            ready = true;
+            log.info("Peer graph index built with {} users, {} accepted and {} pending pairs", ordinals.size(),
+                    acceptedPairs.size(), pendingPairs.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the status of the relationship between two users, in either direction.
+     *
+     * @param userId      one user's ID
+     * @param otherUserId the other user's ID
+     * @return ACCEPTED or PENDING when a relationship exists, FALSE otherwise
+     */
+    public PeerStatus status(UUID userId, UUID otherUserId) {
+        if (!ready) {
+            Peers peer = peersRepo.findPair(userId, otherUserId);
+            return peer == null ? PeerStatus.FALSE : peer.getStatus();
+        }
+        lock.readLock().lock();
+        try {
+            Integer from = ordinals.get(userId);
+            Integer to = ordinals.get(otherUserId);
+            return from == null || to == null ? PeerStatus.FALSE : statusUnlocked(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private PeerStatus statusUnlocked(int from, int to) {
+        if (Arrays.binarySearch(accepted[from], to) >= 0) {
+            return PeerStatus.ACCEPTED;
+        }
+        return Arrays.binarySearch(pending[from], to) >= 0 ? PeerStatus.PENDING : PeerStatus.FALSE;
+    }
+
+    /**
+     * Returns the status of the relationship between a user and each of the other users.
+     *
+     * @param userId   the current user's ID
+     * @param otherIds the IDs of the users to resolve
+     * @return the status of every requested user, FALSE where no relationship exists
+     */
+    public Map<UUID, PeerStatus> statuses(UUID userId, Collection<UUID> otherIds) {
+        if (!ready) {
+            return peersRepo.findStatusMap(userId, otherIds);
+        }
+        Map<UUID, PeerStatus> statuses = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Integer from = ordinals.get(userId);
+            for (UUID otherId : otherIds) {
+                Integer to = ordinals.get(otherId);
+                statuses.put(otherId, from == null || to == null ? PeerStatus.FALSE : statusUnlocked(from, to));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return statuses;
+    }
+
+    /**
+     * Records a sent peer request between two users.
+     *
+     * @param user1Id the sender
+     * @param user2Id the receiver
+     */
+    public void request(UUID user1Id, UUID user2Id) {
+        lock.writeLock().lock();
+        try {
+            int from = ordinal(user1Id);
+            int to = ordinal(user2Id);
+            pending[from] = with(pending[from], to);
+            pending[to] = with(pending[to], from);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a pair from pending to accepted.
+     *
+     * @param user1Id one side of the pair
+     * @param user2Id the other side of the pair
+     */
+    public void accept(UUID user1Id, UUID user2Id) {
+        lock.writeLock().lock();
+        try {
+            int from = ordinal(user1Id);
+            int to = ordinal(user2Id);
+            pending[from] = without(pending[from], to);
+            pending[to] = without(pending[to], from);
+            accepted[from] = with(accepted[from], to);
+            accepted[to] = with(accepted[to], from);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets a pair, whatever its status.
+     *
+     * @param user1Id one side of the pair
+     * @param user2Id the other side of the pair
+     */
+    public void remove(UUID user1Id, UUID user2Id) {
+        lock.writeLock().lock();
+        try {
+            Integer from = ordinals.get(user1Id);
+            Integer to = ordinals.get(user2Id);
+            if (from == null || to == null) {
+                return;
+            }
+            pending[from] = without(pending[from], to);
+            pending[to] = without(pending[to], from);
+            accepted[from] = without(accepted[from], to);
+            accepted[to] = without(accepted[to], from);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets a pair to the given status, whatever it was before. Used to apply a change read back
+     * from the table, where only the current status is known.
+     *
+     * @param user1Id one side of the pair
+     * @param user2Id the other side of the pair
+     * @param status  the pair's status, FALSE when the pair has no row
+     */
+    public void update(UUID user1Id, UUID user2Id, PeerStatus status) {
+        lock.writeLock().lock();
+        try {
+            if (status != PeerStatus.ACCEPTED && status != PeerStatus.PENDING
+                    && (!ordinals.containsKey(user1Id) || !ordinals.containsKey(user2Id))) {
+                return;
+            }
+            int from = ordinal(user1Id);
+            int to = ordinal(user2Id);
+            boolean isPending = status == PeerStatus.PENDING;
+            boolean isAccepted = status == PeerStatus.ACCEPTED;
+            pending[from] = isPending ? with(pending[from], to) : without(pending[from], to);
+            pending[to] = isPending ? with(pending[to], from) : without(pending[to], from);
+            accepted[from] = isAccepted ? with(accepted[from], to) : without(accepted[from], to);
+            accepted[to] = isAccepted ? with(accepted[to], from) : without(accepted[to], from);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns whether the initial load has finished.
+     *
+     * @return true once lookups are answered from memory
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the IDs of the users with at least one accepted peer.
+     *
+     * @return a snapshot of the connected users
+     */
+    public List<UUID> connectedUsers() {
+        lock.readLock().lock();
+        try {
+            List<UUID> connected = new ArrayList<>();
+            for (int i = 0; i < users.size(); i++) {
+                if (accepted[i].length > 0) {
+                    connected.add(users.get(i));
+                }
+            }
+            return connected;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of a user's accepted peers.
+     *
+     * @param userId the user's ID
+     * @return a snapshot of the user's accepted peers, empty before the initial load
+     */
+    public List<UUID> acceptedPeers(UUID userId) {
+        lock.readLock().lock();
+        try {
+            Integer from = ordinals.get(userId);
+            if (from == null) {
+                return List.of();
+            }
+            List<UUID> peers = new ArrayList<>(accepted[from].length);
+            for (int to : accepted[from]) {
+                peers.add(users.get(to));
+            }
+            return peers;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the accepted peers two users have in common by merging their sorted adjacencies.
+     *
+     * @param userId      one user's ID
+     * @param otherUserId the other user's ID
+     * @return the number of mutual peers, 0 before the initial load
+     */
+    public int mutualCount(UUID userId, UUID otherUserId) {
+        lock.readLock().lock();
+        try {
+            Integer from = ordinals.get(userId);
+            Integer to = ordinals.get(otherUserId);
+            return from == null || to == null ? 0 : intersectionSize(accepted[from], accepted[to]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the mutual peers between a user and each of the other users, under one read lock.
+     * Only the first maxCounted users are counted, so the work per call stays bounded however
+     * many users are passed.
+     *
+     * @param userId     the user's ID
+     * @param otherIds   the IDs of the users to count, most important first
+     * @param maxCounted the maximum number of users to count
+     * @return the mutual peer count of each counted user; users past the cap are absent
+     */
+    public Map<UUID, Integer> mutualCounts(UUID userId, List<UUID> otherIds, int maxCounted) {
+        Map<UUID, Integer> counts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Integer from = ordinals.get(userId);
+            int[] peers = from == null ? NONE : accepted[from];
+            for (UUID otherId : otherIds.subList(0, Math.min(maxCounted, otherIds.size()))) {
+                Integer to = ordinals.get(otherId);
+                counts.put(otherId, to == null ? 0 : intersectionSize(peers, accepted[to]));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    /**
+     * Counts, for every peer of a peer of the user, how many peers they share with the user.
+     * Users already accepted, pending with the user, or the user themselves are left out.
+     *
+     * <p>The adjacencies of the user's peers are concatenated and sorted, so each candidate
+     * becomes one run whose length is its mutual count. The cost is bounded by the sum of the
+     * peers' degrees, not by the number of users.</p>
+     *
+     * @param userId the user's ID
+     * @return the mutual peer count of each candidate, empty before the initial load
+     */
+    public Map<UUID, Integer> mutualCounts(UUID userId) {
+        lock.readLock().lock();
+        try {
+            Integer from = ordinals.get(userId);
+            if (from == null) {
+                return Map.of();
+            }
+            int[] peers = accepted[from];
+            int total = 0;
+            for (int peer : peers) {
+                total += accepted[peer].length;
+            }
+            int[] reached = new int[total];
+            int filled = 0;
+            for (int peer : peers) {
+                System.arraycopy(accepted[peer], 0, reached, filled, accepted[peer].length);
+                filled += accepted[peer].length;
+            }
+            Arrays.sort(reached);
+
+            Map<UUID, Integer> counts = new HashMap<>();
+            for (int start = 0; start < reached.length; ) {
+                int candidate = reached[start];
+                int end = start + 1;
+                while (end < reached.length && reached[end] == candidate) {
+                    end++;
+                }
+                if (candidate != from && Arrays.binarySearch(peers, candidate) < 0
+                        && Arrays.binarySearch(pending[from], candidate) < 0) {
+                    counts.put(users.get(candidate), end - start);
+                }
+                start = end;
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the common values of two sorted arrays. When one is far longer than the other, each
+     * value of the shorter one is binary searched in the longer one instead of merging both, so a
+     * user with thousands of peers does not make every comparison linear in their degree.
+     */
+    private static int intersectionSize(int[] left, int[] right) {
+        if (left.length > right.length) {
+            return intersectionSize(right, left);
+        }
+        if (left.length == 0) {
+            return 0;
+        }
+        if (left.length * (32 - Integer.numberOfLeadingZeros(right.length)) < right.length) {
+            int count = 0;
+            int from = 0;
+            for (int value : left) {
+                int position = Arrays.binarySearch(right, from, right.length, value);
+                if (position >= 0) {
+                    count++;
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            return count;
+        }
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Builds sorted adjacency arrays for the given edges over every registered ordinal, so the
+     * accepted and pending arrays are indexed the same way.
+     */
+    private int[][] build(List<PeerPairDTO> edges) {
+        int[] degrees = new int[ordinals.size()];
+        for (PeerPairDTO pair : edges) {
+            degrees[ordinals.get(pair.getUser1Id())]++;
+            degrees[ordinals.get(pair.getUser2Id())]++;
+        }
+        int[][] adjacency = new int[ordinals.size()][];
+        for (int i = 0; i < adjacency.length; i++) {
+            adjacency[i] = degrees[i] == 0 ? NONE : new int[degrees[i]];
+        }
+        int[] filled = new int[ordinals.size()];
+        for (PeerPairDTO pair : edges) {
+            int from = ordinals.get(pair.getUser1Id());
+            int to = ordinals.get(pair.getUser2Id());
+            adjacency[from][filled[from]++] = to;
+            adjacency[to][filled[to]++] = from;
+        }
+        for (int[] neighbours : adjacency) {
+            Arrays.sort(neighbours);
+        }
+        return adjacency;
+    }
+
+    private void register(PeerPairDTO pair) {
+        register(pair.getUser1Id());
+        register(pair.getUser2Id());
+    }
+
+    private void register(UUID userId) {
+        if (ordinals.putIfAbsent(userId, ordinals.size()) == null) {
+            users.add(userId);
+        }
+    }
+
+    private int ordinal(UUID userId) {
+        Integer existing = ordinals.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = ordinals.size();
+        register(userId);
+        if (ordinal >= accepted.length) {
+            int capacity = Math.max(16, accepted.length * 2);
+            accepted = grow(accepted, capacity);
+            pending = grow(pending, capacity);
+        }
+        return ordinal;
+    }
+
+    private static int[][] grow(int[][] adjacency, int capacity) {
+        int[][] next = Arrays.copyOf(adjacency, capacity);
+        Arrays.fill(next, adjacency.length, capacity, NONE);
+        return next;
+    }
+
+    private static int[] with(int[] neighbours, int ordinal) {
+        int position = Arrays.binarySearch(neighbours, ordinal);
+        if (position >= 0) {
+            return neighbours;
+        }
+        int insert = -position - 1;
+        int[] next = new int[neighbours.length + 1];
+        System.arraycopy(neighbours, 0, next, 0, insert);
+        next[insert] = ordinal;
+        System.arraycopy(neighbours, insert, next, insert + 1, neighbours.length - insert);
+        return next;
+    }
+
+    private static int[] without(int[] neighbours, int ordinal) {
+        int position = Arrays.binarySearch(neighbours, ordinal);
+        if (position < 0) {
+            return neighbours;
+        }
+        if (neighbours.length == 1) {
+            return NONE;
+        }
+        int[] next = new int[neighbours.length - 1];
+        System.arraycopy(neighbours, 0, next, 0, position);
+        System.arraycopy(neighbours, position + 1, next, position, neighbours.length - position - 1);
+        return next;
+    }
+}
@@ -0,0 +1,69 @@
+package com.majed.acadlink.utility;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.majed.acadlink.domain.entity.Peers;
+import com.majed.acadlink.domain.repository.PeersRepo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills in the canonical pair key for peer relationships stored before the columns existed.
+ * Runs on application start, ahead of the peer indexes that are built once the application
+ * is ready.
+ *
+ * <p>Pairs that were stored twice, once in each direction or by concurrent requests, are
+ * collapsed into the row with the most advanced status; the others are deleted so the
+ * unique key can hold.</p>
+ */
+@Component
+@Slf4j
+public class PeerPairKeyBackfill {
+    private final PeersRepo peersRepo;
+
+    public PeerPairKeyBackfill(PeersRepo peersRepo) {
+        this.peersRepo = peersRepo;
+    }
+
+    /**
+     * Assigns the pair key of every row without one and removes duplicate pairs.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional
+    public void backfill() {
+        List<Peers> pending = peersRepo.findWithoutPairKey();
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, List<Peers>> byPair = new LinkedHashMap<>();
+        for (Peers peer : pending) {
+            UUID user1Id = peer.getUser1().getId();
+            UUID user2Id = peer.getUser2().getId();
+            byPair.computeIfAbsent(Peers.lowOf(user1Id, user2Id) + ":" + Peers.highOf(user1Id, user2Id),
+                    key -> new ArrayList<>()).add(peer);
+        }
+        List<Peers> kept = new ArrayList<>();
+        List<Peers> duplicates = new ArrayList<>();
+        for (List<Peers> rows : byPair.values()) {
+            rows.sort(Comparator.comparing(Peers::getStatus).reversed());
+            rows.get(0).assignPairKey();
+            kept.add(rows.get(0));
+            duplicates.addAll(rows.subList(1, rows.size()));
+        }
+        peersRepo.saveAll(kept);
+        if (!duplicates.isEmpty()) {
+            peersRepo.deleteAll(duplicates);
+        }
+        log.info("Backfilled pair keys for {} peer rows, removed {} duplicates", kept.size(), duplicates.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.majed.acadlink.utility;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.majed.acadlink.domain.repository.PeersRepo;
+import com.majed.acadlink.dto.peers.PeerPairDTO;
+import com.majed.acadlink.enums.PeerStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process map from each user to the owners whose PEERS materials they may see,
+ * i.e. their accepted peers.
+ * This class handles:
+ * 1. Loading every accepted peer pair once the application is ready
+ * 2. Linking and unlinking pairs as requests are accepted and peers removed, on this instance
+ * or, through {@link com.majed.acadlink.service.IndexSyncService}, on any other
+ * 3. Answering visibility lookups for material search without querying the peers table
+ *
+ * <p>Until the initial load has finished, lookups fall back to the database. A rebuild fills
+ * a new map and swaps it in, so lookups never see a partly loaded index.</p>
+ */
+@Component
+@Slf4j
+public class PeerVisibilityIndex {
+    private final PeersRepo peersRepo;
+    private volatile Map<UUID, Set<UUID>> visibleOwners = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public PeerVisibilityIndex(PeersRepo peersRepo) {
+        this.peersRepo = peersRepo;
+    }
+
+    /**
+     * Loads every accepted peer pair once the application context is ready, and again whenever
+     * the indexes are reconciled with the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<PeerPairDTO> pairs = peersRepo.findPairsByStatus(PeerStatus.ACCEPTED);
+        Map<UUID, Set<UUID>> built = new ConcurrentHashMap<>();
+        pairs.forEach(pair -> {
+            attach(built, pair.getUser1Id(), pair.getUser2Id());
+            attach(built, pair.getUser2Id(), pair.getUser1Id());
+        });
+        visibleOwners = built;
+        ready = true;
+        log.info("Peer visibility index built with {} accepted pairs", pairs.size());
+    }
+
+    /**
+     * Returns the IDs of the users whose PEERS materials the given user may see.
+     *
+     * @param userId the viewing user's ID
+     * @return an immutable snapshot of the user's accepted peers
+     */
+    public Set<UUID> visibleOwners(UUID userId) {
+        if (!ready) {
+            return Set.copyOf(peersRepo.findPeerIds(userId, PeerStatus.ACCEPTED));
+        }
+        Set<UUID> owners = visibleOwners.get(userId);
+        return owners == null ? Set.of() : Set.copyOf(owners);
+    }
+
+    /**
+     * Records an accepted peer pair; each user becomes visible to the other.
+     *
+     * @param user1Id one side of the pair
+     * @param user2Id the other side of the pair
+     */
+    public void link(UUID user1Id, UUID user2Id) {
+        attach(visibleOwners, user1Id, user2Id);
+        attach(visibleOwners, user2Id, user1Id);
+    }
+
+    /**
+     * Forgets a peer pair in both directions.
+     *
+     * @param user1Id one side of the pair
+     * @param user2Id the other side of the pair
+     */
+    public void unlink(UUID user1Id, UUID user2Id) {
+        detach(user1Id, user2Id);
+        detach(user2Id, user1Id);
+    }
+
+    private static void attach(Map<UUID, Set<UUID>> index, UUID userId, UUID ownerId) {
+        index.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(ownerId);
+    }
+
+    private void detach(UUID userId, UUID ownerId) {
+        visibleOwners.computeIfPresent(userId, (key, owners) -> {
+            owners.remove(ownerId);
+            return owners.isEmpty() ? null : owners;
+        });
+    }
+}
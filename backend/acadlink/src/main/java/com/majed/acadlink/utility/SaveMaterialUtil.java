@@ -19,6 +19,8 @@ import com.majed.acadlink.dto.material.MaterialResponseDTO;
 import com.majed.acadlink.enums.Privacy;
 import com.majed.acadlink.exception.MaterialSaveException;
 import com.majed.acadlink.exception.ResourceNotFoundException;
+import com.majed.acadlink.service.IndexSyncService;
+import com.majed.acadlink.service.SearchCacheService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +39,10 @@ public class SaveMaterialUtil {
     private final StorageConfig storageConfig;
     private final FolderRepo folderRepo;
     private final MaterialsRepo materialsRepo;
+    private final MaterialSearchIndex materialSearchIndex;
+    private final MaterialSuggestIndex materialSuggestIndex;
+    private final SearchCacheService searchCacheService;
+    private final IndexSyncService indexSyncService;
 
     private String sanitizeFilename(String filename) {
         if (filename == null) {
@@ -90,6 +96,11 @@ public class SaveMaterialUtil {
             if (savedMaterial == null) {
                 throw new MaterialSaveException("Failed to save material to database");
             }
+            materialSearchIndex.index(savedMaterial);
+            materialSuggestIndex.index(savedMaterial);
+            searchCacheService.invalidateMaterial(folder.getUser().getId(), savedMaterial.getPrivacy());
+            indexSyncService.materialChanged(savedMaterial.getId(), folder.getUser().getId(),
+                    savedMaterial.getPrivacy());
 
             return new MaterialResponseDTO(
                     savedMaterial.getId(),
@@ -128,6 +139,11 @@ public class SaveMaterialUtil {
         if (savedMaterial == null) {
             throw new MaterialSaveException("Failed to save material to database");
         }
+        materialSearchIndex.index(savedMaterial);
+        materialSuggestIndex.index(savedMaterial);
+        searchCacheService.invalidateMaterial(folder.getUser().getId(), savedMaterial.getPrivacy());
+        indexSyncService.materialChanged(savedMaterial.getId(), folder.getUser().getId(),
+                savedMaterial.getPrivacy());
 
         return new MaterialResponseDTO(
                 savedMaterial.getId(),
@@ -26,9 +26,13 @@ import org.springframework.http.ResponseEntity;
 import com.majed.acadlink.domain.entity.User;
 import com.majed.acadlink.dto.emailverification.EmailVerificationRequest;
 import com.majed.acadlink.dto.emailverification.EmailVerificationResponse;
+import com.majed.acadlink.dto.user.RefreshTokenDTO;
+import com.majed.acadlink.dto.user.TokenPairDTO;
 import com.majed.acadlink.exception.EmailVerificationException;
 import com.majed.acadlink.exception.VerificationCodeException;
+import com.majed.acadlink.dto.ApiResponse;
 import com.majed.acadlink.service.EmailService;
+import com.majed.acadlink.service.PublicService;
 import com.majed.acadlink.service.UserService;
 import com.majed.acadlink.service.VerificationCodeService;
 
@@ -44,6 +48,9 @@ class EmailVerificationControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private PublicService publicService;
+
     @InjectMocks
     private EmailVerificationController emailVerificationController;
 
@@ -337,4 +344,20 @@ class EmailVerificationControllerTest {
         assertFalse(response.getBody().isVerified());
         assertEquals("Failed to resend verification code due to an unexpected error", response.getBody().getMessage());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void reissueToken_DelegatesToPublicService() {
+        // Arrange
+        RefreshTokenDTO request = new RefreshTokenDTO("family.old");
+        ResponseEntity<ApiResponse<TokenPairDTO>> expected =
+                ApiResponse.success(new TokenPairDTO("new.jwt.token", "family.new", 900), HttpStatus.OK);
+        when(publicService.reissueToken(request)).thenReturn(expected);
+
+        // Act
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = emailVerificationController.reissueToken(request);
+
+        // Assert
+        assertEquals(expected, response);
+        verify(publicService).reissueToken(request);
+    }
+}
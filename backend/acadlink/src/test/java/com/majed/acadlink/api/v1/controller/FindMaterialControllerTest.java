@@ -3,6 +3,7 @@ package com.majed.acadlink.api.v1.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -10,6 +11,7 @@ import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -22,7 +24,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.CursorPageDTO;
 import com.majed.acadlink.dto.material.MaterialResponseDTO;
+import com.majed.acadlink.dto.material.MaterialSearchPageDTO;
 import com.majed.acadlink.enums.MaterialType;
 import com.majed.acadlink.enums.Privacy;
 import com.majed.acadlink.service.FindMaterialsService;
@@ -71,139 +75,182 @@ class FindMaterialControllerTest {
     void searchMaterials_Success() {
         // Arrange
         String keywords = "sample";
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> expectedResponse = 
-            ApiResponse.success(sampleMaterials, HttpStatus.OK);
-        when(findMaterialsService.searchMaterials(anyString())).thenReturn(expectedResponse);
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> expectedResponse = 
+            ApiResponse.success(new MaterialSearchPageDTO(sampleMaterials, "next", Map.of(), Map.of()), HttpStatus.OK);
+        when(findMaterialsService.searchMaterials(anyString(), any(), any(), anyBoolean(), any(), any()))
+            .thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response = 
-            findMaterialController.searchMaterials(keywords);
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response = 
+            findMaterialController.searchMaterials(keywords, null, null, false, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(sampleMaterials, response.getBody().getData());
-        verify(findMaterialsService, times(1)).searchMaterials(keywords);
+        assertEquals(sampleMaterials, response.getBody().getData().getItems());
+        verify(findMaterialsService, times(1)).searchMaterials(keywords, null, null, false, null, null);
+    }
+
+    @Test
+    void searchMaterials_PassesFilters() {
+        // Arrange
+        String keywords = "sample";
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> expectedResponse = ApiResponse.success(
+            new MaterialSearchPageDTO(List.of(sampleMaterial1), null, Map.of(MaterialType.OTHER, 1),
+                Map.of(Privacy.PUBLIC, 1)), HttpStatus.OK);
+        when(findMaterialsService.searchMaterials(keywords, MaterialType.OTHER, Privacy.PUBLIC, true, null, 10))
+            .thenReturn(expectedResponse);
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+            findMaterialController.searchMaterials(keywords, MaterialType.OTHER, Privacy.PUBLIC, true, null, 10);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(List.of(sampleMaterial1), response.getBody().getData().getItems());
+        assertEquals(1, response.getBody().getData().getTypeCounts().get(MaterialType.OTHER));
+        verify(findMaterialsService, times(1)).searchMaterials(keywords, MaterialType.OTHER, Privacy.PUBLIC, true, null,
+            10);
     }
 
     @Test
     void searchMaterials_NoResults() {
         // Arrange
         String keywords = "nonexistent";
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> expectedResponse = 
-            ApiResponse.success(List.of(), HttpStatus.OK);
-        when(findMaterialsService.searchMaterials(anyString())).thenReturn(expectedResponse);
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> expectedResponse = 
+            ApiResponse.success(new MaterialSearchPageDTO(List.of(), null, Map.of(), Map.of()), HttpStatus.OK);
+        when(findMaterialsService.searchMaterials(anyString(), any(), any(), anyBoolean(), any(), any()))
+            .thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response = 
-            findMaterialController.searchMaterials(keywords);
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response = 
+            findMaterialController.searchMaterials(keywords, null, null, false, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(List.of(), response.getBody().getData());
-        verify(findMaterialsService, times(1)).searchMaterials(keywords);
+        assertEquals(List.of(), response.getBody().getData().getItems());
+        verify(findMaterialsService, times(1)).searchMaterials(keywords, null, null, false, null, null);
     }
 
     @Test
     void searchMaterials_UserNotAuthenticated() {
         // Arrange
         String keywords = "sample";
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> expectedResponse = 
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> expectedResponse = 
             ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
-        when(findMaterialsService.searchMaterials(anyString())).thenReturn(expectedResponse);
+        when(findMaterialsService.searchMaterials(anyString(), any(), any(), anyBoolean(), any(), any()))
+            .thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response = 
-            findMaterialController.searchMaterials(keywords);
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response = 
+            findMaterialController.searchMaterials(keywords, null, null, false, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("User not found", response.getBody().getError());
-        verify(findMaterialsService, times(1)).searchMaterials(keywords);
+        verify(findMaterialsService, times(1)).searchMaterials(keywords, null, null, false, null, null);
     }
 
     @Test
     void viewPeersMaterials_Success() {
         // Arrange
         UUID peerUserId = UUID.randomUUID();
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> expectedResponse = 
-            ApiResponse.success(sampleMaterials, HttpStatus.OK);
-        when(findMaterialsService.findPeerMaterials(any(UUID.class))).thenReturn(expectedResponse);
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> expectedResponse = 
+            ApiResponse.success(new CursorPageDTO<>(sampleMaterials, "next"), HttpStatus.OK);
+        when(findMaterialsService.findPeerMaterials(any(UUID.class), any(), any())).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response = 
-            findMaterialController.viewPeersMaterials(peerUserId);
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response = 
+            findMaterialController.viewPeersMaterials(peerUserId, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(sampleMaterials, response.getBody().getData());
-        verify(findMaterialsService, times(1)).findPeerMaterials(peerUserId);
+        assertEquals(sampleMaterials, response.getBody().getData().getItems());
+        verify(findMaterialsService, times(1)).findPeerMaterials(peerUserId, null, null);
     }
 
     @Test
     void viewPeersMaterials_NotPeers() {
         // Arrange
         UUID peerUserId = UUID.randomUUID();
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> expectedResponse = 
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> expectedResponse = 
             ApiResponse.error("Users are not peers", HttpStatus.BAD_REQUEST);
-        when(findMaterialsService.findPeerMaterials(any(UUID.class))).thenReturn(expectedResponse);
+        when(findMaterialsService.findPeerMaterials(any(UUID.class), any(), any())).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response = 
-            findMaterialController.viewPeersMaterials(peerUserId);
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response = 
+            findMaterialController.viewPeersMaterials(peerUserId, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Users are not peers", response.getBody().getError());
-        verify(findMaterialsService, times(1)).findPeerMaterials(peerUserId);
+        verify(findMaterialsService, times(1)).findPeerMaterials(peerUserId, null, null);
     }
 
     @Test
     void viewPeersMaterials_PeerNotFound() {
         // Arrange
         UUID peerUserId = UUID.randomUUID();
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> expectedResponse = 
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> expectedResponse = 
             ApiResponse.error("No user exists with this id", HttpStatus.NOT_FOUND);
-        when(findMaterialsService.findPeerMaterials(any(UUID.class))).thenReturn(expectedResponse);
+        when(findMaterialsService.findPeerMaterials(any(UUID.class), any(), any())).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response = 
-            findMaterialController.viewPeersMaterials(peerUserId);
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response = 
+            findMaterialController.viewPeersMaterials(peerUserId, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("No user exists with this id", response.getBody().getError());
-        verify(findMaterialsService, times(1)).findPeerMaterials(peerUserId);
+        verify(findMaterialsService, times(1)).findPeerMaterials(peerUserId, null, null);
     }
 
     @Test
     void viewPeersMaterials_UserNotAuthenticated() {
         // Arrange
         UUID peerUserId = UUID.randomUUID();
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> expectedResponse = 
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> expectedResponse = 
             ApiResponse.error("Not logged in", HttpStatus.FORBIDDEN);
-        when(findMaterialsService.findPeerMaterials(any(UUID.class))).thenReturn(expectedResponse);
+        when(findMaterialsService.findPeerMaterials(any(UUID.class), any(), any())).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response = 
-            findMaterialController.viewPeersMaterials(peerUserId);
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response = 
+            findMaterialController.viewPeersMaterials(peerUserId, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Not logged in", response.getBody().getError());
-        verify(findMaterialsService, times(1)).findPeerMaterials(peerUserId);
+        verify(findMaterialsService, times(1)).findPeerMaterials(peerUserId, null, null);
+    }
+
+    @Test
+    void suggestMaterials_Success() {
+        // Arrange
+        List<String> names = List.of("Sample Material 1", "Sample Material 2");
+        ResponseEntity<ApiResponse<List<String>>> expectedResponse = ApiResponse.success(names, HttpStatus.OK);
+        when(findMaterialsService.suggestMaterialNames(anyString(), any())).thenReturn(expectedResponse);
+
+        // Act
+        ResponseEntity<ApiResponse<List<String>>> response = findMaterialController.suggestMaterials("sam", 5);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(names, response.getBody().getData());
+        verify(findMaterialsService, times(1)).suggestMaterialNames("sam", 5);
     }
-} 
\ No newline at end of file
+}
@@ -20,12 +20,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.CursorPageDTO;
+import com.majed.acadlink.dto.peers.BulkPeerActionDTO;
+import com.majed.acadlink.dto.peers.BulkPeerResultDTO;
 import com.majed.acadlink.dto.peers.PeerInfoDTO;
+import com.majed.acadlink.dto.peers.PeerSuggestionDTO;
 import com.majed.acadlink.dto.peers.SearchResultDTO;
+import com.majed.acadlink.enums.PeerAction;
 import com.majed.acadlink.enums.PeerStatus;
 import com.majed.acadlink.enums.ReqType;
+import com.majed.acadlink.service.PeerEventService;
+import com.majed.acadlink.service.PeerSuggestionService;
 import com.majed.acadlink.service.PeersManagementService;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +42,12 @@ class PeerManagementControllerTest {
     @Mock
     private PeersManagementService peersManagementService;
 
+    @Mock
+    private PeerSuggestionService peerSuggestionService;
+
+    @Mock
+    private PeerEventService peerEventService;
+
     @InjectMocks
     private PeerManagementController peerManagementController;
 
@@ -57,7 +71,8 @@ class PeerManagementControllerTest {
             "john.doe@example.com",
             "johndoe",
             "Test University",
-            PeerStatus.FALSE
+            PeerStatus.FALSE,
+            0
         );
 
         // Setup sample peer
@@ -81,18 +96,18 @@ class PeerManagementControllerTest {
         String searchEntry = "john";
         ResponseEntity<ApiResponse<List<SearchResultDTO>>> expectedResponse = 
             ApiResponse.success(sampleUsers, HttpStatus.OK);
-        when(peersManagementService.searchUsers(anyString())).thenReturn(expectedResponse);
+        when(peersManagementService.searchUsers(anyString(), any())).thenReturn(expectedResponse);
 
         // Act
         ResponseEntity<ApiResponse<List<SearchResultDTO>>> response = 
-            peerManagementController.searchUsers(searchEntry);
+            peerManagementController.searchUsers(searchEntry, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(sampleUsers, response.getBody().getData());
-        verify(peersManagementService, times(1)).searchUsers(searchEntry);
+        verify(peersManagementService, times(1)).searchUsers(searchEntry, null);
     }
 
     @Test
@@ -101,18 +116,18 @@ class PeerManagementControllerTest {
         String searchEntry = "john";
         ResponseEntity<ApiResponse<List<SearchResultDTO>>> expectedResponse = 
             ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
-        when(peersManagementService.searchUsers(anyString())).thenReturn(expectedResponse);
+        when(peersManagementService.searchUsers(anyString(), any())).thenReturn(expectedResponse);
 
         // Act
         ResponseEntity<ApiResponse<List<SearchResultDTO>>> response = 
-            peerManagementController.searchUsers(searchEntry);
+            peerManagementController.searchUsers(searchEntry, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("User not found", response.getBody().getError());
-        verify(peersManagementService, times(1)).searchUsers(searchEntry);
+        verify(peersManagementService, times(1)).searchUsers(searchEntry, null);
     }
 
     @Test
@@ -253,39 +268,40 @@ class PeerManagementControllerTest {
     @Test
     void getPeers_Success() {
         // Arrange
-        ResponseEntity<ApiResponse<List<PeerInfoDTO>>> expectedResponse = 
-            ApiResponse.success(samplePeers, HttpStatus.OK);
-        when(peersManagementService.findPeers()).thenReturn(expectedResponse);
+        ResponseEntity<ApiResponse<CursorPageDTO<PeerInfoDTO>>> expectedResponse = 
+            ApiResponse.success(new CursorPageDTO<>(samplePeers, "next"), HttpStatus.OK);
+        when(peersManagementService.findPeers("cursor", 10)).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<List<PeerInfoDTO>>> response = 
-            peerManagementController.getPeers();
+        ResponseEntity<ApiResponse<CursorPageDTO<PeerInfoDTO>>> response = 
+            peerManagementController.getPeers("cursor", 10);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(samplePeers, response.getBody().getData());
-        verify(peersManagementService, times(1)).findPeers();
+        assertEquals(samplePeers, response.getBody().getData().getItems());
+        assertEquals("next", response.getBody().getData().getNextCursor());
+        verify(peersManagementService, times(1)).findPeers("cursor", 10);
     }
 
     @Test
     void getPeers_UserNotAuthenticated() {
         // Arrange
-        ResponseEntity<ApiResponse<List<PeerInfoDTO>>> expectedResponse = 
+        ResponseEntity<ApiResponse<CursorPageDTO<PeerInfoDTO>>> expectedResponse = 
             ApiResponse.error("User not found", HttpStatus.BAD_REQUEST);
-        when(peersManagementService.findPeers()).thenReturn(expectedResponse);
+        when(peersManagementService.findPeers(null, null)).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<List<PeerInfoDTO>>> response = 
-            peerManagementController.getPeers();
+        ResponseEntity<ApiResponse<CursorPageDTO<PeerInfoDTO>>> response = 
+            peerManagementController.getPeers(null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("User not found", response.getBody().getError());
-        verify(peersManagementService, times(1)).findPeers();
+        verify(peersManagementService, times(1)).findPeers(null, null);
     }
 
     @Test
@@ -308,6 +324,64 @@ class PeerManagementControllerTest {
         verify(peersManagementService, times(1)).removePeer(peerId);
     }
 
+    @Test
+    void applyBulkAction_Success() {
+        // Arrange
+        BulkPeerActionDTO request = new BulkPeerActionDTO(PeerAction.ACCEPT, List.of(testPeerId));
+        List<BulkPeerResultDTO> results = List.of(new BulkPeerResultDTO(testPeerId, true, null));
+        ResponseEntity<ApiResponse<List<BulkPeerResultDTO>>> expectedResponse =
+            ApiResponse.success(results, HttpStatus.OK);
+        when(peersManagementService.applyBulkAction(request)).thenReturn(expectedResponse);
+
+        // Act
+        ResponseEntity<ApiResponse<List<BulkPeerResultDTO>>> response =
+            peerManagementController.applyBulkAction(request);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(results, response.getBody().getData());
+        verify(peersManagementService, times(1)).applyBulkAction(request);
+    }
+
+    @Test
+    void getSuggestions_Success() {
+        // Arrange
+        List<PeerSuggestionDTO> suggestions = List.of(
+            new PeerSuggestionDTO(testPeerId, "Jane", "Smith", "janesmith", "Test University", 3));
+        ResponseEntity<ApiResponse<List<PeerSuggestionDTO>>> expectedResponse =
+            ApiResponse.success(suggestions, HttpStatus.OK);
+        when(peerSuggestionService.getSuggestions(5)).thenReturn(expectedResponse);
+
+        // Act
+        ResponseEntity<ApiResponse<List<PeerSuggestionDTO>>> response =
+            peerManagementController.getSuggestions(5);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(suggestions, response.getBody().getData());
+        verify(peerSuggestionService, times(1)).getSuggestions(5);
+    }
+
+    @Test
+    void streamEvents_Success() {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        when(peerEventService.subscribe()).thenReturn(ResponseEntity.ok(emitter));
+
+        // Act
+        ResponseEntity<SseEmitter> response = peerManagementController.streamEvents();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(emitter, response.getBody());
+        verify(peerEventService, times(1)).subscribe();
+    }
+
     @Test
     void removePeer_NotAuthorized() {
         // Arrange
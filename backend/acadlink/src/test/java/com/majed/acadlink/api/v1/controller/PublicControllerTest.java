@@ -23,6 +23,8 @@ import org.springframework.http.ResponseEntity;
 
 import com.majed.acadlink.dto.ApiResponse;
 import com.majed.acadlink.dto.ErrorResponseDTO;
+import com.majed.acadlink.dto.user.RefreshTokenDTO;
+import com.majed.acadlink.dto.user.TokenPairDTO;
 import com.majed.acadlink.dto.user.UserLoginDTO;
 import com.majed.acadlink.dto.user.UserResponseDTO;
 import com.majed.acadlink.dto.user.UserSignUpDTO;
@@ -118,30 +120,30 @@ class PublicControllerTest {
     @Test
     void login_Success() {
         // Arrange
-        String expectedToken = "test.jwt.token";
-        ResponseEntity<ApiResponse<String>> expectedResponse = ApiResponse.success(expectedToken, HttpStatus.OK);
+        TokenPairDTO expectedTokens = new TokenPairDTO("test.jwt.token", "family.secret", 900);
+        ResponseEntity<ApiResponse<TokenPairDTO>> expectedResponse = ApiResponse.success(expectedTokens, HttpStatus.OK);
         when(publicService.login(any(UserLoginDTO.class))).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<String>> response = publicController.logIn(validLoginDTO);
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = publicController.logIn(validLoginDTO);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(expectedToken, response.getBody().getData());
+        assertEquals(expectedTokens, response.getBody().getData());
         verify(publicService, times(1)).login(validLoginDTO);
     }
 
     @Test
     void login_InvalidCredentials_ReturnsBadRequest() {
         // Arrange
-        ResponseEntity<ApiResponse<String>> expectedResponse = 
+        ResponseEntity<ApiResponse<TokenPairDTO>> expectedResponse = 
             ApiResponse.error("Incorrect Password", HttpStatus.BAD_REQUEST);
         when(publicService.login(any(UserLoginDTO.class))).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ApiResponse<String>> response = publicController.logIn(validLoginDTO);
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = publicController.logIn(validLoginDTO);
 
         // Assert
         assertNotNull(response);
@@ -151,6 +153,37 @@ class PublicControllerTest {
         verify(publicService, times(1)).login(validLoginDTO);
     }
 
+    @Test
+    void refresh_Success() {
+        // Arrange
+        RefreshTokenDTO request = new RefreshTokenDTO("family.secret");
+        TokenPairDTO expectedTokens = new TokenPairDTO("new.jwt.token", "family.next", 900);
+        when(publicService.refresh(request)).thenReturn(ApiResponse.success(expectedTokens, HttpStatus.OK));
+
+        // Act
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = publicController.refresh(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(expectedTokens, response.getBody().getData());
+        verify(publicService, times(1)).refresh(request);
+    }
+
+    @Test
+    void logout_Success() {
+        // Arrange
+        RefreshTokenDTO request = new RefreshTokenDTO("family.secret");
+        when(publicService.logout(request)).thenReturn(ApiResponse.success(true, HttpStatus.OK));
+
+        // Act
+        ResponseEntity<ApiResponse<Boolean>> response = publicController.logOut(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(publicService, times(1)).logout(request);
+    }
+
     @Test
     void checkUsername_Exists_ReturnsTrue() {
         // Arrange
@@ -2,26 +2,38 @@ package com.majed.acadlink.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import com.majed.acadlink.config.SearchConfig;
 import com.majed.acadlink.domain.entity.Folder;
 import com.majed.acadlink.domain.entity.Materials;
 import com.majed.acadlink.domain.entity.Peers;
@@ -30,14 +42,24 @@ import com.majed.acadlink.domain.repository.MaterialsRepo;
 import com.majed.acadlink.domain.repository.PeersRepo;
 import com.majed.acadlink.domain.repository.UserRepo;
 import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.CursorPageDTO;
 import com.majed.acadlink.dto.material.MaterialResponseDTO;
+import com.majed.acadlink.dto.material.MaterialSearchPageDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
 import com.majed.acadlink.enums.MaterialType;
 import com.majed.acadlink.enums.PeerStatus;
 import com.majed.acadlink.enums.Privacy;
 import com.majed.acadlink.utility.GetUserUtil;
+import com.majed.acadlink.utility.MaterialCursor;
+import com.majed.acadlink.utility.MaterialSearchIndex;
+import com.majed.acadlink.utility.MaterialSuggestIndex;
+import com.majed.acadlink.utility.PeerVisibilityIndex;
 
 @ExtendWith(MockitoExtension.class)
 class FindMaterialsServiceTest {
+    private static final MaterialSearchIndex.Filter NO_FILTER = MaterialSearchIndex.Filter.NONE;
+    private static final List<Privacy> SAME_INSTITUTE_PRIVACIES =
+            List.of(Privacy.PUBLIC, Privacy.PEERS, Privacy.INSTITUTIONAL);
 
     @Mock
     private UserRepo userRepo;
@@ -51,6 +73,21 @@ class FindMaterialsServiceTest {
     @Mock
     private GetUserUtil getUserUtil;
 
+    @Mock
+    private MaterialSearchIndex materialSearchIndex;
+
+    @Mock
+    private MaterialSuggestIndex materialSuggestIndex;
+
+    @Mock
+    private PeerVisibilityIndex peerVisibilityIndex;
+
+    @Mock
+    private SearchCacheService searchCacheService;
+
+    @Spy
+    private SearchConfig searchConfig = new SearchConfig();
+
     @InjectMocks
     private FindMaterialsService findMaterialsService;
 
@@ -123,104 +160,363 @@ class FindMaterialsServiceTest {
     void searchMaterials_Success() {
         // Arrange
         String keywords = "material";
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
-        when(materialsRepo.searchPublicMaterials(keywords, Privacy.PUBLIC))
-                .thenReturn(List.of(publicMaterial));
-        when(materialsRepo.searchPeerMaterials(keywords, testUserId, Privacy.PEERS))
-                .thenReturn(List.of(peerMaterial));
-        when(materialsRepo.searchInstitutionalMaterials(keywords, testUser.getInstitute(), Privacy.INSTITUTIONAL))
-                .thenReturn(List.of(institutionalMaterial));
+        List<MaterialCursor> hits = List.of(position(institutionalMaterial), position(peerMaterial),
+                position(publicMaterial));
+        List<UUID> ids = hits.stream().map(MaterialCursor::id).toList();
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of(testPeerId));
+        when(materialSearchIndex.search(eq(keywords), any(MaterialSearchIndex.Viewer.class),
+                eq(NO_FILTER), isNull(), eq(21)))
+                .thenReturn(result(hits));
+        when(materialsRepo.findAllById(ids))
+                .thenReturn(List.of(publicMaterial, peerMaterial, institutionalMaterial));
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response =
-                findMaterialsService.searchMaterials(keywords);
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, null, null, false, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(3, response.getBody().getData().size());
-        verify(materialsRepo, times(1)).searchPublicMaterials(keywords, Privacy.PUBLIC);
-        verify(materialsRepo, times(1)).searchPeerMaterials(keywords, testUserId, Privacy.PEERS);
-        verify(materialsRepo, times(1)).searchInstitutionalMaterials(keywords, testUser.getInstitute(), Privacy.INSTITUTIONAL);
+        assertEquals(ids, response.getBody().getData().getItems().stream().map(MaterialResponseDTO::getId).toList());
+        assertNull(response.getBody().getData().getNextCursor());
+        verify(materialsRepo, times(1)).findAllById(ids);
+    }
+
+    @Test
+    void searchMaterials_AppliesFiltersAndReturnsFacetCounts() {
+        // Arrange
+        String keywords = "material";
+        MaterialSearchIndex.Filter filter = new MaterialSearchIndex.Filter(MaterialType.BOOK, Privacy.PUBLIC);
+        Map<MaterialType, Integer> typeCounts = Map.of(MaterialType.BOOK, 1, MaterialType.LECTURE_NOTE, 1);
+        Map<Privacy, Integer> privacyCounts = Map.of(Privacy.PUBLIC, 1, Privacy.INSTITUTIONAL, 1);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of());
+        when(materialSearchIndex.search(eq(keywords), any(MaterialSearchIndex.Viewer.class), eq(filter), isNull(),
+                eq(21)))
+                .thenReturn(new MaterialSearchIndex.Result(List.of(position(publicMaterial)), typeCounts,
+                        privacyCounts));
+        when(materialsRepo.findAllById(List.of(publicMaterial.getId()))).thenReturn(List.of(publicMaterial));
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, MaterialType.BOOK, Privacy.PUBLIC, false, null, null);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getData().getItems().size());
+        assertEquals(typeCounts, response.getBody().getData().getTypeCounts());
+        assertEquals(privacyCounts, response.getBody().getData().getPrivacyCounts());
+    }
+
+    @Test
+    void searchMaterials_ServesCachedPageWithoutSearching() {
+        // Arrange
+        String keywords = " Material ";
+        MaterialSearchPageDTO cachedPage = new MaterialSearchPageDTO(List.of(), null, Map.of(), Map.of());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(searchCacheService.materialsKey(testUserId, "testinstitute", "material", null, null, false, null, 20))
+                .thenReturn(Optional.of("search:materials:key"));
+        when(searchCacheService.getMaterials("search:materials:key")).thenReturn(Optional.of(cachedPage));
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, null, null, false, null, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(cachedPage, response.getBody().getData());
+        verify(materialSearchIndex, times(0)).search(anyString(), any(), any(), any(), anyInt());
+        verify(materialsRepo, times(0)).findAllById(any());
+    }
+
+    @Test
+    void searchMaterials_CachesComputedPageOnMiss() {
+        // Arrange
+        String keywords = "material";
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(searchCacheService.materialsKey(testUserId, "testinstitute", keywords, null, null, false, null, 20))
+                .thenReturn(Optional.of("search:materials:key"));
+        when(searchCacheService.getMaterials("search:materials:key")).thenReturn(Optional.empty());
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of());
+        when(materialSearchIndex.search(eq(keywords), any(MaterialSearchIndex.Viewer.class),
+                eq(NO_FILTER), isNull(), eq(21)))
+                .thenReturn(result(List.of(position(publicMaterial))));
+        when(materialsRepo.findAllById(List.of(publicMaterial.getId()))).thenReturn(List.of(publicMaterial));
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, null, null, false, null, null);
+
+        // Assert
+        assertNotNull(response.getBody());
+        verify(searchCacheService, times(1)).putMaterials("search:materials:key", response.getBody().getData());
+    }
+
+    @Test
+    void searchMaterials_FuzzyUsesConfiguredBounds() {
+        // Arrange
+        String keywords = "calclus";
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of());
+        when(materialSearchIndex.fuzzySearch(eq(keywords), any(MaterialSearchIndex.Viewer.class), eq(NO_FILTER),
+                isNull(), eq(21), eq(2), eq(Duration.ofMillis(50))))
+                .thenReturn(result(List.of(position(publicMaterial))));
+        when(materialsRepo.findAllById(List.of(publicMaterial.getId()))).thenReturn(List.of(publicMaterial));
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, null, null, true, null, null);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getData().getItems().size());
+        verify(materialSearchIndex, times(0)).search(anyString(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void searchMaterials_DoesNotCacheIncompleteFuzzyPage() {
+        // Arrange
+        String keywords = "calclus";
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(searchCacheService.materialsKey(testUserId, "testinstitute", keywords, null, null, true, null, 20))
+                .thenReturn(Optional.of("search:materials:key"));
+        when(searchCacheService.getMaterials("search:materials:key")).thenReturn(Optional.empty());
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of());
+        when(materialSearchIndex.fuzzySearch(eq(keywords), any(MaterialSearchIndex.Viewer.class), eq(NO_FILTER),
+                isNull(), eq(21), anyInt(), any(Duration.class)))
+                .thenReturn(new MaterialSearchIndex.Result(List.of(), Map.of(), Map.of(), false));
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, null, null, true, null, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(searchCacheService, times(0)).putMaterials(anyString(), any());
+    }
+
+    @Test
+    void searchMaterials_PassesViewerAndClampedPageSizeToIndex() {
+        // Arrange
+        String keywords = "material";
+        ArgumentCaptor<MaterialSearchIndex.Viewer> viewer = ArgumentCaptor.forClass(MaterialSearchIndex.Viewer.class);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of(testPeerId));
+        when(materialSearchIndex.search(eq(keywords), viewer.capture(), eq(NO_FILTER), isNull(), eq(101)))
+                .thenReturn(result(List.of()));
+
+        // Act
+        findMaterialsService.searchMaterials(keywords, null, null, false, null, 5000);
+
+        // Assert
+        assertEquals(testUserId, viewer.getValue().userId());
+        assertEquals("testinstitute", viewer.getValue().instituteKey());
+        assertEquals(Set.of(testPeerId), viewer.getValue().peerIds());
+    }
+
+    @Test
+    void searchMaterials_FullPageReturnsCursorThatResumesAfterLastItem() {
+        // Arrange
+        String keywords = "material";
+        List<MaterialCursor> hits = List.of(position(institutionalMaterial), position(peerMaterial),
+                position(publicMaterial));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of());
+        when(materialSearchIndex.search(eq(keywords), any(MaterialSearchIndex.Viewer.class),
+                eq(NO_FILTER), isNull(), eq(3)))
+                .thenReturn(result(hits));
+        when(materialsRepo.findAllById(List.of(institutionalMaterial.getId(), peerMaterial.getId())))
+                .thenReturn(List.of(peerMaterial, institutionalMaterial));
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, null, null, false, null, 2);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().getData().getItems().size());
+        assertEquals(hits.get(1), MaterialCursor.decode(response.getBody().getData().getNextCursor()));
+    }
+
+    @Test
+    void searchMaterials_ResumesFromCursor() {
+        // Arrange
+        String keywords = "material";
+        MaterialCursor after = position(institutionalMaterial);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of());
+        when(materialSearchIndex.search(eq(keywords), any(MaterialSearchIndex.Viewer.class),
+                eq(NO_FILTER), eq(after), eq(21)))
+                .thenReturn(result(List.of(position(publicMaterial))));
+        when(materialsRepo.findAllById(List.of(publicMaterial.getId()))).thenReturn(List.of(publicMaterial));
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, null, null, false, after.encode(), null);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(publicMaterial.getId(), response.getBody().getData().getItems().get(0).getId());
+        assertNull(response.getBody().getData().getNextCursor());
+    }
+
+    @Test
+    void searchMaterials_InvalidCursor() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials("material", null, null, false, "not a cursor", null);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Invalid cursor", response.getBody().getError());
+        verify(materialSearchIndex, times(0)).search(anyString(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void searchMaterials_ExpiredCursorAsksToRestart() {
+        // Arrange
+        MaterialCursor after = position(institutionalMaterial);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(materialSearchIndex.isExpired(after)).thenReturn(true);
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials("material", null, null, false, after.encode(), null);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Cursor expired, restart the search", response.getBody().getError());
+        verify(materialSearchIndex, times(0)).search(anyString(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void searchMaterials_SkipsMaterialsDeletedSinceIndexing() {
+        // Arrange
+        String keywords = "material";
+        MaterialCursor deleted = new MaterialCursor("zzz", UUID.randomUUID());
+        List<UUID> ids = List.of(publicMaterial.getId(), deleted.id());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of());
+        when(materialSearchIndex.search(eq(keywords), any(MaterialSearchIndex.Viewer.class),
+                eq(NO_FILTER), isNull(), eq(21)))
+                .thenReturn(result(List.of(position(publicMaterial), deleted)));
+        when(materialsRepo.findAllById(ids)).thenReturn(List.of(publicMaterial));
+
+        // Act
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, null, null, false, null, null);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getData().getItems().size());
+        assertEquals(publicMaterial.getId(), response.getBody().getData().getItems().get(0).getId());
     }
 
     @Test
     void searchMaterials_UserNotAuthenticated() {
         // Arrange
         String keywords = "material";
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.empty());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response =
-                findMaterialsService.searchMaterials(keywords);
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, null, null, false, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("User not found", response.getBody().getError());
-        verify(materialsRepo, times(0)).searchPublicMaterials(anyString(), any(Privacy.class));
-        verify(materialsRepo, times(0)).searchPeerMaterials(anyString(), any(UUID.class), any(Privacy.class));
-        verify(materialsRepo, times(0)).searchInstitutionalMaterials(anyString(), anyString(), any(Privacy.class));
+        verify(materialSearchIndex, times(0)).search(anyString(), any(), any(), any(), anyInt());
+        verify(materialsRepo, times(0)).findAllById(any());
     }
 
     @Test
     void searchMaterials_NoResults() {
         // Arrange
         String keywords = "nonexistent";
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
-        when(materialsRepo.searchPublicMaterials(keywords, Privacy.PUBLIC)).thenReturn(List.of());
-        when(materialsRepo.searchPeerMaterials(keywords, testUserId, Privacy.PEERS)).thenReturn(List.of());
-        when(materialsRepo.searchInstitutionalMaterials(keywords, testUser.getInstitute(), Privacy.INSTITUTIONAL))
-                .thenReturn(List.of());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of());
+        when(materialSearchIndex.search(eq(keywords), any(MaterialSearchIndex.Viewer.class),
+                eq(NO_FILTER), isNull(), eq(21)))
+                .thenReturn(result(List.of()));
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response =
-                findMaterialsService.searchMaterials(keywords);
+        ResponseEntity<ApiResponse<MaterialSearchPageDTO>> response =
+                findMaterialsService.searchMaterials(keywords, null, null, false, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(0, response.getBody().getData().size());
-        verify(materialsRepo, times(1)).searchPublicMaterials(keywords, Privacy.PUBLIC);
-        verify(materialsRepo, times(1)).searchPeerMaterials(keywords, testUserId, Privacy.PEERS);
-        verify(materialsRepo, times(1)).searchInstitutionalMaterials(keywords, testUser.getInstitute(), Privacy.INSTITUTIONAL);
+        assertEquals(0, response.getBody().getData().getItems().size());
+        assertNull(response.getBody().getData().getNextCursor());
+        verify(materialsRepo, times(0)).findAllById(any());
     }
 
     @Test
     void findPeerMaterials_Success() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(userRepo.findById(testPeerId)).thenReturn(Optional.of(testPeer));
-        when(peersRepo.findByUser1IdAndUser2IdOrUser2IdAndUser1Id(testUserId, testPeerId, testUserId, testPeerId))
+        when(peersRepo.findPair(testUserId, testPeerId))
                 .thenReturn(peerConnection);
-        when(materialsRepo.findAllByUserIdAndPrivacy(testPeerId, testUser.getInstitute()))
-                .thenReturn(Arrays.asList(publicMaterial, peerMaterial, institutionalMaterial));
+        when(materialsRepo.findPeerMaterialsPage(testPeerId, SAME_INSTITUTE_PRIVACIES, Limit.of(21)))
+                .thenReturn(Arrays.asList(institutionalMaterial, peerMaterial, publicMaterial));
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response =
-                findMaterialsService.findPeerMaterials(testPeerId);
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response =
+                findMaterialsService.findPeerMaterials(testPeerId, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(3, response.getBody().getData().size());
+        assertEquals(3, response.getBody().getData().getItems().size());
+        assertNull(response.getBody().getData().getNextCursor());
         verify(userRepo, times(1)).findById(testPeerId);
-        verify(peersRepo, times(1)).findByUser1IdAndUser2IdOrUser2IdAndUser1Id(testUserId, testPeerId, testUserId, testPeerId);
-        verify(materialsRepo, times(1)).findAllByUserIdAndPrivacy(testPeerId, testUser.getInstitute());
+        verify(peersRepo, times(1)).findPair(testUserId, testPeerId);
+        verify(materialsRepo, times(1)).findPeerMaterialsPage(testPeerId, SAME_INSTITUTE_PRIVACIES, Limit.of(21));
+    }
+
+    @Test
+    void findPeerMaterials_OtherInstituteHidesInstitutionalMaterials() {
+        // Arrange
+        testPeer.setInstitute("Other Institute");
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(userRepo.findById(testPeerId)).thenReturn(Optional.of(testPeer));
+        when(peersRepo.findPair(testUserId, testPeerId))
+                .thenReturn(peerConnection);
+        when(materialsRepo.findPeerMaterialsPage(testPeerId, List.of(Privacy.PUBLIC, Privacy.PEERS), Limit.of(21)))
+                .thenReturn(Arrays.asList(peerMaterial, publicMaterial));
+
+        // Act
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response =
+                findMaterialsService.findPeerMaterials(testPeerId, null, null);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().getData().getItems().size());
+        verify(materialsRepo, times(1)).findPeerMaterialsPage(testPeerId, List.of(Privacy.PUBLIC, Privacy.PEERS),
+                Limit.of(21));
     }
 
     @Test
     void findPeerMaterials_UserNotAuthenticated() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.empty());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response =
-                findMaterialsService.findPeerMaterials(testPeerId);
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response =
+                findMaterialsService.findPeerMaterials(testPeerId, null, null);
 
         // Assert
         assertNotNull(response);
@@ -228,19 +524,19 @@ class FindMaterialsServiceTest {
         assertNotNull(response.getBody());
         assertEquals("Not logged in", response.getBody().getError());
         verify(userRepo, times(0)).findById(any(UUID.class));
-        verify(peersRepo, times(0)).findByUser1IdAndUser2IdOrUser2IdAndUser1Id(any(UUID.class), any(UUID.class), any(UUID.class), any(UUID.class));
-        verify(materialsRepo, times(0)).findAllByUserIdAndPrivacy(any(UUID.class), anyString());
+        verify(peersRepo, times(0)).findPair(any(UUID.class), any(UUID.class));
+        verify(materialsRepo, times(0)).findPeerMaterialsPage(any(UUID.class), anyList(), any(Limit.class));
     }
 
     @Test
     void findPeerMaterials_PeerNotFound() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(userRepo.findById(testPeerId)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response =
-                findMaterialsService.findPeerMaterials(testPeerId);
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response =
+                findMaterialsService.findPeerMaterials(testPeerId, null, null);
 
         // Assert
         assertNotNull(response);
@@ -248,21 +544,21 @@ class FindMaterialsServiceTest {
         assertNotNull(response.getBody());
         assertEquals("No user exists with this id", response.getBody().getError());
         verify(userRepo, times(1)).findById(testPeerId);
-        verify(peersRepo, times(0)).findByUser1IdAndUser2IdOrUser2IdAndUser1Id(any(UUID.class), any(UUID.class), any(UUID.class), any(UUID.class));
-        verify(materialsRepo, times(0)).findAllByUserIdAndPrivacy(any(UUID.class), anyString());
+        verify(peersRepo, times(0)).findPair(any(UUID.class), any(UUID.class));
+        verify(materialsRepo, times(0)).findPeerMaterialsPage(any(UUID.class), anyList(), any(Limit.class));
     }
 
     @Test
     void findPeerMaterials_NotPeers() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(userRepo.findById(testPeerId)).thenReturn(Optional.of(testPeer));
-        when(peersRepo.findByUser1IdAndUser2IdOrUser2IdAndUser1Id(testUserId, testPeerId, testUserId, testPeerId))
+        when(peersRepo.findPair(testUserId, testPeerId))
                 .thenReturn(null);
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response =
-                findMaterialsService.findPeerMaterials(testPeerId);
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response =
+                findMaterialsService.findPeerMaterials(testPeerId, null, null);
 
         // Assert
         assertNotNull(response);
@@ -270,22 +566,22 @@ class FindMaterialsServiceTest {
         assertNotNull(response.getBody());
         assertEquals("Users are not peers", response.getBody().getError());
         verify(userRepo, times(1)).findById(testPeerId);
-        verify(peersRepo, times(1)).findByUser1IdAndUser2IdOrUser2IdAndUser1Id(testUserId, testPeerId, testUserId, testPeerId);
-        verify(materialsRepo, times(0)).findAllByUserIdAndPrivacy(any(UUID.class), anyString());
+        verify(peersRepo, times(1)).findPair(testUserId, testPeerId);
+        verify(materialsRepo, times(0)).findPeerMaterialsPage(any(UUID.class), anyList(), any(Limit.class));
     }
 
     @Test
     void findPeerMaterials_PendingPeerRequest() {
         // Arrange
         peerConnection.setStatus(PeerStatus.PENDING);
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(userRepo.findById(testPeerId)).thenReturn(Optional.of(testPeer));
-        when(peersRepo.findByUser1IdAndUser2IdOrUser2IdAndUser1Id(testUserId, testPeerId, testUserId, testPeerId))
+        when(peersRepo.findPair(testUserId, testPeerId))
                 .thenReturn(peerConnection);
 
         // Act
-        ResponseEntity<ApiResponse<List<MaterialResponseDTO>>> response =
-                findMaterialsService.findPeerMaterials(testPeerId);
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response =
+                findMaterialsService.findPeerMaterials(testPeerId, null, null);
 
         // Assert
         assertNotNull(response);
@@ -293,7 +589,110 @@ class FindMaterialsServiceTest {
         assertNotNull(response.getBody());
         assertEquals("Users are not peers", response.getBody().getError());
         verify(userRepo, times(1)).findById(testPeerId);
-        verify(peersRepo, times(1)).findByUser1IdAndUser2IdOrUser2IdAndUser1Id(testUserId, testPeerId, testUserId, testPeerId);
-        verify(materialsRepo, times(0)).findAllByUserIdAndPrivacy(any(UUID.class), anyString());
+        verify(peersRepo, times(1)).findPair(testUserId, testPeerId);
+        verify(materialsRepo, times(0)).findPeerMaterialsPage(any(UUID.class), anyList(), any(Limit.class));
+    }
+
+    @Test
+    void findPeerMaterials_FullPageReturnsCursor() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(userRepo.findById(testPeerId)).thenReturn(Optional.of(testPeer));
+        when(peersRepo.findPair(testUserId, testPeerId))
+                .thenReturn(peerConnection);
+        when(materialsRepo.findPeerMaterialsPage(testPeerId, SAME_INSTITUTE_PRIVACIES, Limit.of(3)))
+                .thenReturn(Arrays.asList(institutionalMaterial, peerMaterial, publicMaterial));
+
+        // Act
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response =
+                findMaterialsService.findPeerMaterials(testPeerId, null, 2);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().getData().getItems().size());
+        assertEquals(new MaterialCursor(peerMaterial.getName(), peerMaterial.getId()),
+                MaterialCursor.decode(response.getBody().getData().getNextCursor()));
+    }
+
+    @Test
+    void findPeerMaterials_SeeksPastCursor() {
+        // Arrange
+        MaterialCursor after = new MaterialCursor(peerMaterial.getName(), peerMaterial.getId());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(userRepo.findById(testPeerId)).thenReturn(Optional.of(testPeer));
+        when(peersRepo.findPair(testUserId, testPeerId))
+                .thenReturn(peerConnection);
+        when(materialsRepo.findPeerMaterialsPageAfter(testPeerId, SAME_INSTITUTE_PRIVACIES, after.name(), after.id(),
+                Limit.of(3)))
+                .thenReturn(List.of(publicMaterial));
+
+        // Act
+        ResponseEntity<ApiResponse<CursorPageDTO<MaterialResponseDTO>>> response =
+                findMaterialsService.findPeerMaterials(testPeerId, after.encode(), 2);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(publicMaterial.getId(), response.getBody().getData().getItems().get(0).getId());
+        assertNull(response.getBody().getData().getNextCursor());
+        verify(materialsRepo, times(0)).findPeerMaterialsPage(any(UUID.class), anyList(), any(Limit.class));
+    }
+
+    @Test
+    void suggestMaterialNames_Success() {
+        // Arrange
+        ArgumentCaptor<MaterialSearchIndex.Viewer> viewer = ArgumentCaptor.forClass(MaterialSearchIndex.Viewer.class);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of(testPeerId));
+        when(materialSuggestIndex.suggest(eq("mat"), viewer.capture(), eq(10), eq(2000)))
+                .thenReturn(List.of("Peer Material", "Public Material"));
+
+        // Act
+        ResponseEntity<ApiResponse<List<String>>> response = findMaterialsService.suggestMaterialNames("mat", null);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(List.of("Peer Material", "Public Material"), response.getBody().getData());
+        assertEquals(testUserId, viewer.getValue().userId());
+        assertEquals(Set.of(testPeerId), viewer.getValue().peerIds());
+    }
+
+    @Test
+    void suggestMaterialNames_ClampsLimit() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerVisibilityIndex.visibleOwners(testUserId)).thenReturn(Set.of());
+        when(materialSuggestIndex.suggest(eq("mat"), any(), eq(20), eq(2000))).thenReturn(List.of());
+
+        // Act
+        findMaterialsService.suggestMaterialNames("mat", 500);
+
+        // Assert
+        verify(materialSuggestIndex, times(1)).suggest(eq("mat"), any(), eq(20), eq(2000));
+    }
+
+    @Test
+    void suggestMaterialNames_UserNotAuthenticated() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<ApiResponse<List<String>>> response = findMaterialsService.suggestMaterialNames("mat", null);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("User not found", response.getBody().getError());
+        verify(materialSuggestIndex, times(0)).suggest(anyString(), any(), anyInt(), anyInt());
+    }
+
+    private static MaterialSearchIndex.Result result(List<MaterialCursor> hits) {
+        return new MaterialSearchIndex.Result(hits, Map.of(), Map.of());
+    }
+
+    private static MaterialCursor position(Materials material) {
+        return new MaterialCursor(material.getName().toLowerCase(), material.getId());
     }
-} 
\ No newline at end of file
+}
@@ -31,6 +31,7 @@ import com.majed.acadlink.dto.folder.AllFolderResponseDTO;
 import com.majed.acadlink.dto.folder.FolderCreateDTO;
 import com.majed.acadlink.dto.folder.FolderResponseDTO;
 import com.majed.acadlink.dto.folder.UpdateFolderResponseDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
 import com.majed.acadlink.enums.MaterialType;
 import com.majed.acadlink.enums.Privacy;
 import com.majed.acadlink.utility.AuthorizationCheck;
@@ -132,7 +133,7 @@ class FolderServiceTest {
     @Test
     void getAllFolders_Success() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(folderRepo.findByUserId(testUserId)).thenReturn(Arrays.asList(testFolder));
 
         // Act
@@ -153,7 +154,7 @@ class FolderServiceTest {
     @Test
     void getAllFolders_UserNotAuthenticated() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.empty());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
 
         // Act
         ResponseEntity<ApiResponse<List<AllFolderResponseDTO>>> response = folderService.getAllFolders();
@@ -169,7 +170,7 @@ class FolderServiceTest {
     @Test
     void getFolder_Success() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(authorizationCheck.checkAuthorization(testUserId)).thenReturn(true);
         when(folderRepo.findById(testFolderId)).thenReturn(Optional.of(testFolder));
 
@@ -191,7 +192,7 @@ class FolderServiceTest {
     @Test
     void getFolder_UserNotAuthenticated() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.empty());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
 
         // Act
         ResponseEntity<ApiResponse<FolderResponseDTO>> response = folderService.getFolder(testFolderId);
@@ -207,7 +208,7 @@ class FolderServiceTest {
     @Test
     void getFolder_NotAuthorized() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(authorizationCheck.checkAuthorization(testUserId)).thenReturn(false);
 
         // Act
@@ -224,7 +225,7 @@ class FolderServiceTest {
     @Test
     void getFolder_NotFound() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(authorizationCheck.checkAuthorization(testUserId)).thenReturn(true);
         when(folderRepo.findById(testFolderId)).thenReturn(Optional.empty());
 
@@ -253,7 +254,7 @@ class FolderServiceTest {
         updatedFolder.setPrivacy(Privacy.PEERS);
         updatedFolder.setUser(testUser);
 
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(authorizationCheck.checkAuthorization(testUserId)).thenReturn(true);
         when(folderRepo.findById(testFolderId)).thenReturn(Optional.of(testFolder));
         when(folderRepo.save(any(Folder.class))).thenReturn(updatedFolder);
@@ -276,7 +277,7 @@ class FolderServiceTest {
     @Test
     void updateFolder_UserNotAuthenticated() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.empty());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
 
         // Act
         ResponseEntity<ApiResponse<UpdateFolderResponseDTO>> response = folderService.updateFolder(testFolderId, folderCreateDTO);
@@ -293,7 +294,7 @@ class FolderServiceTest {
     @Test
     void updateFolder_NotAuthorized() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(authorizationCheck.checkAuthorization(testUserId)).thenReturn(false);
 
         // Act
@@ -311,7 +312,7 @@ class FolderServiceTest {
     @Test
     void updateFolder_NotFound() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
         when(authorizationCheck.checkAuthorization(testUserId)).thenReturn(true);
         when(folderRepo.findById(testFolderId)).thenReturn(Optional.empty());
 
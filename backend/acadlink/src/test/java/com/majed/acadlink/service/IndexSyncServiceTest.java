@@ -0,0 +1,238 @@
+package com.majed.acadlink.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.majed.acadlink.config.SearchConfig;
+import com.majed.acadlink.domain.entity.Peers;
+import com.majed.acadlink.domain.repository.MaterialsRepo;
+import com.majed.acadlink.domain.repository.PeersRepo;
+import com.majed.acadlink.dto.material.MaterialIndexEntryDTO;
+import com.majed.acadlink.enums.MaterialType;
+import com.majed.acadlink.enums.PeerStatus;
+import com.majed.acadlink.enums.Privacy;
+import com.majed.acadlink.utility.MaterialSearchIndex;
+import com.majed.acadlink.utility.MaterialSuggestIndex;
+import com.majed.acadlink.utility.PeerGraphIndex;
+import com.majed.acadlink.utility.PeerVisibilityIndex;
+
+@ExtendWith(MockitoExtension.class)
+class IndexSyncServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private SearchConfig searchConfig = new SearchConfig();
+
+    @Mock
+    private PeersRepo peersRepo;
+
+    @Mock
+    private MaterialsRepo materialsRepo;
+
+    @Mock
+    private PeerVisibilityIndex peerVisibilityIndex;
+
+    @Mock
+    private PeerGraphIndex peerGraphIndex;
+
+    @Mock
+    private MaterialSearchIndex materialSearchIndex;
+
+    @Mock
+    private MaterialSuggestIndex materialSuggestIndex;
+
+    @Mock
+    private SearchCacheService searchCacheService;
+
+    @InjectMocks
+    private IndexSyncService indexSyncService;
+
+    private UUID aliceId;
+    private UUID bobId;
+
+    @BeforeEach
+    void setUp() {
+        aliceId = UUID.randomUUID();
+        bobId = UUID.randomUUID();
+    }
+
+    @Test
+    void peersChanged_PublishesThePairOnThePeersChannel() throws Exception {
+        // Arrange
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+
+        // Act
+        indexSyncService.peersChanged(aliceId, bobId);
+
+        // Assert
+        verify(redisTemplate, times(1)).convertAndSend(eq("index:peers"), message.capture());
+        IndexSyncService.PeersChangedMessage published =
+                objectMapper.readValue(message.getValue(), IndexSyncService.PeersChangedMessage.class);
+        assertEquals(aliceId, published.user1Id());
+        assertEquals(bobId, published.user2Id());
+    }
+
+    @Test
+    void onMessage_LinksPairAcceptedOnAnotherInstance() throws Exception {
+        // Arrange
+        Peers pair = new Peers();
+        pair.setStatus(PeerStatus.ACCEPTED);
+        when(peersRepo.findPair(aliceId, bobId)).thenReturn(pair);
+
+        // Act
+        indexSyncService.onMessage(message("index:peers",
+                new IndexSyncService.PeersChangedMessage(UUID.randomUUID(), aliceId, bobId)), null);
+
+        // Assert
+        verify(peerGraphIndex, times(1)).update(aliceId, bobId, PeerStatus.ACCEPTED);
+        verify(peerVisibilityIndex, times(1)).link(aliceId, bobId);
+        verify(searchCacheService, times(1)).invalidateUsers(aliceId, bobId);
+    }
+
+    @Test
+    void onMessage_UnlinksPairRemovedOnAnotherInstance() throws Exception {
+        // Arrange
+        when(peersRepo.findPair(aliceId, bobId)).thenReturn(null);
+
+        // Act
+        indexSyncService.onMessage(message("index:peers",
+                new IndexSyncService.PeersChangedMessage(UUID.randomUUID(), aliceId, bobId)), null);
+
+        // Assert
+        verify(peerGraphIndex, times(1)).update(aliceId, bobId, PeerStatus.FALSE);
+        verify(peerVisibilityIndex, times(1)).unlink(aliceId, bobId);
+        verify(peerVisibilityIndex, times(0)).link(any(UUID.class), any(UUID.class));
+    }
+
+    @Test
+    void onMessage_RecordsRequestSentOnAnotherInstance() throws Exception {
+        // Arrange
+        Peers pair = new Peers();
+        pair.setStatus(PeerStatus.PENDING);
+        when(peersRepo.findPair(aliceId, bobId)).thenReturn(pair);
+
+        // Act
+        indexSyncService.onMessage(message("index:peers",
+                new IndexSyncService.PeersChangedMessage(UUID.randomUUID(), aliceId, bobId)), null);
+
+        // Assert
+        verify(peerGraphIndex, times(1)).update(aliceId, bobId, PeerStatus.PENDING);
+        verify(peerVisibilityIndex, times(1)).unlink(aliceId, bobId);
+    }
+
+    @Test
+    void onMessage_IgnoresChangesPublishedByThisInstance() throws Exception {
+        // Arrange
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        indexSyncService.peersChanged(aliceId, bobId);
+        verify(redisTemplate).convertAndSend(eq("index:peers"), published.capture());
+        Message message = mock(Message.class);
+        when(message.getChannel()).thenReturn("index:peers".getBytes(StandardCharsets.UTF_8));
+        when(message.getBody()).thenReturn(published.getValue().getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        indexSyncService.onMessage(message, null);
+
+        // Assert
+        verifyNoInteractions(peersRepo, peerVisibilityIndex, peerGraphIndex, searchCacheService);
+    }
+
+    @Test
+    void onMessage_ReindexesMaterialChangedOnAnotherInstance() throws Exception {
+        // Arrange
+        UUID materialId = UUID.randomUUID();
+        MaterialIndexEntryDTO row = new MaterialIndexEntryDTO(materialId, "Linear Algebra", MaterialType.BOOK,
+                Privacy.PEERS, aliceId, "test institute");
+        when(materialsRepo.findIndexEntry(materialId)).thenReturn(Optional.of(row));
+
+        // Act
+        indexSyncService.onMessage(message("index:materials", new IndexSyncService.MaterialChangedMessage(
+                UUID.randomUUID(), materialId, aliceId, List.of(Privacy.PUBLIC, Privacy.PEERS))), null);
+
+        // Assert
+        verify(materialSearchIndex, times(1)).index(row);
+        verify(materialSuggestIndex, times(1)).index(row);
+        verify(searchCacheService, times(1)).invalidateMaterial(aliceId, Privacy.PUBLIC, Privacy.PEERS);
+    }
+
+    @Test
+    void onMessage_RemovesMaterialDeletedOnAnotherInstance() throws Exception {
+        // Arrange
+        UUID materialId = UUID.randomUUID();
+        when(materialsRepo.findIndexEntry(materialId)).thenReturn(Optional.empty());
+
+        // Act
+        indexSyncService.onMessage(message("index:materials", new IndexSyncService.MaterialChangedMessage(
+                UUID.randomUUID(), materialId, aliceId, List.of(Privacy.PUBLIC))), null);
+
+        // Assert
+        verify(materialSearchIndex, times(1)).remove(materialId);
+        verify(materialSuggestIndex, times(1)).remove(materialId);
+    }
+
+    @Test
+    void rebuild_ReloadsEveryIndexFromTheDatabase() {
+        // Act
+        indexSyncService.rebuild();
+
+        // Assert
+        verify(peerVisibilityIndex, times(1)).rebuild();
+        verify(peerGraphIndex, times(1)).rebuild();
+        verify(materialSearchIndex, times(1)).rebuild();
+        verify(materialSuggestIndex, times(1)).rebuild();
+    }
+
+    @Test
+    void rebuild_AppliesChangesMadeWhileItRanAgain() {
+        // Arrange
+        doAnswer(invocation -> {
+            indexSyncService.peersChanged(aliceId, bobId);
+            return null;
+        }).when(peerVisibilityIndex).rebuild();
+        when(peersRepo.findPair(aliceId, bobId)).thenReturn(null);
+
+        // Act
+        indexSyncService.rebuild();
+
+        // Assert
+        verify(peerVisibilityIndex, times(1)).unlink(aliceId, bobId);
+    }
+
+    private Message message(String channel, Object body) throws Exception {
+        // Serialized first: calling the spied mapper inside thenReturn would interrupt the stubbing
+        byte[] payload = objectMapper.writeValueAsBytes(body);
+        Message message = mock(Message.class);
+        when(message.getChannel()).thenReturn(channel.getBytes(StandardCharsets.UTF_8));
+        when(message.getBody()).thenReturn(payload);
+        return message;
+    }
+}
@@ -41,6 +41,8 @@ import com.majed.acadlink.exception.MaterialSaveException;
 import com.majed.acadlink.exception.ResourceNotFoundException;
 import com.majed.acadlink.utility.AuthorizationCheck;
 import com.majed.acadlink.utility.GetUserUtil;
+import com.majed.acadlink.utility.MaterialSearchIndex;
+import com.majed.acadlink.utility.MaterialSuggestIndex;
 import com.majed.acadlink.utility.SaveMaterialUtil;
 
 @ExtendWith(MockitoExtension.class)
@@ -61,6 +63,18 @@ class MaterialServiceTest {
     @Mock
     private GetUserUtil getUserUtil;
 
+    @Mock
+    private MaterialSearchIndex materialSearchIndex;
+
+    @Mock
+    private MaterialSuggestIndex materialSuggestIndex;
+
+    @Mock
+    private SearchCacheService searchCacheService;
+
+    @Mock
+    private IndexSyncService indexSyncService;
+
     @InjectMocks
     private MaterialService materialService;
 
@@ -374,6 +388,10 @@ class MaterialServiceTest {
         assertEquals(Privacy.PEERS, response.getBody().getData().getPrivacy());
         verify(materialsRepo, times(1)).findById(testMaterialId);
         verify(materialsRepo, times(1)).save(any(Materials.class));
+        verify(materialSearchIndex, times(1)).index(testMaterial);
+        verify(materialSuggestIndex, times(1)).index(testMaterial);
+        verify(searchCacheService, times(1)).invalidateMaterial(testUserId, Privacy.PUBLIC, Privacy.PEERS);
+        verify(indexSyncService, times(1)).materialChanged(testMaterialId, testUserId, Privacy.PUBLIC, Privacy.PEERS);
     }
 
     @Test
@@ -447,6 +465,10 @@ class MaterialServiceTest {
         assertEquals(true, response.getBody().getData());
         verify(materialsRepo, times(1)).findById(testMaterialId);
         verify(materialsRepo, times(1)).delete(testMaterial);
+        verify(materialSearchIndex, times(1)).remove(testMaterialId);
+        verify(materialSuggestIndex, times(1)).remove(testMaterialId);
+        verify(searchCacheService, times(1)).invalidateMaterial(testUserId, Privacy.PUBLIC);
+        verify(indexSyncService, times(1)).materialChanged(testMaterialId, testUserId, Privacy.PUBLIC);
     }
 
     @Test
@@ -0,0 +1,176 @@
+package com.majed.acadlink.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.majed.acadlink.config.EventsConfig;
+import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.peers.PeerEventDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.enums.PeerEventType;
+import com.majed.acadlink.utility.GetUserUtil;
+import com.majed.acadlink.utility.JWTUtil;
+
+@ExtendWith(MockitoExtension.class)
+class PeerEventServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private GetUserUtil getUserUtil;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private EventsConfig eventsConfig = new EventsConfig();
+
+    @Mock
+    private JWTUtil jwtUtil;
+
+    @InjectMocks
+    private PeerEventService peerEventService;
+
+    private User alice;
+    private UUID bobId;
+    private PeerEventDTO event;
+
+    @BeforeEach
+    void setUp() {
+        alice = new User();
+        alice.setId(UUID.randomUUID());
+        bobId = UUID.randomUUID();
+        event = new PeerEventDTO(PeerEventType.REQUEST_RECEIVED, UUID.randomUUID(), bobId);
+    }
+
+    @Test
+    void streamToken_IssuesStreamTokenForAuthenticatedUser() {
+        // Arrange
+        AuthenticatedUser principal = AuthenticatedUser.of(alice);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(principal));
+        when(jwtUtil.generateStreamToken(principal)).thenReturn("stream.jwt.token");
+
+        // Act
+        ResponseEntity<ApiResponse<String>> response = peerEventService.streamToken();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("stream.jwt.token", response.getBody().getData());
+    }
+
+    @Test
+    void subscribe_UserNotAuthenticated() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<SseEmitter> response = peerEventService.subscribe();
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void deliver_WritesToEveryStreamOfTheRecipientOnly() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(alice)));
+        peerEventService.subscribe();
+        ResponseEntity<SseEmitter> response = peerEventService.subscribe();
+
+        // Act & Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, peerEventService.deliver(alice.getId(), event));
+        assertEquals(0, peerEventService.deliver(bobId, event));
+    }
+
+    @Test
+    void subscribe_ClosesTheOldestStreamPastTheLimit() {
+        // Arrange
+        eventsConfig.getPeers().setMaxStreamsPerUser(2);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(alice)));
+        SseEmitter oldest = peerEventService.subscribe().getBody();
+
+        // Act
+        peerEventService.subscribe();
+        peerEventService.subscribe();
+
+        // Assert
+        assertNotNull(oldest);
+        assertEquals(2, peerEventService.deliver(alice.getId(), event));
+        assertThrows(IllegalStateException.class, () -> oldest.send("late"));
+    }
+
+    @Test
+    void publish_SendsRecipientAndEventOnTheChannel() throws Exception {
+        // Arrange
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+
+        // Act
+        peerEventService.publish(alice.getId(), event);
+
+        // Assert
+        verify(redisTemplate, times(1)).convertAndSend(eq("peers:events"), message.capture());
+        assertEquals(new PeerEventService.PeerEventMessage(alice.getId(), event),
+                objectMapper.readValue(message.getValue(), PeerEventService.PeerEventMessage.class));
+    }
+
+    @Test
+    void publish_DeliversLocallyWhenRedisIsDown() {
+        // Arrange
+        PeerEventService service = spy(peerEventService);
+        when(redisTemplate.convertAndSend(eq("peers:events"), anyString()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act
+        service.publish(alice.getId(), event);
+
+        // Assert
+        verify(service, times(1)).deliver(alice.getId(), event);
+    }
+
+    @Test
+    void onMessage_DeliversPublishedEventsToLocalStreams() throws Exception {
+        // Arrange
+        PeerEventService service = spy(peerEventService);
+        byte[] payload = objectMapper.writeValueAsBytes(new PeerEventService.PeerEventMessage(alice.getId(), event));
+        Message message = mock(Message.class);
+        when(message.getBody()).thenReturn(payload);
+
+        // Act
+        service.onMessage(message, null);
+
+        // Assert
+        verify(service, times(1)).deliver(alice.getId(), event);
+    }
+}
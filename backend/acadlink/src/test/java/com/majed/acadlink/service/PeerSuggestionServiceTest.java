@@ -0,0 +1,258 @@
+package com.majed.acadlink.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.majed.acadlink.config.SearchConfig;
+import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.domain.repository.UserRepo;
+import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.peers.PeerSuggestionDTO;
+import com.majed.acadlink.dto.peers.UserLookupDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.enums.PeerStatus;
+import com.majed.acadlink.utility.GetUserUtil;
+import com.majed.acadlink.utility.PeerGraphIndex;
+
+@ExtendWith(MockitoExtension.class)
+class PeerSuggestionServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private UserRepo userRepo;
+
+    @Mock
+    private GetUserUtil getUserUtil;
+
+    @Mock
+    private PeerGraphIndex peerGraphIndex;
+
+    @Spy
+    private SearchConfig searchConfig = new SearchConfig();
+
+    @InjectMocks
+    private PeerSuggestionService peerSuggestionService;
+
+    private User alice;
+    private User bob;
+    private User carol;
+    private User dave;
+    private Duration ttl;
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice");
+        bob = user("bob");
+        carol = user("carol");
+        dave = user("dave");
+        ttl = searchConfig.getPeerSuggestions().getTtl();
+    }
+
+    @Test
+    void getSuggestions_RanksStoresAndSkipsRequestedUsersOnMiss() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(alice)));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("peers:suggestions:" + alice.getId())).thenReturn(null);
+        when(peerGraphIndex.isReady()).thenReturn(true);
+        when(peerGraphIndex.mutualCounts(alice.getId()))
+                .thenReturn(Map.of(bob.getId(), 1, carol.getId(), 2, dave.getId(), 1));
+        when(userRepo.findIdsInSameInstitute(eq(alice.getId()), anyCollection())).thenReturn(List.of(dave.getId()));
+        when(peerGraphIndex.statuses(alice.getId(), List.of(dave.getId(), carol.getId(), bob.getId())))
+                .thenReturn(Map.of(dave.getId(), PeerStatus.FALSE, carol.getId(), PeerStatus.PENDING,
+                        bob.getId(), PeerStatus.FALSE));
+        when(userRepo.findLookupByIds(List.of(dave.getId(), bob.getId())))
+                .thenReturn(List.of(lookup(bob), lookup(dave)));
+        when(peerGraphIndex.mutualCount(alice.getId(), dave.getId())).thenReturn(1);
+        when(peerGraphIndex.mutualCount(alice.getId(), bob.getId())).thenReturn(1);
+
+        // Act
+        ResponseEntity<ApiResponse<List<PeerSuggestionDTO>>> response = peerSuggestionService.getSuggestions(null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(List.of(dave.getId(), bob.getId()),
+                response.getBody().getData().stream().map(PeerSuggestionDTO::getUserId).toList());
+        assertEquals("dave", response.getBody().getData().get(0).getUserName());
+        assertEquals(1, response.getBody().getData().get(0).getMutualPeers());
+        verify(valueOperations, times(1)).set("peers:suggestions:" + alice.getId(),
+                dave.getId() + "," + carol.getId() + "," + bob.getId(), ttl);
+    }
+
+    @Test
+    void getSuggestions_ReadsStoredRankingUpToLimit() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(alice)));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("peers:suggestions:" + alice.getId())).thenReturn(bob.getId() + "," + carol.getId());
+        when(peerGraphIndex.statuses(alice.getId(), List.of(bob.getId(), carol.getId())))
+                .thenReturn(Map.of(bob.getId(), PeerStatus.FALSE, carol.getId(), PeerStatus.FALSE));
+        when(userRepo.findLookupByIds(List.of(bob.getId()))).thenReturn(List.of(lookup(bob)));
+        when(peerGraphIndex.mutualCount(alice.getId(), bob.getId())).thenReturn(4);
+
+        // Act
+        ResponseEntity<ApiResponse<List<PeerSuggestionDTO>>> response = peerSuggestionService.getSuggestions(1);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(List.of(new PeerSuggestionDTO(bob.getId(), "First", "Last", "bob", "Test University", 4)),
+                response.getBody().getData());
+        verify(peerGraphIndex, never()).mutualCounts(any(UUID.class));
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void getSuggestions_RedisUnavailableRanksOnTheSpot() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(alice)));
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+        when(peerGraphIndex.isReady()).thenReturn(true);
+        when(peerGraphIndex.mutualCounts(alice.getId())).thenReturn(Map.of(bob.getId(), 1));
+        when(userRepo.findIdsInSameInstitute(eq(alice.getId()), anyCollection())).thenReturn(List.of());
+        when(peerGraphIndex.statuses(alice.getId(), List.of(bob.getId())))
+                .thenReturn(Map.of(bob.getId(), PeerStatus.FALSE));
+        when(userRepo.findLookupByIds(List.of(bob.getId()))).thenReturn(List.of(lookup(bob)));
+        when(peerGraphIndex.mutualCount(alice.getId(), bob.getId())).thenReturn(1);
+
+        // Act
+        ResponseEntity<ApiResponse<List<PeerSuggestionDTO>>> response = peerSuggestionService.getSuggestions(null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getData().size());
+    }
+
+    @Test
+    void getSuggestions_GraphNotReadyReturnsEmptyWithoutStoring() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(alice)));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("peers:suggestions:" + alice.getId())).thenReturn(null);
+        when(peerGraphIndex.isReady()).thenReturn(false);
+
+        // Act
+        ResponseEntity<ApiResponse<List<PeerSuggestionDTO>>> response = peerSuggestionService.getSuggestions(null);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(List.of(), response.getBody().getData());
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void getSuggestions_UserNotFound() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<ApiResponse<List<PeerSuggestionDTO>>> response = peerSuggestionService.getSuggestions(null);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("User not found", response.getBody().getError());
+    }
+
+    @Test
+    void refreshChanged_RecomputesBothUsersAndTheirPeersOnce() {
+        // Arrange
+        when(peerGraphIndex.acceptedPeers(alice.getId())).thenReturn(List.of(bob.getId(), carol.getId()));
+        when(peerGraphIndex.acceptedPeers(bob.getId())).thenReturn(List.of(alice.getId()));
+        when(peerGraphIndex.isReady()).thenReturn(true);
+        when(peerGraphIndex.mutualCounts(any(UUID.class))).thenReturn(Map.of());
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        peerSuggestionService.edgeChanged(alice.getId(), bob.getId());
+
+        // Act
+        peerSuggestionService.refreshChanged();
+        peerSuggestionService.refreshChanged();
+
+        // Assert
+        verify(peerGraphIndex, times(3)).mutualCounts(any(UUID.class));
+        verify(valueOperations, times(1)).set("peers:suggestions:" + alice.getId(), "", ttl);
+        verify(valueOperations, times(1)).set("peers:suggestions:" + bob.getId(), "", ttl);
+        verify(valueOperations, times(1)).set("peers:suggestions:" + carol.getId(), "", ttl);
+    }
+
+    @Test
+    void refreshAll_ComparesInstitutesOnlyForCandidatesTheBoostCouldLift() {
+        // Arrange
+        searchConfig.getPeerSuggestions().setStoredSize(1);
+        when(peerGraphIndex.isReady()).thenReturn(true);
+        when(peerGraphIndex.connectedUsers()).thenReturn(List.of(alice.getId()));
+        when(peerGraphIndex.mutualCounts(alice.getId()))
+                .thenReturn(Map.of(bob.getId(), 1, carol.getId(), 4, dave.getId(), 3));
+        when(userRepo.findIdsInSameInstitute(eq(alice.getId()), anyCollection())).thenReturn(List.of(dave.getId()));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // Act
+        peerSuggestionService.refreshAll();
+
+        // Assert
+        verify(userRepo, times(1)).findIdsInSameInstitute(eq(alice.getId()),
+                argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(carol.getId(), dave.getId()))));
+        verify(valueOperations, times(1)).set("peers:suggestions:" + alice.getId(), dave.getId().toString(), ttl);
+    }
+
+    @Test
+    void refreshAll_SkipsUntilGraphIsReady() {
+        // Arrange
+        when(peerGraphIndex.isReady()).thenReturn(false);
+
+        // Act
+        peerSuggestionService.refreshAll();
+
+        // Assert
+        verify(peerGraphIndex, never()).connectedUsers();
+    }
+
+    private static UserLookupDTO lookup(User user) {
+        return new UserLookupDTO(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getUsername(), user.getInstitute(), user.getInstituteKey());
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setUsername(username);
+        user.setInstitute("Test University");
+        return user;
+    }
+}
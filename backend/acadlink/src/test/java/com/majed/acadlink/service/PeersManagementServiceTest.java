@@ -2,8 +2,12 @@ package com.majed.acadlink.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -11,29 +15,49 @@ import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.majed.acadlink.config.SearchConfig;
 import com.majed.acadlink.domain.entity.Peers;
 import com.majed.acadlink.domain.entity.User;
 import com.majed.acadlink.domain.repository.PeersRepo;
 import com.majed.acadlink.domain.repository.UserRepo;
 import com.majed.acadlink.dto.ApiResponse;
+import com.majed.acadlink.dto.CursorPageDTO;
+import com.majed.acadlink.dto.peers.BulkPeerActionDTO;
+import com.majed.acadlink.dto.peers.BulkPeerResultDTO;
+import com.majed.acadlink.dto.peers.PeerEventDTO;
 import com.majed.acadlink.dto.peers.PeerInfoDTO;
+import com.majed.acadlink.dto.peers.PeerRequestRowDTO;
 import com.majed.acadlink.dto.peers.SearchResultDTO;
+import com.majed.acadlink.dto.peers.UserLookupDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.enums.PeerAction;
+import com.majed.acadlink.enums.PeerEventType;
 import com.majed.acadlink.enums.PeerStatus;
 import com.majed.acadlink.enums.ReqType;
 import com.majed.acadlink.utility.AuthorizationCheck;
 import com.majed.acadlink.utility.GetUserUtil;
+import com.majed.acadlink.utility.MaterialCursor;
+import com.majed.acadlink.utility.PeerGraphIndex;
+import com.majed.acadlink.utility.PeerVisibilityIndex;
 
 @ExtendWith(MockitoExtension.class)
 class PeersManagementServiceTest {
@@ -50,6 +74,33 @@ class PeersManagementServiceTest {
     @Mock
     private AuthorizationCheck authorizationCheck;
 
+    @Mock
+    private PeerVisibilityIndex peerVisibilityIndex;
+
+    @Mock
+    private PeerGraphIndex peerGraphIndex;
+
+    @Mock
+    private SearchCacheService searchCacheService;
+
+    @Mock
+    private PeerSuggestionService peerSuggestionService;
+
+    @Mock
+    private PeerEventService peerEventService;
+
+    @Mock
+    private IndexSyncService indexSyncService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    @Spy
+    private SearchConfig searchConfig = new SearchConfig();
+
     @InjectMocks
     private PeersManagementService peersManagementService;
 
@@ -88,21 +139,27 @@ class PeersManagementServiceTest {
         testPeer.setUser1(testUser);
         testPeer.setUser2(peerUser);
         testPeer.setStatus(PeerStatus.PENDING);
+
+        // Run bulk actions inline, as inside a transaction
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(transactionStatus);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
     }
 
     @Test
     void searchUsers_Success() {
         // Arrange
         String searchEntry = "jane";
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
-        when(userRepo.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(searchEntry, searchEntry))
-                .thenReturn(Arrays.asList(peerUser));
-        when(peersRepo.findByUser1IdAndUser2IdOrUser2IdAndUser1Id(testUserId, testPeerId, testUserId, testPeerId))
-                .thenReturn(null);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(userRepo.findLookupMatches("jane%", searchEntry, Limit.of(200)))
+                .thenReturn(Arrays.asList(lookup(peerUser)));
+        when(peerGraphIndex.statuses(testUserId, List.of(testPeerId)))
+                .thenReturn(Map.of(testPeerId, PeerStatus.PENDING));
 
         // Act
         ResponseEntity<ApiResponse<List<SearchResultDTO>>> response =
-                peersManagementService.searchUsers(searchEntry);
+                peersManagementService.searchUsers(searchEntry, null);
 
         // Assert
         assertNotNull(response);
@@ -111,35 +168,116 @@ class PeersManagementServiceTest {
         assertNotNull(response.getBody().getData());
         assertEquals(1, response.getBody().getData().size());
         assertEquals(testPeerId, response.getBody().getData().get(0).getId());
-        verify(userRepo, times(1)).findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(searchEntry, searchEntry);
+        assertEquals(PeerStatus.PENDING, response.getBody().getData().get(0).getPeerStatus());
+        assertEquals("janesmith", response.getBody().getData().get(0).getUsername());
+        verify(peerGraphIndex, times(0)).status(any(), any());
+        verify(peersRepo, times(0)).findPair(any(), any());
+    }
+
+    @Test
+    void searchUsers_RanksExactMatchThenInstituteThenMutualPeers() {
+        // Arrange
+        String searchEntry = " j_n ";
+        UserLookupDTO exact = new UserLookupDTO(UUID.randomUUID(), "Jan", "Exact", "jan@example.com", "j_n",
+                "Other College", "othercollege");
+        UserLookupDTO classmate = new UserLookupDTO(UUID.randomUUID(), "J_nna", "Zed", "zed@example.com", "zed",
+                "Test University", "testuniversity");
+        UserLookupDTO wellConnected = new UserLookupDTO(UUID.randomUUID(), "J_nis", "Able", "able@example.com",
+                "able", "Other College", "othercollege");
+        UserLookupDTO stranger = new UserLookupDTO(UUID.randomUUID(), "J_ne", "Doe", "doe@example.com", "adoe",
+                "Other College", "othercollege");
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(userRepo.findLookupMatches("j!_n%", "j_n", Limit.of(200)))
+                .thenReturn(List.of(stranger, wellConnected, classmate, exact));
+        when(peerGraphIndex.mutualCounts(testUserId,
+                List.of(stranger.getId(), wellConnected.getId(), classmate.getId(), exact.getId()), 100))
+                .thenReturn(Map.of(stranger.getId(), 0, wellConnected.getId(), 4, classmate.getId(), 0,
+                        exact.getId(), 0));
+        when(peerGraphIndex.statuses(testUserId, List.of(exact.getId(), classmate.getId(), wellConnected.getId())))
+                .thenReturn(Map.of());
+
+        // Act
+        ResponseEntity<ApiResponse<List<SearchResultDTO>>> response =
+                peersManagementService.searchUsers(searchEntry, 3);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(List.of("j_n", "zed", "able"),
+                response.getBody().getData().stream().map(SearchResultDTO::getUsername).toList());
+        assertEquals(PeerStatus.FALSE, response.getBody().getData().get(0).getPeerStatus());
+        assertEquals(4, response.getBody().getData().get(2).getMutualPeers());
+    }
+
+    @Test
+    void searchUsers_LeavesMutualPeersEmptyPastTheCap() {
+        // Arrange
+        searchConfig.getUsers().setMaxMutualCounts(1);
+        UserLookupDTO counted = new UserLookupDTO(UUID.randomUUID(), "Jane", "Able", "able@example.com", "jable",
+                "Other College", "othercollege");
+        UserLookupDTO uncounted = new UserLookupDTO(UUID.randomUUID(), "Jane", "Baker", "baker@example.com",
+                "jbaker", "Other College", "othercollege");
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(userRepo.findLookupMatches("jane%", "jane", Limit.of(200))).thenReturn(List.of(counted, uncounted));
+        when(peerGraphIndex.mutualCounts(testUserId, List.of(counted.getId(), uncounted.getId()), 1))
+                .thenReturn(Map.of(counted.getId(), 2));
+        when(peerGraphIndex.statuses(testUserId, List.of(counted.getId(), uncounted.getId()))).thenReturn(Map.of());
+
+        // Act
+        ResponseEntity<ApiResponse<List<SearchResultDTO>>> response =
+                peersManagementService.searchUsers("jane", null);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().getData().get(0).getMutualPeers());
+        assertNull(response.getBody().getData().get(1).getMutualPeers());
+    }
+
+    @Test
+    void searchUsers_BlankEntryReturnsNothing() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+
+        // Act
+        ResponseEntity<ApiResponse<List<SearchResultDTO>>> response =
+                peersManagementService.searchUsers("  ", null);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(List.of(), response.getBody().getData());
+        verify(userRepo, times(0)).findLookupMatches(anyString(), anyString(), any(Limit.class));
     }
 
     @Test
     void searchUsers_UserNotAuthenticated() {
         // Arrange
         String searchEntry = "jane";
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.empty());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
 
         // Act
         ResponseEntity<ApiResponse<List<SearchResultDTO>>> response =
-                peersManagementService.searchUsers(searchEntry);
+                peersManagementService.searchUsers(searchEntry, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("User not found", response.getBody().getError());
-        verify(userRepo, times(0)).findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(anyString(), anyString());
+        verify(userRepo, times(0)).findLookupMatches(anyString(), anyString(), any(Limit.class));
     }
 
     @Test
     void addPeer_Success() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
-        when(peersRepo.findByUser1IdAndUser2IdOrUser2IdAndUser1Id(testUserId, testPeerId, testUserId, testPeerId))
-                .thenReturn(null);
-        when(userRepo.findById(testPeerId)).thenReturn(Optional.of(peerUser));
-        when(peersRepo.save(any(Peers.class))).thenReturn(testPeer);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerGraphIndex.status(testUserId, testPeerId)).thenReturn(PeerStatus.FALSE);
+        when(userRepo.existsById(testPeerId)).thenReturn(true);
+        Peers stored = new Peers();
+        doAnswer(invocation -> {
+            stored.setId(invocation.getArgument(0));
+            return null;
+        }).when(peersRepo).insertRequestIfAbsent(any(UUID.class), eq(testUserId), eq(testPeerId),
+                eq(Peers.lowOf(testUserId, testPeerId)), eq(Peers.highOf(testUserId, testPeerId)));
+        when(peersRepo.findPair(testUserId, testPeerId)).thenReturn(stored);
 
         // Act
         ResponseEntity<ApiResponse<Boolean>> response =
@@ -150,16 +288,65 @@ class PeersManagementServiceTest {
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(true, response.getBody().getData());
-        verify(peersRepo, times(1)).save(any(Peers.class));
+        verify(peersRepo, times(0)).save(any(Peers.class));
+        verify(peerGraphIndex, times(1)).request(testUserId, testPeerId);
+        verify(indexSyncService, times(1)).peersChanged(testUserId, testPeerId);
+        verify(peerEventService, times(1)).publish(eq(testPeerId), argThat(event ->
+                event.getType() == PeerEventType.REQUEST_RECEIVED && stored.getId().equals(event.getReqId())
+                        && testUserId.equals(event.getUserId())));
+    }
+
+    @Test
+    void addPeer_ConcurrentRequestForSamePairIsNotInsertedTwice() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerGraphIndex.status(testUserId, testPeerId)).thenReturn(PeerStatus.FALSE);
+        when(userRepo.existsById(testPeerId)).thenReturn(true);
+        // The row of the other request; MySQL reports a duplicate left unchanged as one affected row
+        Peers stored = new Peers();
+        stored.setId(UUID.randomUUID());
+        when(peersRepo.findPair(testUserId, testPeerId)).thenReturn(stored);
+
+        // Act
+        ResponseEntity<ApiResponse<Boolean>> response =
+                peersManagementService.addPeer(testPeerId);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Request already sent", response.getBody().getError());
+        verify(peersRepo, times(1)).insertRequestIfAbsent(any(UUID.class), eq(testUserId), eq(testPeerId),
+                eq(Peers.lowOf(testUserId, testPeerId)), eq(Peers.highOf(testUserId, testPeerId)));
+        verify(peerGraphIndex, times(0)).request(any(UUID.class), any(UUID.class));
+        verify(indexSyncService, times(0)).peersChanged(any(UUID.class), any(UUID.class));
+        verify(peerEventService, times(0)).publish(any(UUID.class), any(PeerEventDTO.class));
+    }
+
+    @Test
+    void addPeer_ReceiverNotFound() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerGraphIndex.status(testUserId, testPeerId)).thenReturn(PeerStatus.FALSE);
+        when(userRepo.existsById(testPeerId)).thenReturn(false);
+
+        // Act
+        ResponseEntity<ApiResponse<Boolean>> response =
+                peersManagementService.addPeer(testPeerId);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("User2 not found", response.getBody().getError());
+        verify(peersRepo, times(0)).insertRequestIfAbsent(any(), any(), any(), any(), any());
     }
 
     @Test
     void addPeer_AlreadyPeers() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
-        testPeer.setStatus(PeerStatus.ACCEPTED);
-        when(peersRepo.findByUser1IdAndUser2IdOrUser2IdAndUser1Id(testUserId, testPeerId, testUserId, testPeerId))
-                .thenReturn(testPeer);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerGraphIndex.status(testUserId, testPeerId)).thenReturn(PeerStatus.ACCEPTED);
 
         // Act
         ResponseEntity<ApiResponse<Boolean>> response =
@@ -176,10 +363,8 @@ class PeersManagementServiceTest {
     @Test
     void addPeer_RequestAlreadySent() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
-        testPeer.setStatus(PeerStatus.PENDING);
-        when(peersRepo.findByUser1IdAndUser2IdOrUser2IdAndUser1Id(testUserId, testPeerId, testUserId, testPeerId))
-                .thenReturn(testPeer);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peerGraphIndex.status(testUserId, testPeerId)).thenReturn(PeerStatus.PENDING);
 
         // Act
         ResponseEntity<ApiResponse<Boolean>> response =
@@ -196,10 +381,9 @@ class PeersManagementServiceTest {
     @Test
     void getRequests_Sent_Success() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
-        when(peersRepo.findByUser1IdAndStatus(testUserId, PeerStatus.PENDING))
-                .thenReturn(Arrays.asList(testPeer));
-        when(userRepo.findById(testPeerId)).thenReturn(Optional.of(peerUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peersRepo.findSentInfo(testUserId, PeerStatus.PENDING))
+                .thenReturn(Arrays.asList(peerInfo(testPeer.getId(), peerUser)));
 
         // Act
         ResponseEntity<ApiResponse<List<PeerInfoDTO>>> response =
@@ -212,17 +396,17 @@ class PeersManagementServiceTest {
         assertNotNull(response.getBody().getData());
         assertEquals(1, response.getBody().getData().size());
         assertEquals(testPeerId, response.getBody().getData().get(0).getUserId());
-        verify(peersRepo, times(1)).findByUser1IdAndStatus(testUserId, PeerStatus.PENDING);
+        assertEquals("janesmith", response.getBody().getData().get(0).getUserName());
+        verify(peersRepo, times(1)).findSentInfo(testUserId, PeerStatus.PENDING);
+        verify(userRepo, times(0)).findById(any(UUID.class));
     }
 
     @Test
     void getRequests_Received_Success() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
-        when(peersRepo.findByUser2IdAndStatus(testUserId, PeerStatus.PENDING))
-                .thenReturn(Arrays.asList(testPeer));
-        // Use lenient stubbing to handle any UUID argument
-        lenient().when(userRepo.findById(any(UUID.class))).thenReturn(Optional.of(peerUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peersRepo.findReceivedInfo(testUserId, PeerStatus.PENDING))
+                .thenReturn(Arrays.asList(peerInfo(testPeer.getId(), peerUser)));
 
         // Act
         ResponseEntity<ApiResponse<List<PeerInfoDTO>>> response =
@@ -235,29 +419,68 @@ class PeersManagementServiceTest {
         assertNotNull(response.getBody().getData());
         assertEquals(1, response.getBody().getData().size());
         assertEquals(testPeerId, response.getBody().getData().get(0).getUserId());
-        verify(peersRepo, times(1)).findByUser2IdAndStatus(testUserId, PeerStatus.PENDING);
+        verify(peersRepo, times(1)).findReceivedInfo(testUserId, PeerStatus.PENDING);
+        verify(userRepo, times(0)).findById(any(UUID.class));
     }
 
     @Test
     void findPeers_Success() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
-        testPeer.setStatus(PeerStatus.ACCEPTED);
-        when(peersRepo.findByUser1IdOrUser2IdAndStatus(testUserId, testUserId, PeerStatus.ACCEPTED))
-                .thenReturn(Arrays.asList(testPeer));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peersRepo.findPeerInfoPage(testUserId, PeerStatus.ACCEPTED, Limit.of(21)))
+                .thenReturn(Arrays.asList(peerInfo(testPeer.getId(), peerUser)));
 
         // Act
-        ResponseEntity<ApiResponse<List<PeerInfoDTO>>> response =
-                peersManagementService.findPeers();
+        ResponseEntity<ApiResponse<CursorPageDTO<PeerInfoDTO>>> response =
+                peersManagementService.findPeers(null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertNotNull(response.getBody().getData());
-        assertEquals(1, response.getBody().getData().size());
-        assertEquals(testPeerId, response.getBody().getData().get(0).getUserId());
-        verify(peersRepo, times(1)).findByUser1IdOrUser2IdAndStatus(testUserId, testUserId, PeerStatus.ACCEPTED);
+        assertEquals(1, response.getBody().getData().getItems().size());
+        assertEquals(testPeerId, response.getBody().getData().getItems().get(0).getUserId());
+        assertNull(response.getBody().getData().getNextCursor());
+        verify(peersRepo, times(1)).findPeerInfoPage(testUserId, PeerStatus.ACCEPTED, Limit.of(21));
+    }
+
+    @Test
+    void findPeers_ReturnsCursorAndSeeksPastIt() {
+        // Arrange
+        User other = new User();
+        other.setId(UUID.randomUUID());
+        other.setUsername("zoe");
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peersRepo.findPeerInfoPage(testUserId, PeerStatus.ACCEPTED, Limit.of(2)))
+                .thenReturn(List.of(peerInfo(testPeer.getId(), peerUser), peerInfo(UUID.randomUUID(), other)));
+
+        // Act
+        ResponseEntity<ApiResponse<CursorPageDTO<PeerInfoDTO>>> first = peersManagementService.findPeers(null, 1);
+        String cursor = first.getBody().getData().getNextCursor();
+        when(peersRepo.findPeerInfoPageAfter(testUserId, PeerStatus.ACCEPTED, "janesmith", testPeerId, Limit.of(2)))
+                .thenReturn(List.of(peerInfo(UUID.randomUUID(), other)));
+        ResponseEntity<ApiResponse<CursorPageDTO<PeerInfoDTO>>> second = peersManagementService.findPeers(cursor, 1);
+
+        // Assert
+        assertEquals(1, first.getBody().getData().getItems().size());
+        assertEquals(new MaterialCursor("janesmith", testPeerId).encode(), cursor);
+        assertEquals(other.getId(), second.getBody().getData().getItems().get(0).getUserId());
+        assertNull(second.getBody().getData().getNextCursor());
+    }
+
+    @Test
+    void findPeers_InvalidCursor() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+
+        // Act
+        ResponseEntity<ApiResponse<CursorPageDTO<PeerInfoDTO>>> response =
+                peersManagementService.findPeers("not a cursor", null);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid cursor", response.getBody().getError());
     }
 
     @Test
@@ -278,6 +501,15 @@ class PeersManagementServiceTest {
         assertEquals(true, response.getBody().getData());
         assertEquals(PeerStatus.ACCEPTED, testPeer.getStatus());
         verify(peersRepo, times(1)).save(testPeer);
+        verify(peerVisibilityIndex, times(1)).link(testUserId, testPeerId);
+        verify(peerGraphIndex, times(1)).accept(testUserId, testPeerId);
+        verify(indexSyncService, times(1)).peersChanged(testUserId, testPeerId);
+        verify(searchCacheService, times(1)).invalidateUsers(testUserId, testPeerId);
+        verify(peerSuggestionService, times(1)).edgeChanged(testUserId, testPeerId);
+        verify(peerEventService, times(1)).publish(testUserId,
+                new PeerEventDTO(PeerEventType.REQUEST_ACCEPTED, testPeer.getId(), testPeerId));
+        verify(peerEventService, times(1)).publish(testPeerId,
+                new PeerEventDTO(PeerEventType.REQUEST_ACCEPTED, testPeer.getId(), testUserId));
     }
 
     @Test
@@ -297,6 +529,7 @@ class PeersManagementServiceTest {
         assertNotNull(response.getBody());
         assertEquals("Not authorized", response.getBody().getError());
         verify(peersRepo, times(0)).save(any(Peers.class));
+        verify(peerVisibilityIndex, times(0)).link(any(UUID.class), any(UUID.class));
     }
 
     @Test
@@ -315,6 +548,13 @@ class PeersManagementServiceTest {
         assertNotNull(response.getBody());
         assertEquals(true, response.getBody().getData());
         verify(peersRepo, times(1)).delete(testPeer);
+        verify(peerVisibilityIndex, times(1)).unlink(testUserId, testPeerId);
+        verify(peerGraphIndex, times(1)).remove(testUserId, testPeerId);
+        verify(indexSyncService, times(1)).peersChanged(testUserId, testPeerId);
+        verify(searchCacheService, times(1)).invalidateUsers(testUserId, testPeerId);
+        verify(peerSuggestionService, times(1)).edgeChanged(testUserId, testPeerId);
+        verify(peerEventService, times(1)).publish(testPeerId,
+                new PeerEventDTO(PeerEventType.PEER_REMOVED, testPeer.getId(), testUserId));
     }
 
     @Test
@@ -352,4 +592,152 @@ class PeersManagementServiceTest {
         assertEquals("Peer not found", response.getBody().getError());
         verify(peersRepo, times(0)).delete(any(Peers.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void applyBulkAction_AcceptsOnlyPendingReceivedRequestsInOneUpdate() {
+        // Arrange
+        UUID received = UUID.randomUUID();
+        UUID sent = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID accepted = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peersRepo.findRequestRows(Set.of(received, sent, missing, accepted))).thenReturn(List.of(
+                new PeerRequestRowDTO(received, testPeerId, testUserId, PeerStatus.PENDING),
+                new PeerRequestRowDTO(sent, testUserId, otherId, PeerStatus.PENDING),
+                new PeerRequestRowDTO(accepted, otherId, testUserId, PeerStatus.ACCEPTED)));
+        when(peersRepo.updateStatusByIdIn(List.of(received), PeerStatus.PENDING, PeerStatus.ACCEPTED)).thenReturn(1);
+
+        // Act
+        ResponseEntity<ApiResponse<List<BulkPeerResultDTO>>> response = peersManagementService.applyBulkAction(
+                new BulkPeerActionDTO(PeerAction.ACCEPT, List.of(received, sent, missing, accepted, received)));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(List.of(
+                new BulkPeerResultDTO(received, true, null),
+                new BulkPeerResultDTO(sent, false, "Not authorized"),
+                new BulkPeerResultDTO(missing, false, "Peer not found"),
+                new BulkPeerResultDTO(accepted, false, "Request is not pending")), response.getBody().getData());
+        verify(peersRepo, times(1)).updateStatusByIdIn(List.of(received), PeerStatus.PENDING, PeerStatus.ACCEPTED);
+        verify(peersRepo, times(0)).findById(any(UUID.class));
+        verify(peerVisibilityIndex, times(1)).link(testPeerId, testUserId);
+        verify(peerGraphIndex, times(1)).accept(testPeerId, testUserId);
+        verify(indexSyncService, times(1)).peersChanged(testPeerId, testUserId);
+        verify(peerSuggestionService, times(1)).edgeChanged(testPeerId, testUserId);
+        verify(searchCacheService, times(1)).invalidateUsers(testPeerId, testUserId);
+        verify(peerEventService, times(1)).publish(testPeerId,
+                new PeerEventDTO(PeerEventType.REQUEST_ACCEPTED, received, testUserId));
+        verify(peerEventService, times(2)).publish(any(UUID.class), any(PeerEventDTO.class));
+    }
+
+    @Test
+    void applyBulkAction_RemoveDeletesInOneStatementAndInvalidatesAcceptedEdgesOnly() {
+        // Arrange
+        UUID peerReq = UUID.randomUUID();
+        UUID pendingReq = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peersRepo.findRequestRows(Set.of(peerReq, pendingReq))).thenReturn(List.of(
+                new PeerRequestRowDTO(peerReq, testUserId, testPeerId, PeerStatus.ACCEPTED),
+                new PeerRequestRowDTO(pendingReq, otherId, testUserId, PeerStatus.PENDING)));
+        when(peersRepo.deleteByIdIn(List.of(peerReq, pendingReq))).thenReturn(2);
+
+        // Act
+        ResponseEntity<ApiResponse<List<BulkPeerResultDTO>>> response = peersManagementService.applyBulkAction(
+                new BulkPeerActionDTO(PeerAction.REMOVE, List.of(peerReq, pendingReq)));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(peersRepo, times(1)).deleteByIdIn(List.of(peerReq, pendingReq));
+        verify(peerGraphIndex, times(1)).remove(testUserId, testPeerId);
+        verify(peerGraphIndex, times(1)).remove(otherId, testUserId);
+        verify(indexSyncService, times(1)).peersChanged(testUserId, testPeerId);
+        verify(indexSyncService, times(1)).peersChanged(otherId, testUserId);
+        verify(peerSuggestionService, times(1)).edgeChanged(testUserId, testPeerId);
+        verify(peerSuggestionService, times(0)).edgeChanged(otherId, testUserId);
+        verify(searchCacheService, times(1)).invalidateUsers(testUserId, testPeerId);
+        verify(peerEventService, times(1)).publish(otherId,
+                new PeerEventDTO(PeerEventType.PEER_REMOVED, pendingReq, testUserId));
+    }
+
+    @Test
+    void applyBulkAction_RollsBackAndReportsFailureWhenRowsChangedMeanwhile() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peersRepo.findRequestRows(Set.of(first, second))).thenReturn(List.of(
+                new PeerRequestRowDTO(first, testPeerId, testUserId, PeerStatus.PENDING),
+                new PeerRequestRowDTO(second, UUID.randomUUID(), testUserId, PeerStatus.PENDING)));
+        when(peersRepo.updateStatusByIdIn(List.of(first, second), PeerStatus.PENDING, PeerStatus.ACCEPTED))
+                .thenReturn(1);
+
+        // Act
+        ResponseEntity<ApiResponse<List<BulkPeerResultDTO>>> response = peersManagementService.applyBulkAction(
+                new BulkPeerActionDTO(PeerAction.ACCEPT, List.of(first, second)));
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(List.of(
+                new BulkPeerResultDTO(first, false, "Request changed, try again"),
+                new BulkPeerResultDTO(second, false, "Request changed, try again")), response.getBody().getData());
+        verify(transactionStatus, times(1)).setRollbackOnly();
+        verify(peerVisibilityIndex, times(0)).link(any(UUID.class), any(UUID.class));
+        verify(indexSyncService, times(0)).peersChanged(any(UUID.class), any(UUID.class));
+        verify(peerEventService, times(0)).publish(any(UUID.class), any(PeerEventDTO.class));
+        verify(searchCacheService, times(0)).invalidateUsers(any(UUID[].class));
+    }
+
+    @Test
+    void applyBulkAction_NothingAuthorizedChangesNothing() {
+        // Arrange
+        UUID reqId = UUID.randomUUID();
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        when(peersRepo.findRequestRows(Set.of(reqId))).thenReturn(List.of(
+                new PeerRequestRowDTO(reqId, UUID.randomUUID(), UUID.randomUUID(), PeerStatus.PENDING)));
+
+        // Act
+        ResponseEntity<ApiResponse<List<BulkPeerResultDTO>>> response = peersManagementService.applyBulkAction(
+                new BulkPeerActionDTO(PeerAction.REJECT, List.of(reqId)));
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(List.of(new BulkPeerResultDTO(reqId, false, "Not authorized")), response.getBody().getData());
+        verify(peersRepo, times(0)).deleteByIdIn(any());
+        verify(searchCacheService, times(0)).invalidateUsers(any(UUID[].class));
+    }
+
+    @Test
+    void applyBulkAction_RejectsMissingOrTooManyIds() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
+        searchConfig.getPeers().setMaxBulkSize(1);
+
+        // Act
+        ResponseEntity<ApiResponse<List<BulkPeerResultDTO>>> empty = peersManagementService.applyBulkAction(
+                new BulkPeerActionDTO(PeerAction.ACCEPT, List.of()));
+        ResponseEntity<ApiResponse<List<BulkPeerResultDTO>>> tooMany = peersManagementService.applyBulkAction(
+                new BulkPeerActionDTO(PeerAction.ACCEPT, List.of(UUID.randomUUID(), UUID.randomUUID())));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, empty.getStatusCode());
+        assertNotNull(empty.getBody());
+        assertEquals("Action and request IDs are required", empty.getBody().getError());
+        assertEquals(HttpStatus.BAD_REQUEST, tooMany.getStatusCode());
+        assertNotNull(tooMany.getBody());
+        assertEquals("Too many request IDs", tooMany.getBody().getError());
+        verify(peersRepo, times(0)).findRequestRows(any());
+    }
+
+    private UserLookupDTO lookup(User user) {
+        return new UserLookupDTO(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getUsername(), user.getInstitute(), user.getInstituteKey());
+    }
+
+    private PeerInfoDTO peerInfo(UUID reqId, User user) {
+        return new PeerInfoDTO(reqId, user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getInstitute(), user.getUsername());
+    }
+}
@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -16,9 +18,12 @@ import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,9 +35,14 @@ import com.majed.acadlink.domain.entity.User;
 import com.majed.acadlink.domain.repository.UserRepo;
 import com.majed.acadlink.dto.ApiResponse;
 import com.majed.acadlink.dto.ErrorResponseDTO;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.dto.user.RefreshTokenDTO;
+import com.majed.acadlink.dto.user.TokenPairDTO;
 import com.majed.acadlink.dto.user.UserLoginDTO;
 import com.majed.acadlink.dto.user.UserResponseDTO;
 import com.majed.acadlink.dto.user.UserSignUpDTO;
+import com.majed.acadlink.exception.PasswordHashingRejectedException;
+import com.majed.acadlink.utility.GetUserUtil;
 import com.majed.acadlink.utility.JWTUtil;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +63,15 @@ class PublicServiceTest {
     @Mock
     private JWTUtil jwtUtil;
 
+    @Mock
+    private GetUserUtil getUserUtil;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private PublicService publicService;
 
@@ -61,6 +80,7 @@ class PublicServiceTest {
     private UserResponseDTO validUserResponse;
     private UserDetails mockUserDetails;
     private User mockUser;
+    private AuthenticatedUser principal;
     private UUID testUserId;
 
     @BeforeEach
@@ -95,6 +115,7 @@ class PublicServiceTest {
         mockUser.setId(testUserId);
         mockUser.setEmail("john.doe@example.com");
         mockUser.setUsername("johndoe");
+        principal = new AuthenticatedUser(testUserId, "johndoe", "Test University", "testuniversity", true);
 
         // Setup mock user details
         mockUserDetails = org.springframework.security.core.userdetails.User
@@ -161,25 +182,47 @@ class PublicServiceTest {
         verify(userRepo, times(1)).findByUsername(validSignUpDTO.getUserName());
     }
 
+    @Test
+    void addUser_HashingSaturated_ReturnsServiceUnavailable() {
+        // Arrange
+        when(userRepo.findByEmail(validSignUpDTO.getEmail())).thenReturn(Optional.empty());
+        when(userRepo.findByUsername(validSignUpDTO.getUserName())).thenReturn(Optional.empty());
+        when(userService.createUser(any(UserSignUpDTO.class)))
+                .thenThrow(new PasswordHashingRejectedException("Password hashing is saturated", null));
+
+        // Act
+        ResponseEntity<Object> response = publicService.addUser(validSignUpDTO);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertTrue(response.getBody() instanceof ErrorResponseDTO);
+    }
+
     @Test
     void login_Success() {
         // Arrange
         String expectedToken = "test.jwt.token";
         when(userDetailsService.loadUserByUsername(validLoginDTO.getUsernameorEmail())).thenReturn(mockUserDetails);
-        when(jwtUtil.generateToken(anyString())).thenReturn(expectedToken);
+        when(userRepo.findPrincipalByUsername("johndoe")).thenReturn(Optional.of(principal));
+        when(jwtUtil.generateToken(eq(principal), anyString())).thenReturn(expectedToken);
+        when(refreshTokenService.issue(eq(testUserId), anyString())).thenReturn(Optional.of("family.secret"));
         // Don't mock authentication manager since it's void method
 
         // Act
-        ResponseEntity<ApiResponse<String>> response = publicService.login(validLoginDTO);
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = publicService.login(validLoginDTO);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(expectedToken, response.getBody().getData());
+        assertEquals(expectedToken, response.getBody().getData().getAccessToken());
+        assertEquals("family.secret", response.getBody().getData().getRefreshToken());
+        assertEquals(JWTUtil.ACCESS_TOKEN_LIFETIME.toSeconds(), response.getBody().getData().getExpiresIn());
         verify(userDetailsService, times(1)).loadUserByUsername(validLoginDTO.getUsernameorEmail());
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtil, times(1)).generateToken(anyString());
+        ArgumentCaptor<String> tokenId = ArgumentCaptor.forClass(String.class);
+        verify(jwtUtil, times(1)).generateToken(eq(principal), tokenId.capture());
+        verify(refreshTokenService, times(1)).issue(testUserId, tokenId.getValue());
     }
 
     @Test
@@ -188,7 +231,7 @@ class PublicServiceTest {
         when(userDetailsService.loadUserByUsername(validLoginDTO.getUsernameorEmail())).thenReturn(null);
 
         // Act
-        ResponseEntity<ApiResponse<String>> response = publicService.login(validLoginDTO);
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = publicService.login(validLoginDTO);
 
         // Assert
         assertNotNull(response);
@@ -207,7 +250,7 @@ class PublicServiceTest {
                 .thenThrow(new BadCredentialsException("Invalid credentials"));
 
         // Act
-        ResponseEntity<ApiResponse<String>> response = publicService.login(validLoginDTO);
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = publicService.login(validLoginDTO);
 
         // Assert
         assertNotNull(response);
@@ -216,7 +259,154 @@ class PublicServiceTest {
         assertEquals("Incorrect Password", response.getBody().getError());
         verify(userDetailsService, times(1)).loadUserByUsername(validLoginDTO.getUsernameorEmail());
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtil, times(0)).generateToken(anyString());
+        verify(jwtUtil, times(0)).generateToken(any(AuthenticatedUser.class), anyString());
+    }
+
+    @Test
+    void login_HashingSaturated_ReturnsServiceUnavailable() {
+        // Arrange
+        when(userDetailsService.loadUserByUsername(validLoginDTO.getUsernameorEmail())).thenReturn(mockUserDetails);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new PasswordHashingRejectedException("Password hashing is saturated", null));
+
+        // Act
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = publicService.login(validLoginDTO);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        verify(jwtUtil, times(0)).generateToken(any(AuthenticatedUser.class), anyString());
+    }
+
+    @Test
+    void refresh_Success_SkipsPasswordCheck() {
+        // Arrange
+        when(refreshTokenService.rotate(eq("family.old"), anyString()))
+                .thenReturn(Optional.of(new RefreshTokenService.Rotation(testUserId, "family.new")));
+        when(userRepo.findPrincipalById(testUserId)).thenReturn(Optional.of(principal));
+        when(jwtUtil.generateToken(eq(principal), anyString())).thenReturn("new.jwt.token");
+
+        // Act
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = publicService.refresh(new RefreshTokenDTO("family.old"));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("new.jwt.token", response.getBody().getData().getAccessToken());
+        assertEquals("family.new", response.getBody().getData().getRefreshToken());
+        verify(authenticationManager, times(0)).authenticate(any(UsernamePasswordAuthenticationToken.class));
+    }
+
+    @Test
+    void refresh_InvalidToken_ReturnsUnauthorized() {
+        // Arrange
+        when(refreshTokenService.rotate(eq("family.reused"), anyString())).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = publicService.refresh(new RefreshTokenDTO("family.reused"));
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Invalid refresh token", response.getBody().getError());
+        verify(jwtUtil, times(0)).generateToken(any(AuthenticatedUser.class), anyString());
+    }
+
+    @Test
+    void refresh_RedisDown_ReturnsServiceUnavailable() {
+        // Arrange
+        when(refreshTokenService.rotate(eq("family.old"), anyString()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act
+        ResponseEntity<ApiResponse<TokenPairDTO>> response = publicService.refresh(new RefreshTokenDTO("family.old"));
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    @Test
+    void logout_Success() {
+        // Arrange
+        when(refreshTokenService.revoke("family.current")).thenReturn(true);
+
+        // Act
+        ResponseEntity<ApiResponse<Boolean>> response = publicService.logout(new RefreshTokenDTO("family.current"));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().getData());
+    }
+
+    @Test
+    void logout_InvalidToken_ReturnsUnauthorized() {
+        // Arrange
+        when(refreshTokenService.revoke("family.unknown")).thenReturn(false);
+
+        // Act
+        ResponseEntity<ApiResponse<Boolean>> response = publicService.logout(new RefreshTokenDTO("family.unknown"));
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    void reissueToken_Success_RevokesEarlierTokensAndRotatesRefreshToken() {
+        // Arrange
+        AuthenticatedUser unverified = new AuthenticatedUser(testUserId, "johndoe", "Test University",
+                "testuniversity", false);
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(unverified));
+        when(userRepo.findPrincipalByUsername("johndoe")).thenReturn(Optional.of(principal));
+        when(refreshTokenService.rotate(eq("family.old"), anyString()))
+                .thenReturn(Optional.of(new RefreshTokenService.Rotation(testUserId, "family.new")));
+        when(jwtUtil.generateToken(eq(principal), anyString())).thenReturn("new.jwt.token");
+
+        // Act
+        ResponseEntity<ApiResponse<TokenPairDTO>> response =
+                publicService.reissueToken(new RefreshTokenDTO("family.old"));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("new.jwt.token", response.getBody().getData().getAccessToken());
+        assertEquals("family.new", response.getBody().getData().getRefreshToken());
+        InOrder order = inOrder(tokenRevocationService, jwtUtil);
+        order.verify(tokenRevocationService).revokeUser(testUserId);
+        order.verify(jwtUtil).generateToken(eq(principal), anyString());
+    }
+
+    @Test
+    void reissueToken_RefreshTokenOfAnotherUser_ReturnsUnauthorized() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(principal));
+        when(userRepo.findPrincipalByUsername("johndoe")).thenReturn(Optional.of(principal));
+        when(refreshTokenService.rotate(eq("other.family"), anyString()))
+                .thenReturn(Optional.of(new RefreshTokenService.Rotation(UUID.randomUUID(), "other.next")));
+
+        // Act
+        ResponseEntity<ApiResponse<TokenPairDTO>> response =
+                publicService.reissueToken(new RefreshTokenDTO("other.family"));
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verify(tokenRevocationService, times(0)).revokeUser(any(UUID.class));
+        verify(jwtUtil, times(0)).generateToken(any(AuthenticatedUser.class), anyString());
+    }
+
+    @Test
+    void reissueToken_NotLoggedIn_ReturnsUnauthorized() {
+        // Arrange
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<ApiResponse<TokenPairDTO>> response =
+                publicService.reissueToken(new RefreshTokenDTO("family.old"));
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verify(tokenRevocationService, times(0)).revokeUser(any(UUID.class));
+        verify(refreshTokenService, times(0)).rotate(anyString(), anyString());
+        verify(jwtUtil, times(0)).generateToken(any(AuthenticatedUser.class), anyString());
     }
 
     @Test
@@ -0,0 +1,157 @@
+package com.majed.acadlink.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private RefreshTokenService refreshTokenService;
+    private UUID userId;
+    private String familyId;
+    private String refreshToken;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(redisTemplate, tokenRevocationService, Duration.ofDays(14));
+        userId = UUID.randomUUID();
+        familyId = UUID.randomUUID().toString();
+        refreshToken = familyId + ".secret";
+    }
+
+    @Test
+    void issue_StoresTheTokenDigestOfANewFamily() {
+        // Arrange
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+
+        // Act
+        Optional<String> token = refreshTokenService.issue(userId, "access-id");
+
+        // Assert
+        assertTrue(token.isPresent());
+        String family = token.get().substring(0, token.get().indexOf('.'));
+        verify(hashOperations).putAll(eq("auth:refresh:" + family), anyMap());
+        verify(redisTemplate).expire("auth:refresh:" + family, Duration.ofDays(14));
+    }
+
+    @Test
+    void rotate_CurrentToken_ReturnsANewTokenOfTheSameFamily() {
+        // Arrange
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<String>>any(), eq(List.of("auth:refresh:" + familyId)),
+                anyString(), anyString(), eq("access-id"), anyString())).thenReturn("rotated:" + userId);
+
+        // Act
+        Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(refreshToken, "access-id");
+
+        // Assert
+        assertTrue(rotation.isPresent());
+        assertEquals(userId, rotation.get().userId());
+        assertTrue(rotation.get().refreshToken().startsWith(familyId + "."));
+        assertNotEquals(refreshToken, rotation.get().refreshToken());
+        verify(tokenRevocationService, never()).revokeToken(anyString());
+    }
+
+    @Test
+    void rotate_ReusedToken_RevokesTheLatestAccessToken() {
+        // Arrange
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<String>>any(), eq(List.of("auth:refresh:" + familyId)),
+                anyString(), anyString(), eq("access-id"), anyString())).thenReturn("reused:latest-access-id");
+
+        // Act
+        Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(refreshToken, "access-id");
+
+        // Assert
+        assertTrue(rotation.isEmpty());
+        verify(tokenRevocationService).revokeToken("latest-access-id");
+    }
+
+    @Test
+    void rotate_MalformedToken_SkipsRedis() {
+        // Act & Assert
+        assertTrue(refreshTokenService.rotate("not-a-family.secret", "access-id").isEmpty());
+        assertTrue(refreshTokenService.rotate(null, "access-id").isEmpty());
+        verify(redisTemplate, never()).execute(ArgumentMatchers.<RedisScript<String>>any(), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void revoke_CurrentToken_EndsTheFamily() {
+        // Arrange
+        String issued = issueToken();
+        String family = issued.substring(0, issued.indexOf('.'));
+        when(hashOperations.multiGet("auth:refresh:" + family, List.of("current", "jti")))
+                .thenReturn(Arrays.asList(sha256(issued), "access-id"));
+
+        // Act
+        boolean revoked = refreshTokenService.revoke(issued);
+
+        // Assert
+        assertTrue(revoked);
+        verify(redisTemplate).delete("auth:refresh:" + family);
+        verify(tokenRevocationService).revokeToken("access-id");
+    }
+
+    @Test
+    void revoke_UnknownToken_ReturnsFalse() {
+        // Arrange
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet("auth:refresh:" + familyId, List.of("current", "jti")))
+                .thenReturn(Arrays.asList(null, null));
+
+        // Act & Assert
+        assertFalse(refreshTokenService.revoke(refreshToken));
+        verify(tokenRevocationService, never()).revokeToken(anyString());
+    }
+
+    private String issueToken() {
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        return refreshTokenService.issue(userId, "access-id").orElseThrow();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.majed.acadlink.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.majed.acadlink.config.SearchConfig;
+import com.majed.acadlink.dto.material.MaterialResponseDTO;
+import com.majed.acadlink.dto.material.MaterialSearchPageDTO;
+import com.majed.acadlink.enums.MaterialType;
+import com.majed.acadlink.enums.Privacy;
+
+@ExtendWith(MockitoExtension.class)
+class SearchCacheServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private SearchConfig searchConfig = new SearchConfig();
+
+    @InjectMocks
+    private SearchCacheService searchCacheService;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void materialsKey_ChangesWhenAnyVersionChanges() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList()))
+                .thenReturn(Arrays.asList("1", null, null, "4"))
+                .thenReturn(Arrays.asList("1", null, null, "4"))
+                .thenReturn(Arrays.asList("2", null, null, "4"));
+
+        // Act
+        Optional<String> first = searchCacheService.materialsKey(userId, "uni", "algebra", null, null, false, null,
+                20);
+        Optional<String> same = searchCacheService.materialsKey(userId, "uni", "algebra", null, null, false, null,
+                20);
+        Optional<String> bumped = searchCacheService.materialsKey(userId, "uni", "algebra", null, null, false, null,
+                20);
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertTrue(first.get().startsWith("search:materials:"));
+        assertEquals(first, same);
+        assertNotEquals(first, bumped);
+    }
+
+    @Test
+    void materialsKey_DependsOnFilters() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("1", null, null, "4"));
+
+        // Act
+        Optional<String> unfiltered = searchCacheService.materialsKey(userId, "uni", "algebra", null, null, false, null,
+                20);
+        Optional<String> books = searchCacheService.materialsKey(userId, "uni", "algebra", MaterialType.BOOK, null,
+                false, null, 20);
+        Optional<String> publicBooks = searchCacheService.materialsKey(userId, "uni", "algebra", MaterialType.BOOK,
+                Privacy.PUBLIC, false, null, 20);
+
+        // Assert
+        assertNotEquals(unfiltered, books);
+        assertNotEquals(books, publicBooks);
+    }
+
+    @Test
+    void materialsKey_DisabledCacheReturnsEmpty() {
+        // Arrange
+        searchConfig.getCache().setEnabled(false);
+
+        // Act & Assert
+        assertTrue(searchCacheService.materialsKey(userId, "uni", "algebra", null, null, false, null, 20)
+                .isEmpty());
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    void materialsKey_RedisUnavailableReturnsEmpty() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act & Assert
+        assertTrue(searchCacheService.materialsKey(userId, "uni", "algebra", null, null, false, null, 20)
+                .isEmpty());
+    }
+
+    @Test
+    void putAndGetMaterials_RoundTripPage() {
+        // Arrange
+        MaterialSearchPageDTO page = new MaterialSearchPageDTO(List.of(new MaterialResponseDTO(
+                UUID.randomUUID(), "Algebra", "http://example.com/a", MaterialType.BOOK, Privacy.PUBLIC,
+                UUID.randomUUID())), "next", Map.of(MaterialType.BOOK, 1), Map.of(Privacy.PUBLIC, 1));
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        Duration ttl = searchConfig.getCache().getTtl();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // Act
+        searchCacheService.putMaterials("search:materials:key", page);
+        verify(valueOperations).set(eq("search:materials:key"), json.capture(), eq(ttl));
+        when(valueOperations.get("search:materials:key")).thenReturn(json.getValue());
+        Optional<MaterialSearchPageDTO> cached = searchCacheService.getMaterials("search:materials:key");
+
+        // Assert
+        assertEquals(Optional.of(page), cached);
+    }
+
+    @Test
+    void getMaterials_MissReturnsEmpty() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn(null);
+
+        // Act & Assert
+        assertTrue(searchCacheService.getMaterials("search:materials:key").isEmpty());
+    }
+
+    @Test
+    void invalidateMaterial_BumpsOwnerAndSharedPrivacies() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // Act
+        searchCacheService.invalidateMaterial(userId, Privacy.PRIVATE, Privacy.PEERS);
+
+        // Assert
+        verify(valueOperations, times(1)).increment("search:version:user:" + userId);
+        verify(valueOperations, times(1)).increment("search:version:privacy:PEERS");
+        verify(valueOperations, never()).increment("search:version:privacy:PRIVATE");
+    }
+
+    @Test
+    void invalidateUsers_BumpsEveryUser() {
+        // Arrange
+        UUID peerId = UUID.randomUUID();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // Act
+        searchCacheService.invalidateUsers(userId, peerId);
+
+        // Assert
+        verify(valueOperations, times(1)).increment("search:version:user:" + userId);
+        verify(valueOperations, times(1)).increment("search:version:user:" + peerId);
+    }
+}
@@ -0,0 +1,171 @@
+package com.majed.acadlink.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private TokenRevocationService tokenRevocationService;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationService(redisTemplate, "auth:revocations", 1000, 0.001);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void revokeUser_RejectsOnlyEarlierTokens() {
+        // Arrange
+        Date issuedBefore = Date.from(Instant.now().minusSeconds(10));
+        Date issuedAfter = Date.from(Instant.now().plusSeconds(10));
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+
+        // Act
+        tokenRevocationService.revokeUser(userId);
+
+        // Assert
+        verify(hashOperations).put(eq("auth:revoked"), eq(userId.toString()), anyString());
+        assertTrue(tokenRevocationService.isRevoked(userId, issuedBefore));
+        assertTrue(tokenRevocationService.isRevoked(userId, null));
+        assertFalse(tokenRevocationService.isRevoked(userId, issuedAfter));
+        assertFalse(tokenRevocationService.isRevoked(UUID.randomUUID(), issuedBefore));
+    }
+
+    @Test
+    void revokeUser_TellsTokensApartWithinTheSameSecond() {
+        // Arrange
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        Date issuedJustBefore = new Date(System.currentTimeMillis() - 1);
+
+        // Act
+        tokenRevocationService.revokeUser(userId);
+        Date issuedJustAfter = new Date(System.currentTimeMillis());
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked(userId, issuedJustBefore));
+        assertFalse(tokenRevocationService.isRevoked(userId, issuedJustAfter));
+    }
+
+    @Test
+    void revokeUser_RedisFailure_StillRevokesLocally() {
+        // Arrange
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        doThrow(new RedisConnectionFailureException("down"))
+                .when(hashOperations).put(eq("auth:revoked"), eq(userId.toString()), anyString());
+
+        // Act
+        tokenRevocationService.revokeUser(userId);
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked(userId, Date.from(Instant.now().minusSeconds(10))));
+    }
+
+    @Test
+    void refresh_LoadsOtherInstancesAndDropsExpiredEntries() {
+        // Arrange
+        UUID expiredUser = UUID.randomUUID();
+        long recent = Instant.now().toEpochMilli();
+        long expired = Instant.now().minusSeconds(2 * 60 * 60).toEpochMilli();
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries("auth:revoked")).thenReturn(Map.of(
+                userId.toString(), Long.toString(recent),
+                expiredUser.toString(), Long.toString(expired)));
+
+        // Act
+        tokenRevocationService.refresh();
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked(userId, Date.from(Instant.now().minusSeconds(10))));
+        assertFalse(tokenRevocationService.isRevoked(expiredUser, new Date(expired - 10)));
+        verify(hashOperations).delete("auth:revoked", expiredUser.toString());
+    }
+
+    @Test
+    void isTokenRevoked_UnseenTokenIdSkipsRedis() {
+        // Act & Assert
+        assertFalse(tokenRevocationService.isTokenRevoked("never-revoked"));
+        assertFalse(tokenRevocationService.isTokenRevoked(null));
+        verify(redisTemplate, never()).opsForZSet();
+    }
+
+    @Test
+    void revokeToken_StoresAndPublishesTheTokenId() {
+        // Arrange
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.score("auth:revoked:tokens", "token-id")).thenReturn(1.0);
+
+        // Act
+        tokenRevocationService.revokeToken("token-id");
+
+        // Assert
+        verify(zSetOperations).add(eq("auth:revoked:tokens"), eq("token-id"), anyDouble());
+        verify(redisTemplate).convertAndSend("auth:revocations", "token-id");
+        assertTrue(tokenRevocationService.isTokenRevoked("token-id"));
+    }
+
+    @Test
+    void onMessage_AddsTokenIdsRevokedElsewhere() {
+        // Arrange
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.score("auth:revoked:tokens", "remote-id")).thenReturn(1.0);
+
+        // Act
+        tokenRevocationService.onMessage(new DefaultMessage("auth:revocations".getBytes(StandardCharsets.UTF_8),
+                "remote-id".getBytes(StandardCharsets.UTF_8)), null);
+
+        // Assert
+        assertTrue(tokenRevocationService.isTokenRevoked("remote-id"));
+    }
+
+    @Test
+    void rebuildFilter_LoadsUnexpiredTokenIds() {
+        // Arrange
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScore(eq("auth:revoked:tokens"), anyDouble(), eq(Double.POSITIVE_INFINITY)))
+                .thenReturn(Set.of("stored-id"));
+        when(zSetOperations.score("auth:revoked:tokens", "stored-id")).thenReturn(1.0);
+
+        // Act
+        tokenRevocationService.rebuildFilter();
+
+        // Assert
+        verify(zSetOperations).removeRangeByScore(eq("auth:revoked:tokens"), eq(Double.NEGATIVE_INFINITY), anyDouble());
+        assertTrue(tokenRevocationService.isTokenRevoked("stored-id"));
+    }
+}
@@ -38,6 +38,8 @@ class UserServiceTest {
     private UserRepo userRepo;
     @Mock
     private GetUserUtil getUserUtil;
+    @Mock
+    private PasswordEncoder hashingPasswordEncoder;
     @InjectMocks
     private UserService userService;
     private UserSignUpDTO validSignUpDTO;
@@ -84,6 +86,7 @@ class UserServiceTest {
     @Test
     void createUser_Success() {
         // Arrange
+        when(hashingPasswordEncoder.encode("password123")).thenReturn(mockUser.getPassword());
         when(userRepo.save(any(User.class))).thenReturn(mockUser);
 
         // Act
@@ -99,6 +102,7 @@ class UserServiceTest {
         assertEquals(expectedUserResponse.getInstitute(), response.getInstitute());
         assertEquals(expectedUserResponse.getCreatedAt(), response.getCreatedAt());
         verify(userRepo, times(1)).save(any(User.class));
+        verify(hashingPasswordEncoder, times(1)).encode("password123");
     }
 
     @Test
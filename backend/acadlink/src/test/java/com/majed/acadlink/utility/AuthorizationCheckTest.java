@@ -17,6 +17,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
 
 @ExtendWith(MockitoExtension.class)
 class AuthorizationCheckTest {
@@ -44,39 +45,39 @@ class AuthorizationCheckTest {
     @Test
     void checkAuthorization_Success() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
 
         // Act
         boolean result = authorizationCheck.checkAuthorization(testUserId);
 
         // Assert
         assertTrue(result);
-        verify(getUserUtil, times(1)).getAuthenticatedUser();
+        verify(getUserUtil, times(1)).getAuthenticatedPrincipal();
     }
 
     @Test
     void checkAuthorization_DifferentUser() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.of(testUser));
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedUser.of(testUser)));
 
         // Act
         boolean result = authorizationCheck.checkAuthorization(differentUserId);
 
         // Assert
         assertFalse(result);
-        verify(getUserUtil, times(1)).getAuthenticatedUser();
+        verify(getUserUtil, times(1)).getAuthenticatedPrincipal();
     }
 
     @Test
     void checkAuthorization_NoAuthenticatedUser() {
         // Arrange
-        when(getUserUtil.getAuthenticatedUser()).thenReturn(Optional.empty());
+        when(getUserUtil.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
 
         // Act
         boolean result = authorizationCheck.checkAuthorization(testUserId);
 
         // Assert
         assertFalse(result);
-        verify(getUserUtil, times(1)).getAuthenticatedUser();
+        verify(getUserUtil, times(1)).getAuthenticatedPrincipal();
     }
 } 
\ No newline at end of file
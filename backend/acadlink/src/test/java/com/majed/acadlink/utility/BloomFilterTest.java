@@ -0,0 +1,50 @@
+package com.majed.acadlink.utility;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_AlwaysTrueForAddedValues() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        List<String> values = Stream.generate(() -> UUID.randomUUID().toString()).limit(1000).toList();
+
+        // Act
+        values.forEach(filter::put);
+
+        // Assert
+        values.forEach(value -> assertTrue(filter.mightContain(value)));
+    }
+
+    @Test
+    void mightContain_StaysNearTheFalsePositiveRate() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        Stream.generate(() -> UUID.randomUUID().toString()).limit(1000).forEach(filter::put);
+
+        // Act
+        long falsePositives = Stream.generate(() -> UUID.randomUUID().toString())
+                .limit(10_000)
+                .filter(filter::mightContain)
+                .count();
+
+        // Assert
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(filter.hashCount() > 1);
+    }
+
+    @Test
+    void constructor_RejectsInvalidSizing() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
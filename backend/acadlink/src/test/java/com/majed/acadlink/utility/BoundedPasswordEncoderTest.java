@@ -0,0 +1,96 @@
+package com.majed.acadlink.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.majed.acadlink.exception.PasswordHashingRejectedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_RunOnTheExecutorAndRecordMetrics() {
+        // Arrange
+        when(delegate.encode("password123")).thenReturn("hashed");
+        when(delegate.matches("password123", "hashed")).thenReturn(true);
+
+        // Act
+        String hashed = encoder.encode("password123");
+        boolean matches = encoder.matches("password123", "hashed");
+
+        // Assert
+        assertEquals("hashed", hashed);
+        assertTrue(matches);
+        assertEquals(1, meterRegistry.get("acadlink.password.hash.time").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("acadlink.password.queue.wait").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encode_SaturatedExecutor_RejectsImmediately() throws Exception {
+        // Arrange
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode("slow")).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hashed";
+        });
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> encoder.encode("slow"));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("slow"));
+        while (meterRegistry.get("acadlink.password.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Act & Assert
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("slow"));
+        assertEquals(1, meterRegistry.get("acadlink.password.rejected").counter().count());
+        release.countDown();
+        assertEquals("hashed", first.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void upgradeEncoding_DelegatesWithoutTheExecutor() {
+        // Arrange
+        when(delegate.upgradeEncoding("hashed")).thenReturn(false);
+
+        // Act & Assert
+        assertFalse(encoder.upgradeEncoding("hashed"));
+        assertEquals(0, meterRegistry.get("acadlink.password.hash.time").tag("operation", "encode").timer().count());
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,7 +12,7 @@ import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,8 +31,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.majed.acadlink.domain.entity.User;
-import com.majed.acadlink.domain.repository.UserRepo;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -39,9 +39,6 @@ import jakarta.servlet.ServletException;
 @ExtendWith(MockitoExtension.class)
 class EmailVerificationFilterTest {
 
-    @Mock
-    private UserRepo userRepo;
-
     @Mock
     private ObjectMapper objectMapper;
 
@@ -70,6 +67,7 @@ class EmailVerificationFilterTest {
     @ValueSource(strings = {
         "/v1/public/test",
         "/auth/verify-email", 
+        "/v1/auth/reissue-token",
         "/public/login",
         "/public/sign-up"
     })
@@ -102,14 +100,8 @@ class EmailVerificationFilterTest {
     void doFilterInternal_AuthenticatedVerifiedUser_ContinuesChain() throws ServletException, IOException {
         // Arrange
         request.setRequestURI("/v1/user/profile");
-        String username = "testuser";
-        User user = new User();
-        user.setUsername(username);
-        user.setEmailVerified(true);
-
-        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(username, null, USER_AUTHORITIES);
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(principal(true), null, USER_AUTHORITIES);
         when(securityContext.getAuthentication()).thenReturn(auth);
-        when(userRepo.findByUsername(username)).thenReturn(Optional.of(user));
 
         // Act
         filter.doFilterInternal(request, response, filterChain);
@@ -117,21 +109,14 @@ class EmailVerificationFilterTest {
         // Assert
         verify(filterChain).doFilter(request, response);
         assertEquals(200, response.getStatus());
-        verify(userRepo).findByUsername(username);
     }
 
     @Test
     void doFilterInternal_AuthenticatedUnverifiedUser_ReturnsForbidden() throws Exception {
         // Arrange
         request.setRequestURI("/v1/user/profile");
-        String username = "testuser";
-        User user = new User();
-        user.setUsername(username);
-        user.setEmailVerified(false);
-
-        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(username, null, USER_AUTHORITIES);
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(principal(false), null, USER_AUTHORITIES);
         when(securityContext.getAuthentication()).thenReturn(auth);
-        when(userRepo.findByUsername(username)).thenReturn(Optional.of(user));
         when(objectMapper.writeValueAsString(any())).thenReturn("{\"error\":\"test error\"}");
 
         // Act
@@ -140,19 +125,17 @@ class EmailVerificationFilterTest {
         // Assert
         assertEquals(403, response.getStatus());
         verify(filterChain, never()).doFilter(any(), any());
-        verify(userRepo).findByUsername(username);
         verify(objectMapper).writeValueAsString(any());
     }
 
     @Test
-    void doFilterInternal_UserNotFound_ReturnsInternalServerError() throws Exception {
+    void doFilterInternal_UnexpectedPrincipal_ReturnsInternalServerError() throws Exception {
         // Arrange
         request.setRequestURI("/v1/user/profile");
         String username = "testuser";
 
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(username, null, USER_AUTHORITIES);
         when(securityContext.getAuthentication()).thenReturn(auth);
-        when(userRepo.findByUsername(username)).thenReturn(Optional.empty());
         when(objectMapper.writeValueAsString(any())).thenReturn("{\"error\":\"test error\"}");
 
         // Act
@@ -161,7 +144,6 @@ class EmailVerificationFilterTest {
         // Assert
         assertEquals(500, response.getStatus());
         verify(filterChain, never()).doFilter(any(), any());
-        verify(userRepo).findByUsername(username);
         verify(objectMapper).writeValueAsString(any());
     }
 
@@ -169,11 +151,9 @@ class EmailVerificationFilterTest {
     void doFilterInternal_ExceptionDuringProcessing_ReturnsInternalServerError() throws Exception {
         // Arrange
         request.setRequestURI("/v1/user/profile");
-        String username = "testuser";
-
-        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(username, null, USER_AUTHORITIES);
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(principal(true), null, USER_AUTHORITIES);
         when(securityContext.getAuthentication()).thenReturn(auth);
-        when(userRepo.findByUsername(username)).thenThrow(new RuntimeException("DB error"));
+        doThrow(new RuntimeException("Downstream error")).when(filterChain).doFilter(request, response);
         when(objectMapper.writeValueAsString(any())).thenReturn("{\"error\":\"test error\"}");
 
         // Act
@@ -181,8 +161,10 @@ class EmailVerificationFilterTest {
 
         // Assert
         assertEquals(500, response.getStatus());
-        verify(filterChain, never()).doFilter(any(), any());
-        verify(userRepo).findByUsername(username);
         verify(objectMapper).writeValueAsString(any());
     }
-}
\ No newline at end of file
+
+    private AuthenticatedUser principal(boolean emailVerified) {
+        return new AuthenticatedUser(UUID.randomUUID(), "testuser", "Test University", "testuniversity", emailVerified);
+    }
+}
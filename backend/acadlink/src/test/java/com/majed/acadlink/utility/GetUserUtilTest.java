@@ -3,9 +3,11 @@ package com.majed.acadlink.utility;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Optional;
@@ -23,6 +25,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import com.majed.acadlink.domain.entity.User;
 import com.majed.acadlink.domain.repository.UserRepo;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
 
 @ExtendWith(MockitoExtension.class)
 class GetUserUtilTest {
@@ -34,6 +37,7 @@ class GetUserUtilTest {
     private GetUserUtil getUserUtil;
 
     private User mockUser;
+    private AuthenticatedUser principal;
     private UUID testUserId;
     private String testUsername;
     private Authentication mockAuthentication;
@@ -49,6 +53,7 @@ class GetUserUtilTest {
         mockUser.setId(testUserId);
         mockUser.setUsername(testUsername);
         mockUser.setEmail("test@example.com");
+        principal = AuthenticatedUser.of(mockUser);
 
         // Setup mock authentication
         mockAuthentication = mock(Authentication.class);
@@ -56,57 +61,58 @@ class GetUserUtilTest {
     }
 
     @Test
-    void getAuthenticatedUser_Success() {
+    void getAuthenticatedPrincipal_Success() {
         // Arrange
-        when(mockAuthentication.getName()).thenReturn(testUsername);
+        when(mockAuthentication.getPrincipal()).thenReturn(principal);
         when(mockSecurityContext.getAuthentication()).thenReturn(mockAuthentication);
         SecurityContextHolder.setContext(mockSecurityContext);
-        when(userRepo.findByUsername(testUsername)).thenReturn(Optional.of(mockUser));
 
         // Act
-        Optional<User> result = getUserUtil.getAuthenticatedUser();
+        Optional<AuthenticatedUser> result = getUserUtil.getAuthenticatedPrincipal();
 
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(mockUser, result.get());
-        verify(userRepo, times(1)).findByUsername(testUsername);
+        assertEquals(testUserId, result.get().getId());
+        assertEquals(testUsername, result.get().getName());
+        verifyNoInteractions(userRepo);
     }
 
     @Test
-    void getAuthenticatedUser_UserNotFound() {
+    void getAuthenticatedPrincipal_OtherPrincipal() {
         // Arrange
-        when(mockAuthentication.getName()).thenReturn(testUsername);
+        when(mockAuthentication.getPrincipal()).thenReturn("anonymousUser");
         when(mockSecurityContext.getAuthentication()).thenReturn(mockAuthentication);
         SecurityContextHolder.setContext(mockSecurityContext);
-        when(userRepo.findByUsername(testUsername)).thenReturn(Optional.empty());
 
         // Act
-        Optional<User> result = getUserUtil.getAuthenticatedUser();
+        Optional<AuthenticatedUser> result = getUserUtil.getAuthenticatedPrincipal();
 
         // Assert
         assertFalse(result.isPresent());
-        verify(userRepo, times(1)).findByUsername(testUsername);
     }
 
     @Test
-    void getAuthenticatedUser_NoAuthentication() {
+    void getAuthenticatedUser_ReturnsReferenceWithoutLookup() {
         // Arrange
-        when(mockSecurityContext.getAuthentication()).thenReturn(null);
+        when(mockAuthentication.getPrincipal()).thenReturn(principal);
+        when(mockSecurityContext.getAuthentication()).thenReturn(mockAuthentication);
         SecurityContextHolder.setContext(mockSecurityContext);
+        when(userRepo.getReferenceById(testUserId)).thenReturn(mockUser);
 
         // Act
         Optional<User> result = getUserUtil.getAuthenticatedUser();
 
         // Assert
-        assertFalse(result.isPresent());
-        verify(userRepo, times(0)).findByUsername(testUsername);
+        assertTrue(result.isPresent());
+        assertEquals(mockUser, result.get());
+        verify(userRepo, times(1)).getReferenceById(testUserId);
+        verify(userRepo, times(0)).findByUsername(anyString());
     }
 
     @Test
-    void getAuthenticatedUser_EmptyUsername() {
+    void getAuthenticatedUser_NoAuthentication() {
         // Arrange
-        when(mockAuthentication.getName()).thenReturn("");
-        when(mockSecurityContext.getAuthentication()).thenReturn(mockAuthentication);
+        when(mockSecurityContext.getAuthentication()).thenReturn(null);
         SecurityContextHolder.setContext(mockSecurityContext);
 
         // Act
@@ -114,6 +120,6 @@ class GetUserUtilTest {
 
         // Assert
         assertFalse(result.isPresent());
-        verify(userRepo, times(0)).findByUsername(testUsername);
+        verifyNoInteractions(userRepo);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.majed.acadlink.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.domain.repository.UserRepo;
+
+@ExtendWith(MockitoExtension.class)
+class InstituteKeyBackfillTest {
+
+    @Mock
+    private UserRepo userRepo;
+
+    @InjectMocks
+    private InstituteKeyBackfill instituteKeyBackfill;
+
+    @Test
+    void backfill_NormalizesUsersWithoutKey() {
+        // Arrange
+        User user = new User(UUID.randomUUID(), "Test", "User", "test@example.com", "testuser", "password");
+        user.setInstitute("Test University");
+        User blank = new User(UUID.randomUUID(), "Blank", "User", "blank@example.com", "blankuser", "password");
+        blank.setInstitute(" ");
+        when(userRepo.findWithoutInstituteKey()).thenReturn(List.of(user, blank));
+
+        // Act
+        instituteKeyBackfill.backfill();
+
+        // Assert
+        assertEquals("testuniversity", user.getInstituteKey());
+        verify(userRepo, times(1)).saveAll(List.of(user));
+    }
+
+    @Test
+    void backfill_NothingPending() {
+        // Arrange
+        when(userRepo.findWithoutInstituteKey()).thenReturn(List.of());
+
+        // Act
+        instituteKeyBackfill.backfill();
+
+        // Assert
+        verify(userRepo, times(0)).saveAll(any());
+    }
+
+    @Test
+    void setInstitute_KeepsKeyNormalized() {
+        // Arrange
+        User user = new User();
+
+        // Act
+        user.setInstitute(" Test  University ");
+
+        // Assert
+        assertEquals("testuniversity", User.instituteKeyOf("TEST university"));
+        assertEquals("testuniversity", user.getInstituteKey());
+    }
+}
@@ -1,5 +1,7 @@
 package com.majed.acadlink.utility;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -8,6 +10,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,8 +23,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.majed.acadlink.domain.repository.UserRepo;
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+import com.majed.acadlink.service.TokenRevocationService;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -28,18 +35,21 @@ import jakarta.servlet.ServletException;
 class JWTFilterTest {
 
     @Mock
-    private UserDetailsService userDetailsService;
+    private UserRepo userRepo;
 
     @Mock
     private JWTUtil jwtUtil;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private JWTFilter jwtFilter;
 
     private MockHttpServletRequest request;
     private MockHttpServletResponse response;
     private FilterChain filterChain;
-    private UserDetails userDetails;
+    private AuthenticatedUser principal;
     private static final String TEST_TOKEN = "test.jwt.token";
     private static final String TEST_USERNAME = "testuser";
 
@@ -48,7 +58,7 @@ class JWTFilterTest {
         request = new MockHttpServletRequest();
         response = new MockHttpServletResponse();
         filterChain = mock(FilterChain.class);
-        userDetails = mock(UserDetails.class);
+        principal = new AuthenticatedUser(UUID.randomUUID(), TEST_USERNAME, "Test University", "testuniversity", true);
         SecurityContextHolder.clearContext();
     }
 
@@ -57,17 +67,71 @@ class JWTFilterTest {
         // Arrange
         request.addHeader("Authorization", "Bearer " + TEST_TOKEN);
         when(jwtUtil.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
-        when(userDetailsService.loadUserByUsername(TEST_USERNAME)).thenReturn(userDetails);
         when(jwtUtil.validateToken(TEST_TOKEN)).thenReturn(true);
-        when(userDetails.getAuthorities()).thenReturn(java.util.Collections.emptyList());
+        when(userRepo.findPrincipalByUsername(TEST_USERNAME)).thenReturn(Optional.of(principal));
 
         // Act
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
         verify(jwtUtil, times(1)).extractUsername(TEST_TOKEN);
-        verify(userDetailsService, times(1)).loadUserByUsername(TEST_USERNAME);
         verify(jwtUtil, times(1)).validateToken(TEST_TOKEN);
+        verify(userRepo, times(1)).findPrincipalByUsername(TEST_USERNAME);
+        assertEquals(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_TokenWithUserClaims_SkipsDatabase() throws ServletException, IOException {
+        // Arrange
+        request.addHeader("Authorization", "Bearer " + TEST_TOKEN);
+        when(jwtUtil.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
+        when(jwtUtil.validateToken(TEST_TOKEN)).thenReturn(true);
+        when(jwtUtil.extractPrincipal(TEST_TOKEN)).thenReturn(Optional.of(principal));
+
+        // Act
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(userRepo, never()).findPrincipalByUsername(anyString());
+        assertEquals(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_RevokedToken_NotAuthenticated() throws ServletException, IOException {
+        // Arrange
+        Date issuedAt = new Date();
+        request.addHeader("Authorization", "Bearer " + TEST_TOKEN);
+        when(jwtUtil.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
+        when(jwtUtil.validateToken(TEST_TOKEN)).thenReturn(true);
+        when(jwtUtil.extractPrincipal(TEST_TOKEN)).thenReturn(Optional.of(principal));
+        when(jwtUtil.extractIssuedAt(TEST_TOKEN)).thenReturn(issuedAt);
+        when(tokenRevocationService.isRevoked(principal.getId(), issuedAt)).thenReturn(true);
+
+        // Act
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_RevokedTokenId_NotAuthenticated() throws ServletException, IOException {
+        // Arrange
+        request.addHeader("Authorization", "Bearer " + TEST_TOKEN);
+        when(jwtUtil.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
+        when(jwtUtil.validateToken(TEST_TOKEN)).thenReturn(true);
+        when(jwtUtil.extractPrincipal(TEST_TOKEN)).thenReturn(Optional.of(principal));
+        when(jwtUtil.extractTokenId(TEST_TOKEN)).thenReturn("token-id");
+        when(tokenRevocationService.isTokenRevoked("token-id")).thenReturn(true);
+
+        // Act
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -78,7 +142,7 @@ class JWTFilterTest {
 
         // Assert
         verify(jwtUtil, never()).extractUsername(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(userRepo, never()).findPrincipalByUsername(anyString());
         verify(jwtUtil, never()).validateToken(anyString());
         verify(filterChain, times(1)).doFilter(request, response);
     }
@@ -93,7 +157,7 @@ class JWTFilterTest {
 
         // Assert
         verify(jwtUtil, never()).extractUsername(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(userRepo, never()).findPrincipalByUsername(anyString());
         verify(jwtUtil, never()).validateToken(anyString());
         verify(filterChain, times(1)).doFilter(request, response);
     }
@@ -103,7 +167,6 @@ class JWTFilterTest {
         // Arrange
         request.addHeader("Authorization", "Bearer " + TEST_TOKEN);
         when(jwtUtil.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
-        when(userDetailsService.loadUserByUsername(TEST_USERNAME)).thenReturn(userDetails);
         when(jwtUtil.validateToken(TEST_TOKEN)).thenReturn(false);
 
         // Act
@@ -111,8 +174,9 @@ class JWTFilterTest {
 
         // Assert
         verify(jwtUtil, times(1)).extractUsername(TEST_TOKEN);
-        verify(userDetailsService, times(1)).loadUserByUsername(TEST_USERNAME);
         verify(jwtUtil, times(1)).validateToken(TEST_TOKEN);
+        verify(userRepo, never()).findPrincipalByUsername(anyString());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -121,14 +185,85 @@ class JWTFilterTest {
         // Arrange
         request.addHeader("Authorization", "Bearer " + TEST_TOKEN);
         when(jwtUtil.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
-        when(userDetailsService.loadUserByUsername(TEST_USERNAME)).thenReturn(null);
+        when(jwtUtil.validateToken(TEST_TOKEN)).thenReturn(true);
+        when(userRepo.findPrincipalByUsername(TEST_USERNAME)).thenReturn(Optional.empty());
 
         // Act
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
         verify(jwtUtil, times(1)).extractUsername(TEST_TOKEN);
-        verify(userDetailsService, times(1)).loadUserByUsername(TEST_USERNAME);
+        verify(userRepo, times(1)).findPrincipalByUsername(TEST_USERNAME);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_StreamTokenInQueryOpensEventStream() throws ServletException, IOException {
+        // Arrange
+        request.setMethod("GET");
+        request.setRequestURI("/v1/peers/events");
+        request.addParameter("token", TEST_TOKEN);
+        when(jwtUtil.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
+        when(jwtUtil.validateToken(TEST_TOKEN)).thenReturn(true);
+        when(jwtUtil.isStreamToken(TEST_TOKEN)).thenReturn(true);
+        when(jwtUtil.extractPrincipal(TEST_TOKEN)).thenReturn(Optional.of(principal));
+
+        // Act
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertEquals(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
         verify(filterChain, times(1)).doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void doFilterInternal_AccessTokenInQueryIsIgnored() throws ServletException, IOException {
+        // Arrange
+        request.setMethod("GET");
+        request.setRequestURI("/v1/peers/events");
+        request.addParameter("token", TEST_TOKEN);
+        when(jwtUtil.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
+        when(jwtUtil.validateToken(TEST_TOKEN)).thenReturn(true);
+        when(jwtUtil.isStreamToken(TEST_TOKEN)).thenReturn(false);
+
+        // Act
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_StreamTokenInHeaderIsIgnored() throws ServletException, IOException {
+        // Arrange
+        request.setRequestURI("/v1/peers/requests");
+        request.addHeader("Authorization", "Bearer " + TEST_TOKEN);
+        when(jwtUtil.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
+        when(jwtUtil.validateToken(TEST_TOKEN)).thenReturn(true);
+        when(jwtUtil.isStreamToken(TEST_TOKEN)).thenReturn(true);
+
+        // Act
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_QueryTokenIgnoredOutsideEventStream() throws ServletException, IOException {
+        // Arrange
+        request.setMethod("GET");
+        request.setRequestURI("/v1/peers/requests");
+        request.addParameter("token", TEST_TOKEN);
+
+        // Act
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(jwtUtil, never()).extractUsername(anyString());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
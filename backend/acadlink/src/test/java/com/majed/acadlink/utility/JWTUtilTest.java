@@ -1,11 +1,16 @@
 package com.majed.acadlink.utility;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +19,10 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import com.majed.acadlink.dto.user.AuthenticatedUser;
+
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
@@ -28,25 +36,46 @@ class JWTUtilTest {
     private static final String TEST_SECRET_KEY = "testSecretKey1234567890123456789012345678901234567890";
     private static final String TEST_USERNAME = "testuser";
 
+    private AuthenticatedUser principal;
+
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(jwtUtil, "secretKey", TEST_SECRET_KEY);
+        principal = principal(TEST_USERNAME);
+    }
+
+    private static AuthenticatedUser principal(String username) {
+        return new AuthenticatedUser(UUID.randomUUID(), username, "Test University", "testuniversity", true);
     }
 
     @Test
     void generateToken_Success() {
         // Act
-        String token = jwtUtil.generateToken(TEST_USERNAME);
+        String token = jwtUtil.generateToken(principal);
 
         // Assert
         assertNotNull(token);
         assertEquals(3, token.split("\\.").length); // JWT has 3 parts
     }
 
+    @Test
+    void generateStreamToken_IsOnlyAStreamToken() {
+        // Act
+        String streamToken = jwtUtil.generateStreamToken(principal);
+        String accessToken = jwtUtil.generateToken(principal);
+
+        // Assert
+        assertTrue(jwtUtil.isStreamToken(streamToken));
+        assertFalse(jwtUtil.isStreamToken(accessToken));
+        assertEquals(TEST_USERNAME, jwtUtil.extractUsername(streamToken));
+        assertTrue(jwtUtil.extractExpiration(streamToken).getTime() - System.currentTimeMillis()
+                <= JWTUtil.STREAM_TOKEN_LIFETIME.toMillis());
+    }
+
     @Test
     void extractUsername_Success() {
         // Arrange
-        String token = jwtUtil.generateToken(TEST_USERNAME);
+        String token = jwtUtil.generateToken(principal);
 
         // Act
         String extractedUsername = jwtUtil.extractUsername(token);
@@ -58,7 +87,7 @@ class JWTUtilTest {
     @Test
     void validateToken_ValidToken() {
         // Arrange
-        String token = jwtUtil.generateToken(TEST_USERNAME);
+        String token = jwtUtil.generateToken(principal);
 
         // Act
         boolean isValid = jwtUtil.validateToken(token);
@@ -110,8 +139,8 @@ class JWTUtilTest {
     @Test
     void extractExpiration_Success() {
         // Arrange
-        String token = jwtUtil.generateToken(TEST_USERNAME);
-        Date expectedExpiration = new Date(System.currentTimeMillis() + 1000 * 60 * 60); // 1 hour from now
+        String token = jwtUtil.generateToken(principal);
+        Date expectedExpiration = new Date(System.currentTimeMillis() + 1000 * 60 * 15); // 15 minutes from now
 
         // Act
         Date actualExpiration = jwtUtil.extractExpiration(token);
@@ -121,4 +150,102 @@ class JWTUtilTest {
         // Allow 1 second difference due to execution time
         assertEquals(true, Math.abs(actualExpiration.getTime() - expectedExpiration.getTime()) <= 1000);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void extractUsername_RepeatTokenIsServedFromCache() {
+        // Arrange
+        String token = jwtUtil.generateToken(principal);
+        jwtUtil.extractUsername(token);
+
+        // Act
+        String extractedUsername = jwtUtil.extractUsername(token);
+        boolean isValid = jwtUtil.validateToken(token);
+
+        // Assert
+        assertEquals(TEST_USERNAME, extractedUsername);
+        assertTrue(isValid);
+        assertEquals(1, jwtUtil.cachedTokens());
+    }
+
+    @Test
+    void extractUsername_TokenSignedWithAnotherKeyIsRejected() {
+        // Arrange
+        jwtUtil.extractUsername(jwtUtil.generateToken(principal));
+        String forgedToken = Jwts.builder()
+            .subject(TEST_USERNAME)
+            .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+            .signWith(Keys.hmacShaKeyFor("anotherSecretKey123456789012345678901234567890".getBytes()))
+            .compact();
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> jwtUtil.extractUsername(forgedToken));
+        assertEquals(1, jwtUtil.cachedTokens());
+    }
+
+    @Test
+    void extractUsername_CacheStaysWithinItsBound() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheSize", 2);
+
+        // Act
+        for (String username : new String[] {"first", "second", "third"}) {
+            assertEquals(username, jwtUtil.extractUsername(jwtUtil.generateToken(principal(username))));
+        }
+
+        // Assert
+        assertEquals(2, jwtUtil.cachedTokens());
+    }
+
+    @Test
+    void extractPrincipal_ReadsTheUserClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken(principal);
+
+        // Act
+        Optional<AuthenticatedUser> extracted = jwtUtil.extractPrincipal(token);
+
+        // Assert
+        assertEquals(Optional.of(principal), extracted);
+        assertNotNull(jwtUtil.extractIssuedAt(token));
+    }
+
+    @Test
+    void extractIssuedAt_KeepsMilliseconds() {
+        // Arrange
+        long before = System.currentTimeMillis();
+        String token = jwtUtil.generateToken(principal);
+        long after = System.currentTimeMillis();
+
+        // Act
+        long issuedAt = jwtUtil.extractIssuedAt(token).getTime();
+
+        // Assert
+        assertTrue(issuedAt >= before && issuedAt <= after);
+    }
+
+    @Test
+    void extractPrincipal_TokenWithoutUserClaimsIsEmpty() {
+        // Arrange
+        String legacyToken = Jwts.builder()
+            .claims(Map.of())
+            .subject(TEST_USERNAME)
+            .issuedAt(new Date())
+            .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+            .signWith(Keys.hmacShaKeyFor(TEST_SECRET_KEY.getBytes()))
+            .compact();
+
+        // Act & Assert
+        assertTrue(jwtUtil.extractPrincipal(legacyToken).isEmpty());
+        assertEquals(TEST_USERNAME, jwtUtil.extractUsername(legacyToken));
+    }
+
+    @Test
+    void generateToken_EmbedsTheTokenId() {
+        // Act
+        String token = jwtUtil.generateToken(principal, "token-id");
+
+        // Assert
+        assertEquals("token-id", jwtUtil.extractTokenId(token));
+        assertNotNull(jwtUtil.extractTokenId(jwtUtil.generateToken(principal)));
+    }
+}
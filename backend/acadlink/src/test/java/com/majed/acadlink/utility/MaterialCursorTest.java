@@ -0,0 +1,60 @@
+package com.majed.acadlink.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class MaterialCursorTest {
+
+    @Test
+    void encode_RoundTripsNameAndId() {
+        // Arrange
+        MaterialCursor cursor = new MaterialCursor("Linear Algebra: Notes\nPart 2 ü", UUID.randomUUID());
+
+        // Act
+        MaterialCursor decoded = MaterialCursor.decode(cursor.encode());
+
+        // Assert
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void encode_RoundTripsScore() {
+        // Arrange
+        MaterialCursor cursor = new MaterialCursor("algebra", UUID.randomUUID(), 2.718281828459045);
+
+        // Act
+        MaterialCursor decoded = MaterialCursor.decode(cursor.encode());
+
+        // Assert
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void encode_RoundTripsScoreAndStatisticsEpoch() {
+        // Arrange
+        MaterialCursor cursor = new MaterialCursor("algebra", UUID.randomUUID(), 1.5, -4242L);
+
+        // Act
+        MaterialCursor decoded = MaterialCursor.decode(cursor.encode());
+
+        // Assert
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void decode_ReturnsNullForMissingToken() {
+        assertNull(MaterialCursor.decode(null));
+        assertNull(MaterialCursor.decode(" "));
+    }
+
+    @Test
+    void decode_RejectsMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> MaterialCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> MaterialCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+}
@@ -0,0 +1,442 @@
+package com.majed.acadlink.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.majed.acadlink.config.SearchConfig;
+import com.majed.acadlink.domain.entity.Folder;
+import com.majed.acadlink.domain.entity.Materials;
+import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.domain.repository.MaterialsRepo;
+import com.majed.acadlink.dto.material.MaterialIndexEntryDTO;
+import com.majed.acadlink.enums.MaterialType;
+import com.majed.acadlink.enums.Privacy;
+
+@ExtendWith(MockitoExtension.class)
+class MaterialSearchIndexTest {
+
+    @Mock
+    private MaterialsRepo materialsRepo;
+
+    private MaterialSearchIndex materialSearchIndex;
+
+    private SearchConfig searchConfig;
+    private User owner;
+    private Folder ownerFolder;
+    private MaterialSearchIndex.Viewer stranger;
+    private MaterialSearchIndex.Viewer peer;
+    private MaterialSearchIndex.Viewer classmate;
+
+    @BeforeEach
+    void setUp() {
+        searchConfig = new SearchConfig();
+        materialSearchIndex = new MaterialSearchIndex(materialsRepo, searchConfig);
+
+        owner = new User();
+        owner.setId(UUID.randomUUID());
+        owner.setInstitute("Test University");
+
+        ownerFolder = new Folder();
+        ownerFolder.setId(UUID.randomUUID());
+        ownerFolder.setUser(owner);
+
+        stranger = MaterialSearchIndex.Viewer.of(UUID.randomUUID(), "Other College", Set.of());
+        peer = MaterialSearchIndex.Viewer.of(UUID.randomUUID(), "Other College", Set.of(owner.getId()));
+        classmate = MaterialSearchIndex.Viewer.of(UUID.randomUUID(), "test university", Set.of());
+    }
+
+    @Test
+    void rebuild_IndexesSearchablePrivaciesOnly() {
+        // Arrange
+        UUID publicId = UUID.randomUUID();
+        UUID privateId = UUID.randomUUID();
+        when(materialsRepo.findAllIndexEntries()).thenReturn(List.of(
+                new MaterialIndexEntryDTO(publicId, "Linear Algebra", MaterialType.BOOK, Privacy.PUBLIC, owner.getId(),
+                        "testuniversity"),
+                new MaterialIndexEntryDTO(privateId, "Algebra notes", MaterialType.LECTURE_NOTE, Privacy.PRIVATE,
+                        owner.getId(), "testuniversity")));
+
+        // Act
+        materialSearchIndex.rebuild();
+
+        // Assert
+        assertEquals(List.of(publicId), search("algebra", stranger, 10));
+    }
+
+    @Test
+    void search_MatchesSubstringsCaseInsensitively() {
+        // Arrange
+        Materials book = material("Linear Algebra Done Right", Privacy.PUBLIC);
+        materialSearchIndex.index(book);
+
+        // Assert
+        assertEquals(List.of(book.getId()), search("GEBRA DO", stranger, 10));
+        assertTrue(search("algebra wrong", stranger, 10).isEmpty());
+    }
+
+    @Test
+    void search_ShortKeywordMatchesWordPrefixes() {
+        // Arrange
+        Materials book = material("Linear Algebra Done Right", Privacy.PUBLIC);
+        materialSearchIndex.index(book);
+
+        // Assert
+        assertEquals(List.of(book.getId()), search("do", stranger, 10));
+        assertTrue(search("ne", stranger, 10).isEmpty());
+    }
+
+    @Test
+    void search_AppliesVisibilityPerPrivacy() {
+        // Arrange
+        Materials peerNotes = material("Algebra peer notes", Privacy.PEERS);
+        Materials campusNotes = material("Algebra campus notes", Privacy.INSTITUTIONAL);
+        materialSearchIndex.index(peerNotes);
+        materialSearchIndex.index(campusNotes);
+
+        // Assert
+        assertTrue(search("algebra", stranger, 10).isEmpty());
+        assertEquals(List.of(peerNotes.getId()), search("algebra", peer, 10));
+        assertEquals(List.of(campusNotes.getId()), search("algebra", classmate, 10));
+    }
+
+    @Test
+    void search_PeerMaterialsOfVisibleOwnersKeepKeywordSemantics() {
+        // Arrange
+        User other = new User();
+        other.setId(UUID.randomUUID());
+        other.setInstitute("Elsewhere");
+        Folder otherFolder = new Folder();
+        otherFolder.setId(UUID.randomUUID());
+        otherFolder.setUser(other);
+        for (int i = 0; i < 5; i++) {
+            Materials hidden = material("Notes " + i, Privacy.PEERS);
+            hidden.setFolder(otherFolder);
+            materialSearchIndex.index(hidden);
+        }
+        Materials shared = material("Lecture notes", Privacy.PEERS);
+        Materials inner = material("Phenomenon", Privacy.PEERS);
+        materialSearchIndex.index(shared);
+        materialSearchIndex.index(inner);
+
+        // Assert
+        assertEquals(List.of(shared.getId()), search("notes", peer, 10));
+        assertEquals(List.of(shared.getId()), search("no", peer, 10));
+        assertEquals(List.of(inner.getId()), search("nom", peer, 10));
+    }
+
+    @Test
+    void search_ReturnsStableOrderAcrossPartitionsAndStopsAtLimit() {
+        // Arrange
+        Materials c = material("Algebra C", Privacy.PUBLIC);
+        Materials a = material("Algebra A", Privacy.INSTITUTIONAL);
+        Materials b = material("Algebra B", Privacy.PUBLIC);
+        materialSearchIndex.index(c);
+        materialSearchIndex.index(a);
+        materialSearchIndex.index(b);
+
+        // Assert
+        assertEquals(List.of(a.getId(), b.getId(), c.getId()), search("algebra", classmate, 10));
+        assertEquals(List.of(a.getId(), b.getId()), search("algebra", classmate, 2));
+    }
+
+    @Test
+    void search_ResumesAfterCursorPosition() {
+        // Arrange
+        Materials c = material("Algebra C", Privacy.PUBLIC);
+        Materials a = material("Algebra A", Privacy.INSTITUTIONAL);
+        Materials b = material("Algebra B", Privacy.PUBLIC);
+        materialSearchIndex.index(c);
+        materialSearchIndex.index(a);
+        materialSearchIndex.index(b);
+
+        // Act
+        List<MaterialCursor> first = materialSearchIndex.search("algebra", classmate, null, 2);
+        List<MaterialCursor> second = materialSearchIndex.search("algebra", classmate, first.get(1), 2);
+
+        // Assert
+        assertEquals(b.getId(), first.get(1).id());
+        assertEquals(List.of(c.getId()), second.stream().map(MaterialCursor::id).toList());
+    }
+
+    @Test
+    void search_RanksExactThenPrefixThenShorterNames() {
+        // Arrange
+        Materials longer = material("Intro to linear algebra and its applications", Privacy.PUBLIC);
+        Materials shorter = material("Applied algebra notes", Privacy.PUBLIC);
+        Materials prefix = material("Algebra workbook", Privacy.PUBLIC);
+        Materials exact = material("Algebra", Privacy.PUBLIC);
+        materialSearchIndex.index(longer);
+        materialSearchIndex.index(shorter);
+        materialSearchIndex.index(prefix);
+        materialSearchIndex.index(exact);
+
+        // Assert
+        assertEquals(List.of(exact.getId(), prefix.getId(), shorter.getId(), longer.getId()),
+                search("algebra", stranger, 10));
+    }
+
+    @Test
+    void search_RanksRepeatedTermsHigher() {
+        // Arrange
+        Materials once = material("Graph theory notes", Privacy.PUBLIC);
+        Materials twice = material("Graph theory graph drills", Privacy.PUBLIC);
+        materialSearchIndex.index(once);
+        materialSearchIndex.index(twice);
+
+        // Assert
+        assertEquals(List.of(twice.getId(), once.getId()), search("graph", stranger, 10));
+    }
+
+    @Test
+    void search_KeepsOnlyTopKAcrossPartitionsAndPages() {
+        // Arrange
+        Materials exact = material("Calculus", Privacy.INSTITUTIONAL);
+        Materials prefix = material("Calculus workbook", Privacy.PUBLIC);
+        Materials inner = material("Intro to calculus", Privacy.PUBLIC);
+        Materials longest = material("Notes on single variable calculus", Privacy.PEERS);
+        materialSearchIndex.index(longest);
+        materialSearchIndex.index(inner);
+        materialSearchIndex.index(prefix);
+        materialSearchIndex.index(exact);
+        MaterialSearchIndex.Viewer viewer = MaterialSearchIndex.Viewer.of(UUID.randomUUID(), "Test University",
+                Set.of(owner.getId()));
+
+        // Act
+        List<MaterialCursor> first = materialSearchIndex.search("calculus", viewer, null, 2);
+        List<MaterialCursor> second = materialSearchIndex.search("calculus", viewer, first.get(1), 2);
+
+        // Assert
+        assertEquals(List.of(exact.getId(), prefix.getId()), first.stream().map(MaterialCursor::id).toList());
+        assertTrue(first.get(0).score() > first.get(1).score());
+        assertEquals(List.of(inner.getId(), longest.getId()), second.stream().map(MaterialCursor::id).toList());
+    }
+
+    @Test
+    void search_LaterPagesKeepTheStatisticsOfTheFirst() {
+        // Arrange
+        searchConfig.getMaterials().setStatisticsInterval(Duration.ZERO);
+        Materials exact = material("Calculus", Privacy.PUBLIC);
+        Materials prefix = material("Calculus workbook", Privacy.PUBLIC);
+        Materials longest = material("Notes on single variable calculus", Privacy.PUBLIC);
+        materialSearchIndex.index(longest);
+        materialSearchIndex.index(prefix);
+        materialSearchIndex.index(exact);
+        List<MaterialCursor> all = materialSearchIndex.search("calculus", stranger, null, 10);
+        List<MaterialCursor> first = materialSearchIndex.search("calculus", stranger, null, 1);
+        for (int i = 0; i < 20; i++) {
+            materialSearchIndex.index(material("Geometry " + i, Privacy.PUBLIC));
+        }
+
+        // Act
+        List<MaterialCursor> second = materialSearchIndex.search("calculus", stranger, first.get(0), 10);
+        List<MaterialCursor> restarted = materialSearchIndex.search("calculus", stranger, null, 10);
+
+        // Assert
+        assertEquals(all.subList(1, 3), second);
+        assertNotEquals(all.get(0).score(), restarted.get(0).score());
+        assertNotEquals(first.get(0).epoch(), restarted.get(0).epoch());
+    }
+
+    @Test
+    void isExpired_OnceTheStatisticsOfTheCursorAreDropped() {
+        // Arrange
+        searchConfig.getMaterials().setStatisticsInterval(Duration.ZERO);
+        searchConfig.getMaterials().setStatisticsRetention(Duration.ZERO);
+        materialSearchIndex.index(material("Calculus", Privacy.PUBLIC));
+        MaterialCursor first = materialSearchIndex.search("calculus", stranger, null, 1).get(0);
+        boolean expiredBefore = materialSearchIndex.isExpired(first);
+        materialSearchIndex.index(material("Calculus workbook", Privacy.PUBLIC));
+        materialSearchIndex.search("calculus", stranger, null, 1);
+
+        // Act
+        boolean expired = materialSearchIndex.isExpired(first);
+
+        // Assert
+        assertFalse(expiredBefore);
+        assertTrue(expired);
+        assertTrue(materialSearchIndex.isExpired(new MaterialCursor(first.name(), first.id(), first.score())));
+        assertFalse(materialSearchIndex.isExpired(new MaterialCursor(first.name(), first.id())));
+    }
+
+    @Test
+    void search_FiltersHitsAndCountsFacetsInOnePass() {
+        // Arrange
+        Materials publicBook = material("Algebra book", Privacy.PUBLIC);
+        Materials publicNotes = material("Algebra notes", Privacy.PUBLIC);
+        publicNotes.setType(MaterialType.LECTURE_NOTE);
+        Materials campusBook = material("Algebra campus book", Privacy.INSTITUTIONAL);
+        Materials unrelated = material("Geometry book", Privacy.PUBLIC);
+        materialSearchIndex.index(publicBook);
+        materialSearchIndex.index(publicNotes);
+        materialSearchIndex.index(campusBook);
+        materialSearchIndex.index(unrelated);
+
+        // Act
+        MaterialSearchIndex.Result result = materialSearchIndex.search("algebra", classmate,
+                new MaterialSearchIndex.Filter(MaterialType.BOOK, Privacy.PUBLIC), null, 10);
+
+        // Assert
+        assertEquals(List.of(publicBook.getId()), result.hits().stream().map(MaterialCursor::id).toList());
+        assertEquals(1, result.typeCounts().get(MaterialType.BOOK));
+        assertEquals(1, result.typeCounts().get(MaterialType.LECTURE_NOTE));
+        assertEquals(0, result.typeCounts().get(MaterialType.OTHER));
+        assertEquals(1, result.privacyCounts().get(Privacy.PUBLIC));
+        assertEquals(1, result.privacyCounts().get(Privacy.INSTITUTIONAL));
+        assertEquals(0, result.privacyCounts().get(Privacy.PEERS));
+    }
+
+    @Test
+    void search_FacetCountsCoverMatchesBeforeTheCursor() {
+        // Arrange
+        Materials a = material("Algebra A", Privacy.PUBLIC);
+        Materials b = material("Algebra B", Privacy.PUBLIC);
+        materialSearchIndex.index(a);
+        materialSearchIndex.index(b);
+        MaterialCursor first = materialSearchIndex.search("algebra", stranger, null, 1).get(0);
+
+        // Act
+        MaterialSearchIndex.Result result = materialSearchIndex.search("algebra", stranger,
+                MaterialSearchIndex.Filter.NONE, first, 1);
+
+        // Assert
+        assertEquals(List.of(b.getId()), result.hits().stream().map(MaterialCursor::id).toList());
+        assertEquals(2, result.typeCounts().get(MaterialType.BOOK));
+    }
+
+    @Test
+    void fuzzySearch_ToleratesTyposWithinEditBudget() {
+        // Arrange
+        Materials calculus = material("Calculus II", Privacy.PUBLIC);
+        Materials physics = material("Physics notes", Privacy.PUBLIC);
+        materialSearchIndex.index(calculus);
+        materialSearchIndex.index(physics);
+
+        // Assert
+        assertTrue(search("calclus", stranger, 10).isEmpty());
+        assertEquals(List.of(calculus.getId()), fuzzy("calclus", 2));
+        assertEquals(List.of(calculus.getId()), fuzzy("claculus ii", 2));
+        assertEquals(List.of(physics.getId()), fuzzy("phsyics", 1));
+        assertTrue(fuzzy("calcls", 1).isEmpty());
+        assertTrue(fuzzy("chemistry", 2).isEmpty());
+    }
+
+    @Test
+    void fuzzySearch_FindsTyposThatChangeEveryTrigramOfShortTerms() {
+        // Arrange
+        Materials graph = material("Graph theory", Privacy.PUBLIC);
+        Materials unrelated = material("Topology", Privacy.PUBLIC);
+        materialSearchIndex.index(graph);
+        materialSearchIndex.index(unrelated);
+
+        // Assert
+        assertEquals(List.of(graph.getId()), fuzzy("grsph", 1));
+        assertEquals(List.of(graph.getId()), fuzzy("thoery", 2));
+        assertTrue(fuzzy("xrsph", 1).isEmpty());
+    }
+
+    @Test
+    void fuzzySearch_RanksCloserMatchesFirstAndKeepsVisibility() {
+        // Arrange
+        Materials exact = material("Algebra", Privacy.PUBLIC);
+        Materials typo = material("Algebro", Privacy.PUBLIC);
+        Materials hidden = material("Algebra", Privacy.PEERS);
+        materialSearchIndex.index(exact);
+        materialSearchIndex.index(typo);
+        materialSearchIndex.index(hidden);
+
+        // Assert
+        assertEquals(List.of(exact.getId(), typo.getId()), fuzzy("algebra", 2));
+    }
+
+    @Test
+    void fuzzySearch_ExhaustedBudgetReturnsIncompleteResult() {
+        // Arrange
+        for (int i = 0; i < 200; i++) {
+            materialSearchIndex.index(material("Calculus " + i, Privacy.PUBLIC));
+        }
+
+        // Act
+        MaterialSearchIndex.Result result = materialSearchIndex.fuzzySearch("calculus", stranger,
+                MaterialSearchIndex.Filter.NONE, null, 10, 2, Duration.ZERO);
+
+        // Assert
+        assertFalse(result.complete());
+        assertTrue(materialSearchIndex.fuzzySearch("calculus", stranger, MaterialSearchIndex.Filter.NONE, null, 10,
+                2, Duration.ofSeconds(5)).complete());
+    }
+
+    @Test
+    void editDistance_CountsTranspositionsAndStopsAtBound() {
+        // Assert
+        assertEquals(0, MaterialSearchIndex.editDistance("algebra", "algebra", 2));
+        assertEquals(1, MaterialSearchIndex.editDistance("algbera", "algebra", 2));
+        assertEquals(1, MaterialSearchIndex.editDistance("calclus", "calculus", 2));
+        assertEquals(2, MaterialSearchIndex.editDistance("kalclus", "calculus", 2));
+        assertEquals(3, MaterialSearchIndex.editDistance("physics", "calculus", 2));
+    }
+
+    @Test
+    void index_UpdatedMaterialMovesBetweenPartitions() {
+        // Arrange
+        Materials book = material("Linear Algebra", Privacy.PUBLIC);
+        materialSearchIndex.index(book);
+        book.setName("Abstract Algebra");
+        book.setPrivacy(Privacy.INSTITUTIONAL);
+
+        // Act
+        materialSearchIndex.index(book);
+
+        // Assert
+        assertTrue(search("algebra", stranger, 10).isEmpty());
+        assertTrue(search("linear", classmate, 10).isEmpty());
+        assertEquals(List.of(book.getId()), search("abstract", classmate, 10));
+    }
+
+    @Test
+    void remove_DropsMaterialFromSearch() {
+        // Arrange
+        Materials book = material("Linear Algebra", Privacy.PUBLIC);
+        materialSearchIndex.index(book);
+
+        // Act
+        materialSearchIndex.remove(book.getId());
+
+        // Assert
+        assertTrue(search("algebra", stranger, 10).isEmpty());
+        assertTrue(search("li", stranger, 10).isEmpty());
+    }
+
+    private Materials material(String name, Privacy privacy) {
+        Materials material = new Materials();
+        material.setId(UUID.randomUUID());
+        material.setName(name);
+        material.setLink("http://example.com/" + UUID.randomUUID());
+        material.setType(MaterialType.BOOK);
+        material.setPrivacy(privacy);
+        material.setFolder(ownerFolder);
+        return material;
+    }
+
+    private List<UUID> fuzzy(String keyword, int maxEdits) {
+        return materialSearchIndex.fuzzySearch(keyword, stranger, MaterialSearchIndex.Filter.NONE, null, 10, maxEdits,
+                Duration.ofSeconds(5)).hits().stream().map(MaterialCursor::id).toList();
+    }
+
+    private List<UUID> search(String keyword, MaterialSearchIndex.Viewer viewer, int limit) {
+        return materialSearchIndex.search(keyword, viewer, null, limit).stream().map(MaterialCursor::id).toList();
+    }
+}
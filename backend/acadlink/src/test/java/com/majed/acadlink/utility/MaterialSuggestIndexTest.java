@@ -0,0 +1,159 @@
+package com.majed.acadlink.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.majed.acadlink.domain.entity.Folder;
+import com.majed.acadlink.domain.entity.Materials;
+import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.domain.repository.MaterialsRepo;
+import com.majed.acadlink.dto.material.MaterialIndexEntryDTO;
+import com.majed.acadlink.enums.MaterialType;
+import com.majed.acadlink.enums.Privacy;
+
+@ExtendWith(MockitoExtension.class)
+class MaterialSuggestIndexTest {
+
+    @Mock
+    private MaterialsRepo materialsRepo;
+
+    private MaterialSuggestIndex materialSuggestIndex;
+
+    private User owner;
+    private Folder ownerFolder;
+    private MaterialSearchIndex.Viewer stranger;
+    private MaterialSearchIndex.Viewer peer;
+    private MaterialSearchIndex.Viewer classmate;
+    private MaterialSearchIndex.Viewer self;
+
+    @BeforeEach
+    void setUp() {
+        materialSuggestIndex = new MaterialSuggestIndex(materialsRepo);
+
+        owner = new User();
+        owner.setId(UUID.randomUUID());
+        owner.setInstitute("Test University");
+
+        ownerFolder = new Folder();
+        ownerFolder.setId(UUID.randomUUID());
+        ownerFolder.setUser(owner);
+
+        stranger = MaterialSearchIndex.Viewer.of(UUID.randomUUID(), "Other College", Set.of());
+        peer = MaterialSearchIndex.Viewer.of(UUID.randomUUID(), "Other College", Set.of(owner.getId()));
+        classmate = MaterialSearchIndex.Viewer.of(UUID.randomUUID(), "test university", Set.of());
+        self = MaterialSearchIndex.Viewer.of(owner.getId(), "Test University", Set.of());
+    }
+
+    @Test
+    void rebuild_LoadsNamesPerScope() {
+        // Arrange
+        when(materialsRepo.findAllIndexEntries()).thenReturn(List.of(
+                new MaterialIndexEntryDTO(UUID.randomUUID(), "Linear Algebra", MaterialType.BOOK, Privacy.PUBLIC,
+                        owner.getId(), "testuniversity"),
+                new MaterialIndexEntryDTO(UUID.randomUUID(), "Algebra notes", MaterialType.LECTURE_NOTE,
+                        Privacy.PRIVATE, owner.getId(), "testuniversity")));
+
+        // Act
+        materialSuggestIndex.rebuild();
+
+        // Assert
+        assertEquals(List.of("Linear Algebra"), materialSuggestIndex.suggest("alg", stranger, 10, 100));
+        assertEquals(List.of("Linear Algebra"), materialSuggestIndex.suggest("alg", self, 10, 100));
+    }
+
+    @Test
+    void suggest_CompletesAnyWordStartCaseInsensitively() {
+        // Arrange
+        materialSuggestIndex.index(material("Linear Algebra Done Right", Privacy.PUBLIC));
+
+        // Assert
+        assertEquals(List.of("Linear Algebra Done Right"), materialSuggestIndex.suggest("ALG", stranger, 10, 100));
+        assertEquals(List.of("Linear Algebra Done Right"), materialSuggestIndex.suggest("done r", stranger, 10, 100));
+        assertTrue(materialSuggestIndex.suggest("gebra", stranger, 10, 100).isEmpty());
+        assertTrue(materialSuggestIndex.suggest("  ", stranger, 10, 100).isEmpty());
+    }
+
+    @Test
+    void suggest_AppliesVisibilityPerScope() {
+        // Arrange
+        materialSuggestIndex.index(material("Algebra peer notes", Privacy.PEERS));
+        materialSuggestIndex.index(material("Algebra campus notes", Privacy.INSTITUTIONAL));
+        materialSuggestIndex.index(material("Algebra private notes", Privacy.PRIVATE));
+
+        // Assert
+        assertTrue(materialSuggestIndex.suggest("alg", stranger, 10, 100).isEmpty());
+        assertEquals(List.of("Algebra peer notes"), materialSuggestIndex.suggest("alg", peer, 10, 100));
+        assertEquals(List.of("Algebra campus notes"), materialSuggestIndex.suggest("alg", classmate, 10, 100));
+        assertEquals(List.of("Algebra campus notes", "Algebra peer notes"),
+                materialSuggestIndex.suggest("alg", self, 10, 100));
+    }
+
+    @Test
+    void suggest_RanksByVisibleCountAndStopsAtLimit() {
+        // Arrange
+        materialSuggestIndex.index(material("Calculus II", Privacy.PUBLIC));
+        materialSuggestIndex.index(material("Calculus I", Privacy.PUBLIC));
+        materialSuggestIndex.index(material("Calculus II", Privacy.INSTITUTIONAL));
+        materialSuggestIndex.index(material("Calculus III", Privacy.PUBLIC));
+
+        // Assert
+        assertEquals(List.of("Calculus II", "Calculus I", "Calculus III"),
+                materialSuggestIndex.suggest("calc", classmate, 10, 100));
+        assertEquals(List.of("Calculus I", "Calculus II"), materialSuggestIndex.suggest("calc", stranger, 2, 100));
+    }
+
+    @Test
+    void index_UpdatedMaterialReplacesPreviousName() {
+        // Arrange
+        Materials book = material("Linear Algebra", Privacy.PUBLIC);
+        materialSuggestIndex.index(book);
+        book.setName("Abstract Algebra");
+        book.setPrivacy(Privacy.INSTITUTIONAL);
+
+        // Act
+        materialSuggestIndex.index(book);
+
+        // Assert
+        assertTrue(materialSuggestIndex.suggest("alg", stranger, 10, 100).isEmpty());
+        assertEquals(List.of("Abstract Algebra"), materialSuggestIndex.suggest("alg", classmate, 10, 100));
+    }
+
+    @Test
+    void remove_DropsNameOnlyWhenLastCopyIsGone() {
+        // Arrange
+        Materials first = material("Linear Algebra", Privacy.PUBLIC);
+        Materials second = material("Linear Algebra", Privacy.PUBLIC);
+        materialSuggestIndex.index(first);
+        materialSuggestIndex.index(second);
+
+        // Act
+        materialSuggestIndex.remove(first.getId());
+
+        // Assert
+        assertEquals(List.of("Linear Algebra"), materialSuggestIndex.suggest("lin", stranger, 10, 100));
+        materialSuggestIndex.remove(second.getId());
+        assertTrue(materialSuggestIndex.suggest("lin", stranger, 10, 100).isEmpty());
+    }
+
+    private Materials material(String name, Privacy privacy) {
+        Materials material = new Materials();
+        material.setId(UUID.randomUUID());
+        material.setName(name);
+        material.setLink("http://example.com/" + UUID.randomUUID());
+        material.setType(MaterialType.BOOK);
+        material.setPrivacy(privacy);
+        material.setFolder(ownerFolder);
+        return material;
+    }
+}
@@ -0,0 +1,228 @@
+package com.majed.acadlink.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.majed.acadlink.domain.entity.Peers;
+import com.majed.acadlink.domain.repository.PeersRepo;
+import com.majed.acadlink.dto.peers.PeerPairDTO;
+import com.majed.acadlink.enums.PeerStatus;
+
+@ExtendWith(MockitoExtension.class)
+class PeerGraphIndexTest {
+
+    @Mock
+    private PeersRepo peersRepo;
+
+    private PeerGraphIndex peerGraphIndex;
+
+    private UUID alice;
+    private UUID bob;
+    private UUID carol;
+    private UUID dave;
+
+    @BeforeEach
+    void setUp() {
+        peerGraphIndex = new PeerGraphIndex(peersRepo);
+        alice = UUID.randomUUID();
+        bob = UUID.randomUUID();
+        carol = UUID.randomUUID();
+        dave = UUID.randomUUID();
+    }
+
+    @Test
+    void status_FallsBackToDatabaseBeforeRebuild() {
+        // Arrange
+        Peers peer = new Peers();
+        peer.setStatus(PeerStatus.ACCEPTED);
+        when(peersRepo.findPair(alice, bob)).thenReturn(peer);
+
+        // Act & Assert
+        assertEquals(PeerStatus.ACCEPTED, peerGraphIndex.status(alice, bob));
+    }
+
+    @Test
+    void statuses_UseOneBatchQueryBeforeRebuild() {
+        // Arrange
+        when(peersRepo.findStatusMap(alice, List.of(bob, carol)))
+                .thenReturn(Map.of(bob, PeerStatus.PENDING, carol, PeerStatus.FALSE));
+
+        // Act
+        Map<UUID, PeerStatus> statuses = peerGraphIndex.statuses(alice, List.of(bob, carol));
+
+        // Assert
+        assertEquals(Map.of(bob, PeerStatus.PENDING, carol, PeerStatus.FALSE), statuses);
+        verify(peersRepo, times(1)).findStatusMap(alice, List.of(bob, carol));
+    }
+
+    @Test
+    void statuses_ResolveEveryUserFromTheGraph() {
+        // Arrange
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED)).thenReturn(List.of(new PeerPairDTO(alice, bob)));
+        when(peersRepo.findPairsByStatus(PeerStatus.PENDING)).thenReturn(List.of(new PeerPairDTO(carol, alice)));
+        peerGraphIndex.rebuild();
+
+        // Act
+        Map<UUID, PeerStatus> statuses = peerGraphIndex.statuses(alice, List.of(bob, carol, dave));
+
+        // Assert
+        assertEquals(Map.of(bob, PeerStatus.ACCEPTED, carol, PeerStatus.PENDING, dave, PeerStatus.FALSE), statuses);
+        assertEquals(Map.of(bob, PeerStatus.FALSE), peerGraphIndex.statuses(dave, List.of(bob)));
+    }
+
+    @Test
+    void rebuild_ResolvesStatusesInBothDirections() {
+        // Arrange
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED)).thenReturn(List.of(new PeerPairDTO(alice, bob)));
+        when(peersRepo.findPairsByStatus(PeerStatus.PENDING)).thenReturn(List.of(new PeerPairDTO(carol, alice)));
+
+        // Act
+        peerGraphIndex.rebuild();
+
+        // Assert
+        assertEquals(PeerStatus.ACCEPTED, peerGraphIndex.status(alice, bob));
+        assertEquals(PeerStatus.ACCEPTED, peerGraphIndex.status(bob, alice));
+        assertEquals(PeerStatus.PENDING, peerGraphIndex.status(alice, carol));
+        assertEquals(PeerStatus.PENDING, peerGraphIndex.status(carol, alice));
+        assertEquals(PeerStatus.FALSE, peerGraphIndex.status(bob, carol));
+        assertEquals(PeerStatus.FALSE, peerGraphIndex.status(alice, dave));
+        verify(peersRepo, times(0)).findPair(alice, bob);
+    }
+
+    @Test
+    void requestAcceptAndRemove_FollowTheRequestLifecycle() {
+        // Arrange
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED)).thenReturn(List.of());
+        when(peersRepo.findPairsByStatus(PeerStatus.PENDING)).thenReturn(List.of());
+        peerGraphIndex.rebuild();
+
+        // Act & Assert
+        peerGraphIndex.request(alice, bob);
+        peerGraphIndex.request(alice, carol);
+        assertEquals(PeerStatus.PENDING, peerGraphIndex.status(bob, alice));
+
+        peerGraphIndex.accept(bob, alice);
+        assertEquals(PeerStatus.ACCEPTED, peerGraphIndex.status(alice, bob));
+        assertEquals(PeerStatus.PENDING, peerGraphIndex.status(carol, alice));
+
+        peerGraphIndex.remove(alice, bob);
+        peerGraphIndex.remove(carol, alice);
+        assertEquals(PeerStatus.FALSE, peerGraphIndex.status(alice, bob));
+        assertEquals(PeerStatus.FALSE, peerGraphIndex.status(alice, carol));
+    }
+
+    @Test
+    void update_SetsThePairToTheGivenStatus() {
+        // Arrange
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED)).thenReturn(List.of(new PeerPairDTO(alice, bob)));
+        when(peersRepo.findPairsByStatus(PeerStatus.PENDING)).thenReturn(List.of());
+        peerGraphIndex.rebuild();
+
+        // Act & Assert
+        peerGraphIndex.update(alice, bob, PeerStatus.PENDING);
+        assertEquals(PeerStatus.PENDING, peerGraphIndex.status(bob, alice));
+        assertEquals(List.of(), peerGraphIndex.acceptedPeers(alice));
+
+        peerGraphIndex.update(bob, alice, PeerStatus.ACCEPTED);
+        assertEquals(PeerStatus.ACCEPTED, peerGraphIndex.status(alice, bob));
+
+        peerGraphIndex.update(alice, bob, PeerStatus.FALSE);
+        peerGraphIndex.update(alice, carol, PeerStatus.FALSE);
+        assertEquals(PeerStatus.FALSE, peerGraphIndex.status(alice, bob));
+        assertEquals(PeerStatus.FALSE, peerGraphIndex.status(alice, carol));
+    }
+
+    @Test
+    void mutualCounts_CountSharedPeersOfNonPeersOnly() {
+        // Arrange
+        UUID erin = UUID.randomUUID();
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED)).thenReturn(List.of(
+                new PeerPairDTO(alice, bob), new PeerPairDTO(alice, carol),
+                new PeerPairDTO(bob, dave), new PeerPairDTO(carol, dave),
+                new PeerPairDTO(bob, carol), new PeerPairDTO(carol, erin)));
+        when(peersRepo.findPairsByStatus(PeerStatus.PENDING)).thenReturn(List.of(new PeerPairDTO(erin, alice)));
+        peerGraphIndex.rebuild();
+
+        // Act
+        Map<UUID, Integer> counts = peerGraphIndex.mutualCounts(alice);
+
+        // Assert
+        assertEquals(Map.of(dave, 2), counts);
+        assertEquals(2, peerGraphIndex.mutualCount(alice, dave));
+        assertEquals(1, peerGraphIndex.mutualCount(alice, bob));
+        assertEquals(Map.of(), peerGraphIndex.mutualCounts(UUID.randomUUID()));
+    }
+
+    @Test
+    void mutualCounts_CountsListedUsersUpToTheCap() {
+        // Arrange
+        List<UUID> hubPeers = Stream.generate(UUID::randomUUID).limit(300).toList();
+        List<PeerPairDTO> pairs = new ArrayList<>();
+        hubPeers.forEach(peer -> pairs.add(new PeerPairDTO(dave, peer)));
+        pairs.add(new PeerPairDTO(alice, hubPeers.get(7)));
+        pairs.add(new PeerPairDTO(alice, hubPeers.get(250)));
+        pairs.add(new PeerPairDTO(alice, bob));
+        pairs.add(new PeerPairDTO(carol, bob));
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED)).thenReturn(pairs);
+        when(peersRepo.findPairsByStatus(PeerStatus.PENDING)).thenReturn(List.of());
+        peerGraphIndex.rebuild();
+        UUID unknown = UUID.randomUUID();
+
+        // Act
+        Map<UUID, Integer> counts = peerGraphIndex.mutualCounts(alice, List.of(dave, carol, unknown), 3);
+        Map<UUID, Integer> capped = peerGraphIndex.mutualCounts(alice, List.of(dave, carol, unknown), 1);
+
+        // Assert
+        assertEquals(Map.of(dave, 2, carol, 1, unknown, 0), counts);
+        assertEquals(Map.of(dave, 2), capped);
+        assertEquals(2, peerGraphIndex.mutualCount(dave, alice));
+    }
+
+    @Test
+    void acceptedPeersAndConnectedUsers_FollowEdgeChanges() {
+        // Arrange
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED)).thenReturn(List.of(new PeerPairDTO(alice, bob)));
+        when(peersRepo.findPairsByStatus(PeerStatus.PENDING)).thenReturn(List.of());
+        peerGraphIndex.rebuild();
+
+        // Act
+        peerGraphIndex.request(carol, alice);
+        peerGraphIndex.accept(carol, alice);
+        peerGraphIndex.request(dave, alice);
+
+        // Assert
+        assertEquals(List.of(bob, carol), peerGraphIndex.acceptedPeers(alice));
+        assertEquals(List.of(alice, bob, carol), peerGraphIndex.connectedUsers());
+        assertEquals(Map.of(carol, 1), peerGraphIndex.mutualCounts(bob));
+    }
+
+    @Test
+    void request_GrowsPastManyNewUsers() {
+        // Arrange
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED)).thenReturn(List.of(new PeerPairDTO(alice, bob)));
+        when(peersRepo.findPairsByStatus(PeerStatus.PENDING)).thenReturn(List.of());
+        peerGraphIndex.rebuild();
+        List<UUID> others = Stream.generate(UUID::randomUUID).limit(40).toList();
+
+        // Act
+        others.forEach(other -> peerGraphIndex.request(alice, other));
+
+        // Assert
+        others.forEach(other -> assertEquals(PeerStatus.PENDING, peerGraphIndex.status(other, alice)));
+        assertEquals(PeerStatus.ACCEPTED, peerGraphIndex.status(bob, alice));
+    }
+}
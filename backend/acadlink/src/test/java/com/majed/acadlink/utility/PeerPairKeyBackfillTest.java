@@ -0,0 +1,100 @@
+package com.majed.acadlink.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.majed.acadlink.domain.entity.Peers;
+import com.majed.acadlink.domain.entity.User;
+import com.majed.acadlink.domain.repository.PeersRepo;
+import com.majed.acadlink.enums.PeerStatus;
+
+@ExtendWith(MockitoExtension.class)
+class PeerPairKeyBackfillTest {
+
+    @Mock
+    private PeersRepo peersRepo;
+
+    @InjectMocks
+    private PeerPairKeyBackfill peerPairKeyBackfill;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = new User(UUID.randomUUID(), "Alice", "User", "alice@example.com", "alice", "password");
+        bob = new User(UUID.randomUUID(), "Bob", "User", "bob@example.com", "bob", "password");
+        carol = new User(UUID.randomUUID(), "Carol", "User", "carol@example.com", "carol", "password");
+    }
+
+    @Test
+    void backfill_AssignsKeysAndKeepsMostAdvancedDuplicate() {
+        // Arrange
+        Peers pending = peer(alice, bob, PeerStatus.PENDING);
+        Peers accepted = peer(bob, alice, PeerStatus.ACCEPTED);
+        Peers single = peer(carol, alice, PeerStatus.PENDING);
+        when(peersRepo.findWithoutPairKey()).thenReturn(List.of(pending, accepted, single));
+
+        // Act
+        peerPairKeyBackfill.backfill();
+
+        // Assert
+        assertEquals(Peers.lowOf(alice.getId(), bob.getId()), accepted.getLowUserId());
+        assertEquals(Peers.highOf(alice.getId(), bob.getId()), accepted.getHighUserId());
+        assertEquals(Peers.lowOf(carol.getId(), alice.getId()), single.getLowUserId());
+        assertNull(pending.getLowUserId());
+        verify(peersRepo, times(1)).saveAll(List.of(accepted, single));
+        verify(peersRepo, times(1)).deleteAll(List.of(pending));
+    }
+
+    @Test
+    void backfill_NothingPending() {
+        // Arrange
+        when(peersRepo.findWithoutPairKey()).thenReturn(List.of());
+
+        // Act
+        peerPairKeyBackfill.backfill();
+
+        // Assert
+        verify(peersRepo, times(0)).saveAll(any());
+        verify(peersRepo, times(0)).deleteAll(any());
+    }
+
+    @Test
+    void pairKey_IsTheSameInBothDirections() {
+        // Act
+        Peers forward = peer(alice, bob, PeerStatus.PENDING);
+        Peers backward = peer(bob, alice, PeerStatus.PENDING);
+        forward.assignPairKey();
+        backward.assignPairKey();
+
+        // Assert
+        assertEquals(forward.getLowUserId(), backward.getLowUserId());
+        assertEquals(forward.getHighUserId(), backward.getHighUserId());
+        assertEquals(-1, forward.getLowUserId().compareTo(forward.getHighUserId()));
+    }
+
+    private Peers peer(User user1, User user2, PeerStatus status) {
+        Peers peer = new Peers();
+        peer.setId(UUID.randomUUID());
+        peer.setUser1(user1);
+        peer.setUser2(user2);
+        peer.setStatus(status);
+        return peer;
+    }
+}
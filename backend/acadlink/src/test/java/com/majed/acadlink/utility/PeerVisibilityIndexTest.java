@@ -0,0 +1,100 @@
+package com.majed.acadlink.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.majed.acadlink.domain.repository.PeersRepo;
+import com.majed.acadlink.dto.peers.PeerPairDTO;
+import com.majed.acadlink.enums.PeerStatus;
+
+@ExtendWith(MockitoExtension.class)
+class PeerVisibilityIndexTest {
+
+    @Mock
+    private PeersRepo peersRepo;
+
+    private PeerVisibilityIndex peerVisibilityIndex;
+
+    private UUID alice;
+    private UUID bob;
+    private UUID carol;
+
+    @BeforeEach
+    void setUp() {
+        peerVisibilityIndex = new PeerVisibilityIndex(peersRepo);
+        alice = UUID.randomUUID();
+        bob = UUID.randomUUID();
+        carol = UUID.randomUUID();
+    }
+
+    @Test
+    void visibleOwners_FallsBackToDatabaseBeforeRebuild() {
+        // Arrange
+        when(peersRepo.findPeerIds(alice, PeerStatus.ACCEPTED)).thenReturn(List.of(bob));
+
+        // Act & Assert
+        assertEquals(Set.of(bob), peerVisibilityIndex.visibleOwners(alice));
+    }
+
+    @Test
+    void rebuild_LinksAcceptedPairsInBothDirections() {
+        // Arrange
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED)).thenReturn(List.of(
+                new PeerPairDTO(alice, bob), new PeerPairDTO(carol, alice)));
+
+        // Act
+        peerVisibilityIndex.rebuild();
+
+        // Assert
+        assertEquals(Set.of(bob, carol), peerVisibilityIndex.visibleOwners(alice));
+        assertEquals(Set.of(alice), peerVisibilityIndex.visibleOwners(bob));
+        assertEquals(Set.of(alice), peerVisibilityIndex.visibleOwners(carol));
+        verify(peersRepo, times(0)).findPeerIds(alice, PeerStatus.ACCEPTED);
+    }
+
+    @Test
+    void linkAndUnlink_UpdateBothSides() {
+        // Arrange
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED)).thenReturn(List.of());
+        peerVisibilityIndex.rebuild();
+
+        // Act
+        peerVisibilityIndex.link(alice, bob);
+        peerVisibilityIndex.link(alice, carol);
+        peerVisibilityIndex.unlink(bob, alice);
+
+        // Assert
+        assertEquals(Set.of(carol), peerVisibilityIndex.visibleOwners(alice));
+        assertTrue(peerVisibilityIndex.visibleOwners(bob).isEmpty());
+        assertEquals(Set.of(alice), peerVisibilityIndex.visibleOwners(carol));
+    }
+
+    @Test
+    void rebuild_DropsPairsNoLongerAccepted() {
+        // Arrange
+        when(peersRepo.findPairsByStatus(PeerStatus.ACCEPTED))
+                .thenReturn(List.of(new PeerPairDTO(alice, bob)))
+                .thenReturn(List.of(new PeerPairDTO(alice, carol)));
+        peerVisibilityIndex.rebuild();
+
+        // Act
+        peerVisibilityIndex.rebuild();
+
+        // Assert
+        assertEquals(Set.of(carol), peerVisibilityIndex.visibleOwners(alice));
+        assertTrue(peerVisibilityIndex.visibleOwners(bob).isEmpty());
+    }
+}
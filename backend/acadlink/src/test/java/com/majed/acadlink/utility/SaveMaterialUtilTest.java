@@ -35,6 +35,8 @@ import com.majed.acadlink.dto.material.MaterialResponseDTO;
 import com.majed.acadlink.enums.MaterialType;
 import com.majed.acadlink.enums.Privacy;
 import com.majed.acadlink.exception.ResourceNotFoundException;
+import com.majed.acadlink.service.IndexSyncService;
+import com.majed.acadlink.service.SearchCacheService;
 
 @ExtendWith(MockitoExtension.class)
 class SaveMaterialUtilTest {
@@ -49,6 +51,14 @@ class SaveMaterialUtilTest {
     private StorageConfig storageConfig;
     @Mock
     private StorageConfig.Materials materialsConfig;
+    @Mock
+    private MaterialSearchIndex materialSearchIndex;
+    @Mock
+    private MaterialSuggestIndex materialSuggestIndex;
+    @Mock
+    private SearchCacheService searchCacheService;
+    @Mock
+    private IndexSyncService indexSyncService;
     @InjectMocks
     private SaveMaterialUtil saveMaterialUtil;
     private UUID testUserId;
@@ -130,6 +140,9 @@ class SaveMaterialUtilTest {
         assertTrue(response.getLink().contains(testStoragePath));
         verify(folderRepo, times(1)).findById(testFolderId);
         verify(materialsRepo, times(1)).save(any(Materials.class));
+        verify(materialSuggestIndex, times(1)).index(any(Materials.class));
+        verify(searchCacheService, times(1)).invalidateMaterial(testUserId, Privacy.PUBLIC);
+        verify(indexSyncService, times(1)).materialChanged(testMaterialId, testUserId, Privacy.PUBLIC);
     }
 
     @Test
@@ -180,6 +193,10 @@ class SaveMaterialUtilTest {
         assertEquals(testFolderId, response.getFolderId());
         verify(folderRepo, times(1)).findById(testFolderId);
         verify(materialsRepo, times(1)).save(any(Materials.class));
+        verify(materialSearchIndex, times(1)).index(any(Materials.class));
+        verify(materialSuggestIndex, times(1)).index(any(Materials.class));
+        verify(searchCacheService, times(1)).invalidateMaterial(testUserId, Privacy.PUBLIC);
+        verify(indexSyncService, times(1)).materialChanged(testMaterialId, testUserId, Privacy.PUBLIC);
     }
 
     @Test
@@ -66,14 +66,34 @@ CREATE TABLE `peers` (
   `status` enum('ACCEPTED','PENDING') NOT NULL,
   `user1_id` binary(16) NOT NULL,
   `user2_id` binary(16) NOT NULL,
+  `low_user_id` binary(16) NOT NULL,
+  `high_user_id` binary(16) NOT NULL,
   PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_peers_pair` (`low_user_id`,`high_user_id`),
   KEY `FKky0r80jfnfy6u5qagndb3sqh3` (`user1_id`),
   KEY `FKi4pfhjov965143ai7s4abwtev` (`user2_id`),
+  KEY `idx_peers_user1_status` (`user1_id`,`status`),
+  KEY `idx_peers_user2_status` (`user2_id`,`status`),
+  KEY `idx_peers_pair_reverse` (`high_user_id`,`low_user_id`),
   CONSTRAINT `FKi4pfhjov965143ai7s4abwtev` FOREIGN KEY (`user2_id`) REFERENCES `users` (`id`),
   CONSTRAINT `FKky0r80jfnfy6u5qagndb3sqh3` FOREIGN KEY (`user1_id`) REFERENCES `users` (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Follow-up for databases created before the pair key. Schema update adds `low_user_id` and
+-- `high_user_id` as nullable columns and the application fills them in on start
+-- (PeerPairKeyBackfill). Once this returns 0:
+--
+--   SELECT COUNT(*) FROM `peers` WHERE `low_user_id` IS NULL OR `high_user_id` IS NULL;
+--
+-- make them NOT NULL:
+--
+--   ALTER TABLE `peers`
+--     MODIFY `low_user_id` binary(16) NOT NULL,
+--     MODIFY `high_user_id` binary(16) NOT NULL;
+--
+
 --
 -- Table structure for table `peers_seq`
 --
@@ -99,12 +119,16 @@ CREATE TABLE `users` (
   `email` varchar(255) NOT NULL,
   `first_name` varchar(255) NOT NULL,
   `institute` varchar(255) NOT NULL,
+  `institute_key` varchar(255) NOT NULL,
   `last_name` varchar(255) NOT NULL,
   `password` varchar(255) NOT NULL,
   `username` varchar(255) NOT NULL,
   PRIMARY KEY (`id`),
   UNIQUE KEY `UK6dotkott2kjsp8vw4d0m25fb7` (`email`),
-  UNIQUE KEY `UKr43af9ap4edm43mmtq01oddj6` (`username`)
+  UNIQUE KEY `UKr43af9ap4edm43mmtq01oddj6` (`username`),
+  KEY `idx_users_institute_key` (`institute_key`),
+  KEY `idx_users_first_name` (`first_name`),
+  KEY `idx_users_last_name` (`last_name`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 /*!40103 SET TIME_ZONE=@OLD_TIME_ZONE */;